@@ -3,12 +3,14 @@ package study.batch.common;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.io.Serializable;
+
 @Getter
 @Setter
 @ToString
 @Entity(name = "CUSTOMER")
 @Table(name="CUSTOMER")
-public class Customer {
+public class Customer implements Serializable {
     @Id
     @Column(name="ID")
     private  int id;
@@ -21,7 +23,18 @@ public class Customer {
     private Grade grade;
 
     public enum Grade {
-        S, A, B, C, D
+        S, A, B, C, D;
+
+        public static Grade of(int age) {
+            if (50 <= age) {
+                return A;
+            } else if (40 <= age) {
+                return B;
+            } else if (30 <= age) {
+                return C;
+            }
+            return D;
+        }
     }
 
     public void addOneAge() {
@@ -29,15 +42,7 @@ public class Customer {
     }
 
     public void assignGroup() {
-        if (50 <= age) {
-            grade = Grade.A;
-        } else if (40 <= age) {
-            grade = Grade.B;
-        } else if (30 <= age) {
-            grade = Grade.C;
-        } else {
-            grade = Grade.D;
-        }
+        grade = Grade.of(age);
     }
 
     public void nameToLowerCase() {
@@ -0,0 +1,48 @@
+package study.batch.common;
+
+import study.batch.support.columnar.ColumnarChunk;
+import study.batch.support.columnar.ColumnarSchema;
+
+/**
+ * Customer 를 ColumnarChunk 로 다루기 위한 schema 와 Customer 처리 로직의 컬럼 버전
+ * 각 메서드는 Customer 의 같은 이름 메서드와 결과가 같고, age 배열만 도는 loop 이다.
+ */
+public final class CustomerColumns {
+    public static final String ID = "id";
+    public static final String NAME = "name";
+    public static final String AGE = "age";
+    public static final String GRADE = "grade";
+
+    private CustomerColumns() {
+    }
+
+    public static ColumnarSchema<Customer> schema() {
+        return new ColumnarSchema<Customer>(Customer::new)
+                .intColumn(ID, Customer::getId, Customer::setId)
+                .stringColumn(NAME, Customer::getName, Customer::setName)
+                .intColumn(AGE, Customer::getAge, Customer::setAge)
+                .enumColumn(GRADE, Customer.Grade.class, Customer::getGrade, Customer::setGrade);
+    }
+
+    public static void assignGroup(ColumnarChunk chunk) {
+        int[] age = chunk.ints(AGE);
+        int[] grade = chunk.codes(GRADE);
+        for (int i = 0, size = chunk.size(); i < size; i++) {
+            grade[i] = Customer.Grade.of(age[i]).ordinal();
+        }
+    }
+
+    public static void addOneAge(ColumnarChunk chunk) {
+        int[] age = chunk.ints(AGE);
+        for (int i = 0, size = chunk.size(); i < size; i++) {
+            age[i]++;
+        }
+    }
+
+    public static void after20Years(ColumnarChunk chunk) {
+        int[] age = chunk.ints(AGE);
+        for (int i = 0, size = chunk.size(); i < size; i++) {
+            age[i] += 20;
+        }
+    }
+}
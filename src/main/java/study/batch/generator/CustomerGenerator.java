@@ -0,0 +1,60 @@
+package study.batch.generator;
+
+import study.batch.common.Customer;
+
+import java.util.SplittableRandom;
+
+/**
+ * seed 로부터 CUSTOMER row 를 만들어내는 생성기
+ * 같은 seed 와 시작 ID 로 만든 생성기는 항상 같은 row 를 만들기 때문에, 파티션을 나누거나 재시작해도 결과가 같다.
+ * - 나이 : 평균 40, 표준편차 13 의 정규분포 (18 ~ 90)
+ * - 등급 : S 5%, A 15%, B 30%, C 30%, D 20%
+ */
+public class CustomerGenerator {
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bob", "Charlie", "Daniel", "Emma", "Grace", "Henry", "Isabella", "Jack", "Julia",
+            "Liam", "Mia", "Noah", "Olivia", "Ryan", "Sophia", "Thomas", "Victoria", "William", "Zoe",
+            "Minjun", "Seoyeon", "Jiho", "Hayoon", "Dohyun", "Jiwoo", "Eunwoo", "Subin", "Yejun", "Chaewon"
+    };
+    private static final String[] LAST_NAMES = {
+            "Kim", "Lee", "Park", "Choi", "Jung", "Kang", "Cho", "Yoon", "Jang", "Lim",
+            "Smith", "Johnson", "Brown", "Garcia", "Miller", "Davis", "Wilson", "Moore", "Taylor", "Clark"
+    };
+    private static final String[] GENDERS = {"Male", "Female"};
+    private static final Customer.Grade[] GRADES = Customer.Grade.values();
+    private static final int[] GRADE_WEIGHTS = {5, 15, 30, 30, 20};
+
+    private final SplittableRandom random;
+
+    public record Row(int id, String name, int age, String gender, Customer.Grade grade) {
+    }
+
+    public CustomerGenerator(long seed, long startId) {
+        this.random = new SplittableRandom(mix(seed, startId));
+    }
+
+    public Row next(int id) {
+        String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        int age = (int) Math.round(40 + random.nextGaussian() * 13);
+        age = Math.max(18, Math.min(90, age));
+        return new Row(id, name, age, GENDERS[random.nextInt(GENDERS.length)], grade(random.nextInt(100)));
+    }
+
+    private Customer.Grade grade(int percent) {
+        int cumulative = 0;
+        for (int i = 0; i < GRADES.length; i++) {
+            cumulative += GRADE_WEIGHTS[i];
+            if (percent < cumulative) {
+                return GRADES[i];
+            }
+        }
+        return GRADES[GRADES.length - 1];
+    }
+
+    private static long mix(long seed, long startId) {
+        long z = seed * 0x9E3779B97F4A7C15L + startId;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,140 @@
+package study.batch.generator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 부하 테스트용 CUSTOMER 데이터를 생성하는 Job
+ * ID 구간을 gridSize 개로 나눈 파티션이 동시에 multi-row INSERT (또는 LOAD DATA) 로 데이터를 넣는다.
+ *
+ * --spring.batch.job.name=customerGeneratorJob rows=10000000 seed=42 startId=1
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(CustomerGeneratorProperties.class)
+public class CustomerGeneratorJobConfiguration {
+    private static final String CUSTOMER_GENERATOR_JOB = "customerGeneratorJob";
+    private static final String CUSTOMER_GENERATOR_STEP = "customerGeneratorStep";
+    private static final String CUSTOMER_GENERATOR_WORKER_STEP = "customerGeneratorWorkerStep";
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    CustomerGeneratorProperties properties;
+
+    @Bean
+    @JobScope
+    public CustomerRangePartitioner customerRangePartitioner(@Value("#{jobParameters['startId'] ?: '1'}") String startId,
+                                                             @Value("#{jobParameters['rows'] ?: '1000000'}") String rows) {
+        return new CustomerRangePartitioner(Long.parseLong(startId), Long.parseLong(rows));
+    }
+
+    @Bean
+    @StepScope
+    public CustomerGeneratorTasklet customerGeneratorTasklet(@Value("#{jobParameters['seed'] ?: '42'}") String seed,
+                                                             @Value("#{stepExecutionContext['minId']}") Long minId,
+                                                             @Value("#{stepExecutionContext['maxId']}") Long maxId) {
+        return new CustomerGeneratorTasklet(new JdbcTemplate(dataSource), properties, Long.parseLong(seed), minId, maxId);
+    }
+
+    @Bean
+    public Step customerGeneratorWorkerStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+        log.info("------------------ Init customerGeneratorWorkerStep -----------------");
+
+        return new StepBuilder(CUSTOMER_GENERATOR_WORKER_STEP, jobRepository)
+                .tasklet(customerGeneratorTasklet(null, null, null), transactionManager)
+                .build();
+    }
+
+    @Bean
+    public Step customerGeneratorStep(JobRepository jobRepository, Step customerGeneratorWorkerStep) {
+        log.info("------------------ Init customerGeneratorStep -----------------");
+
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("generator-");
+        taskExecutor.setConcurrencyLimit(properties.getGridSize());
+
+        return new StepBuilder(CUSTOMER_GENERATOR_STEP, jobRepository)
+                .partitioner(CUSTOMER_GENERATOR_WORKER_STEP, customerRangePartitioner(null, null))
+                .step(customerGeneratorWorkerStep)
+                .gridSize(properties.getGridSize())
+                .taskExecutor(taskExecutor)
+                .listener(new StepExecutionListener() {
+                    @Override
+                    public ExitStatus afterStep(StepExecution stepExecution) {
+                        Duration elapsed = Duration.between(stepExecution.getStartTime(), LocalDateTime.now());
+                        long rows = stepExecution.getWriteCount();
+                        log.info("Generated {} customers in {} ({} rows/sec)", rows, elapsed,
+                                rows * 1000 / Math.max(elapsed.toMillis(), 1));
+                        return null;
+                    }
+                })
+                .build();
+    }
+
+    @Bean
+    public Job customerGeneratorJob(Step customerGeneratorStep, JobRepository jobRepository) {
+        log.info("------------------ Init customerGeneratorJob -----------------");
+        return new JobBuilder(CUSTOMER_GENERATOR_JOB, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .listener(new JobExecutionListener() {
+                    @Override
+                    public void beforeJob(JobExecution jobExecution) {
+                        if (properties.isInitializeSchema()) {
+                            initializeSchema();
+                        }
+                    }
+                })
+                .start(customerGeneratorStep)
+                .build();
+    }
+
+    /**
+     * CUSTOMER 테이블이 없을 때만 생성한다. (MySQL 은 CREATE INDEX IF NOT EXISTS 가 없으므로 스크립트 전체를 한 번만 실행)
+     * ON UPDATE CURRENT_TIMESTAMP 는 MySQL 에서만 추가한다.
+     */
+    void initializeSchema() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        try {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM CUSTOMER WHERE 1 = 0", Integer.class);
+            return;
+        } catch (BadSqlGrammarException e) {
+            log.info("CUSTOMER table not found, creating it");
+        }
+
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("generator/schema-customer.sql"));
+        String productName = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if ("MySQL".equals(productName)) {
+            populator.addScript(new ClassPathResource("generator/schema-customer-mysql.sql"));
+        }
+        populator.execute(dataSource);
+    }
+}
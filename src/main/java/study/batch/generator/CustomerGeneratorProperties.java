@@ -0,0 +1,47 @@
+package study.batch.generator;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * CUSTOMER 테스트 데이터 생성 Job 설정 (batch.generator.*)
+ * 생성 건수 / seed 는 Job 파라미터(rows, seed, startId)로 받는다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "batch.generator")
+public class CustomerGeneratorProperties {
+    public enum Mode {
+        /**
+         * 여러 row 를 한 번에 넣는 INSERT ... VALUES (...), (...) (H2 / MySQL 공통)
+         */
+        INSERT,
+        /**
+         * 메모리에서 만든 TSV 를 LOAD DATA LOCAL INFILE 로 밀어넣는다. (MySQL, allowLoadLocalInfile=true 필요)
+         */
+        LOAD_DATA
+    }
+
+    private Mode mode = Mode.INSERT;
+
+    /**
+     * 동시에 실행할 파티션 수
+     */
+    private int gridSize = 4;
+
+    /**
+     * INSERT 문 하나에 넣을 row 수
+     */
+    private int rowsPerStatement = 1000;
+
+    /**
+     * 트랜잭션 하나에서 넣을 row 수
+     */
+    private int rowsPerTransaction = 10_000;
+
+    /**
+     * 시작 시 CUSTOMER 테이블 생성 여부
+     */
+    private boolean initializeSchema = false;
+}
@@ -0,0 +1,126 @@
+package study.batch.generator;
+
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCallback;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 파티션 하나의 ID 구간 [minId, maxId) 를 생성해서 CUSTOMER 에 넣는 Tasklet
+ * 한 번 실행될 때마다 rowsPerTransaction 건을 하나의 트랜잭션으로 넣고, 다음 ID 를 ExecutionContext 에 남겨 재시작 시 이어서 넣는다.
+ */
+public class CustomerGeneratorTasklet implements Tasklet {
+    private static final String NEXT_ID = "generator.next.id";
+    private static final String COLUMNS = "(ID, NAME, AGE, GENDER, GRADE)";
+    private static final String LOAD_DATA_SQL = "LOAD DATA LOCAL INFILE 'customer.tsv' INTO TABLE CUSTOMER "
+            + "FIELDS TERMINATED BY '\\t' LINES TERMINATED BY '\\n' " + COLUMNS;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CustomerGeneratorProperties properties;
+    private final long seed;
+    private final long minId;
+    private final long maxId;
+
+    private final Map<Integer, String> insertSql = new ConcurrentHashMap<>();
+
+    public CustomerGeneratorTasklet(JdbcTemplate jdbcTemplate, CustomerGeneratorProperties properties,
+                                    long seed, long minId, long maxId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.seed = seed;
+        this.minId = minId;
+        this.maxId = maxId;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        ExecutionContext executionContext = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+        long from = executionContext.getLong(NEXT_ID, minId);
+        long to = Math.min(maxId, from + properties.getRowsPerTransaction());
+
+        CustomerGenerator generator = new CustomerGenerator(seed, from);
+        List<CustomerGenerator.Row> rows = new ArrayList<>((int) (to - from));
+        for (long id = from; id < to; id++) {
+            rows.add(generator.next(Math.toIntExact(id)));
+        }
+
+        if (properties.getMode() == CustomerGeneratorProperties.Mode.LOAD_DATA) {
+            loadData(rows);
+        } else {
+            insert(rows);
+        }
+
+        contribution.incrementWriteCount(rows.size());
+        executionContext.putLong(NEXT_ID, to);
+        return RepeatStatus.continueIf(to < maxId);
+    }
+
+    private void insert(List<CustomerGenerator.Row> rows) {
+        int rowsPerStatement = properties.getRowsPerStatement();
+        for (int start = 0; start < rows.size(); start += rowsPerStatement) {
+            List<CustomerGenerator.Row> group = rows.subList(start, Math.min(rows.size(), start + rowsPerStatement));
+            jdbcTemplate.update(insertSql.computeIfAbsent(group.size(), this::insertSql), ps -> {
+                int index = 1;
+                for (CustomerGenerator.Row row : group) {
+                    ps.setInt(index++, row.id());
+                    ps.setString(index++, row.name());
+                    ps.setInt(index++, row.age());
+                    ps.setString(index++, row.gender());
+                    ps.setString(index++, row.grade().name());
+                }
+            });
+        }
+    }
+
+    private String insertSql(int rowCount) {
+        StringBuilder sql = new StringBuilder("INSERT INTO CUSTOMER ").append(COLUMNS).append(" VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+        }
+        return sql.toString();
+    }
+
+    private void loadData(List<CustomerGenerator.Row> rows) {
+        StringBuilder tsv = new StringBuilder(rows.size() * 32);
+        for (CustomerGenerator.Row row : rows) {
+            tsv.append(row.id()).append('\t')
+                    .append(row.name()).append('\t')
+                    .append(row.age()).append('\t')
+                    .append(row.gender()).append('\t')
+                    .append(row.grade().name()).append('\n');
+        }
+        InputStream input = new ByteArrayInputStream(tsv.toString().getBytes(StandardCharsets.UTF_8));
+        jdbcTemplate.execute((StatementCallback<Integer>) statement -> {
+            setLocalInfileInputStream(statement, input);
+            return statement.executeUpdate(LOAD_DATA_SQL);
+        });
+    }
+
+    /**
+     * MySQL 드라이버는 runtime 의존성이므로 com.mysql.cj.jdbc.JdbcStatement 를 reflection 으로 사용한다.
+     */
+    private void setLocalInfileInputStream(Statement statement, InputStream input) {
+        try {
+            Class<?> mysqlStatementType = Class.forName("com.mysql.cj.jdbc.JdbcStatement");
+            Object mysqlStatement = statement.unwrap(mysqlStatementType);
+            Method method = mysqlStatementType.getMethod("setLocalInfileInputStream", InputStream.class);
+            method.invoke(mysqlStatement, input);
+        } catch (ReflectiveOperationException | SQLException e) {
+            throw new IllegalStateException("LOAD_DATA mode requires the MySQL driver (allowLoadLocalInfile=true)", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package study.batch.generator;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * [startId, startId + rows) 구간을 gridSize 개의 연속된 ID 구간으로 나눈다.
+ */
+public class CustomerRangePartitioner implements Partitioner {
+    public static final String MIN_ID = "minId";
+    public static final String MAX_ID = "maxId";
+
+    private final long startId;
+    private final long rows;
+
+    public CustomerRangePartitioner(long startId, long rows) {
+        this.startId = startId;
+        this.rows = rows;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        long size = (rows + gridSize - 1) / gridSize;
+        for (int i = 0; i < gridSize; i++) {
+            long min = startId + i * size;
+            long max = Math.min(startId + rows, min + size);
+            if (min >= max) {
+                break;
+            }
+            ExecutionContext context = new ExecutionContext();
+            context.putLong(MIN_ID, min);
+            context.putLong(MAX_ID, max);
+            partitions.put("partition" + i, context);
+        }
+        return partitions;
+    }
+}
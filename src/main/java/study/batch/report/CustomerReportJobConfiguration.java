@@ -0,0 +1,223 @@
+package study.batch.report;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean;
+import org.springframework.batch.item.file.FlatFileItemWriter;
+import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.batch.common.Customer;
+import study.batch.generator.CustomerRangePartitioner;
+import study.batch.support.aggregate.AggregateRow;
+import study.batch.support.aggregate.GroupAggregationStepBuilder;
+import study.batch.support.aggregate.GroupAggregationTasklet;
+import study.batch.support.aggregate.GroupAggregator;
+import study.batch.support.aggregate.GroupAggregatorBuilder;
+import study.batch.support.aggregate.PartialAggregateMerger;
+import study.batch.support.datasource.ReadDataSource;
+import study.batch.support.datasource.ReadDataSourceProperties;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * CUSTOMER 를 한 번만 읽어서 group by 집계 리포트를 만드는 Job
+ * - customerGradeReportJob : 등급별 고객 수 / 나이 합계 / 최소 / 최대 (enum key 라 배열로 집계)
+ * - customerAgeBandReportJob : ID 구간 파티션마다 나이대별 부분 집계를 만들고 manager 에서 합친다.
+ */
+@Slf4j
+@Configuration
+public class CustomerReportJobConfiguration {
+    private static final String CUSTOMER_GRADE_REPORT_JOB = "customerGradeReportJob";
+    private static final String CUSTOMER_GRADE_REPORT_STEP = "customerGradeReportStep";
+    private static final String CUSTOMER_AGE_BAND_REPORT_JOB = "customerAgeBandReportJob";
+    private static final String CUSTOMER_AGE_BAND_REPORT_STEP = "customerAgeBandReportStep";
+    private static final String CUSTOMER_AGE_BAND_REPORT_WORKER_STEP = "customerAgeBandReportWorkerStep";
+    private static final int CHUNK_SIZE = 1000;
+    private static final int GRID_SIZE = 4;
+    private static final String HEADER = "KEY,COUNT,SUM_AGE,MIN_AGE,MAX_AGE,AVG_AGE";
+
+    @Autowired
+    @ReadDataSource
+    DataSource readDataSource;
+
+    @Autowired
+    ReadDataSourceProperties readDataSourceProperties;
+
+    @Bean
+    @StepScope
+    public JdbcPagingItemReader<Customer> customerReportReader(@Value("#{stepExecutionContext['minId']}") Long minId,
+                                                               @Value("#{stepExecutionContext['maxId']}") Long maxId) throws Exception {
+        SqlPagingQueryProviderFactoryBean queryProvider = new SqlPagingQueryProviderFactoryBean();
+        queryProvider.setDataSource(readDataSource);
+        queryProvider.setSelectClause("ID, NAME, AGE, GRADE");
+        queryProvider.setFromClause("from CUSTOMER");
+        queryProvider.setSortKeys(Map.of("id", Order.ASCENDING));
+
+        Map<String, Object> parameterValues = new HashMap<>();
+        if (minId != null && maxId != null) {
+            queryProvider.setWhereClause("where ID >= :minId and ID < :maxId");
+            parameterValues.put("minId", minId);
+            parameterValues.put("maxId", maxId);
+        }
+
+        return new JdbcPagingItemReaderBuilder<Customer>()
+                .name("customerReportReader")
+                .dataSource(readDataSource)
+                .fetchSize(readDataSourceProperties.getFetchSize())
+                .pageSize(CHUNK_SIZE)
+                .rowMapper(new BeanPropertyRowMapper<>(Customer.class))
+                .queryProvider(queryProvider.getObject())
+                .parameterValues(parameterValues)
+                .build();
+    }
+
+    @Bean
+    public GroupAggregator<Customer, Customer.Grade> customerGradeAggregator() {
+        return new GroupAggregatorBuilder<Customer, Customer.Grade>()
+                .groupBy(Customer::getGrade, Customer.Grade.class)
+                .count("count")
+                .sum("sumAge", Customer::getAge)
+                .min("minAge", Customer::getAge)
+                .max("maxAge", Customer::getAge)
+                .build();
+    }
+
+    /**
+     * 나이대(10 살 단위) key. 그룹 수가 적지만 key 공간이 정해져 있지 않으므로 hash 테이블로 집계한다.
+     */
+    @Bean
+    public GroupAggregator<Customer, Integer> customerAgeBandAggregator() {
+        return new GroupAggregatorBuilder<Customer, Integer>()
+                .groupBy(customer -> customer.getAge() / 10 * 10)
+                .count("count")
+                .sum("sumAge", Customer::getAge)
+                .min("minAge", Customer::getAge)
+                .max("maxAge", Customer::getAge)
+                .spillDirectory(Path.of("./output/report/spill"))
+                .build();
+    }
+
+    @Bean
+    public FlatFileItemWriter<AggregateRow<Customer.Grade>> customerGradeReportWriter() {
+        return reportWriter("customerGradeReportWriter", "./output/report/customer_grade.csv");
+    }
+
+    @Bean
+    public FlatFileItemWriter<AggregateRow<Integer>> customerAgeBandReportWriter() {
+        return reportWriter("customerAgeBandReportWriter", "./output/report/customer_age_band.csv");
+    }
+
+    @Bean
+    public Step customerGradeReportStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) throws Exception {
+        log.info("------------------ Init customerGradeReportStep -----------------");
+        return new GroupAggregationStepBuilder<Customer, Customer.Grade>(CUSTOMER_GRADE_REPORT_STEP, jobRepository)
+                .transactionManager(transactionManager)
+                .reader(customerReportReader(null, null))
+                .aggregator(customerGradeAggregator())
+                .writer(customerGradeReportWriter())
+                .chunkSize(CHUNK_SIZE)
+                .build();
+    }
+
+    @Bean
+    public Job customerGradeReportJob(Step customerGradeReportStep, JobRepository jobRepository) {
+        log.info("------------------ Init customerGradeReportJob -----------------");
+        return new JobBuilder(CUSTOMER_GRADE_REPORT_JOB, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(customerGradeReportStep)
+                .build();
+    }
+
+    /**
+     * 실행 시점의 CUSTOMER ID 범위를 GRID_SIZE 개로 나눈다.
+     */
+    @Bean
+    public Partitioner customerReportPartitioner() {
+        return gridSize -> {
+            Map<String, Object> range = new JdbcTemplate(readDataSource).queryForMap("SELECT MIN(ID) AS MIN_ID, MAX(ID) AS MAX_ID FROM CUSTOMER");
+            Number min = (Number) range.get("MIN_ID");
+            Number max = (Number) range.get("MAX_ID");
+            if (min == null || max == null) {
+                return new CustomerRangePartitioner(0, 0).partition(gridSize);
+            }
+            return new CustomerRangePartitioner(min.longValue(), max.longValue() - min.longValue() + 1).partition(gridSize);
+        };
+    }
+
+    @Bean
+    @StepScope
+    public GroupAggregationTasklet<Customer, Integer> customerAgeBandReportTasklet() throws Exception {
+        return new GroupAggregationTasklet<>(CUSTOMER_AGE_BAND_REPORT_WORKER_STEP, customerReportReader(null, null),
+                customerAgeBandAggregator(), CHUNK_SIZE);
+    }
+
+    @Bean
+    public Step customerAgeBandReportWorkerStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) throws Exception {
+        log.info("------------------ Init customerAgeBandReportWorkerStep -----------------");
+        return new StepBuilder(CUSTOMER_AGE_BAND_REPORT_WORKER_STEP, jobRepository)
+                .tasklet(customerAgeBandReportTasklet(), transactionManager)
+                .stream(customerAgeBandReportTasklet())
+                .build();
+    }
+
+    @Bean
+    public Step customerAgeBandReportStep(JobRepository jobRepository, JobExplorer jobExplorer, PlatformTransactionManager transactionManager,
+                                          Step customerAgeBandReportWorkerStep) {
+        log.info("------------------ Init customerAgeBandReportStep -----------------");
+
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("report-");
+        taskExecutor.setConcurrencyLimit(GRID_SIZE);
+
+        return new StepBuilder(CUSTOMER_AGE_BAND_REPORT_STEP, jobRepository)
+                .partitioner(CUSTOMER_AGE_BAND_REPORT_WORKER_STEP, customerReportPartitioner())
+                .step(customerAgeBandReportWorkerStep)
+                .gridSize(GRID_SIZE)
+                .taskExecutor(taskExecutor)
+                .aggregator(new PartialAggregateMerger<>(CUSTOMER_AGE_BAND_REPORT_WORKER_STEP, customerAgeBandAggregator(),
+                        customerAgeBandReportWriter(), jobExplorer, transactionManager, CHUNK_SIZE))
+                .build();
+    }
+
+    @Bean
+    public Job customerAgeBandReportJob(Step customerAgeBandReportStep, JobRepository jobRepository) {
+        log.info("------------------ Init customerAgeBandReportJob -----------------");
+        return new JobBuilder(CUSTOMER_AGE_BAND_REPORT_JOB, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(customerAgeBandReportStep)
+                .build();
+    }
+
+    private <K> FlatFileItemWriter<AggregateRow<K>> reportWriter(String name, String path) {
+        return new FlatFileItemWriterBuilder<AggregateRow<K>>()
+                .name(name)
+                .resource(new FileSystemResource(path))
+                .encoding("UTF-8")
+                .append(false)
+                .headerCallback(writer -> writer.write(HEADER))
+                .lineAggregator(row -> row.key() + "," + row.get("count") + "," + row.get("sumAge") + ","
+                        + row.get("minAge") + "," + row.get("maxAge") + "," + (double) row.get("sumAge") / row.rows())
+                .build();
+    }
+}
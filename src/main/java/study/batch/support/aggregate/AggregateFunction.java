@@ -0,0 +1,40 @@
+package study.batch.support.aggregate;
+
+/**
+ * 그룹별로 누적할 수 있는 집계 함수
+ * - accumulate : 아이템 값 하나를 누적한다.
+ * - merge : 다른 파티션에서 만든 부분 집계를 합친다.
+ */
+public enum AggregateFunction {
+    COUNT(0),
+    SUM(0),
+    MIN(Long.MAX_VALUE),
+    MAX(Long.MIN_VALUE);
+
+    private final long initial;
+
+    AggregateFunction(long initial) {
+        this.initial = initial;
+    }
+
+    public long initial() {
+        return initial;
+    }
+
+    public long accumulate(long accumulator, long value) {
+        return switch (this) {
+            case COUNT -> accumulator + 1;
+            case SUM -> accumulator + value;
+            case MIN -> Math.min(accumulator, value);
+            case MAX -> Math.max(accumulator, value);
+        };
+    }
+
+    public long merge(long accumulator, long partial) {
+        return switch (this) {
+            case COUNT, SUM -> accumulator + partial;
+            case MIN -> Math.min(accumulator, partial);
+            case MAX -> Math.max(accumulator, partial);
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package study.batch.support.aggregate;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 그룹 하나의 집계 결과. values 는 집계 이름 순서를 유지한다.
+ *
+ * @param rows 그룹에 속한 아이템 수
+ */
+public record AggregateRow<K>(K key, long rows, Map<String, Long> values) implements Serializable {
+
+    public long get(String name) {
+        Long value = values.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Unknown aggregate " + name);
+        }
+        return value;
+    }
+}
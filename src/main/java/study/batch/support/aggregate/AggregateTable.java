@@ -0,0 +1,29 @@
+package study.batch.support.aggregate;
+
+import java.util.Iterator;
+
+/**
+ * 한 번의 집계(Step 실행 한 번)가 사용하는 그룹별 누적 상태
+ */
+public interface AggregateTable<T, K> extends AutoCloseable {
+
+    void add(T item);
+
+    /**
+     * 다른 Step(파티션)에서 만든 부분 집계를 합친다.
+     */
+    void merge(AggregateRow<K> partial);
+
+    /**
+     * 메모리가 모자라 임시 파일로 내려쓴 적이 있는지
+     */
+    boolean isSpilled();
+
+    /**
+     * 집계 결과. spill 되지 않았다면 여러 번 호출해도 같은 순서로 돌려준다.
+     */
+    Iterator<AggregateRow<K>> rows();
+
+    @Override
+    void close();
+}
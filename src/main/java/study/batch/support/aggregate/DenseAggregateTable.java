@@ -0,0 +1,81 @@
+package study.batch.support.aggregate;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * enum key 의 ordinal 을 index 로 쓰는 long[] 기반 집계 테이블
+ * key 공간이 작으므로 hash / boxing 없이 배열 하나에 모든 그룹을 누적한다. null key 는 마지막 칸을 사용한다.
+ */
+class DenseAggregateTable<T, K extends Enum<K>> implements AggregateTable<T, K> {
+    private final GroupAggregator<T, K> aggregator;
+    private final Function<? super T, ? extends K> keyExtractor;
+    private final K[] keys;
+    private final int width;
+    private final long[] accumulators;
+
+    DenseAggregateTable(GroupAggregator<T, K> aggregator, Function<? super T, ? extends K> keyExtractor, K[] keys) {
+        this.aggregator = aggregator;
+        this.keyExtractor = keyExtractor;
+        this.keys = keys;
+        this.width = aggregator.width();
+        this.accumulators = new long[(keys.length + 1) * width];
+        for (int slot = 0; slot <= keys.length; slot++) {
+            aggregator.initialize(accumulators, slot * width);
+        }
+    }
+
+    @Override
+    public void add(T item) {
+        aggregator.accumulate(accumulators, slot(keyExtractor.apply(item)) * width, item);
+    }
+
+    @Override
+    public void merge(AggregateRow<K> partial) {
+        aggregator.merge(accumulators, slot(partial.key()) * width, partial);
+    }
+
+    @Override
+    public boolean isSpilled() {
+        return false;
+    }
+
+    @Override
+    public Iterator<AggregateRow<K>> rows() {
+        return new Iterator<>() {
+            private int slot = nextSlot(0);
+
+            @Override
+            public boolean hasNext() {
+                return slot <= keys.length;
+            }
+
+            @Override
+            public AggregateRow<K> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                AggregateRow<K> row = aggregator.toRow(slot < keys.length ? keys[slot] : null, accumulators, slot * width);
+                slot = nextSlot(slot + 1);
+                return row;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private int nextSlot(int from) {
+        int slot = from;
+        while (slot <= keys.length && accumulators[slot * width] == 0) {
+            slot++;
+        }
+        return slot;
+    }
+
+    private int slot(K key) {
+        return key == null ? keys.length : key.ordinal();
+    }
+}
@@ -0,0 +1,79 @@
+package study.batch.support.aggregate;
+
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.builder.TaskletStepBuilder;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * GroupAggregationTasklet 으로 group by 집계 결과를 쓰는 Step 을 만드는 Builder
+ * 파티션 worker 는 Step scope 의 GroupAggregationTasklet 을 직접 등록하고 manager 에 PartialAggregateMerger 를 사용한다.
+ */
+public class GroupAggregationStepBuilder<T, K> {
+    private final String name;
+    private final JobRepository jobRepository;
+
+    private PlatformTransactionManager transactionManager;
+    private ItemReader<? extends T> reader;
+    private GroupAggregator<T, K> aggregator;
+    private ItemWriter<? super AggregateRow<K>> writer;
+    private int chunkSize = 1000;
+
+    public GroupAggregationStepBuilder(String name, JobRepository jobRepository) {
+        this.name = name;
+        this.jobRepository = jobRepository;
+    }
+
+    public GroupAggregationStepBuilder<T, K> transactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+        return this;
+    }
+
+    public GroupAggregationStepBuilder<T, K> reader(ItemReader<? extends T> reader) {
+        this.reader = reader;
+        return this;
+    }
+
+    public GroupAggregationStepBuilder<T, K> aggregator(GroupAggregator<T, K> aggregator) {
+        this.aggregator = aggregator;
+        return this;
+    }
+
+    public GroupAggregationStepBuilder<T, K> writer(ItemWriter<? super AggregateRow<K>> writer) {
+        this.writer = writer;
+        return this;
+    }
+
+    public GroupAggregationStepBuilder<T, K> chunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public Step build() {
+        if (this.transactionManager == null) {
+            throw new IllegalArgumentException("PlatformTransactionManager can not be null.!");
+        }
+        if (this.reader == null) {
+            throw new IllegalArgumentException("ItemReader can not be null.!");
+        }
+        if (this.aggregator == null) {
+            throw new IllegalArgumentException("GroupAggregator can not be null.!");
+        }
+        if (this.writer == null) {
+            throw new IllegalArgumentException("ItemWriter can not be null.!");
+        }
+
+        GroupAggregationTasklet<T, K> tasklet = new GroupAggregationTasklet<>(name, reader, aggregator, writer, chunkSize);
+        TaskletStepBuilder stepBuilder = new StepBuilder(name, jobRepository)
+                .tasklet(tasklet, transactionManager)
+                .stream(tasklet);
+        if (writer instanceof ItemStream stream) {
+            stepBuilder.stream(stream);
+        }
+        return stepBuilder.build();
+    }
+}
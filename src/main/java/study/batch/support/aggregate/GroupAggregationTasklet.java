@@ -0,0 +1,169 @@
+package study.batch.support.aggregate;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reader 를 한 번만 읽으면서 GroupAggregator 로 집계하고, 결과 row 를 Writer 로 내보내는 Tasklet
+ * - 호출 한 번에 chunkSize 건을 읽어 누적하고, 다 읽으면 결과를 chunkSize 건씩 Writer 에 쓴다.
+ * - Writer 없이 만들면 결과를 "{name}.partials" 로 Step ExecutionContext 에 남긴다.
+ *   파티션 worker 에서 이렇게 남긴 부분 집계는 manager Step 의 PartialAggregateMerger 가 합쳐서 쓴다.
+ * - spill 전까지는 누적 상태를 Reader 상태와 함께 ExecutionContext 에 남기므로 마지막 commit 지점부터 재시작한다.
+ *   spill 된 뒤에 실패하면 재시작 시 처음부터 다시 집계한다.
+ * - 실행마다 상태를 가지므로 파티션 worker 에서는 @StepScope 로 만든다.
+ */
+@Slf4j
+public class GroupAggregationTasklet<T, K> implements Tasklet, ItemStream {
+    public static final String PARTIALS = "partials";
+
+    private static final String ROWS = "rows";
+    private static final String READ_COMPLETE = "read.complete";
+    private static final String EMITTED = "emitted";
+    private static final String RESTARTABLE = "restartable";
+
+    private final String name;
+    private final ItemReader<? extends T> reader;
+    private final GroupAggregator<T, K> aggregator;
+    private final ItemWriter<? super AggregateRow<K>> writer;
+    private final int chunkSize;
+
+    private AggregateTable<T, K> table;
+    private boolean readComplete;
+    private long emitted;
+    private Iterator<AggregateRow<K>> results;
+
+    public GroupAggregationTasklet(String name, ItemReader<? extends T> reader, GroupAggregator<T, K> aggregator,
+                                   ItemWriter<? super AggregateRow<K>> writer, int chunkSize) {
+        this.name = name;
+        this.reader = reader;
+        this.aggregator = aggregator;
+        this.writer = writer;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 부분 집계만 ExecutionContext 에 남기는 파티션 worker 용 Tasklet
+     */
+    public GroupAggregationTasklet(String name, ItemReader<? extends T> reader, GroupAggregator<T, K> aggregator, int chunkSize) {
+        this(name, reader, aggregator, null, chunkSize);
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        if (!readComplete) {
+            for (int i = 0; i < chunkSize; i++) {
+                T item = reader.read();
+                if (item == null) {
+                    readComplete = true;
+                    break;
+                }
+                contribution.incrementReadCount();
+                table.add(item);
+            }
+            return RepeatStatus.CONTINUABLE;
+        }
+
+        if (writer == null) {
+            ArrayList<AggregateRow<K>> partials = new ArrayList<>();
+            table.rows().forEachRemaining(partials::add);
+            chunkContext.getStepContext().getStepExecution().getExecutionContext().put(partialsKey(name), partials);
+            return RepeatStatus.FINISHED;
+        }
+
+        if (results == null) {
+            results = table.rows();
+            for (long i = 0; i < emitted && results.hasNext(); i++) {
+                results.next();
+            }
+        }
+        Chunk<AggregateRow<K>> chunk = new Chunk<>();
+        while (chunk.size() < chunkSize && results.hasNext()) {
+            chunk.add(results.next());
+        }
+        if (!chunk.isEmpty()) {
+            writer.write(chunk);
+            emitted += chunk.size();
+            contribution.incrementWriteCount(chunk.size());
+        }
+        return results.hasNext() ? RepeatStatus.CONTINUABLE : RepeatStatus.FINISHED;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        table = aggregator.newTable();
+        readComplete = false;
+        emitted = 0;
+        results = null;
+
+        if (executionContext.containsKey(key(RESTARTABLE)) && !executionContext.getString(key(RESTARTABLE)).equals("true")) {
+            log.info("{} restarts from the beginning because its groups were spilled", name);
+            openReader(new ExecutionContext());
+            return;
+        }
+        if (executionContext.containsKey(key(ROWS))) {
+            ((List<AggregateRow<K>>) executionContext.get(key(ROWS))).forEach(table::merge);
+            readComplete = executionContext.getString(key(READ_COMPLETE)).equals("true");
+            emitted = executionContext.getLong(key(EMITTED));
+        }
+        openReader(executionContext);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        if (table.isSpilled()) {
+            executionContext.putString(key(RESTARTABLE), "false");
+            executionContext.remove(key(ROWS));
+            return;
+        }
+
+        ArrayList<AggregateRow<K>> rows = new ArrayList<>();
+        table.rows().forEachRemaining(rows::add);
+        executionContext.putString(key(RESTARTABLE), "true");
+        executionContext.put(key(ROWS), rows);
+        executionContext.putString(key(READ_COMPLETE), String.valueOf(readComplete));
+        executionContext.putLong(key(EMITTED), emitted);
+        if (reader instanceof ItemStream stream) {
+            stream.update(executionContext);
+        }
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (table != null) {
+            table.close();
+            table = null;
+        }
+        results = null;
+        if (reader instanceof ItemStream stream) {
+            stream.close();
+        }
+    }
+
+    static String partialsKey(String name) {
+        return name + "." + PARTIALS;
+    }
+
+    private void openReader(ExecutionContext executionContext) {
+        if (reader instanceof ItemStream stream) {
+            stream.open(executionContext);
+        }
+    }
+
+    private String key(String suffix) {
+        return name + "." + suffix;
+    }
+}
@@ -0,0 +1,93 @@
+package study.batch.support.aggregate;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * group by key 와 집계 함수 목록을 선언한 집계 정의. 실제 누적 상태는 newTable() 이 만드는 AggregateTable 이 가진다.
+ * - enum key 는 ordinal 을 index 로 쓰는 long[] 테이블(DenseAggregateTable)을 사용한다.
+ * - 그 외 key 는 hash 테이블을 쓰고, 그룹이 많으면 임시 파일로 spill 한다. (HashAggregateTable)
+ * - 그룹마다 long[] 하나에 [아이템 수, 집계1, 집계2, ...] 순으로 누적한다.
+ *
+ * new GroupAggregatorBuilder<Customer, Customer.Grade>()
+ *         .groupBy(Customer::getGrade, Customer.Grade.class)
+ *         .count("count")
+ *         .sum("sumAge", Customer::getAge)
+ *         .min("minAge", Customer::getAge)
+ *         .max("maxAge", Customer::getAge)
+ *         .build();
+ */
+public class GroupAggregator<T, K> {
+    record Aggregate<T>(String name, AggregateFunction function, ToLongFunction<? super T> value) {
+    }
+
+    private final Function<? super T, ? extends K> keyExtractor;
+    private final Class<?> enumKeyType;
+    private final List<Aggregate<T>> aggregates;
+    private final int maxGroupsInMemory;
+    private final Path spillDirectory;
+
+    GroupAggregator(Function<? super T, ? extends K> keyExtractor, Class<?> enumKeyType, List<Aggregate<T>> aggregates,
+                    int maxGroupsInMemory, Path spillDirectory) {
+        this.keyExtractor = keyExtractor;
+        this.enumKeyType = enumKeyType;
+        this.aggregates = aggregates;
+        this.maxGroupsInMemory = maxGroupsInMemory;
+        this.spillDirectory = spillDirectory;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public AggregateTable<T, K> newTable() {
+        if (enumKeyType != null) {
+            return new DenseAggregateTable(this, keyExtractor, (Enum[]) enumKeyType.getEnumConstants());
+        }
+        return new HashAggregateTable<>(this, keyExtractor, maxGroupsInMemory, spillDirectory);
+    }
+
+    int width() {
+        return aggregates.size() + 1;
+    }
+
+    void initialize(long[] accumulators, int offset) {
+        accumulators[offset] = 0;
+        for (int i = 0; i < aggregates.size(); i++) {
+            accumulators[offset + i + 1] = aggregates.get(i).function().initial();
+        }
+    }
+
+    void accumulate(long[] accumulators, int offset, T item) {
+        accumulators[offset]++;
+        for (int i = 0; i < aggregates.size(); i++) {
+            Aggregate<T> aggregate = aggregates.get(i);
+            long value = aggregate.function() == AggregateFunction.COUNT ? 0 : aggregate.value().applyAsLong(item);
+            accumulators[offset + i + 1] = aggregate.function().accumulate(accumulators[offset + i + 1], value);
+        }
+    }
+
+    void merge(long[] accumulators, int offset, AggregateRow<K> partial) {
+        accumulators[offset] += partial.rows();
+        for (int i = 0; i < aggregates.size(); i++) {
+            Aggregate<T> aggregate = aggregates.get(i);
+            accumulators[offset + i + 1] = aggregate.function().merge(accumulators[offset + i + 1], partial.get(aggregate.name()));
+        }
+    }
+
+    void merge(long[] accumulators, int offset, long[] partial, int partialOffset) {
+        accumulators[offset] += partial[partialOffset];
+        for (int i = 0; i < aggregates.size(); i++) {
+            accumulators[offset + i + 1] = aggregates.get(i).function().merge(accumulators[offset + i + 1], partial[partialOffset + i + 1]);
+        }
+    }
+
+    AggregateRow<K> toRow(K key, long[] accumulators, int offset) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (int i = 0; i < aggregates.size(); i++) {
+            values.put(aggregates.get(i).name(), accumulators[offset + i + 1]);
+        }
+        return new AggregateRow<>(key, accumulators[offset], values);
+    }
+}
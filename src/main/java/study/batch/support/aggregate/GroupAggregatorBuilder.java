@@ -0,0 +1,84 @@
+package study.batch.support.aggregate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+public class GroupAggregatorBuilder<T, K> {
+    private final List<GroupAggregator.Aggregate<T>> aggregates = new ArrayList<>();
+
+    private Function<? super T, ? extends K> keyExtractor;
+    private Class<?> enumKeyType;
+    private int maxGroupsInMemory = 100_000;
+    private Path spillDirectory = Path.of(System.getProperty("java.io.tmpdir"));
+
+    /**
+     * 임의의 key 로 묶는다. (ex. 나이대 customer -> customer.getAge() / 10 * 10)
+     */
+    public GroupAggregatorBuilder<T, K> groupBy(Function<? super T, ? extends K> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+        this.enumKeyType = null;
+        return this;
+    }
+
+    /**
+     * enum key 로 묶는다. ordinal 을 index 로 쓰는 배열에 누적한다.
+     */
+    public <E extends Enum<E>> GroupAggregatorBuilder<T, K> groupBy(Function<? super T, ? extends K> keyExtractor, Class<E> enumKeyType) {
+        this.keyExtractor = keyExtractor;
+        this.enumKeyType = enumKeyType;
+        return this;
+    }
+
+    public GroupAggregatorBuilder<T, K> count(String name) {
+        return aggregate(name, AggregateFunction.COUNT, item -> 0);
+    }
+
+    public GroupAggregatorBuilder<T, K> sum(String name, ToLongFunction<? super T> value) {
+        return aggregate(name, AggregateFunction.SUM, value);
+    }
+
+    public GroupAggregatorBuilder<T, K> min(String name, ToLongFunction<? super T> value) {
+        return aggregate(name, AggregateFunction.MIN, value);
+    }
+
+    public GroupAggregatorBuilder<T, K> max(String name, ToLongFunction<? super T> value) {
+        return aggregate(name, AggregateFunction.MAX, value);
+    }
+
+    public GroupAggregatorBuilder<T, K> aggregate(String name, AggregateFunction function, ToLongFunction<? super T> value) {
+        if (aggregates.stream().anyMatch(aggregate -> aggregate.name().equals(name))) {
+            throw new IllegalArgumentException("Aggregate " + name + " is already registered.!");
+        }
+        aggregates.add(new GroupAggregator.Aggregate<>(name, function, value));
+        return this;
+    }
+
+    /**
+     * hash 테이블이 메모리에 유지할 최대 그룹 수. 넘으면 spillDirectory 로 내려쓴다.
+     */
+    public GroupAggregatorBuilder<T, K> maxGroupsInMemory(int maxGroupsInMemory) {
+        this.maxGroupsInMemory = maxGroupsInMemory;
+        return this;
+    }
+
+    public GroupAggregatorBuilder<T, K> spillDirectory(Path spillDirectory) {
+        this.spillDirectory = spillDirectory;
+        return this;
+    }
+
+    public GroupAggregator<T, K> build() {
+        if (this.keyExtractor == null) {
+            throw new IllegalArgumentException("groupBy can not be null.!");
+        }
+        if (this.aggregates.isEmpty()) {
+            throw new IllegalArgumentException("aggregates can not be empty.!");
+        }
+        if (this.maxGroupsInMemory < 1) {
+            throw new IllegalArgumentException("maxGroupsInMemory must be positive.!");
+        }
+        return new GroupAggregator<>(keyExtractor, enumKeyType, List.copyOf(aggregates), maxGroupsInMemory, spillDirectory);
+    }
+}
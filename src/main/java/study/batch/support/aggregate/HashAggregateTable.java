@@ -0,0 +1,214 @@
+package study.batch.support.aggregate;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * key 공간이 큰 경우에 쓰는 hash 기반 집계 테이블
+ * - 그룹 수가 maxGroupsInMemory 를 넘으면 지금까지의 부분 집계를 key hash 로 나눈 partition 파일에 내려쓰고 비운다.
+ * - 결과를 낼 때는 partition 파일을 하나씩 다시 읽어 합치므로, 한 번에 메모리에 올라가는 그룹은 partition 하나 분량이다.
+ * - spill 하려면 key 가 Serializable 이어야 한다.
+ */
+@Slf4j
+class HashAggregateTable<T, K> implements AggregateTable<T, K> {
+    private static final int PARTITIONS = 16;
+
+    private final GroupAggregator<T, K> aggregator;
+    private final Function<? super T, ? extends K> keyExtractor;
+    private final int maxGroupsInMemory;
+    private final Path spillDirectory;
+
+    private Map<K, long[]> groups = new LinkedHashMap<>();
+    private Path[] partitionFiles;
+    private ObjectOutputStream[] partitionStreams;
+    private int spills;
+
+    HashAggregateTable(GroupAggregator<T, K> aggregator, Function<? super T, ? extends K> keyExtractor,
+                       int maxGroupsInMemory, Path spillDirectory) {
+        this.aggregator = aggregator;
+        this.keyExtractor = keyExtractor;
+        this.maxGroupsInMemory = maxGroupsInMemory;
+        this.spillDirectory = spillDirectory;
+    }
+
+    @Override
+    public void add(T item) {
+        aggregator.accumulate(group(keyExtractor.apply(item)), 0, item);
+    }
+
+    @Override
+    public void merge(AggregateRow<K> partial) {
+        aggregator.merge(group(partial.key()), 0, partial);
+    }
+
+    @Override
+    public boolean isSpilled() {
+        return partitionFiles != null;
+    }
+
+    @Override
+    public Iterator<AggregateRow<K>> rows() {
+        if (!isSpilled()) {
+            Iterator<Map.Entry<K, long[]>> entries = groups.entrySet().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public AggregateRow<K> next() {
+                    Map.Entry<K, long[]> entry = entries.next();
+                    return aggregator.toRow(entry.getKey(), entry.getValue(), 0);
+                }
+            };
+        }
+
+        if (partitionStreams == null) {
+            throw new IllegalStateException("Spilled aggregate rows can only be read once.!");
+        }
+        spill();
+        closeStreams();
+        return new Iterator<>() {
+            private int partition = -1;
+            private Iterator<AggregateRow<K>> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && partition + 1 < PARTITIONS) {
+                    current = loadPartition(++partition);
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public AggregateRow<K> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        closeStreams();
+        if (partitionFiles != null) {
+            for (Path file : partitionFiles) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Failed to delete aggregate spill file {}", file, e);
+                }
+            }
+        }
+        groups = new LinkedHashMap<>();
+    }
+
+    private long[] group(K key) {
+        long[] accumulators = groups.get(key);
+        if (accumulators != null) {
+            return accumulators;
+        }
+        if (groups.size() >= maxGroupsInMemory) {
+            spill();
+        }
+        accumulators = new long[aggregator.width()];
+        aggregator.initialize(accumulators, 0);
+        groups.put(key, accumulators);
+        return accumulators;
+    }
+
+    private void spill() {
+        try {
+            if (partitionFiles == null) {
+                Files.createDirectories(spillDirectory);
+                partitionFiles = new Path[PARTITIONS];
+                partitionStreams = new ObjectOutputStream[PARTITIONS];
+                for (int i = 0; i < PARTITIONS; i++) {
+                    partitionFiles[i] = Files.createTempFile(spillDirectory, "aggregate-", ".part");
+                    partitionStreams[i] = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(partitionFiles[i])));
+                }
+            }
+            for (Map.Entry<K, long[]> entry : groups.entrySet()) {
+                ObjectOutputStream out = partitionStreams[partition(entry.getKey())];
+                out.writeObject(entry.getKey());
+                out.writeObject(entry.getValue());
+            }
+            for (ObjectOutputStream out : partitionStreams) {
+                // 이미 내려쓴 key 를 handle table 에 잡아두지 않도록 한다.
+                out.reset();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill aggregate groups", e);
+        }
+        log.info("Spilled {} aggregate groups to {} (spill {})", groups.size(), spillDirectory, ++spills);
+        groups = new LinkedHashMap<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Iterator<AggregateRow<K>> loadPartition(int partition) {
+        Map<K, long[]> merged = new LinkedHashMap<>();
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(partitionFiles[partition])))) {
+            while (true) {
+                K key;
+                try {
+                    key = (K) in.readObject();
+                } catch (EOFException e) {
+                    break;
+                }
+                long[] partial = (long[]) in.readObject();
+                long[] accumulators = merged.get(key);
+                if (accumulators == null) {
+                    merged.put(key, partial);
+                } else {
+                    aggregator.merge(accumulators, 0, partial, 0);
+                }
+            }
+            Files.deleteIfExists(partitionFiles[partition]);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read aggregate spill file " + partitionFiles[partition], e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Failed to deserialize aggregate key", e);
+        }
+        return merged.entrySet().stream()
+                .map(entry -> aggregator.toRow(entry.getKey(), entry.getValue(), 0))
+                .iterator();
+    }
+
+    private void closeStreams() {
+        if (partitionStreams == null) {
+            return;
+        }
+        for (ObjectOutputStream out : partitionStreams) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.warn("Failed to close aggregate spill file", e);
+            }
+        }
+        partitionStreams = null;
+    }
+
+    private int partition(K key) {
+        int hash = Objects.hashCode(key);
+        return (hash ^ (hash >>> 16)) & (PARTITIONS - 1);
+    }
+}
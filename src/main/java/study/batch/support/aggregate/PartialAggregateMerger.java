@@ -0,0 +1,123 @@
+package study.batch.support.aggregate;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.partition.support.DefaultStepExecutionAggregator;
+import org.springframework.batch.core.partition.support.StepExecutionAggregator;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 파티션 worker 의 GroupAggregationTasklet 이 남긴 부분 집계를 합쳐서 Writer 로 쓰는 StepExecutionAggregator
+ * - 건수 등 StepExecution 통계는 DefaultStepExecutionAggregator 로 합친다.
+ * - 재시작하면 다시 실행한 파티션만 넘어오므로, 부분 집계는 JobInstance 의 모든 worker StepExecution 중 마지막 것에서 읽는다.
+ * - 모든 worker 가 COMPLETED 일 때만 결과를 쓰며, chunkSize 건씩 트랜잭션을 나눠 쓴다.
+ *
+ * new StepBuilder("manager", jobRepository)
+ *         .partitioner("worker", partitioner)
+ *         .aggregator(new PartialAggregateMerger<>("worker", aggregator, writer, jobExplorer, transactionManager, 100))
+ */
+public class PartialAggregateMerger<T, K> implements StepExecutionAggregator {
+    // SimpleStepExecutionSplitter 가 worker Step 이름을 "{name}:{partition}" 으로 만든다.
+    private static final String STEP_NAME_SEPARATOR = ":";
+
+    private final StepExecutionAggregator delegate = new DefaultStepExecutionAggregator();
+
+    private final String name;
+    private final GroupAggregator<T, K> aggregator;
+    private final ItemWriter<? super AggregateRow<K>> writer;
+    private final JobExplorer jobExplorer;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    /**
+     * @param name partitioner(...) 에 준 worker Step 이름이자 worker 의 GroupAggregationTasklet 이름
+     */
+    public PartialAggregateMerger(String name, GroupAggregator<T, K> aggregator, ItemWriter<? super AggregateRow<K>> writer,
+                                  JobExplorer jobExplorer, PlatformTransactionManager transactionManager, int chunkSize) {
+        this.name = name;
+        this.aggregator = aggregator;
+        this.writer = writer;
+        this.jobExplorer = jobExplorer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void aggregate(StepExecution result, Collection<StepExecution> executions) {
+        delegate.aggregate(result, executions);
+        Collection<StepExecution> workers = workers(result, executions);
+        if (workers.stream().anyMatch(execution -> execution.getStatus() != BatchStatus.COMPLETED)) {
+            return;
+        }
+
+        try (AggregateTable<T, K> table = aggregator.newTable()) {
+            for (StepExecution execution : workers) {
+                Object partials = execution.getExecutionContext().get(GroupAggregationTasklet.partialsKey(name));
+                if (partials != null) {
+                    ((List<AggregateRow<K>>) partials).forEach(table::merge);
+                }
+            }
+            result.setWriteCount(result.getWriteCount() + write(result, table.rows()));
+        }
+    }
+
+    /**
+     * 이번에 실행한 worker 와, 이전 실행에서 COMPLETED 되어 이번에 다시 실행하지 않은 worker 의 마지막 StepExecution
+     */
+    private Collection<StepExecution> workers(StepExecution result, Collection<StepExecution> executions) {
+        String prefix = name + STEP_NAME_SEPARATOR;
+        Map<String, StepExecution> workers = new HashMap<>();
+        for (JobExecution jobExecution : jobExplorer.getJobExecutions(result.getJobExecution().getJobInstance())) {
+            for (StepExecution execution : jobExecution.getStepExecutions()) {
+                if (execution.getStepName().startsWith(prefix)) {
+                    workers.merge(execution.getStepName(), execution, (left, right) -> left.getId() > right.getId() ? left : right);
+                }
+            }
+        }
+        executions.forEach(execution -> workers.put(execution.getStepName(), execution));
+        return workers.values();
+    }
+
+    private long write(StepExecution result, Iterator<AggregateRow<K>> rows) {
+        if (writer instanceof ItemStream stream) {
+            stream.open(result.getExecutionContext());
+        }
+        long written = 0;
+        try {
+            while (rows.hasNext()) {
+                Chunk<AggregateRow<K>> chunk = new Chunk<>();
+                while (chunk.size() < chunkSize && rows.hasNext()) {
+                    chunk.add(rows.next());
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    try {
+                        writer.write(chunk);
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Failed to write merged aggregates", e);
+                    }
+                });
+                written += chunk.size();
+            }
+        } finally {
+            if (writer instanceof ItemStream stream) {
+                stream.close();
+            }
+        }
+        return written;
+    }
+}
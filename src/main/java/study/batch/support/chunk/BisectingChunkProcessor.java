@@ -0,0 +1,134 @@
+package study.batch.support.chunk;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.observability.BatchMetrics;
+import org.springframework.batch.core.step.item.SimpleChunkProcessor;
+import org.springframework.batch.core.step.skip.SkipListenerFailedException;
+import org.springframework.batch.core.step.skip.SkipPolicy;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * write 실패 시 청크를 반씩 나눠 다시 써보면서 실패한 아이템만 골라 skip 하는 ChunkProcessor
+ * - 기본 fault-tolerant step 은 실패한 청크를 아이템 하나당 트랜잭션 하나로 다시 쓰지만,
+ *   여기서는 청크 트랜잭션 안에서 savepoint(PROPAGATION_NESTED) 단위로 나눠 쓰므로 불량 아이템 k 개를 O(k log n) 번의 batch write 로 찾는다.
+ * - 한 건까지 나눠도 실패하면 writeSkipPolicy 로 skip 여부를 정한다. skip 한도를 넘으면 SkipLimitExceededException 으로 청크가 롤백된다.
+ * - skip 된 아이템은 청크를 모두 쓴 뒤 SkipListener.onSkipInWrite 로 전달된다.
+ * - JDBC savepoint 를 만드는 TransactionManager(DataSourceTransactionManager 등)와 JDBC 기반 Writer 가 필요하다.
+ *   JpaTransactionManager 는 JDBC 를 노출하는 JpaDialect(HibernateJpaDialect) 가 있어야 savepoint 를 만들 수 있고,
+ *   savepoint 로 롤백해도 영속성 컨텍스트는 되돌리지 않으므로 JPA Writer 에는 맞지 않는다.
+ * - writeSkipPolicy 가 없으면 SimpleChunkProcessor 와 동일하게 동작한다.
+ */
+public class BisectingChunkProcessor<I, O> extends SimpleChunkProcessor<I, O> {
+    private SkipPolicy writeSkipPolicy;
+    private TransactionTemplate savepointTemplate;
+
+    private record Skipped<O>(O item, Exception error) {
+    }
+
+    private static class WriteFailure extends RuntimeException {
+        private WriteFailure(Exception cause) {
+            super(cause);
+        }
+    }
+
+    public BisectingChunkProcessor(ItemProcessor<? super I, ? extends O> itemProcessor, ItemWriter<? super O> itemWriter) {
+        super(itemProcessor, itemWriter);
+    }
+
+    /**
+     * write 실패를 나눠서 찾을 때 사용할 SkipPolicy 와 savepoint 를 만들 TransactionManager
+     */
+    public void setWriteSkipPolicy(SkipPolicy writeSkipPolicy, PlatformTransactionManager transactionManager) {
+        this.writeSkipPolicy = writeSkipPolicy;
+        this.savepointTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    @Override
+    protected void write(StepContribution contribution, Chunk<I> inputs, Chunk<O> outputs) throws Exception {
+        if (writeSkipPolicy == null) {
+            super.write(contribution, inputs, outputs);
+            return;
+        }
+
+        Timer.Sample sample = BatchMetrics.createTimerSample(this.meterRegistry);
+        String status = BatchMetrics.STATUS_SUCCESS;
+        List<O> written = new ArrayList<>(outputs.size());
+        List<Skipped<O>> skipped = new ArrayList<>();
+        try {
+            getListener().beforeWrite(outputs);
+            Exception failure = tryWrite(outputs.getItems());
+            if (failure == null) {
+                written.addAll(outputs.getItems());
+            } else {
+                doOnWriteError(failure, outputs);
+                bisect(contribution, outputs.getItems(), failure, written, skipped);
+            }
+            doAfterWrite(new Chunk<>(written));
+        } catch (Exception e) {
+            inputs.clear();
+            status = BatchMetrics.STATUS_FAILURE;
+            throw e;
+        } finally {
+            stopTimer(sample, contribution.getStepExecution(), "chunk.write", status, "Chunk writing");
+        }
+
+        contribution.incrementWriteCount(written.size());
+        for (Skipped<O> skip : skipped) {
+            try {
+                getListener().onSkipInWrite(skip.item(), skip.error());
+            } catch (RuntimeException e) {
+                throw new SkipListenerFailedException("Fatal exception in SkipListener.", e, skip.error());
+            }
+        }
+    }
+
+    private void bisect(StepContribution contribution, List<O> items, Exception failure,
+                        List<O> written, List<Skipped<O>> skipped) throws Exception {
+        if (items.size() == 1) {
+            if (!writeSkipPolicy.shouldSkip(failure, contribution.getStepSkipCount())) {
+                throw failure;
+            }
+            contribution.incrementWriteSkipCount();
+            skipped.add(new Skipped<>(items.get(0), failure));
+            return;
+        }
+
+        int middle = items.size() / 2;
+        for (List<O> half : List.of(items.subList(0, middle), items.subList(middle, items.size()))) {
+            Exception halfFailure = tryWrite(half);
+            if (halfFailure == null) {
+                written.addAll(half);
+            } else {
+                bisect(contribution, half, halfFailure, written, skipped);
+            }
+        }
+    }
+
+    /**
+     * savepoint 안에서 items 를 쓰고, 실패하면 savepoint 까지 롤백한 뒤 예외를 돌려준다.
+     */
+    private Exception tryWrite(List<O> items) {
+        try {
+            savepointTemplate.executeWithoutResult(transactionStatus -> {
+                try {
+                    writeItems(new Chunk<>(items));
+                } catch (Exception e) {
+                    throw new WriteFailure(e);
+                }
+            });
+            return null;
+        } catch (WriteFailure e) {
+            return (Exception) e.getCause();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package study.batch.support.chunk;
+
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.repeat.CompletionPolicy;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+import org.springframework.batch.repeat.support.RepeatSynchronizationManager;
+
+/**
+ * 읽은 아이템의 추정 크기 합이 maxBytes 에 이르거나 건수가 maxItems 에 이르면 chunk 를 닫는 CompletionPolicy
+ * - 건수는 크게 잡아 처리량을 높이고, 크기가 큰 아이템이 몰려도 chunk 하나의 메모리는 maxBytes + 아이템 하나로 제한한다.
+ * - 아이템 크기는 afterRead 에서 재므로 Step 에 listener 로도 등록해야 한다. (등록하지 않으면 maxItems 만 적용된다)
+ *   ParallelChunkStepBuilder 는 chunk(policy, ...) 로 넘기면 자동으로 등록한다.
+ * - 크기는 chunk 의 RepeatContext 에 쌓으므로 multi-thread step 에서도 thread 마다 따로 계산된다.
+ *
+ * ByteBudgetCompletionPolicy<Customer> policy = new ByteBudgetCompletionPolicy<>(ItemSizers.shallow(Customer.class), 4 * 1024 * 1024, 5000);
+ * new StepBuilder(...).<Customer, Customer>chunk(policy, transactionManager).listener(policy) ...
+ */
+public class ByteBudgetCompletionPolicy<T> implements CompletionPolicy, ItemReadListener<T> {
+    private final ItemSizer<? super T> sizer;
+    private final long maxBytes;
+    private final int maxItems;
+
+    public ByteBudgetCompletionPolicy(ItemSizer<? super T> sizer, long maxBytes, int maxItems) {
+        if (sizer == null) {
+            throw new IllegalArgumentException("ItemSizer can not be null.!");
+        }
+        if (maxBytes < 1 || maxItems < 1) {
+            throw new IllegalArgumentException("maxBytes and maxItems must be positive.!");
+        }
+        this.sizer = sizer;
+        this.maxBytes = maxBytes;
+        this.maxItems = maxItems;
+    }
+
+    private static class BudgetContext extends RepeatContextSupport {
+        private int items;
+        private long bytes;
+
+        private BudgetContext(RepeatContext parent) {
+            super(parent);
+        }
+    }
+
+    @Override
+    public RepeatContext start(RepeatContext parent) {
+        return new BudgetContext(parent);
+    }
+
+    @Override
+    public void update(RepeatContext context) {
+        if (context instanceof BudgetContext budget) {
+            budget.items++;
+        }
+    }
+
+    @Override
+    public boolean isComplete(RepeatContext context, RepeatStatus result) {
+        return result == null || !result.isContinuable() || isComplete(context);
+    }
+
+    @Override
+    public boolean isComplete(RepeatContext context) {
+        if (context instanceof BudgetContext budget) {
+            return budget.items >= maxItems || budget.bytes >= maxBytes;
+        }
+        return false;
+    }
+
+    @Override
+    public void afterRead(T item) {
+        if (RepeatSynchronizationManager.getContext() instanceof BudgetContext budget) {
+            budget.bytes += sizer.sizeOf(item);
+        }
+    }
+
+    /**
+     * 현재 thread 에서 진행 중인 chunk 에 읽은 아이템 크기 합 (chunk 밖이면 0)
+     */
+    public long currentBytes() {
+        return RepeatSynchronizationManager.getContext() instanceof BudgetContext budget ? budget.bytes : 0;
+    }
+}
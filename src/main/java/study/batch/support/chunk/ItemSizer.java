@@ -0,0 +1,11 @@
+package study.batch.support.chunk;
+
+/**
+ * 아이템 하나가 heap 에서 차지하는 크기(byte)를 추정한다.
+ * 정확할 필요는 없지만 아이템마다 호출되므로 가벼워야 한다.
+ */
+@FunctionalInterface
+public interface ItemSizer<T> {
+
+    long sizeOf(T item);
+}
@@ -0,0 +1,131 @@
+package study.batch.support.chunk;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.observability.BatchMetrics;
+import org.springframework.batch.core.step.skip.NeverSkipItemSkipPolicy;
+import org.springframework.batch.core.step.skip.SkipPolicy;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.retry.RetryOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * 청크 안의 아이템들을 Executor 에 나눠 병렬로 process 하는 ChunkProcessor
+ * - Reader / Writer 는 기존처럼 step 스레드에서만 호출되므로 thread-safe 할 필요가 없다.
+ * - 출력 순서는 입력 순서를 그대로 유지하고, null 을 반환한 아이템은 기존과 동일하게 filter 처리된다.
+ * - 아이템별 실패는 RetryOperations 로 재시도하고, 그래도 실패하면 SkipPolicy 에 따라 skip 하거나
+ *   입력 순서상 가장 앞선 예외를 던져 청크를 롤백한다.
+ *   worker 스레드에는 StepContext 가 없으므로 RetryListener 가 Step 을 알 수 있게 RetryContext 에 StepExecution 을 남긴다.
+ * - ItemProcessListener 콜백은 worker 스레드에서 호출된다.
+ * - write 실패 시의 skip 은 BisectingChunkProcessor 의 청크 분할 방식을 따른다.
+ */
+public class ParallelChunkProcessor<I, O> extends BisectingChunkProcessor<I, O> {
+    public static final String STEP_EXECUTION = "stepExecution";
+
+    private final Executor executor;
+
+    private SkipPolicy skipPolicy = new NeverSkipItemSkipPolicy();
+    private RetryOperations retryOperations;
+
+    public ParallelChunkProcessor(ItemProcessor<? super I, ? extends O> itemProcessor, ItemWriter<? super O> itemWriter, Executor executor) {
+        super(itemProcessor, itemWriter);
+        this.executor = executor;
+    }
+
+    public void setSkipPolicy(SkipPolicy skipPolicy) {
+        this.skipPolicy = skipPolicy;
+    }
+
+    public void setRetryOperations(RetryOperations retryOperations) {
+        this.retryOperations = retryOperations;
+    }
+
+    @Override
+    protected Chunk<O> transform(StepContribution contribution, Chunk<I> inputs) throws Exception {
+        List<CompletableFuture<O>> futures = new ArrayList<>(inputs.size());
+        for (I item : inputs) {
+            futures.add(CompletableFuture.supplyAsync(() -> processItem(contribution, item), executor));
+        }
+
+        Chunk<O> outputs = new Chunk<>();
+        int index = 0;
+        for (Chunk<I>.ChunkIterator iterator = inputs.iterator(); iterator.hasNext(); index++) {
+            I item = iterator.next();
+            O output;
+            try {
+                output = await(futures.get(index));
+            } catch (Exception e) {
+                if (skipPolicy.shouldSkip(e, contribution.getStepSkipCount())) {
+                    contribution.incrementProcessSkipCount();
+                    getListener().onSkipInProcess(item, e);
+                    iterator.remove(e);
+                    continue;
+                }
+                futures.forEach(future -> future.cancel(false));
+                inputs.clear();
+                throw e;
+            }
+
+            if (output != null) {
+                outputs.add(output);
+            } else {
+                iterator.remove();
+            }
+        }
+
+        if (inputs.isEnd()) {
+            outputs.setEnd();
+        }
+        return outputs;
+    }
+
+    /**
+     * skip 된 아이템은 filter 건수에서 제외한다.
+     */
+    @Override
+    protected int getFilterCount(Chunk<I> inputs, Chunk<O> outputs) {
+        return super.getFilterCount(inputs, outputs) - inputs.getSkips().size();
+    }
+
+    private O processItem(StepContribution contribution, I item) {
+        Timer.Sample sample = BatchMetrics.createTimerSample(this.meterRegistry);
+        String status = BatchMetrics.STATUS_SUCCESS;
+        try {
+            if (retryOperations == null) {
+                return doProcess(item);
+            }
+            return retryOperations.execute(context -> {
+                context.setAttribute(STEP_EXECUTION, contribution.getStepExecution());
+                return doProcess(item);
+            });
+        } catch (Exception e) {
+            status = BatchMetrics.STATUS_FAILURE;
+            throw new CompletionException(e);
+        } finally {
+            stopTimer(sample, contribution.getStepExecution(), "item.process", status, "Item processing");
+        }
+    }
+
+    private O await(CompletableFuture<O> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw (Error) cause;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package study.batch.support.chunk;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.StepListener;
+import org.springframework.batch.core.listener.StepListenerFactoryBean;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.builder.TaskletStepBuilder;
+import org.springframework.batch.core.step.item.ChunkOrientedTasklet;
+import org.springframework.batch.core.step.item.SimpleChunkProvider;
+import org.springframework.batch.core.step.skip.SkipPolicy;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.repeat.CompletionPolicy;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.batch.repeat.support.RepeatTemplate;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.RetryOperations;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ParallelChunkProcessor 를 사용하는 chunk Step 을 만드는 Builder
+ * executor 를 지정하지 않으면 ForkJoinPool.commonPool() 을 사용한다.
+ * writeSkipPolicy 를 지정하면 write 실패 시 청크를 반씩 나눠 실패한 아이템만 skip 한다. (BisectingChunkProcessor)
+ * process 를 병렬로 돌릴 필요가 없으면 executor(Runnable::run) 으로 step 스레드에서 처리한다.
+ * listener(...) 로 넘긴 RetryListener 는 retryOperations(...) 의 RetryTemplate 에 등록한다.
+ */
+public class ParallelChunkStepBuilder<I, O> {
+    private final String name;
+    private final JobRepository jobRepository;
+
+    private PlatformTransactionManager transactionManager;
+    private CompletionPolicy completionPolicy;
+    private ItemReader<? extends I> reader;
+    private ItemProcessor<? super I, ? extends O> processor;
+    private ItemWriter<? super O> writer;
+    private Executor executor = ForkJoinPool.commonPool();
+    private SkipPolicy skipPolicy;
+    private SkipPolicy writeSkipPolicy;
+    private RetryOperations retryOperations;
+    private final List<Object> listeners = new ArrayList<>();
+
+    public ParallelChunkStepBuilder(String name, JobRepository jobRepository) {
+        this.name = name;
+        this.jobRepository = jobRepository;
+    }
+
+    public ParallelChunkStepBuilder<I, O> chunk(int chunkSize, PlatformTransactionManager transactionManager) {
+        return chunk(new SimpleCompletionPolicy(chunkSize), transactionManager);
+    }
+
+    public ParallelChunkStepBuilder<I, O> chunk(CompletionPolicy completionPolicy, PlatformTransactionManager transactionManager) {
+        this.completionPolicy = completionPolicy;
+        this.transactionManager = transactionManager;
+        return this;
+    }
+
+    public ParallelChunkStepBuilder<I, O> reader(ItemReader<? extends I> reader) {
+        this.reader = reader;
+        return this;
+    }
+
+    public ParallelChunkStepBuilder<I, O> processor(ItemProcessor<? super I, ? extends O> processor) {
+        this.processor = processor;
+        return this;
+    }
+
+    public ParallelChunkStepBuilder<I, O> writer(ItemWriter<? super O> writer) {
+        this.writer = writer;
+        return this;
+    }
+
+    public ParallelChunkStepBuilder<I, O> executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    public ParallelChunkStepBuilder<I, O> skipPolicy(SkipPolicy skipPolicy) {
+        this.skipPolicy = skipPolicy;
+        return this;
+    }
+
+    public ParallelChunkStepBuilder<I, O> writeSkipPolicy(SkipPolicy writeSkipPolicy) {
+        this.writeSkipPolicy = writeSkipPolicy;
+        return this;
+    }
+
+    public ParallelChunkStepBuilder<I, O> retryOperations(RetryOperations retryOperations) {
+        this.retryOperations = retryOperations;
+        return this;
+    }
+
+    public ParallelChunkStepBuilder<I, O> listener(Object listener) {
+        this.listeners.add(listener);
+        return this;
+    }
+
+    public Step build() {
+        if (this.transactionManager == null || this.completionPolicy == null) {
+            throw new IllegalArgumentException("chunk(...) must be configured.!");
+        }
+        if (this.reader == null) {
+            throw new IllegalArgumentException("ItemReader can not be null.!");
+        }
+        if (this.writer == null) {
+            throw new IllegalArgumentException("ItemWriter can not be null.!");
+        }
+        if (this.executor == null) {
+            throw new IllegalArgumentException("Executor can not be null.!");
+        }
+
+        RepeatTemplate chunkOperations = new RepeatTemplate();
+        chunkOperations.setCompletionPolicy(completionPolicy);
+
+        SimpleChunkProvider<I> chunkProvider = new SimpleChunkProvider<>(reader, chunkOperations);
+        ParallelChunkProcessor<I, O> chunkProcessor = new ParallelChunkProcessor<>(processor, writer, executor);
+        if (skipPolicy != null) {
+            chunkProcessor.setSkipPolicy(skipPolicy);
+        }
+        chunkProcessor.setRetryOperations(retryOperations);
+        for (Object listener : listeners) {
+            if (listener instanceof RetryListener retryListener) {
+                if (!(retryOperations instanceof RetryTemplate retryTemplate)) {
+                    throw new IllegalArgumentException("RetryListener requires retryOperations(RetryTemplate).!");
+                }
+                retryTemplate.registerListener(retryListener);
+            }
+        }
+        if (writeSkipPolicy != null) {
+            chunkProcessor.setWriteSkipPolicy(writeSkipPolicy, transactionManager);
+        }
+
+        TaskletStepBuilder stepBuilder = new StepBuilder(name, jobRepository)
+                .tasklet(new ChunkOrientedTasklet<>(chunkProvider, chunkProcessor), transactionManager);
+
+        List<Object> candidates = new ArrayList<>(listeners);
+        if (completionPolicy instanceof StepListener && !candidates.contains(completionPolicy)) {
+            // ByteBudgetCompletionPolicy 처럼 읽은 아이템을 봐야 하는 policy
+            candidates.add(completionPolicy);
+        }
+        for (Object candidate : candidates) {
+            // @BeforeChunk, @AfterWrite 같은 annotation 기반 listener 는 인터페이스 proxy 로 변환한다.
+            Object listener = candidate instanceof StepListener || !StepListenerFactoryBean.isListener(candidate)
+                    ? candidate : StepListenerFactoryBean.getListener(candidate);
+            if (listener instanceof StepListener stepListener) {
+                chunkProvider.registerListener(stepListener);
+                chunkProcessor.registerListener(stepListener);
+            }
+            if (listener instanceof StepExecutionListener stepExecutionListener) {
+                stepBuilder.listener(stepExecutionListener);
+            }
+            if (listener instanceof ChunkListener chunkListener) {
+                stepBuilder.listener(chunkListener);
+            }
+        }
+
+        for (Object component : new Object[]{reader, processor, writer}) {
+            if (component instanceof ItemStream stream) {
+                stepBuilder.stream(stream);
+            }
+        }
+
+        return stepBuilder.build();
+    }
+}
@@ -0,0 +1,66 @@
+package study.batch.support.columnar;
+
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.util.List;
+
+/**
+ * ColumnarChunk 단위로 read -> process -> write 하는 Tasklet (호출 1번 = chunk 1개 = 트랜잭션 1개)
+ * - chunk 는 처음 한 번만 만들고 매번 비워서 재사용하므로 하나의 Step 에서만, 한 thread 로 실행해야 한다.
+ * - Writer 는 컬럼을 그대로 받는 ColumnarItemWriter 나, materialize 된 아이템을 받는 ItemWriter 중 하나다.
+ * - read / filter / write count 는 row 수 기준으로 StepContribution 에 더한다.
+ */
+public class ColumnarChunkTasklet<T> implements Tasklet {
+    private final ColumnarSchema<T> schema;
+    private final ColumnarReader reader;
+    private final List<ColumnarProcessor> processors;
+    private final ColumnarItemWriter columnarWriter;
+    private final ItemWriter<? super T> itemWriter;
+    private final int chunkSize;
+
+    private ColumnarChunk chunk;
+
+    ColumnarChunkTasklet(ColumnarSchema<T> schema, ColumnarReader reader, List<ColumnarProcessor> processors,
+                         ColumnarItemWriter columnarWriter, ItemWriter<? super T> itemWriter, int chunkSize) {
+        this.schema = schema;
+        this.reader = reader;
+        this.processors = List.copyOf(processors);
+        this.columnarWriter = columnarWriter;
+        this.itemWriter = itemWriter;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        if (chunk == null) {
+            chunk = schema.newChunk(chunkSize);
+        }
+        chunk.clear();
+
+        int read = reader.read(chunk);
+        if (read == 0) {
+            return RepeatStatus.FINISHED;
+        }
+        for (int i = 0; i < read; i++) {
+            contribution.incrementReadCount();
+        }
+
+        for (ColumnarProcessor processor : processors) {
+            processor.process(chunk);
+        }
+        contribution.incrementFilterCount(chunk.filterCount());
+
+        if (columnarWriter != null) {
+            columnarWriter.write(chunk);
+        } else if (chunk.filterCount() < chunk.size()) {
+            itemWriter.write(schema.materialize(chunk));
+        }
+        contribution.incrementWriteCount(chunk.size() - chunk.filterCount());
+
+        return RepeatStatus.continueIf(chunk.isFull());
+    }
+}
@@ -0,0 +1,9 @@
+package study.batch.support.columnar;
+
+/**
+ * 아이템으로 되돌리지 않고 컬럼 배열을 그대로 쓰는 Writer. filter 된 row 는 건너뛰어야 한다.
+ */
+@FunctionalInterface
+public interface ColumnarItemWriter {
+    void write(ColumnarChunk chunk) throws Exception;
+}
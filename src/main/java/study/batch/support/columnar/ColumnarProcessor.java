@@ -0,0 +1,17 @@
+package study.batch.support.columnar;
+
+/**
+ * ColumnarChunk 의 컬럼 배열을 직접 변환 / filter 하는 Processor
+ * ItemProcessor 와 달리 chunk 전체를 한 번에 받으므로 아이템마다의 호출 / 객체 생성이 없다.
+ *
+ * chunk -> {
+ *     int[] age = chunk.ints("age");
+ *     for (int i = 0; i < chunk.size(); i++) {
+ *         age[i] += 20;
+ *     }
+ * }
+ */
+@FunctionalInterface
+public interface ColumnarProcessor {
+    void process(ColumnarChunk chunk) throws Exception;
+}
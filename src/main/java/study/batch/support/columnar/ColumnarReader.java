@@ -0,0 +1,13 @@
+package study.batch.support.columnar;
+
+/**
+ * ColumnarChunk 에 row 를 직접 채우는 Reader
+ */
+@FunctionalInterface
+public interface ColumnarReader {
+    /**
+     * chunk 가 가득 차거나 입력이 끝날 때까지 row 를 추가하고 추가한 row 수를 돌려준다.
+     * chunk 를 다 채우지 못했다면 입력이 끝난 것으로 본다.
+     */
+    int read(ColumnarChunk chunk) throws Exception;
+}
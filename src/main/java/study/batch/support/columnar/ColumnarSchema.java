@@ -0,0 +1,165 @@
+package study.batch.support.columnar;
+
+import org.springframework.batch.item.Chunk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 아이템의 필드와 ColumnarChunk 컬럼의 대응 관계
+ * - getter 는 아이템 -> 컬럼(encode), setter 는 컬럼 -> 아이템(materialize)에 사용한다. 필요 없는 쪽은 null 로 둔다.
+ * - materialize 할 때 원래 아이템이 없으면(ColumnarReader 가 직접 채운 경우) rowFactory 로 만든다.
+ *
+ * new ColumnarSchema<>(Customer::new)
+ *         .intColumn("id", Customer::getId, Customer::setId)
+ *         .intColumn("age", Customer::getAge, Customer::setAge)
+ *         .enumColumn("grade", Customer.Grade.class, Customer::getGrade, Customer::setGrade);
+ */
+public class ColumnarSchema<T> {
+    private final Supplier<? extends T> rowFactory;
+    private final List<Binding<T>> bindings = new ArrayList<>();
+
+    private interface Binding<T> {
+        ColumnarChunk.Column newColumn(int capacity);
+
+        void encode(T item, ColumnarChunk chunk, int row);
+
+        void decode(ColumnarChunk chunk, int row, T item);
+    }
+
+    public ColumnarSchema(Supplier<? extends T> rowFactory) {
+        this.rowFactory = rowFactory;
+    }
+
+    public ColumnarSchema<T> intColumn(String name, ToIntFunction<? super T> getter, ObjIntConsumer<? super T> setter) {
+        bindings.add(new Binding<>() {
+            @Override
+            public ColumnarChunk.Column newColumn(int capacity) {
+                return new ColumnarChunk.IntColumn(name, capacity);
+            }
+
+            @Override
+            public void encode(T item, ColumnarChunk chunk, int row) {
+                if (getter != null) {
+                    chunk.ints(name)[row] = getter.applyAsInt(item);
+                }
+            }
+
+            @Override
+            public void decode(ColumnarChunk chunk, int row, T item) {
+                if (setter != null) {
+                    setter.accept(item, chunk.ints(name)[row]);
+                }
+            }
+        });
+        return this;
+    }
+
+    public ColumnarSchema<T> longColumn(String name, ToLongFunction<? super T> getter, ObjLongConsumer<? super T> setter) {
+        bindings.add(new Binding<>() {
+            @Override
+            public ColumnarChunk.Column newColumn(int capacity) {
+                return new ColumnarChunk.LongColumn(name, capacity);
+            }
+
+            @Override
+            public void encode(T item, ColumnarChunk chunk, int row) {
+                if (getter != null) {
+                    chunk.longs(name)[row] = getter.applyAsLong(item);
+                }
+            }
+
+            @Override
+            public void decode(ColumnarChunk chunk, int row, T item) {
+                if (setter != null) {
+                    setter.accept(item, chunk.longs(name)[row]);
+                }
+            }
+        });
+        return this;
+    }
+
+    public <E extends Enum<E>> ColumnarSchema<T> enumColumn(String name, Class<E> enumType,
+                                                            Function<? super T, E> getter, BiConsumer<? super T, E> setter) {
+        bindings.add(new DictionaryBinding<>(name, () -> Dictionary.ofEnum(enumType), getter, setter));
+        return this;
+    }
+
+    public ColumnarSchema<T> stringColumn(String name, Function<? super T, String> getter, BiConsumer<? super T, String> setter) {
+        bindings.add(new DictionaryBinding<>(name, Dictionary::ofStrings, getter, setter));
+        return this;
+    }
+
+    /**
+     * schema 의 컬럼을 capacity 크기로 가진 chunk. Step 마다 하나를 만들어 재사용한다.
+     */
+    public ColumnarChunk newChunk(int capacity) {
+        ColumnarChunk chunk = new ColumnarChunk(capacity);
+        for (Binding<T> binding : bindings) {
+            chunk.addColumn(binding.newColumn(capacity));
+        }
+        return chunk;
+    }
+
+    /**
+     * 아이템을 chunk 의 다음 row 로 추가한다. 아이템은 materialize 때 다시 쓰기 위해 chunk 가 들고 있는다.
+     */
+    public void encode(T item, ColumnarChunk chunk) {
+        int row = chunk.append();
+        for (Binding<T> binding : bindings) {
+            binding.encode(item, chunk, row);
+        }
+        chunk.row(row, item);
+    }
+
+    /**
+     * filter 되지 않은 row 를 아이템으로 되돌린다.
+     */
+    @SuppressWarnings("unchecked")
+    public Chunk<T> materialize(ColumnarChunk chunk) {
+        Chunk<T> items = new Chunk<>();
+        for (int row = 0; row < chunk.size(); row++) {
+            if (chunk.isFiltered(row)) {
+                continue;
+            }
+            T item = (T) chunk.row(row);
+            if (item == null) {
+                item = rowFactory.get();
+            }
+            for (Binding<T> binding : bindings) {
+                binding.decode(chunk, row, item);
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    private record DictionaryBinding<T, V>(String name, Supplier<Dictionary<V>> dictionary,
+                                           Function<? super T, V> getter, BiConsumer<? super T, V> setter) implements Binding<T> {
+        @Override
+        public ColumnarChunk.Column newColumn(int capacity) {
+            return new ColumnarChunk.DictionaryColumn(name, capacity, dictionary.get());
+        }
+
+        @Override
+        public void encode(T item, ColumnarChunk chunk, int row) {
+            if (getter != null) {
+                chunk.codes(name)[row] = chunk.<V>dictionary(name).code(getter.apply(item));
+            }
+        }
+
+        @Override
+        public void decode(ColumnarChunk chunk, int row, T item) {
+            if (setter != null) {
+                setter.accept(item, chunk.<V>dictionary(name).value(chunk.codes(name)[row]));
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package study.batch.support.columnar;
+
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.builder.TaskletStepBuilder;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ColumnarChunkTasklet 으로 처리하는 Step 을 만드는 Builder
+ * 입력은 columnarReader(...) 나 기존 ItemReader(ItemColumnarReader 로 감싼다) 중 하나,
+ * 출력은 컬럼을 그대로 쓰는 columnarWriter(...) 나 materialize 된 아이템을 받는 ItemWriter 중 하나를 지정한다.
+ *
+ * new ColumnarStepBuilder<Customer>("customerColumnarStep", jobRepository)
+ *         .transactionManager(transactionManager)
+ *         .schema(CustomerColumns.schema())
+ *         .columnarReader(columnarReader)
+ *         .processor(CustomerColumns::assignGroup)
+ *         .columnarWriter(new JdbcColumnarItemWriter(dataSource, "UPDATE CUSTOMER SET GRADE = ? where ID = ?", "grade", "id"))
+ *         .chunkSize(1000)
+ *         .build();
+ */
+public class ColumnarStepBuilder<T> {
+    private final String name;
+    private final JobRepository jobRepository;
+
+    private PlatformTransactionManager transactionManager;
+    private ColumnarSchema<T> schema;
+    private ColumnarReader columnarReader;
+    private ItemReader<? extends T> itemReader;
+    private final List<ColumnarProcessor> processors = new ArrayList<>();
+    private ColumnarItemWriter columnarWriter;
+    private ItemWriter<? super T> itemWriter;
+    private int chunkSize = 1000;
+    private final List<ItemStream> streams = new ArrayList<>();
+
+    public ColumnarStepBuilder(String name, JobRepository jobRepository) {
+        this.name = name;
+        this.jobRepository = jobRepository;
+    }
+
+    public ColumnarStepBuilder<T> transactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+        return this;
+    }
+
+    public ColumnarStepBuilder<T> schema(ColumnarSchema<T> schema) {
+        this.schema = schema;
+        return this;
+    }
+
+    public ColumnarStepBuilder<T> columnarReader(ColumnarReader reader) {
+        this.columnarReader = reader;
+        return this;
+    }
+
+    public ColumnarStepBuilder<T> reader(ItemReader<? extends T> reader) {
+        this.itemReader = reader;
+        return this;
+    }
+
+    /**
+     * 등록한 순서대로 실행한다.
+     */
+    public ColumnarStepBuilder<T> processor(ColumnarProcessor processor) {
+        this.processors.add(processor);
+        return this;
+    }
+
+    public ColumnarStepBuilder<T> columnarWriter(ColumnarItemWriter writer) {
+        this.columnarWriter = writer;
+        return this;
+    }
+
+    public ColumnarStepBuilder<T> writer(ItemWriter<? super T> writer) {
+        this.itemWriter = writer;
+        return this;
+    }
+
+    /**
+     * ColumnarChunk 의 크기 (한 트랜잭션)
+     */
+    public ColumnarStepBuilder<T> chunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public ColumnarStepBuilder<T> stream(ItemStream stream) {
+        this.streams.add(stream);
+        return this;
+    }
+
+    public Step build() {
+        if (this.transactionManager == null) {
+            throw new IllegalArgumentException("PlatformTransactionManager can not be null.!");
+        }
+        if (this.schema == null) {
+            throw new IllegalArgumentException("ColumnarSchema can not be null.!");
+        }
+        if ((this.columnarReader == null) == (this.itemReader == null)) {
+            throw new IllegalArgumentException("Exactly one of ColumnarReader or ItemReader must be configured.!");
+        }
+        if ((this.columnarWriter == null) == (this.itemWriter == null)) {
+            throw new IllegalArgumentException("Exactly one of ColumnarItemWriter or ItemWriter must be configured.!");
+        }
+        if (this.chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive.!");
+        }
+
+        ColumnarReader reader = columnarReader != null ? columnarReader : new ItemColumnarReader<>(itemReader, schema);
+        ColumnarChunkTasklet<T> tasklet = new ColumnarChunkTasklet<>(schema, reader, processors, columnarWriter, itemWriter, chunkSize);
+        TaskletStepBuilder stepBuilder = new StepBuilder(name, jobRepository).tasklet(tasklet, transactionManager);
+        List<Object> components = new ArrayList<>(List.of(reader));
+        components.add(itemReader);
+        components.addAll(processors);
+        components.add(columnarWriter);
+        components.add(itemWriter);
+        for (Object component : components) {
+            if (component instanceof ItemStream stream) {
+                stepBuilder.stream(stream);
+            }
+        }
+        streams.forEach(stepBuilder::stream);
+        return stepBuilder.build();
+    }
+}
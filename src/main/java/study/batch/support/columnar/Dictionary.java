@@ -0,0 +1,81 @@
+package study.batch.support.columnar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사전 인코딩(dictionary-encoded) 컬럼의 값 <-> int code 변환표. null 은 -1 로 인코딩한다.
+ * - enum : ordinal 을 code 로 쓰는 고정 사전
+ * - String : chunk 마다 처음 본 순서대로 code 를 붙이고 chunk 를 비울 때 같이 비운다.
+ */
+public class Dictionary<V> {
+    public static final int NULL = -1;
+
+    private final Class<V> enumType;
+    private final List<V> values;
+    private final Map<V, Integer> codes;
+
+    private Dictionary(Class<V> enumType, List<V> values, Map<V, Integer> codes) {
+        this.enumType = enumType;
+        this.values = values;
+        this.codes = codes;
+    }
+
+    public static <E extends Enum<E>> Dictionary<E> ofEnum(Class<E> enumType) {
+        return new Dictionary<>(enumType, List.of(enumType.getEnumConstants()), null);
+    }
+
+    public static Dictionary<String> ofStrings() {
+        return new Dictionary<>(null, new ArrayList<>(), new HashMap<>());
+    }
+
+    /**
+     * 값의 code. String 사전에 없는 값이면 새 code 를 붙인다.
+     */
+    public int code(V value) {
+        if (value == null) {
+            return NULL;
+        }
+        if (enumType != null) {
+            return ((Enum<?>) value).ordinal();
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    public V value(int code) {
+        return code == NULL ? null : values.get(code);
+    }
+
+    /**
+     * DB 등에서 읽은 문자열을 code 로 바꾼다. enum 사전은 상수 이름으로 찾는다.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public int parse(String text) {
+        if (text == null) {
+            return NULL;
+        }
+        if (enumType != null) {
+            return Enum.valueOf((Class) enumType, text).ordinal();
+        }
+        return code((V) text);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    void clear() {
+        if (enumType == null) {
+            values.clear();
+            codes.clear();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package study.batch.support.columnar;
+
+import org.springframework.batch.item.ItemReader;
+
+/**
+ * 기존 ItemReader 가 읽은 아이템을 schema 로 컬럼에 옮겨 담는 ColumnarReader
+ * 읽은 아이템은 chunk 가 들고 있다가 materialize 할 때 컬럼 값을 되돌려 쓰므로 컬럼에 없는 필드도 유지된다.
+ */
+public class ItemColumnarReader<T> implements ColumnarReader {
+    private final ItemReader<? extends T> delegate;
+    private final ColumnarSchema<T> schema;
+
+    public ItemColumnarReader(ItemReader<? extends T> delegate, ColumnarSchema<T> schema) {
+        this.delegate = delegate;
+        this.schema = schema;
+    }
+
+    @Override
+    public int read(ColumnarChunk chunk) throws Exception {
+        int count = 0;
+        while (!chunk.isFull()) {
+            T item = delegate.read();
+            if (item == null) {
+                break;
+            }
+            schema.encode(item, chunk);
+            count++;
+        }
+        return count;
+    }
+}
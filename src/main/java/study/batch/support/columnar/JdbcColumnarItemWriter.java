@@ -0,0 +1,92 @@
+package study.batch.support.columnar;
+
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * 컬럼 배열의 값을 그대로 PreparedStatement 에 binding 해서 batch update 하는 ColumnarItemWriter
+ * - sql 의 ? 순서대로 columns 의 값을 넣는다. 사전 컬럼은 값(enum 은 name())으로 되돌려 넣는다.
+ * - Step 트랜잭션에 참여하며, JdbcBatchItemWriter 처럼 아무 row 도 바꾸지 못한 문장이 있으면 실패한다.
+ *
+ * new JdbcColumnarItemWriter(dataSource, "UPDATE CUSTOMER SET GRADE = ? where ID = ?", "grade", "id")
+ */
+public class JdbcColumnarItemWriter implements ColumnarItemWriter {
+    private final JdbcTemplate jdbcTemplate;
+    private final String sql;
+    private final String[] columns;
+    private boolean assertUpdates = true;
+
+    public JdbcColumnarItemWriter(DataSource dataSource, String sql, String... columns) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.sql = sql;
+        this.columns = columns;
+    }
+
+    public void setAssertUpdates(boolean assertUpdates) {
+        this.assertUpdates = assertUpdates;
+    }
+
+    @Override
+    public void write(ColumnarChunk chunk) {
+        int[] rows = new int[chunk.size() - chunk.filterCount()];
+        int count = 0;
+        for (int row = 0; row < chunk.size(); row++) {
+            if (!chunk.isFiltered(row)) {
+                rows[count++] = row;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+
+        ColumnarChunk.Column[] parameters = new ColumnarChunk.Column[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            parameters[i] = chunk.column(columns[i]);
+        }
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                int row = rows[i];
+                for (int index = 0; index < parameters.length; index++) {
+                    bind(ps, index + 1, parameters[index], row);
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.length;
+            }
+        });
+
+        if (assertUpdates) {
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == 0) {
+                    throw new EmptyResultDataAccessException("Row " + rows[i] + " of " + chunk.size()
+                            + " did not update any rows: [" + sql + "]", 1);
+                }
+            }
+        }
+    }
+
+    private void bind(PreparedStatement ps, int index, ColumnarChunk.Column column, int row) throws SQLException {
+        if (column instanceof ColumnarChunk.IntColumn intColumn) {
+            ps.setInt(index, intColumn.values[row]);
+        } else if (column instanceof ColumnarChunk.LongColumn longColumn) {
+            ps.setLong(index, longColumn.values[row]);
+        } else if (column instanceof ColumnarChunk.DictionaryColumn dictionaryColumn) {
+            Object value = dictionaryColumn.dictionary.value(dictionaryColumn.codes[row]);
+            if (value == null) {
+                ps.setNull(index, Types.VARCHAR);
+            } else {
+                ps.setObject(index, value instanceof Enum<?> constant ? constant.name() : value);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package study.batch.support.columnar;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * cursor 로 읽은 ResultSet 의 값을 아이템을 만들지 않고 바로 컬럼 배열에 채우는 ColumnarReader
+ * - 조회 결과의 컬럼 label 과 이름이 같은(대소문자 무시) chunk 컬럼만 채운다. (SELECT AGE AS age ...)
+ * - int / long 컬럼은 getInt / getLong 으로 읽으므로 NULL 은 0 이 된다. 사전 컬럼은 getString 으로 읽어 인코딩한다.
+ * - 읽은 row 수를 ExecutionContext 에 남기고, 재시작하면 그만큼 건너뛴다. (정렬된 조회여야 한다)
+ * - cursor 는 여러 chunk 트랜잭션에 걸쳐 열려 있으므로 Step 트랜잭션과 별개의 Connection 을 사용한다.
+ */
+@Slf4j
+public class JdbcCursorColumnarReader implements ColumnarReader, ItemStream {
+    private static final String READ_COUNT = "read.count";
+
+    private final String name;
+    private final DataSource dataSource;
+    private final String sql;
+    private final Object[] parameters;
+    private int fetchSize = -1;
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private long readCount;
+
+    private ColumnarChunk mappedChunk;
+    private ColumnarChunk.Column[] columns;
+    private int[] indexes;
+
+    public JdbcCursorColumnarReader(String name, DataSource dataSource, String sql, Object... parameters) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.sql = sql;
+        this.parameters = parameters;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        readCount = executionContext.getLong(key(READ_COUNT), 0L);
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (fetchSize >= 0) {
+                statement.setFetchSize(fetchSize);
+            }
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            resultSet = statement.executeQuery();
+            for (long skipped = 0; skipped < readCount; skipped++) {
+                if (!resultSet.next()) {
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            close();
+            throw new ItemStreamException("Failed to open cursor for " + name, e);
+        }
+        if (readCount > 0) {
+            log.info("{} restarts after {} rows", name, readCount);
+        }
+    }
+
+    @Override
+    public int read(ColumnarChunk chunk) throws SQLException {
+        if (resultSet == null) {
+            throw new IllegalStateException(name + " must be opened before read.!");
+        }
+        if (chunk != mappedChunk) {
+            map(chunk);
+        }
+
+        int count = 0;
+        while (!chunk.isFull() && resultSet.next()) {
+            int row = chunk.append();
+            for (int i = 0; i < columns.length; i++) {
+                ColumnarChunk.Column column = columns[i];
+                if (column instanceof ColumnarChunk.IntColumn intColumn) {
+                    intColumn.values[row] = resultSet.getInt(indexes[i]);
+                } else if (column instanceof ColumnarChunk.LongColumn longColumn) {
+                    longColumn.values[row] = resultSet.getLong(indexes[i]);
+                } else if (column instanceof ColumnarChunk.DictionaryColumn dictionaryColumn) {
+                    dictionaryColumn.codes[row] = dictionaryColumn.dictionary.parse(resultSet.getString(indexes[i]));
+                }
+            }
+            count++;
+        }
+        readCount += count;
+        return count;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putLong(key(READ_COUNT), readCount);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        JdbcUtils.closeResultSet(resultSet);
+        JdbcUtils.closeStatement(statement);
+        JdbcUtils.closeConnection(connection);
+        resultSet = null;
+        statement = null;
+        connection = null;
+        mappedChunk = null;
+    }
+
+    private void map(ColumnarChunk chunk) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        List<ColumnarChunk.Column> mapped = new ArrayList<>();
+        List<Integer> mappedIndexes = new ArrayList<>();
+        for (ColumnarChunk.Column column : chunk.columns()) {
+            for (int index = 1; index <= metaData.getColumnCount(); index++) {
+                if (JdbcUtils.lookupColumnName(metaData, index).equalsIgnoreCase(column.name)) {
+                    mapped.add(column);
+                    mappedIndexes.add(index);
+                    break;
+                }
+            }
+        }
+        if (mapped.isEmpty()) {
+            throw new IllegalArgumentException("No column of " + name + " query matches the chunk columns.!");
+        }
+        columns = mapped.toArray(new ColumnarChunk.Column[0]);
+        indexes = mappedIndexes.stream().mapToInt(Integer::intValue).toArray();
+        mappedChunk = chunk;
+    }
+
+    private String key(String suffix) {
+        return name + "." + suffix;
+    }
+}
@@ -0,0 +1,20 @@
+package study.batch.support.datasource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * ItemReader 가 사용할 읽기 전용 DataSource 를 주입받을 때 사용하는 Qualifier
+ * batch.datasource.read.url 이 없으면 기본 DataSource 와 같은 인스턴스가 주입된다.
+ */
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER, ElementType.TYPE, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Qualifier
+public @interface ReadDataSource {
+}
@@ -0,0 +1,85 @@
+package study.batch.support.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import study.batch.common.Customer;
+
+import javax.sql.DataSource;
+
+/**
+ * 기본(쓰기) DataSource 와 Reader 용 DataSource 설정
+ * DataSource Bean 을 하나라도 직접 등록하면 자동 설정이 기본 DataSource 를 만들지 않으므로,
+ * 기본 DataSource 도 자동 설정과 같은 방식(spring.datasource.*, spring.datasource.hikari.*)으로 여기서 만든다.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ReadDataSourceProperties.class)
+public class ReadDataSourceConfiguration {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (properties.getName() != null) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    @ReadDataSource
+    @ConditionalOnExpression("'${batch.datasource.read.url:}' != ''")
+    public HikariDataSource readDataSource(ReadDataSourceProperties properties, DataSourceProperties primary) {
+        log.info("------------------ Init readDataSource ({}) -----------------", properties.getUrl());
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("batch-read");
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername() != null ? properties.getUsername() : primary.determineUsername());
+        dataSource.setPassword(properties.getPassword() != null ? properties.getPassword() : primary.determinePassword());
+        if (properties.getDriverClassName() != null) {
+            dataSource.setDriverClassName(properties.getDriverClassName());
+        }
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        dataSource.setMinimumIdle(properties.getMinimumIdle());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Reader 용 DataSource 가 없으면 기본 DataSource 를 그대로 사용한다.
+     */
+    @Bean(destroyMethod = "")
+    @ReadDataSource
+    @ConditionalOnExpression("'${batch.datasource.read.url:}' == ''")
+    public DataSource sharedReadDataSource(@Qualifier("dataSource") DataSource dataSource) {
+        return dataSource;
+    }
+
+    @Bean
+    public ReadEntityManagerFactory readEntityManagerFactory(ReadDataSourceProperties properties,
+                                                             EntityManagerFactoryBuilder builder,
+                                                             @ReadDataSource DataSource readDataSource,
+                                                             EntityManagerFactory entityManagerFactory) {
+        if (!properties.isSeparate()) {
+            return new ReadEntityManagerFactory(entityManagerFactory, false);
+        }
+        LocalContainerEntityManagerFactoryBean factoryBean = builder.dataSource(readDataSource)
+                .packages(Customer.class)
+                .persistenceUnit("read")
+                .build();
+        factoryBean.afterPropertiesSet();
+        return new ReadEntityManagerFactory(factoryBean.getObject(), true);
+    }
+}
@@ -0,0 +1,34 @@
+package study.batch.support.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * ItemReader 전용 DataSource 설정 (batch.datasource.read.*)
+ * url 을 지정하면 replica(또는 테스트용 두 번째 DB)에 별도의 커넥션 풀을 만들고, Writer 는 계속 기본 DataSource 를 사용한다.
+ *
+ * batch.datasource.read.url=jdbc:mysql://replica:3306/batch
+ * batch.datasource.read.maximum-pool-size=8
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "batch.datasource.read")
+public class ReadDataSourceProperties {
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+
+    private int maximumPoolSize = 4;
+    private int minimumIdle = 1;
+
+    /**
+     * Reader 의 JDBC fetch size 기본값
+     */
+    private int fetchSize = 500;
+
+    public boolean isSeparate() {
+        return url != null && !url.isBlank();
+    }
+}
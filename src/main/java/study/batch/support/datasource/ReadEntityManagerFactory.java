@@ -0,0 +1,29 @@
+package study.batch.support.datasource;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * 읽기 전용 DataSource 를 사용하는 EntityManagerFactory
+ * EntityManagerFactory 타입으로 Bean 을 등록하면 JPA 자동 설정이 기본 EntityManagerFactory 를 만들지 않으므로 한 번 감싸서 등록한다.
+ */
+public class ReadEntityManagerFactory implements DisposableBean {
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean separate;
+
+    public ReadEntityManagerFactory(EntityManagerFactory entityManagerFactory, boolean separate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.separate = separate;
+    }
+
+    public EntityManagerFactory getObject() {
+        return entityManagerFactory;
+    }
+
+    @Override
+    public void destroy() {
+        if (separate) {
+            entityManagerFactory.close();
+        }
+    }
+}
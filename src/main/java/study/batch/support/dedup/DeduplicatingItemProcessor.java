@@ -0,0 +1,206 @@
+package study.batch.support.dedup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * key 필드의 64-bit hash 로 이미 처리한 아이템을 걸러내는(null 반환) ItemProcessor
+ * - 정확한 확인은 LongHashSet(long[]) 으로 하므로 문자열 key 를 담는 HashSet 보다 메모리가 훨씬 작고 maxEntries 로 고정된다.
+ * - bloomFilter 를 켜면 Bloom filter 를 앞에 두어, 처음 보는 key(대부분의 아이템)는 작은 bit 배열만 보고 바로 통과시킨다.
+ * - exactConfirmation(false) 면 Bloom filter 만 사용한다. 메모리는 가장 작지만 falsePositiveRate 비율로 중복이 아닌 아이템도 걸러질 수 있다.
+ * - stateFile 을 지정하면 commit 된 chunk 의 hash 를 파일에 이어 쓰고, 재시작 시 마지막 commit 지점까지 다시 읽어 들인다.
+ *   (ItemStream 이므로 Step 에 stream 으로 등록해야 한다)
+ * - rollback 된 chunk 의 key 는 메모리에 남으므로 fault-tolerant step 에서는 processorNonTransactional() 과 함께 사용한다.
+ * - 서로 다른 key 의 hash 가 충돌할 확률은 1억 건 기준 약 3 x 10^-4 이다.
+ */
+@Slf4j
+public class DeduplicatingItemProcessor<T> implements ItemProcessor<T, T>, ItemStream {
+    private static final String STATE_LENGTH = "dedup.state.length";
+
+    private final String name;
+    private final List<Function<? super T, ?>> keyExtractors;
+    private final long maxEntries;
+    private final double falsePositiveRate;
+    private final boolean exactConfirmation;
+    private final Path stateFile;
+
+    private LongHashSet seen;
+    private BloomFilter bloomFilter;
+    private FileChannel stateChannel;
+    private long[] pending = new long[256];
+    private int pendingCount;
+    private long duplicates;
+
+    DeduplicatingItemProcessor(String name, List<Function<? super T, ?>> keyExtractors, long maxEntries,
+                               double falsePositiveRate, boolean exactConfirmation, Path stateFile) {
+        this.name = name;
+        this.keyExtractors = keyExtractors;
+        this.maxEntries = maxEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.exactConfirmation = exactConfirmation;
+        this.stateFile = stateFile;
+    }
+
+    @Override
+    public synchronized T process(T item) {
+        if (seen == null && bloomFilter == null) {
+            allocate();
+        }
+        long hash = hash(item);
+        if (!markSeen(hash)) {
+            duplicates++;
+            return null;
+        }
+        if (stateFile != null) {
+            if (pendingCount == pending.length) {
+                pending = Arrays.copyOf(pending, pending.length * 2);
+            }
+            pending[pendingCount++] = hash;
+        }
+        return item;
+    }
+
+    @Override
+    public synchronized void open(ExecutionContext executionContext) throws ItemStreamException {
+        allocate();
+        if (stateFile == null) {
+            return;
+        }
+
+        long committedLength = executionContext.getLong(name + "." + STATE_LENGTH, 0L);
+        try {
+            Path parent = stateFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            stateChannel = FileChannel.open(stateFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (stateChannel.size() < committedLength) {
+                throw new ItemStreamException("Dedup state file " + stateFile + " is shorter than the committed length " + committedLength);
+            }
+            // 마지막 commit 이후에 기록된 hash 는 버린다.
+            stateChannel.truncate(committedLength);
+            restore(committedLength);
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to open dedup state file " + stateFile, e);
+        }
+    }
+
+    @Override
+    public synchronized void update(ExecutionContext executionContext) throws ItemStreamException {
+        if (stateChannel == null) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(pendingCount * Long.BYTES);
+            buffer.asLongBuffer().put(pending, 0, pendingCount);
+            stateChannel.position(stateChannel.size());
+            while (buffer.hasRemaining()) {
+                stateChannel.write(buffer);
+            }
+            stateChannel.force(false);
+            pendingCount = 0;
+            executionContext.putLong(name + "." + STATE_LENGTH, stateChannel.size());
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to write dedup state file " + stateFile, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws ItemStreamException {
+        log.info("{} removed {} duplicates", name, duplicates);
+        try {
+            if (stateChannel != null) {
+                stateChannel.close();
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to close dedup state file " + stateFile, e);
+        } finally {
+            stateChannel = null;
+            seen = null;
+            bloomFilter = null;
+            pendingCount = 0;
+            duplicates = 0;
+        }
+    }
+
+    /**
+     * @return 처음 보는 hash 면 true
+     */
+    private boolean markSeen(long hash) {
+        if (bloomFilter != null && !bloomFilter.mightContain(hash)) {
+            bloomFilter.put(hash);
+            if (seen != null) {
+                seen.add(hash);
+            }
+            return true;
+        }
+        if (seen == null) {
+            return false;
+        }
+        if (seen.add(hash)) {
+            if (bloomFilter != null) {
+                bloomFilter.put(hash);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void allocate() {
+        seen = exactConfirmation ? new LongHashSet(maxEntries) : null;
+        bloomFilter = falsePositiveRate > 0 ? new BloomFilter(maxEntries, falsePositiveRate) : null;
+        log.info("{} allocated {} bytes for {} keys", name,
+                (seen == null ? 0 : seen.sizeInBytes()) + (bloomFilter == null ? 0 : bloomFilter.sizeInBytes()), maxEntries);
+    }
+
+    private void restore(long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192 * Long.BYTES);
+        long position = 0;
+        while (position < length) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), length - position));
+            int read = stateChannel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            position += read;
+            buffer.flip();
+            while (buffer.remaining() >= Long.BYTES) {
+                markSeen(buffer.getLong());
+            }
+            position -= buffer.remaining();
+        }
+        log.info("{} restored {} keys from {}", name, length / Long.BYTES, stateFile);
+    }
+
+    private long hash(T item) {
+        long hash = 0xcbf29ce484222325L;
+        for (Function<? super T, ?> keyExtractor : keyExtractors) {
+            String value = String.valueOf(keyExtractor.apply(item));
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+            }
+            // 필드 경계 ("ab" + "c" 와 "a" + "bc" 를 구분)
+            hash = (hash ^ 0x1f) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
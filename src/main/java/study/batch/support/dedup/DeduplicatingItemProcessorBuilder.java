@@ -0,0 +1,98 @@
+package study.batch.support.dedup;
+
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * DeduplicatingItemProcessor 를 만드는 Builder
+ *
+ * new DeduplicatingItemProcessorBuilder<Customer>()
+ *         .name("customerDedup")
+ *         .keyFields("name", "age")
+ *         .maxEntries(1_000_000)
+ *         .bloomFilter(0.01)
+ *         .stateFile(Path.of("./output/customer-dedup.state"))
+ *         .build();
+ */
+public class DeduplicatingItemProcessorBuilder<T> {
+    private final List<Function<? super T, ?>> keyExtractors = new ArrayList<>();
+
+    private String name;
+    private long maxEntries = 1_000_000;
+    private double falsePositiveRate;
+    private boolean exactConfirmation = true;
+    private Path stateFile;
+
+    public DeduplicatingItemProcessorBuilder<T> name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * 중복 판단에 사용할 bean property 이름
+     */
+    public DeduplicatingItemProcessorBuilder<T> keyFields(String... fieldNames) {
+        for (String fieldName : fieldNames) {
+            keyExtractors.add(item -> PropertyAccessorFactory.forBeanPropertyAccess(item).getPropertyValue(fieldName));
+        }
+        return this;
+    }
+
+    /**
+     * 중복 판단에 사용할 값을 직접 꺼내는 함수 (reflection 없이 호출된다)
+     */
+    @SafeVarargs
+    public final DeduplicatingItemProcessorBuilder<T> key(Function<? super T, ?>... extractors) {
+        for (Function<? super T, ?> extractor : extractors) {
+            keyExtractors.add(Objects.requireNonNull(extractor));
+        }
+        return this;
+    }
+
+    /**
+     * 기억할 최대 key 수. 메모리는 이 값으로 고정되며 넘으면 Step 이 실패한다.
+     */
+    public DeduplicatingItemProcessorBuilder<T> maxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+        return this;
+    }
+
+    public DeduplicatingItemProcessorBuilder<T> bloomFilter(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+        return this;
+    }
+
+    /**
+     * false 면 Bloom filter 만으로 중복을 판단한다.
+     */
+    public DeduplicatingItemProcessorBuilder<T> exactConfirmation(boolean exactConfirmation) {
+        this.exactConfirmation = exactConfirmation;
+        return this;
+    }
+
+    /**
+     * 재시작을 위해 commit 된 key hash 를 기록할 파일
+     */
+    public DeduplicatingItemProcessorBuilder<T> stateFile(Path stateFile) {
+        this.stateFile = stateFile;
+        return this;
+    }
+
+    public DeduplicatingItemProcessor<T> build() {
+        if (this.name == null) {
+            throw new IllegalArgumentException("name can not be null.!");
+        }
+        if (this.keyExtractors.isEmpty()) {
+            throw new IllegalArgumentException("keyFields can not be empty.!");
+        }
+        if (!this.exactConfirmation && this.falsePositiveRate <= 0) {
+            throw new IllegalArgumentException("bloomFilter must be configured without exactConfirmation.!");
+        }
+        return new DeduplicatingItemProcessor<T>(name, List.copyOf(keyExtractors), maxEntries, falsePositiveRate, exactConfirmation, stateFile);
+    }
+}
@@ -0,0 +1,90 @@
+package study.batch.support.dedup;
+
+/**
+ * 64-bit hash 값만 저장하는 open addressing(linear probing) 방식의 고정 크기 Set
+ * - long[] 하나만 사용하므로 항목당 약 8 / loadFactor byte 로 메모리가 고정되고 boxing 이 없다.
+ * - 0 은 빈 슬롯 표시로 쓰므로 별도 flag 로 관리한다.
+ * - maxEntries 를 넘게 추가하면 IllegalStateException 을 던진다. (메모리 예산 초과)
+ */
+public class LongHashSet {
+    private static final double LOAD_FACTOR = 0.7;
+
+    private final long[] table;
+    private final int mask;
+    private final long maxEntries;
+
+    private long size;
+    private boolean containsZero;
+
+    public LongHashSet(long maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive.!");
+        }
+        long capacity = Long.highestOneBit((long) Math.ceil(maxEntries / LOAD_FACTOR) - 1) << 1;
+        if (capacity > (1 << 30)) {
+            throw new IllegalArgumentException("maxEntries " + maxEntries + " is too large for a single table.!");
+        }
+        this.table = new long[(int) Math.max(capacity, 2)];
+        this.mask = table.length - 1;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return 새로 추가되었으면 true, 이미 있으면 false
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            checkCapacity();
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int index = index(value);
+        while (table[index] != 0) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        checkCapacity();
+        table[index] = value;
+        size++;
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        int index = index(value);
+        while (table[index] != 0) {
+            if (table[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long sizeInBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    private void checkCapacity() {
+        if (size >= maxEntries) {
+            throw new IllegalStateException("LongHashSet is full. (maxEntries: " + maxEntries + ")");
+        }
+    }
+
+    private int index(long value) {
+        return (int) (value ^ (value >>> 32)) & mask;
+    }
+}
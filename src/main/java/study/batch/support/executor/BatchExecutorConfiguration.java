@@ -0,0 +1,17 @@
+package study.batch.support.executor;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(BatchExecutorProperties.class)
+public class BatchExecutorConfiguration {
+
+    @Bean
+    public ConcurrentStepConfigurer concurrentStepConfigurer(BatchExecutorProperties properties, DataSource dataSource) {
+        return new ConcurrentStepConfigurer(properties, dataSource);
+    }
+}
@@ -0,0 +1,36 @@
+package study.batch.support.executor;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 멀티 스레드 Step 설정 (batch.executor.*)
+ * steps 에 등록되지 않은 Step 은 기존처럼 단일 스레드로 실행된다.
+ *
+ * batch.executor.mode=virtual
+ * batch.executor.steps.customerJdbcStep=4
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "batch.executor")
+public class BatchExecutorProperties {
+    public enum Mode {
+        PLATFORM, VIRTUAL
+    }
+
+    private Mode mode = Mode.PLATFORM;
+
+    /**
+     * DataSource 커넥션 풀 크기를 넘지 않도록 동시 실행 수를 제한할지 여부
+     */
+    private boolean limitToDataSourcePool = true;
+
+    /**
+     * Step 이름 -> 동시 실행 chunk 수
+     */
+    private Map<String, Integer> steps = new HashMap<>();
+}
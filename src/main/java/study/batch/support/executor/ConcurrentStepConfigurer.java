@@ -0,0 +1,135 @@
+package study.batch.support.executor;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.support.SynchronizedItemReader;
+import org.springframework.batch.item.support.SynchronizedItemStreamReader;
+import org.springframework.batch.item.support.SynchronizedItemStreamWriter;
+import org.springframework.batch.item.support.SynchronizedItemWriter;
+import org.springframework.batch.repeat.RepeatOperations;
+import org.springframework.batch.repeat.support.RepeatTemplate;
+import org.springframework.batch.repeat.support.TaskExecutorRepeatTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * batch.executor.steps 설정에 따라 Step 을 멀티 스레드로 전환해주는 설정 도우미
+ * - reader(...) : 멀티 스레드 Step 이면 Synchronized(Stream)ItemReader 로 감싸고, 재시작 위치가 의미 없으므로 Reader 상태를 Step 에 저장하지 않는다.
+ *   Reader Bean 은 다른 Step 과 공유될 수 있으므로 saveState 같은 설정은 바꾸지 않는다.
+ * - writer(...) : 멀티 스레드 Step 이면 Synchronized(Stream)ItemWriter 로 감싼다. (FlatFileItemWriter 등은 thread-safe 하지 않다)
+ * - stepOperations(...) : 멀티 스레드 Step 이면 TaskExecutorRepeatTemplate 을, 아니면 기본 RepeatTemplate 을 돌려준다.
+ * 동시 실행 수는 chunk 마다 커넥션을 하나씩 잡으므로 DataSource 커넥션 풀 크기를 넘지 않게 제한한다.
+ */
+@Slf4j
+public class ConcurrentStepConfigurer implements DisposableBean {
+    private final BatchExecutorProperties properties;
+    private final DataSource dataSource;
+
+    private final Map<String, TaskExecutor> executors = new ConcurrentHashMap<>();
+
+    /**
+     * 여러 스레드가 번갈아 읽으므로 저장된 read.count 로 재시작하면 일부 item 이 누락되거나 중복된다.
+     * delegate 의 update 는 (watermark 이동 같은 부수 효과 때문에) 호출하되, 남기는 상태는 Step ExecutionContext 에 넣지 않고 버린다.
+     */
+    private static class StatelessSynchronizedItemStreamReader<T> extends SynchronizedItemStreamReader<T> {
+        @Override
+        public void update(ExecutionContext executionContext) {
+            super.update(new ExecutionContext());
+        }
+    }
+
+    public ConcurrentStepConfigurer(BatchExecutorProperties properties, DataSource dataSource) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+    }
+
+    public boolean isConcurrent(String stepName) {
+        return concurrency(stepName) > 1;
+    }
+
+    public int concurrency(String stepName) {
+        int requested = properties.getSteps().getOrDefault(stepName, 1);
+        if (requested > 1 && properties.isLimitToDataSourcePool() && dataSource instanceof HikariDataSource hikari) {
+            return Math.min(requested, hikari.getMaximumPoolSize());
+        }
+        return Math.max(requested, 1);
+    }
+
+    public <T> ItemReader<T> reader(String stepName, ItemReader<T> reader) {
+        if (!isConcurrent(stepName)) {
+            return reader;
+        }
+        if (reader instanceof ItemStreamReader<T> streamReader) {
+            SynchronizedItemStreamReader<T> synchronizedReader = new StatelessSynchronizedItemStreamReader<>();
+            synchronizedReader.setDelegate(streamReader);
+            return synchronizedReader;
+        }
+        return new SynchronizedItemReader<>(reader);
+    }
+
+    public <T> ItemWriter<T> writer(String stepName, ItemWriter<T> writer) {
+        if (!isConcurrent(stepName)) {
+            return writer;
+        }
+        if (writer instanceof ItemStreamWriter<T> streamWriter) {
+            SynchronizedItemStreamWriter<T> synchronizedWriter = new SynchronizedItemStreamWriter<>();
+            synchronizedWriter.setDelegate(streamWriter);
+            return synchronizedWriter;
+        }
+        return new SynchronizedItemWriter<>(writer);
+    }
+
+    @SuppressWarnings("removal")
+    public RepeatOperations stepOperations(String stepName) {
+        int concurrency = concurrency(stepName);
+        if (concurrency <= 1) {
+            return new RepeatTemplate();
+        }
+
+        log.info("Step {} runs {} chunks concurrently on {} threads", stepName, concurrency, properties.getMode());
+        TaskExecutorRepeatTemplate repeatTemplate = new TaskExecutorRepeatTemplate();
+        repeatTemplate.setTaskExecutor(executors.computeIfAbsent(stepName, name -> createExecutor(name, concurrency)));
+        repeatTemplate.setThrottleLimit(concurrency);
+        return repeatTemplate;
+    }
+
+    private TaskExecutor createExecutor(String stepName, int concurrency) {
+        if (properties.getMode() == BatchExecutorProperties.Mode.VIRTUAL) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(stepName + "-");
+            try {
+                executor.setVirtualThreads(true);
+                executor.setConcurrencyLimit(concurrency);
+                return executor;
+            } catch (UnsupportedOperationException e) {
+                log.warn("Virtual threads are not supported on this JVM, {} falls back to platform threads", stepName);
+            }
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix(stepName + "-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void destroy() {
+        executors.values().forEach(executor -> {
+            if (executor instanceof ThreadPoolTaskExecutor pool) {
+                pool.shutdown();
+            }
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package study.batch.support.file;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * 가변 아이템 인스턴스를 chunk 사이에 재사용하기 위한 pool
+ * - acquire 할 인스턴스가 없으면 factory 로 만든다. 반납된 인스턴스는 maxIdle 개까지만 보관한다.
+ * - 반납 시점은 ItemPoolListener 가 정한다. (write 가 끝난 뒤, 또는 filter 된 직후)
+ * - 멀티 스레드 Step 에서 다른 thread 가 반납할 수 있으므로 synchronized 로 보호한다.
+ */
+public class ItemPool<T> {
+    private final Class<T> type;
+    private final Supplier<? extends T> factory;
+    private final int maxIdle;
+    private final ArrayDeque<T> idle;
+    private long created;
+
+    public ItemPool(Class<T> type, Supplier<? extends T> factory, int maxIdle) {
+        this.type = type;
+        this.factory = factory;
+        this.maxIdle = maxIdle;
+        this.idle = new ArrayDeque<>(Math.min(maxIdle, 4096));
+    }
+
+    public synchronized T acquire() {
+        T item = idle.pollLast();
+        if (item == null) {
+            created++;
+            item = factory.get();
+        }
+        return item;
+    }
+
+    /**
+     * pool 의 타입이 아닌 객체(processor 가 새로 만든 아이템 등)는 무시한다.
+     */
+    public synchronized void release(Object item) {
+        if (type.isInstance(item) && idle.size() < maxIdle) {
+            idle.addLast(type.cast(item));
+        }
+    }
+
+    public synchronized void releaseAll(Collection<?> items) {
+        for (Object item : items) {
+            release(item);
+        }
+    }
+
+    /**
+     * 지금까지 factory 로 만든 인스턴스 수. 정상 상태라면 chunk 크기 근처에서 멈춘다.
+     */
+    public synchronized long getCreatedCount() {
+        return created;
+    }
+}
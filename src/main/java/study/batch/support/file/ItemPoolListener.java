@@ -0,0 +1,30 @@
+package study.batch.support.file;
+
+import org.springframework.batch.core.annotation.AfterProcess;
+import org.springframework.batch.core.annotation.AfterWrite;
+import org.springframework.batch.item.Chunk;
+
+/**
+ * write 가 끝난 chunk 의 아이템과 filter 된 아이템을 ItemPool 에 돌려주는 Listener
+ * - fault tolerant Step 은 rollback 후 같은 아이템을 다시 처리하므로 사용하지 않는다.
+ * - 여러 listener 인터페이스를 동시에 구현하면 StepBuilder.listener(...) 호출이 모호해지므로 annotation 방식으로 등록한다.
+ */
+public class ItemPoolListener {
+    private final ItemPool<?> pool;
+
+    public ItemPoolListener(ItemPool<?> pool) {
+        this.pool = pool;
+    }
+
+    @AfterProcess
+    public void afterProcess(Object item, Object result) {
+        if (result == null) {
+            pool.release(item);
+        }
+    }
+
+    @AfterWrite
+    public void afterWrite(Chunk<?> items) {
+        pool.releaseAll(items.getItems());
+    }
+}
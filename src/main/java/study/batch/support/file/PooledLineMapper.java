@@ -0,0 +1,36 @@
+package study.batch.support.file;
+
+import org.springframework.batch.item.file.LineMapper;
+
+/**
+ * ReusableFieldSet 으로 나눈 줄을 ItemPool 에서 꺼낸 인스턴스에 채우는 LineMapper
+ * 줄마다 FieldSet / String[] / 아이템을 새로 만들지 않는다. (FlatFileItemReader 가 읽은 줄 String 은 제외)
+ * 아이템은 write 가 끝난 뒤 ItemPoolListener 가 pool 에 돌려주므로, Writer 나 Processor 가 아이템을 chunk 밖에서 들고 있으면 안 된다.
+ *
+ * new FlatFileItemReaderBuilder<Player>()
+ *         .lineMapper(new PooledLineMapper<>(new ReusableFieldSet(',', "No", "Name", "Age"), playerMapper, pool))
+ */
+public class PooledLineMapper<T> implements LineMapper<T> {
+    private final ReusableFieldSet fieldSet;
+    private final RecordMapper<? super T> recordMapper;
+    private final ItemPool<T> pool;
+
+    public PooledLineMapper(ReusableFieldSet fieldSet, RecordMapper<? super T> recordMapper, ItemPool<T> pool) {
+        this.fieldSet = fieldSet;
+        this.recordMapper = recordMapper;
+        this.pool = pool;
+    }
+
+    @Override
+    public T mapLine(String line, int lineNumber) throws Exception {
+        ReusableFieldSet fields = fieldSet.tokenize(line);
+        T item = pool.acquire();
+        try {
+            recordMapper.map(fields, item);
+        } catch (Exception e) {
+            pool.release(item);
+            throw e;
+        }
+        return item;
+    }
+}
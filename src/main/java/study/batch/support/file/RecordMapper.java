@@ -0,0 +1,9 @@
+package study.batch.support.file;
+
+/**
+ * tokenize 된 한 줄의 값을 이미 있는 아이템 인스턴스에 채우는 Mapper (FieldSetMapper 의 재사용 버전)
+ */
+@FunctionalInterface
+public interface RecordMapper<T> {
+    void map(ReusableFieldSet fields, T target) throws Exception;
+}
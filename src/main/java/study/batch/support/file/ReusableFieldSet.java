@@ -0,0 +1,160 @@
+package study.batch.support.file;
+
+import org.springframework.batch.item.file.transform.IncorrectTokenCountException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 한 줄을 구분자로 나눈 결과를 String[] / FieldSet 을 만들지 않고 줄 안의 위치(start, end)로만 들고 있는 tokenizer
+ * - tokenize(line) 을 부를 때마다 같은 인스턴스와 위치 배열을 재사용하므로, 다음 줄을 읽기 전에 값을 꺼내 써야 한다.
+ * - readInt / readLong 은 문자를 직접 파싱하므로 객체를 만들지 않는다. readString 만 새 String 을 만든다.
+ * - quoteCharacter 로 감싼 값은 따옴표를 떼고 읽으며, 안의 "" 는 " 로 바꾼다.
+ * - strict(기본값)이면 names 와 token 수가 다를 때 IncorrectTokenCountException 을 던진다.
+ */
+public class ReusableFieldSet {
+    private static final char DEFAULT_QUOTE_CHARACTER = '"';
+
+    private final char delimiter;
+    private final char quoteCharacter;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final int expectedCount;
+    private boolean strict = true;
+
+    private String line;
+    private int[] starts;
+    private int[] ends;
+    private boolean[] quoted;
+    private int count;
+
+    public ReusableFieldSet(char delimiter, String... names) {
+        this(delimiter, DEFAULT_QUOTE_CHARACTER, names);
+    }
+
+    public ReusableFieldSet(char delimiter, char quoteCharacter, String... names) {
+        this.delimiter = delimiter;
+        this.quoteCharacter = quoteCharacter;
+        for (int i = 0; i < names.length; i++) {
+            indexes.put(names[i], i);
+        }
+        this.expectedCount = names.length;
+        int capacity = Math.max(names.length, 8);
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+        this.quoted = new boolean[capacity];
+    }
+
+    public void setStrict(boolean strict) {
+        this.strict = strict;
+    }
+
+    public ReusableFieldSet tokenize(String line) {
+        this.line = line;
+        this.count = 0;
+        int length = line.length();
+        int position = 0;
+        while (true) {
+            int start = position;
+            boolean inQuotes = false;
+            while (position < length) {
+                char c = line.charAt(position);
+                if (c == quoteCharacter) {
+                    inQuotes = !inQuotes;
+                } else if (c == delimiter && !inQuotes) {
+                    break;
+                }
+                position++;
+            }
+            add(start, position);
+            if (position >= length) {
+                break;
+            }
+            position++;
+        }
+        if (count == 1 && length == 0) {
+            count = 0;
+        }
+        if (strict && expectedCount > 0 && count != expectedCount) {
+            throw new IncorrectTokenCountException(expectedCount, count, line);
+        }
+        return this;
+    }
+
+    public int getFieldCount() {
+        return count;
+    }
+
+    public String readString(int index) {
+        checkIndex(index);
+        String value = line.substring(starts[index], ends[index]);
+        if (quoted[index] && value.indexOf(quoteCharacter) >= 0) {
+            String quote = String.valueOf(quoteCharacter);
+            value = value.replace(quote + quote, quote);
+        }
+        return value;
+    }
+
+    public String readString(String name) {
+        return readString(indexOf(name));
+    }
+
+    public int readInt(int index) {
+        long value = readLong(index);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of int range: " + readString(index));
+        }
+        return (int) value;
+    }
+
+    public int readInt(String name) {
+        return readInt(indexOf(name));
+    }
+
+    public long readLong(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        int end = ends[index];
+        while (start < end && Character.isWhitespace(line.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            throw new NumberFormatException("Unparseable number: empty field " + index);
+        }
+        return Long.parseLong(line, start, end, 10);
+    }
+
+    public long readLong(String name) {
+        return readLong(indexOf(name));
+    }
+
+    private void add(int start, int end) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+            quoted = Arrays.copyOf(quoted, count * 2);
+        }
+        boolean isQuoted = end - start >= 2 && line.charAt(start) == quoteCharacter && line.charAt(end - 1) == quoteCharacter;
+        starts[count] = isQuoted ? start + 1 : start;
+        ends[count] = isQuoted ? end - 1 : end;
+        quoted[count] = isQuoted;
+        count++;
+    }
+
+    private int indexOf(String name) {
+        Integer index = indexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("Cannot access field [" + name + "] from " + indexes.keySet());
+        }
+        return index;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("There is no field at index " + index + " in line: " + line);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package study.batch.support.flow;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.UnexpectedJobExecutionException;
+import org.springframework.batch.core.job.AbstractJob;
+import org.springframework.batch.support.PatternMatcher;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Step 간 의존 관계(DAG)를 보고 선행 Step 이 모두 COMPLETED 된 Step 을 TaskExecutor 에서 동시에 실행하는 Job
+ * - 전체 실행 시간은 Step 의 합이 아니라 의존 관계상 가장 긴 경로(critical path)가 된다.
+ * - Step 의 ExitStatus 가 on(...) 패턴과 맞으면 to / stop / fail 전이를 따른다. 후행 Step 은 COMPLETED 일 때만 실행된다.
+ * - to(...) 로만 도달하는 Step 은 처음부터 실행하지 않으며, 그 Step 에 선언한 전이도 같은 방식으로 따른다.
+ * - 전이가 없는 실패는 Job 을 FAILED 로 만들며, 이미 실행 중인 Step 은 끝날 때까지 기다린다.
+ * - 재시작 시 COMPLETED 된 Step 은 기존 Job 과 동일하게 건너뛴다.
+ */
+public class DagJob extends AbstractJob {
+    private final Map<String, Node> nodes;
+    private final Map<String, Node> targets;
+    private final TaskExecutor taskExecutor;
+
+    public record Transition(String pattern, Action action, Step next) {
+    }
+
+    public enum Action {
+        TO, STOP, FAIL
+    }
+
+    public record Node(Step step, Set<String> dependsOn, List<Transition> transitions) {
+    }
+
+    private record Result(Node node, StepExecution stepExecution, Throwable error) {
+    }
+
+    /**
+     * @param nodes   의존 관계에 따라 실행하는 Step
+     * @param targets to(...) 로만 도달하는 Step
+     */
+    DagJob(String name, Map<String, Node> nodes, Map<String, Node> targets, TaskExecutor taskExecutor) {
+        super(name);
+        this.nodes = nodes;
+        this.targets = targets;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public Step getStep(String stepName) {
+        Node node = nodes.containsKey(stepName) ? nodes.get(stepName) : targets.get(stepName);
+        return node == null ? null : node.step();
+    }
+
+    @Override
+    public Collection<String> getStepNames() {
+        Set<String> names = new HashSet<>(nodes.keySet());
+        names.addAll(targets.keySet());
+        return names;
+    }
+
+    @Override
+    protected void doExecute(JobExecution execution) throws JobExecutionException {
+        Map<String, Node> pending = new LinkedHashMap<>(nodes);
+        Set<String> completed = new HashSet<>();
+        BlockingQueue<Result> results = new LinkedBlockingQueue<>();
+        List<Throwable> errors = new ArrayList<>();
+
+        int running = 0;
+        boolean halted = false;
+        StepExecution failed = null;
+        BatchStatus failedStatus = BatchStatus.FAILED;
+        boolean stopped = false;
+
+        while (true) {
+            if (!halted) {
+                for (Node node : new ArrayList<>(pending.values())) {
+                    if (completed.containsAll(node.dependsOn())) {
+                        pending.remove(node.step().getName());
+                        running++;
+                        taskExecutor.execute(() -> results.add(run(node, execution)));
+                    }
+                }
+            }
+            if (running == 0) {
+                break;
+            }
+
+            Result result = take(results);
+            running--;
+            if (result.error() != null) {
+                errors.add(result.error());
+                halted = true;
+                continue;
+            }
+
+            StepExecution stepExecution = result.stepExecution();
+            boolean stepCompleted = stepExecution.getStatus() == BatchStatus.COMPLETED;
+            if (stepCompleted) {
+                completed.add(result.node().step().getName());
+            }
+
+            Transition transition = findTransition(result.node(), stepExecution.getExitStatus());
+            if (transition == null) {
+                if (!stepCompleted) {
+                    failed = stepExecution;
+                    failedStatus = stepExecution.getStatus();
+                    halted = true;
+                }
+            } else if (transition.action() == Action.TO) {
+                Node next = targets.get(transition.next().getName());
+                running++;
+                taskExecutor.execute(() -> results.add(run(next, execution)));
+            } else if (transition.action() == Action.STOP) {
+                stopped = true;
+                halted = true;
+            } else {
+                failed = stepExecution;
+                failedStatus = BatchStatus.FAILED;
+                halted = true;
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            rethrow(errors.get(0));
+        }
+        if (failed != null) {
+            execution.upgradeStatus(failedStatus);
+            execution.setExitStatus(failedStatus == BatchStatus.FAILED ? failed.getExitStatus().and(ExitStatus.FAILED) : failed.getExitStatus());
+        } else if (stopped) {
+            execution.upgradeStatus(BatchStatus.STOPPED);
+            execution.setExitStatus(ExitStatus.STOPPED);
+        } else {
+            execution.upgradeStatus(BatchStatus.COMPLETED);
+            execution.setExitStatus(ExitStatus.COMPLETED);
+        }
+    }
+
+    private Result run(Node node, JobExecution execution) {
+        try {
+            return new Result(node, handleStep(node.step(), execution), null);
+        } catch (Throwable e) {
+            return new Result(node, null, e);
+        }
+    }
+
+    private Transition findTransition(Node node, ExitStatus exitStatus) {
+        for (Transition transition : node.transitions()) {
+            if (PatternMatcher.match(transition.pattern(), exitStatus.getExitCode())) {
+                return transition;
+            }
+        }
+        return null;
+    }
+
+    private Result take(BlockingQueue<Result> results) {
+        try {
+            return results.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedJobExecutionException("Interrupted while waiting for steps", e);
+        }
+    }
+
+    private void rethrow(Throwable error) throws JobExecutionException {
+        if (error instanceof JobExecutionException jobExecutionException) {
+            throw jobExecutionException;
+        }
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (error instanceof Error e) {
+            throw e;
+        }
+        throw new UnexpectedJobExecutionException("Step execution failed", error);
+    }
+}
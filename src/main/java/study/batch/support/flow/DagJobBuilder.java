@@ -0,0 +1,277 @@
+package study.batch.support.flow;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.JobParametersIncrementer;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DagJob 을 만드는 Builder
+ * 선행 관계는 dependsOn(...) 으로 직접 지정하거나, produces / consumes 로 데이터 이름을 선언하면
+ * 해당 데이터를 만드는 Step 에 자동으로 의존한다. 아무 관계도 없는 Step 들은 동시에 실행된다.
+ * on(...).to(next) 의 next 는 전이로만 실행된다. next 도 step(next) 로 등록하면 next 의 전이를 선언할 수 있지만,
+ * 이런 Step 은 의존 관계(dependsOn / consumes)를 가지거나 다른 Step 의 선행 Step 이 될 수 없다.
+ *
+ * new DagJobBuilder("job", jobRepository)
+ *         .step(step01).produces("customers")
+ *         .step(step02)
+ *         .step(step03).consumes("customers").on("FAILED").stop()
+ *         .build();
+ */
+public class DagJobBuilder {
+    private static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+    private final String name;
+    private final JobRepository jobRepository;
+    private final Map<String, NodeBuilder> steps = new LinkedHashMap<>();
+    private final List<JobExecutionListener> listeners = new ArrayList<>();
+
+    private JobParametersIncrementer incrementer;
+    private TaskExecutor taskExecutor;
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private boolean restartable = true;
+
+    public DagJobBuilder(String name, JobRepository jobRepository) {
+        this.name = name;
+        this.jobRepository = jobRepository;
+    }
+
+    public DagJobBuilder incrementer(JobParametersIncrementer incrementer) {
+        this.incrementer = incrementer;
+        return this;
+    }
+
+    public DagJobBuilder listener(JobExecutionListener listener) {
+        this.listeners.add(listener);
+        return this;
+    }
+
+    public DagJobBuilder preventRestart() {
+        this.restartable = false;
+        return this;
+    }
+
+    /**
+     * Step 을 실행할 TaskExecutor. 지정하지 않으면 maxConcurrency 만큼만 동시에 실행하는 SimpleAsyncTaskExecutor 를 사용한다.
+     */
+    public DagJobBuilder taskExecutor(TaskExecutor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+        return this;
+    }
+
+    public DagJobBuilder maxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    public NodeBuilder step(Step step) {
+        if (steps.containsKey(step.getName())) {
+            throw new IllegalArgumentException("Step " + step.getName() + " is already registered.!");
+        }
+        NodeBuilder node = new NodeBuilder(step);
+        steps.put(step.getName(), node);
+        return node;
+    }
+
+    public Job build() {
+        Map<String, Set<String>> producers = new HashMap<>();
+        for (NodeBuilder step : steps.values()) {
+            for (String output : step.produces) {
+                producers.computeIfAbsent(output, key -> new HashSet<>()).add(step.step.getName());
+            }
+        }
+
+        Map<String, Step> targetSteps = new LinkedHashMap<>();
+        for (NodeBuilder step : steps.values()) {
+            for (DagJob.Transition transition : step.transitions) {
+                if (transition.next() != null) {
+                    targetSteps.put(transition.next().getName(), transition.next());
+                }
+            }
+        }
+
+        Map<String, DagJob.Node> nodes = new LinkedHashMap<>();
+        Map<String, DagJob.Node> targets = new LinkedHashMap<>();
+        for (NodeBuilder step : steps.values()) {
+            Set<String> dependsOn = new LinkedHashSet<>(step.dependsOn);
+            for (String input : step.consumes) {
+                Set<String> sources = producers.get(input);
+                if (sources == null) {
+                    throw new IllegalArgumentException("No step produces " + input + " consumed by " + step.step.getName());
+                }
+                dependsOn.addAll(sources);
+            }
+            dependsOn.remove(step.step.getName());
+            for (String dependency : dependsOn) {
+                if (!steps.containsKey(dependency)) {
+                    throw new IllegalArgumentException("Unknown step " + dependency + " in dependsOn of " + step.step.getName());
+                }
+                if (targetSteps.containsKey(dependency)) {
+                    throw new IllegalArgumentException("Step " + step.step.getName() + " can not depend on " + dependency + " which is reached by to(...).!");
+                }
+            }
+
+            DagJob.Node node = new DagJob.Node(step.step, dependsOn, List.copyOf(step.transitions));
+            if (targetSteps.containsKey(step.step.getName())) {
+                if (!dependsOn.isEmpty()) {
+                    throw new IllegalArgumentException("Step " + step.step.getName() + " is reached by to(...) and can not have dependsOn / consumes.!");
+                }
+                targets.put(step.step.getName(), node);
+            } else {
+                nodes.put(step.step.getName(), node);
+            }
+        }
+        targetSteps.forEach((stepName, step) -> targets.computeIfAbsent(stepName, key -> new DagJob.Node(step, Set.of(), List.of())));
+        if (nodes.isEmpty() && !targets.isEmpty()) {
+            throw new IllegalArgumentException("Every step of " + name + " is reached by to(...), nothing can start.!");
+        }
+        checkAcyclic(nodes);
+        targets.keySet().forEach(stepName -> checkTransitionsAcyclic(stepName, targets, new LinkedHashSet<>()));
+
+        TaskExecutor executor = taskExecutor;
+        if (executor == null) {
+            SimpleAsyncTaskExecutor simpleAsyncTaskExecutor = new SimpleAsyncTaskExecutor(name + "-");
+            simpleAsyncTaskExecutor.setConcurrencyLimit(maxConcurrency);
+            executor = simpleAsyncTaskExecutor;
+        }
+
+        DagJob job = new DagJob(name, nodes, targets, executor);
+        job.setJobRepository(jobRepository);
+        job.setRestartable(restartable);
+        if (incrementer != null) {
+            job.setJobParametersIncrementer(incrementer);
+        }
+        listeners.forEach(job::registerJobExecutionListener);
+        return job;
+    }
+
+    private void checkAcyclic(Map<String, DagJob.Node> nodes) {
+        Map<String, Integer> inDegree = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        nodes.forEach((stepName, node) -> {
+            inDegree.put(stepName, node.dependsOn().size());
+            node.dependsOn().forEach(dependency -> dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(stepName));
+        });
+
+        Deque<String> ready = new ArrayDeque<>();
+        inDegree.forEach((stepName, degree) -> {
+            if (degree == 0) {
+                ready.add(stepName);
+            }
+        });
+
+        int visited = 0;
+        while (!ready.isEmpty()) {
+            String stepName = ready.poll();
+            visited++;
+            for (String dependent : dependents.getOrDefault(stepName, List.of())) {
+                if (inDegree.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (visited != nodes.size()) {
+            throw new IllegalArgumentException("Steps of " + name + " have a circular dependency.!");
+        }
+    }
+
+    /**
+     * to(...) 로 이어지는 Step 이 다시 자신으로 돌아오면 실패할 때마다 끝없이 재실행되므로 막는다.
+     */
+    private void checkTransitionsAcyclic(String stepName, Map<String, DagJob.Node> targets, Set<String> path) {
+        if (!path.add(stepName)) {
+            throw new IllegalArgumentException("Transitions of " + name + " loop back to " + stepName + ".!");
+        }
+        for (DagJob.Transition transition : targets.get(stepName).transitions()) {
+            if (transition.next() != null) {
+                checkTransitionsAcyclic(transition.next().getName(), targets, path);
+            }
+        }
+        path.remove(stepName);
+    }
+
+    public class NodeBuilder {
+        private final Step step;
+        private final Set<String> dependsOn = new LinkedHashSet<>();
+        private final Set<String> produces = new LinkedHashSet<>();
+        private final Set<String> consumes = new LinkedHashSet<>();
+        private final List<DagJob.Transition> transitions = new ArrayList<>();
+
+        private NodeBuilder(Step step) {
+            this.step = step;
+        }
+
+        public NodeBuilder dependsOn(String... stepNames) {
+            dependsOn.addAll(List.of(stepNames));
+            return this;
+        }
+
+        public NodeBuilder dependsOn(Step... steps) {
+            for (Step dependency : steps) {
+                dependsOn.add(dependency.getName());
+            }
+            return this;
+        }
+
+        public NodeBuilder produces(String... outputs) {
+            produces.addAll(List.of(outputs));
+            return this;
+        }
+
+        public NodeBuilder consumes(String... inputs) {
+            consumes.addAll(List.of(inputs));
+            return this;
+        }
+
+        public TransitionBuilder on(String pattern) {
+            return new TransitionBuilder(this, pattern);
+        }
+
+        public NodeBuilder step(Step step) {
+            return DagJobBuilder.this.step(step);
+        }
+
+        public Job build() {
+            return DagJobBuilder.this.build();
+        }
+    }
+
+    public static class TransitionBuilder {
+        private final NodeBuilder parent;
+        private final String pattern;
+
+        private TransitionBuilder(NodeBuilder parent, String pattern) {
+            this.parent = parent;
+            this.pattern = pattern;
+        }
+
+        public NodeBuilder to(Step next) {
+            parent.transitions.add(new DagJob.Transition(pattern, DagJob.Action.TO, next));
+            return parent;
+        }
+
+        public NodeBuilder stop() {
+            parent.transitions.add(new DagJob.Transition(pattern, DagJob.Action.STOP, null));
+            return parent;
+        }
+
+        public NodeBuilder fail() {
+            parent.transitions.add(new DagJob.Transition(pattern, DagJob.Action.FAIL, null));
+            return parent;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package study.batch.support.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("study.batch.Chunk")
+@Label("Chunk")
+@Description("One chunk transaction from the first read to the commit or rollback")
+@Category({"Spring Batch"})
+@StackTrace(false)
+public class BatchChunkEvent extends Event {
+    @Label("Step Name")
+    public String stepName;
+
+    @Label("Item Count")
+    public int itemCount;
+
+    @Label("Rolled Back")
+    public boolean rolledBack;
+}
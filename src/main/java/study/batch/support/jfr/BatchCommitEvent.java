@@ -0,0 +1,18 @@
+package study.batch.support.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("study.batch.Commit")
+@Label("Chunk Commit")
+@Description("Time from the end of the write to the end of the chunk transaction, including job repository updates")
+@Category({"Spring Batch"})
+@StackTrace(false)
+public class BatchCommitEvent extends Event {
+    @Label("Step Name")
+    public String stepName;
+}
@@ -0,0 +1,24 @@
+package study.batch.support.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("study.batch.Process")
+@Label("Item Process")
+@Description("One ItemProcessor.process() call")
+@Category({"Spring Batch"})
+@StackTrace(false)
+public class BatchProcessEvent extends Event {
+    @Label("Step Name")
+    public String stepName;
+
+    @Label("Filtered")
+    public boolean filtered;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,21 @@
+package study.batch.support.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("study.batch.Read")
+@Label("Item Read")
+@Description("One ItemReader.read() call, a slow read usually means a page or buffer fetch")
+@Category({"Spring Batch"})
+@StackTrace(false)
+public class BatchReadEvent extends Event {
+    @Label("Step Name")
+    public String stepName;
+
+    @Label("Failed")
+    public boolean failed;
+}
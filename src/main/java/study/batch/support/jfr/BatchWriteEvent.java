@@ -0,0 +1,24 @@
+package study.batch.support.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("study.batch.Write")
+@Label("Chunk Write")
+@Description("One ItemWriter.write() call for a whole chunk")
+@Category({"Spring Batch"})
+@StackTrace(false)
+public class BatchWriteEvent extends Event {
+    @Label("Step Name")
+    public String stepName;
+
+    @Label("Item Count")
+    public int itemCount;
+
+    @Label("Failed")
+    public boolean failed;
+}
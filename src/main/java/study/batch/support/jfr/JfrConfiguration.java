@@ -0,0 +1,13 @@
+package study.batch.support.jfr;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JfrConfiguration {
+
+    @Bean
+    public JfrStepListener jfrStepListener() {
+        return new JfrStepListener();
+    }
+}
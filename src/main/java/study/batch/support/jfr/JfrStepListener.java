@@ -0,0 +1,208 @@
+package study.batch.support.jfr;
+
+import jdk.jfr.EventType;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.item.Chunk;
+
+/**
+ * chunk / read / process / write / commit 구간을 JDK Flight Recorder 이벤트로 남기는 Listener
+ * - 이벤트 타입별로 기록 중인지 먼저 확인하고, 기록 중이 아니면 이벤트 객체도 ThreadLocal 도 건드리지 않는다.
+ * - commit 구간은 write 가 끝난 시점부터 afterChunk(트랜잭션 commit 이후)까지로 측정한다.
+ * - chunk 하나는 한 thread 에서 처리되므로 진행 중인 이벤트는 ThreadLocal 로 관리한다. (multi-thread step 에서도 사용 가능)
+ * - 여러 listener 인터페이스를 구현하므로 StepBuilder.listener(...) 대신 register(...) 로 등록한다.
+ *
+ * java -XX:StartFlightRecording=settings=src/main/resources/jfr/batch.jfc,filename=batch.jfr -jar ...
+ */
+public class JfrStepListener implements ChunkListener, ItemReadListener<Object>, ItemProcessListener<Object, Object>, ItemWriteListener<Object> {
+    private static final EventType CHUNK = EventType.getEventType(BatchChunkEvent.class);
+    private static final EventType READ = EventType.getEventType(BatchReadEvent.class);
+    private static final EventType PROCESS = EventType.getEventType(BatchProcessEvent.class);
+    private static final EventType WRITE = EventType.getEventType(BatchWriteEvent.class);
+    private static final EventType COMMIT = EventType.getEventType(BatchCommitEvent.class);
+
+    private final ThreadLocal<InFlight> inFlight = ThreadLocal.withInitial(InFlight::new);
+
+    private static class InFlight {
+        private String stepName;
+        private BatchChunkEvent chunk;
+        private BatchReadEvent read;
+        private BatchProcessEvent process;
+        private BatchWriteEvent write;
+        private BatchCommitEvent commit;
+    }
+
+    /**
+     * chunk / read / process / write listener 로 한 번에 등록한다.
+     */
+    public <I, O> SimpleStepBuilder<I, O> register(SimpleStepBuilder<I, O> builder) {
+        builder.listener((ChunkListener) this);
+        builder.listener((ItemReadListener<Object>) this);
+        builder.listener((ItemProcessListener<Object, Object>) this);
+        builder.listener((ItemWriteListener<Object>) this);
+        return builder;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        if (!recording()) {
+            return;
+        }
+        // 기록이 중간에 멈췄다 다시 시작되면 이전 chunk 의 이벤트가 남아 있을 수 있으므로 새로 만든다.
+        InFlight current = new InFlight();
+        inFlight.set(current);
+        current.stepName = context.getStepContext().getStepName();
+        if (CHUNK.isEnabled()) {
+            current.chunk = new BatchChunkEvent();
+            current.chunk.stepName = current.stepName;
+            current.chunk.begin();
+        }
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        endChunk(false);
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        endChunk(true);
+    }
+
+    @Override
+    public void beforeRead() {
+        if (!READ.isEnabled()) {
+            return;
+        }
+        InFlight current = inFlight.get();
+        current.read = new BatchReadEvent();
+        current.read.stepName = current.stepName;
+        current.read.begin();
+    }
+
+    @Override
+    public void afterRead(Object item) {
+        endRead(false);
+    }
+
+    @Override
+    public void onReadError(Exception e) {
+        endRead(true);
+    }
+
+    @Override
+    public void beforeProcess(Object item) {
+        if (!PROCESS.isEnabled()) {
+            return;
+        }
+        InFlight current = inFlight.get();
+        current.process = new BatchProcessEvent();
+        current.process.stepName = current.stepName;
+        current.process.begin();
+    }
+
+    @Override
+    public void afterProcess(Object item, Object result) {
+        endProcess(result == null, false);
+    }
+
+    @Override
+    public void onProcessError(Object item, Exception e) {
+        endProcess(false, true);
+    }
+
+    @Override
+    public void beforeWrite(Chunk<?> items) {
+        if (!WRITE.isEnabled()) {
+            return;
+        }
+        InFlight current = inFlight.get();
+        current.write = new BatchWriteEvent();
+        current.write.stepName = current.stepName;
+        current.write.itemCount = items.size();
+        current.write.begin();
+    }
+
+    @Override
+    public void afterWrite(Chunk<?> items) {
+        if (!recording()) {
+            return;
+        }
+        InFlight current = inFlight.get();
+        endWrite(current, false);
+        if (current.chunk != null) {
+            current.chunk.itemCount = items.size();
+        }
+        if (COMMIT.isEnabled()) {
+            current.commit = new BatchCommitEvent();
+            current.commit.stepName = current.stepName;
+            current.commit.begin();
+        }
+    }
+
+    @Override
+    public void onWriteError(Exception exception, Chunk<?> items) {
+        if (WRITE.isEnabled()) {
+            endWrite(inFlight.get(), true);
+        }
+    }
+
+    private static boolean recording() {
+        return CHUNK.isEnabled() || READ.isEnabled() || PROCESS.isEnabled() || WRITE.isEnabled() || COMMIT.isEnabled();
+    }
+
+    private void endRead(boolean failed) {
+        if (!READ.isEnabled()) {
+            return;
+        }
+        InFlight current = inFlight.get();
+        if (current.read == null) {
+            return;
+        }
+        current.read.failed = failed;
+        current.read.commit();
+        current.read = null;
+    }
+
+    private void endProcess(boolean filtered, boolean failed) {
+        if (!PROCESS.isEnabled()) {
+            return;
+        }
+        InFlight current = inFlight.get();
+        if (current.process == null) {
+            return;
+        }
+        current.process.filtered = filtered;
+        current.process.failed = failed;
+        current.process.commit();
+        current.process = null;
+    }
+
+    private void endWrite(InFlight current, boolean failed) {
+        if (current.write == null) {
+            return;
+        }
+        current.write.failed = failed;
+        current.write.commit();
+        current.write = null;
+    }
+
+    private void endChunk(boolean rolledBack) {
+        if (!recording()) {
+            return;
+        }
+        InFlight current = inFlight.get();
+        if (current.commit != null && !rolledBack) {
+            current.commit.commit();
+        }
+        if (current.chunk != null) {
+            current.chunk.rolledBack = rolledBack;
+            current.chunk.commit();
+        }
+        inFlight.remove();
+    }
+}
@@ -0,0 +1,147 @@
+package study.batch.support.launch;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.NoSuchJobException;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+
+/**
+ * 로컬 HTTP 로 Job 실행 요청을 받는 endpoint (JDK 내장 HttpServer 사용)
+ *
+ * POST /jobs/{jobName}?name=value&...   (body 에 name=value 를 한 줄씩 적어도 된다) -> 202 {"jobExecutionId":1,"status":"STARTING"}
+ * GET  /executions/{jobExecutionId}                                                  -> 200 {"jobExecutionId":1,"status":"COMPLETED",...}
+ *
+ * 404 : 없는 Job, 409 : 이미 실행 중이거나 Job 별 동시 실행 수 초과, 429 : 실행 대기열이 가득 참
+ */
+@Slf4j
+public class JobLaunchHttpEndpoint implements SmartLifecycle {
+    private final WarmJobLauncher launcher;
+    private final JobExplorer jobExplorer;
+    private final LauncherDaemonProperties properties;
+
+    private HttpServer server;
+
+    public JobLaunchHttpEndpoint(WarmJobLauncher launcher, JobExplorer jobExplorer, LauncherDaemonProperties properties) {
+        this.launcher = launcher;
+        this.jobExplorer = jobExplorer;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server = HttpServer.create(new InetSocketAddress(properties.getBindAddress(), properties.getPort()), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not open job launch endpoint on port " + properties.getPort(), e);
+        }
+        server.setExecutor(Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "job-launch-http")));
+        server.createContext("/jobs/", this::launch);
+        server.createContext("/executions/", this::execution);
+        server.start();
+        log.info("Job launch endpoint listening on http://{}:{}/jobs/{{jobName}}", properties.getBindAddress(), properties.getPort());
+    }
+
+    @Override
+    public void stop() {
+        server.stop(1);
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    private void launch(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "{\"error\":\"POST required\"}");
+            return;
+        }
+        String jobName = exchange.getRequestURI().getPath().substring("/jobs/".length());
+        Properties parameters = parameters(exchange);
+        try {
+            JobExecution execution = launcher.launch(jobName, parameters);
+            respond(exchange, 202, json(execution));
+        } catch (NoSuchJobException e) {
+            respond(exchange, 404, error(e));
+        } catch (WarmJobLauncher.JobQueueFullException e) {
+            respond(exchange, 429, error(e));
+        } catch (JobExecutionException e) {
+            respond(exchange, 409, error(e));
+        } catch (RuntimeException e) {
+            log.warn("Failed to launch {}", jobName, e);
+            respond(exchange, 500, error(e));
+        }
+    }
+
+    private void execution(HttpExchange exchange) throws IOException {
+        String id = exchange.getRequestURI().getPath().substring("/executions/".length());
+        JobExecution execution;
+        try {
+            execution = jobExplorer.getJobExecution(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            execution = null;
+        }
+        if (execution == null) {
+            respond(exchange, 404, "{\"error\":\"No job execution " + id + "\"}");
+            return;
+        }
+        respond(exchange, 200, json(execution));
+    }
+
+    private Properties parameters(HttpExchange exchange) throws IOException {
+        Properties parameters = new Properties();
+        try (InputStream body = exchange.getRequestBody()) {
+            parameters.load(new StringReader(new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+        }
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int index = pair.indexOf('=');
+                if (index > 0) {
+                    parameters.setProperty(URLDecoder.decode(pair.substring(0, index), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(index + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    private String json(JobExecution execution) {
+        return "{\"jobExecutionId\":" + execution.getId()
+                + ",\"jobName\":\"" + escape(execution.getJobInstance().getJobName())
+                + "\",\"status\":\"" + execution.getStatus()
+                + "\",\"exitCode\":\"" + escape(execution.getExitStatus().getExitCode()) + "\"}";
+    }
+
+    private String error(Exception e) {
+        return "{\"error\":\"" + escape(String.valueOf(e.getMessage())) + "\"}";
+    }
+
+    private String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
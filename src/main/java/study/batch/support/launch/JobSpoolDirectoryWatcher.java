@@ -0,0 +1,101 @@
+package study.batch.support.launch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * spool 디렉토리에 들어온 *.job 파일로 Job 을 실행한다.
+ * 파일은 Properties 형식이며 job 키에 Job 이름을, 나머지 키에 Job 파라미터를 적는다. (job 키가 없으면 파일 이름을 Job 이름으로 쓴다)
+ * - 실행되면 *.job.launched, 실패하면 *.job.failed 로 이름을 바꾼다.
+ * - Job 별 동시 실행 수를 넘거나 실행 대기열이 가득 차면 파일을 그대로 두고 다음 조회 때 다시 시도한다.
+ */
+@Slf4j
+public class JobSpoolDirectoryWatcher implements SmartLifecycle {
+    private static final String JOB_KEY = "job";
+    private static final String SUFFIX = ".job";
+
+    private final WarmJobLauncher launcher;
+    private final Path directory;
+    private final long pollIntervalMillis;
+
+    private ScheduledExecutorService scheduler;
+
+    public JobSpoolDirectoryWatcher(WarmJobLauncher launcher, Path directory, long pollIntervalMillis) {
+        this.launcher = launcher;
+        this.directory = directory;
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    @Override
+    public void start() {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not create spool directory " + directory, e);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "job-spool-watcher"));
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Watching {} for *{} launch requests", directory, SUFFIX);
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    void poll() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                launch(file);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to poll spool directory {}", directory, e);
+        }
+    }
+
+    private void launch(Path file) throws IOException {
+        Properties parameters = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            parameters.load(reader);
+        }
+        String fileName = file.getFileName().toString();
+        String jobName = (String) parameters.remove(JOB_KEY);
+        if (jobName == null) {
+            jobName = fileName.substring(0, fileName.length() - SUFFIX.length());
+        }
+
+        try {
+            JobExecution execution = launcher.launch(jobName, parameters);
+            log.info("Launched {} from {} ({})", jobName, fileName, execution.getId());
+            rename(file, ".launched");
+        } catch (WarmJobLauncher.JobConcurrencyLimitException | WarmJobLauncher.JobQueueFullException e) {
+            log.debug("{} is deferred: {}", fileName, e.getMessage());
+        } catch (JobExecutionException | RuntimeException e) {
+            log.warn("Failed to launch {} from {}", jobName, fileName, e);
+            rename(file, ".failed");
+        }
+    }
+
+    private void rename(Path file, String suffix) throws IOException {
+        Files.move(file, file.resolveSibling(file.getFileName() + suffix), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
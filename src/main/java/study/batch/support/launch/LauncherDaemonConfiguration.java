@@ -0,0 +1,42 @@
+package study.batch.support.launch;
+
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * 상주 실행 모드 (--spring.profiles.active=daemon)
+ * Context 를 한 번만 띄우고, 이후 Job 은 이미 초기화된 Bean / 커넥션 풀 / JIT 컴파일 결과를 재사용해서 실행한다.
+ */
+@Configuration
+@EnableConfigurationProperties(LauncherDaemonProperties.class)
+@ConditionalOnProperty(prefix = "batch.daemon", name = "enabled", havingValue = "true")
+public class LauncherDaemonConfiguration {
+
+    @Bean
+    public WarmJobLauncher warmJobLauncher(ConfigurableListableBeanFactory beanFactory, JobRepository jobRepository,
+                                           JobExplorer jobExplorer, LauncherDaemonProperties properties) {
+        return new WarmJobLauncher(new LazyJobRegistry(beanFactory), jobRepository, jobExplorer, properties);
+    }
+
+    @Bean
+    @ConditionalOnExpression("${batch.daemon.port:8089} >= 0")
+    public JobLaunchHttpEndpoint jobLaunchHttpEndpoint(WarmJobLauncher warmJobLauncher, JobExplorer jobExplorer,
+                                                       LauncherDaemonProperties properties) {
+        return new JobLaunchHttpEndpoint(warmJobLauncher, jobExplorer, properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "batch.daemon", name = "spool-directory")
+    public JobSpoolDirectoryWatcher jobSpoolDirectoryWatcher(WarmJobLauncher warmJobLauncher, LauncherDaemonProperties properties) {
+        return new JobSpoolDirectoryWatcher(warmJobLauncher, Path.of(properties.getSpoolDirectory()),
+                properties.getSpoolPollInterval().toMillis());
+    }
+}
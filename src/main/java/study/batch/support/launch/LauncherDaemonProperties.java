@@ -0,0 +1,57 @@
+package study.batch.support.launch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 상주 실행 모드 설정 (batch.daemon.*)
+ * 하나의 Spring Context 를 띄워둔 채로 HTTP / spool 디렉토리로 들어온 Job 실행 요청을 처리한다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "batch.daemon")
+public class LauncherDaemonProperties {
+    private boolean enabled = false;
+
+    /**
+     * 실행 요청을 받을 주소. 외부에 노출하지 않도록 기본값은 loopback 이다.
+     */
+    private String bindAddress = "127.0.0.1";
+
+    /**
+     * 0 보다 작으면 HTTP endpoint 를 열지 않는다.
+     */
+    private int port = 8089;
+
+    /**
+     * *.job 파일을 넣으면 실행되는 디렉토리. 비어있으면 사용하지 않는다.
+     */
+    private String spoolDirectory;
+
+    private Duration spoolPollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Job 을 실행하는 thread 수
+     */
+    private int threads = 4;
+
+    /**
+     * thread 가 모두 사용 중일 때 대기할 수 있는 실행 요청 수
+     */
+    private int queueCapacity = 16;
+
+    /**
+     * jobs 에 없는 Job 의 동시 실행 수
+     */
+    private int defaultJobConcurrency = 1;
+
+    /**
+     * Job 이름 -> 동시 실행 수
+     */
+    private Map<String, Integer> jobs = new HashMap<>();
+}
@@ -0,0 +1,32 @@
+package study.batch.support.launch;
+
+import org.springframework.batch.core.configuration.JobRegistry;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.Set;
+
+/**
+ * spring.batch.job.name 으로 Job 이 선택되면 나머지 Job 의 reader / writer / step 을 만들지 않는다.
+ * batch.lazy-jobs.enabled=false 로 끌 수 있다.
+ */
+@Configuration
+@ConditionalOnExpression("'${spring.batch.job.name:}' != '' and ${batch.lazy-jobs.enabled:true}")
+public class LazyJobConfiguration {
+    private static final String BASE_PACKAGE = "study.batch";
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyJobGraphPostProcessor() {
+        return new LazyJobGraphPostProcessor(BASE_PACKAGE, Set.of(BASE_PACKAGE + ".support"));
+    }
+
+    @Bean
+    @Primary
+    public JobRegistry lazyJobRegistry(ConfigurableListableBeanFactory beanFactory) {
+        return new LazyJobRegistry(beanFactory);
+    }
+}
@@ -0,0 +1,59 @@
+package study.batch.support.launch;
+
+import org.springframework.batch.core.Job;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.type.MethodMetadata;
+
+import java.util.Set;
+
+/**
+ * 선택된 Job 만 초기화되도록 Bean 정의를 바꾸는 BeanFactoryPostProcessor
+ * - basePackage 아래(support 패키지 제외)의 설정 클래스와 reader / writer / step / job Bean 을 lazy 로 바꾼다.
+ * - Job Bean 을 autowire 후보에서 빼서, JobLauncherApplicationRunner 가 Collection&lt;Job&gt; 을 주입받으며
+ *   모든 Job 을 만들지 않고 LazyJobRegistry 에서 선택된 Job 하나만 꺼내도록 한다.
+ */
+public class LazyJobGraphPostProcessor implements BeanFactoryPostProcessor {
+    private final String basePackage;
+    private final Set<String> excludedPackages;
+
+    public LazyJobGraphPostProcessor(String basePackage, Set<String> excludedPackages) {
+        this.basePackage = basePackage;
+        this.excludedPackages = excludedPackages;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            if (isJobGraph(definition)) {
+                definition.setLazyInit(true);
+            }
+        }
+        for (String beanName : beanFactory.getBeanNamesForType(Job.class, true, false)) {
+            if (beanFactory.containsBeanDefinition(beanName)) {
+                beanFactory.getBeanDefinition(beanName).setAutowireCandidate(false);
+            }
+        }
+    }
+
+    private boolean isJobGraph(BeanDefinition definition) {
+        String className = declaringClassName(definition);
+        if (className == null || !className.startsWith(basePackage + ".")) {
+            return false;
+        }
+        return excludedPackages.stream().noneMatch(excluded -> className.startsWith(excluded + "."));
+    }
+
+    private String declaringClassName(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated) {
+            MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+            if (factoryMethod != null) {
+                return factoryMethod.getDeclaringClassName();
+            }
+        }
+        return definition.getBeanClassName();
+    }
+}
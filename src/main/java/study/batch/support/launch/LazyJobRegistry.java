@@ -0,0 +1,75 @@
+package study.batch.support.launch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.configuration.DuplicateJobException;
+import org.springframework.batch.core.configuration.JobFactory;
+import org.springframework.batch.core.configuration.JobRegistry;
+import org.springframework.batch.core.configuration.support.MapJobRegistry;
+import org.springframework.batch.core.launch.NoSuchJobException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Job 이름으로 조회될 때 해당 Job Bean 만 생성하는 JobRegistry
+ * Job 이름과 같은 이름(또는 alias)의 Job Bean 을 먼저 찾고, 없으면 Job Bean 을 하나씩 생성하면서 이름을 비교한다.
+ * 빠르게 찾으려면 Job Bean 에 Job 이름을 alias 로 붙인다. (@Bean(name = {"nextStepJob", NEXT_STEP_TASK}))
+ */
+@Slf4j
+public class LazyJobRegistry implements JobRegistry {
+    private final ConfigurableListableBeanFactory beanFactory;
+    private final MapJobRegistry registered = new MapJobRegistry();
+
+    public LazyJobRegistry(ConfigurableListableBeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Job getJob(String name) throws NoSuchJobException {
+        if (registered.getJobNames().contains(name)) {
+            return registered.getJob(name);
+        }
+        if (beanFactory.containsBean(name) && beanFactory.isTypeMatch(name, Job.class)) {
+            Job job = beanFactory.getBean(name, Job.class);
+            if (job.getName().equals(name)) {
+                return job;
+            }
+        }
+
+        log.warn("Job {} has no bean name or alias with the same name, initializing job beans one by one", name);
+        for (String beanName : beanFactory.getBeanNamesForType(Job.class, false, false)) {
+            Job job = beanFactory.getBean(beanName, Job.class);
+            if (job.getName().equals(name)) {
+                return job;
+            }
+        }
+        throw new NoSuchJobException("No job configuration with the name [" + name + "] was registered");
+    }
+
+    /**
+     * Job Bean 을 생성하지 않고 알 수 있는 이름(Bean 이름과 alias)을 돌려준다.
+     */
+    @Override
+    public Collection<String> getJobNames() {
+        Set<String> names = new LinkedHashSet<>(registered.getJobNames());
+        for (String beanName : beanFactory.getBeanNamesForType(Job.class, false, false)) {
+            names.add(beanName);
+            names.addAll(Arrays.asList(beanFactory.getAliases(beanName)));
+        }
+        return names;
+    }
+
+    @Override
+    public void register(JobFactory jobFactory) throws DuplicateJobException {
+        registered.register(jobFactory);
+    }
+
+    @Override
+    public void unregister(String jobName) {
+        registered.unregister(jobName);
+    }
+}
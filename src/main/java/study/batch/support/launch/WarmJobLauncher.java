@@ -0,0 +1,150 @@
+package study.batch.support.launch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameter;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.configuration.JobLocator;
+import org.springframework.batch.core.converter.DefaultJobParametersConverter;
+import org.springframework.batch.core.converter.JobParametersConverter;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 상주 Context 에서 Job 을 비동기로 실행하는 Launcher
+ * - 실행 thread 수와 대기열 크기가 제한된 하나의 pool 에서 모든 Job 을 실행한다.
+ * - Job 별 동시 실행 수를 넘는 요청은 대기하지 않고 바로 거절한다. (JobConcurrencyLimitException)
+ * - 실행 대기열이 가득 차면 거절한다. (JobQueueFullException, 이때 만들어진 JobExecution 은 FAILED 로 남아 같은 파라미터로 재시작할 수 있다)
+ * - Job 파라미터는 JobLauncherApplicationRunner 와 같은 방식으로 변환하고 incrementer 를 적용한다.
+ */
+@Slf4j
+public class WarmJobLauncher implements DisposableBean {
+    private final JobLocator jobLocator;
+    private final JobRepository jobRepository;
+    private final JobExplorer jobExplorer;
+    private final LauncherDaemonProperties properties;
+    private final JobParametersConverter converter = new DefaultJobParametersConverter();
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public static class JobConcurrencyLimitException extends JobExecutionException {
+        public JobConcurrencyLimitException(String msg) {
+            super(msg);
+        }
+    }
+
+    public static class JobQueueFullException extends JobExecutionException {
+        public JobQueueFullException(String msg) {
+            super(msg);
+        }
+    }
+
+    public WarmJobLauncher(JobLocator jobLocator, JobRepository jobRepository, JobExplorer jobExplorer,
+                           LauncherDaemonProperties properties) {
+        this.jobLocator = jobLocator;
+        this.jobRepository = jobRepository;
+        this.jobExplorer = jobExplorer;
+        this.properties = properties;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> new Thread(runnable, "job-launcher-" + threadCount.incrementAndGet()));
+    }
+
+    /**
+     * Job 실행을 예약하고 생성된 JobExecution 을 바로 돌려준다.
+     */
+    public JobExecution launch(String jobName, Properties parameters) throws JobExecutionException {
+        Job job = jobLocator.getJob(jobName);
+        Semaphore permit = permits.computeIfAbsent(jobName,
+                name -> new Semaphore(properties.getJobs().getOrDefault(name, properties.getDefaultJobConcurrency())));
+        if (!permit.tryAcquire()) {
+            throw new JobConcurrencyLimitException("Job " + jobName + " is already running at its concurrency limit");
+        }
+
+        // TaskExecutorJobLauncher 는 TaskRejectedException 을 삼키고 FAILED JobExecution 을 돌려주므로
+        // 빨리 실패한 Job 과 구분하기 위해 거절 여부를 따로 남긴다.
+        AtomicBoolean rejected = new AtomicBoolean();
+        TaskExecutorJobLauncher jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.setTaskExecutor(task -> {
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        permit.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.set(true);
+                permit.release();
+                throw new TaskRejectedException("Launcher queue is full", e);
+            }
+        });
+
+        JobExecution execution;
+        try {
+            execution = jobLauncher.run(job, nextParameters(job, converter.getJobParameters(parameters)));
+        } catch (JobExecutionException | RuntimeException e) {
+            // 실행 pool 에 넘어가기 전에 실패하면 permit 이 반환되지 않으므로 여기서 돌려준다.
+            permit.release();
+            throw e;
+        }
+        if (rejected.get()) {
+            throw new JobQueueFullException("Launcher queue is full, " + jobName + " (" + execution.getId() + ") was not started");
+        }
+        log.info("Launched {} ({}) with {}", jobName, execution.getId(), execution.getJobParameters());
+        return execution;
+    }
+
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    public int active() {
+        return executor.getActiveCount();
+    }
+
+    private JobParameters nextParameters(Job job, JobParameters parameters) {
+        if (jobRepository.isJobInstanceExists(job.getName(), parameters)) {
+            return parameters;
+        }
+        if (job.getJobParametersIncrementer() == null) {
+            return parameters;
+        }
+        JobParameters next = new JobParametersBuilder(parameters, jobExplorer).getNextJobParameters(job).toJobParameters();
+        Map<String, JobParameter<?>> merged = new LinkedHashMap<>(next.getParameters());
+        merged.putAll(parameters.getParameters());
+        return new JobParameters(merged);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Jobs are still running after 30 seconds, interrupting them");
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package study.batch.support.lookup;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 참조 테이블을 읽는 LookupSource
+ * 적재는 SELECT 한 번으로 끝내고, read-through 조회는 key 컬럼의 등치 조건으로 한 건씩 읽는다.
+ *
+ * new JdbcLookupSource<>(readDataSource, "GRADE_BONUS", "GRADE_ID", "BONUS", (rs, rowNum) -> rs.getInt("BONUS"))
+ */
+public class JdbcLookupSource<V> implements LookupSource<V> {
+    private final JdbcTemplate jdbcTemplate;
+    private final String keyColumn;
+    private final RowMapper<V> rowMapper;
+    private final String countSql;
+    private final String selectAllSql;
+    private final String selectOneSql;
+
+    /**
+     * @param columns SELECT 할 값 컬럼 (key 컬럼은 자동으로 포함된다)
+     */
+    public JdbcLookupSource(DataSource dataSource, String table, String keyColumn, String columns, RowMapper<V> rowMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.keyColumn = keyColumn;
+        this.rowMapper = rowMapper;
+        this.countSql = "SELECT COUNT(*) FROM " + table;
+        this.selectAllSql = "SELECT " + keyColumn + ", " + columns + " FROM " + table;
+        this.selectOneSql = selectAllSql + " WHERE " + keyColumn + " = ?";
+    }
+
+    public void setFetchSize(int fetchSize) {
+        jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Override
+    public long count() {
+        Long count = jdbcTemplate.queryForObject(countSql, Long.class);
+        return count == null ? -1 : count;
+    }
+
+    @Override
+    public void loadAll(Sink<V> sink) {
+        jdbcTemplate.query(selectAllSql, resultSet -> {
+            sink.put(resultSet.getLong(keyColumn), rowMapper.mapRow(resultSet, resultSet.getRow()));
+        });
+    }
+
+    @Override
+    public V find(long key) {
+        List<V> values = jdbcTemplate.query(selectOneSql, rowMapper, key);
+        return values.isEmpty() ? null : values.get(0);
+    }
+}
@@ -0,0 +1,125 @@
+package study.batch.support.lookup;
+
+import java.util.Arrays;
+
+/**
+ * long key 를 boxing 없이 저장하는 open addressing(linear probing) 방식의 Map
+ * - key 는 long[], 값은 Object[] 에 저장하므로 HashMap<Long, V> 보다 항목당 Entry / Long 객체만큼 작다.
+ * - 0 은 빈 슬롯 표시로 쓰므로 별도 필드로 관리한다.
+ * - 삭제는 지원하지 않는다. (참조 데이터를 한 번 적재하고 읽기만 하는 용도)
+ */
+public class LongObjectMap<V> {
+    private static final double LOAD_FACTOR = 0.7;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    private boolean containsZero;
+    private Object zeroValue;
+
+    public LongObjectMap(int expectedSize) {
+        allocate(capacity(Math.max(expectedSize, 1)));
+    }
+
+    public void put(long key, V value) {
+        if (key == 0) {
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+
+        int index = index(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        if (size > keys.length * LOAD_FACTOR) {
+            resize();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) {
+            return (V) zeroValue;
+        }
+        int index = index(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                return (V) values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return containsZero;
+        }
+        int index = index(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        containsZero = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(keys.length << 1);
+        size = containsZero ? 1 : 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    private static int capacity(int expectedSize) {
+        long capacity = Long.highestOneBit((long) Math.ceil(expectedSize / LOAD_FACTOR)) << 1;
+        if (capacity > (1 << 30)) {
+            throw new IllegalArgumentException("expectedSize " + expectedSize + " is too large for a single table.!");
+        }
+        return (int) Math.max(capacity, 2);
+    }
+
+    private int index(long key) {
+        // 연속된 id 가 한 구간에 몰리지 않도록 섞는다.
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,180 @@
+package study.batch.support.lookup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * processor / writer 가 아이템마다 조회하던 참조 데이터를 Step 단위로 들고 있는 cache
+ * - beforeStep 에서 LookupSource 의 건수가 maxPreloadEntries 이하면 전체를 LongObjectMap 에 한 번에 적재한다.
+ *   이후 get 은 조회 없이 메모리에서 끝나며, map 에 없는 key 는 참조 데이터에도 없는 것으로 본다.
+ * - 건수가 더 많거나 알 수 없으면 read-through 로 동작한다. 처음 보는 key 만 조회하고 최근 maxCacheEntries 개를 LRU 로 유지한다.
+ *   (없는 key 도 기억해서 같은 key 를 다시 조회하지 않는다)
+ * - Step 에 listener 로 등록하지 않으면 read-through 로만 동작한다.
+ * - afterStep 에서 hit / miss 를 로그와 batch.lookup 메트릭으로 남기고 cache 를 비운다.
+ * - 적재 후에는 읽기만 하므로 multi-thread step 에서도 사용할 수 있다.
+ * - 상태를 Step 실행 하나가 소유하므로 여러 Step 에 등록하는 bean 은 @StepScope 로 선언한다.
+ *
+ * .listener(gradeBonusLookup) ... gradeBonusLookup.get(grade.ordinal())
+ */
+@Slf4j
+public class LookupCache<V> implements StepExecutionListener {
+    private static final Object ABSENT = new Object();
+
+    private final String name;
+    private final LookupSource<V> source;
+    private final long maxPreloadEntries;
+    private final int maxCacheEntries;
+    private final MeterRegistry registry;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final Map<Long, Object> recent;
+    private volatile LongObjectMap<V> preloaded;
+
+    public LookupCache(String name, LookupSource<V> source, long maxPreloadEntries, int maxCacheEntries) {
+        this(name, source, maxPreloadEntries, maxCacheEntries, Metrics.globalRegistry);
+    }
+
+    public LookupCache(String name, LookupSource<V> source, long maxPreloadEntries, int maxCacheEntries, MeterRegistry registry) {
+        if (source == null) {
+            throw new IllegalArgumentException("LookupSource can not be null.!");
+        }
+        if (maxCacheEntries < 1) {
+            throw new IllegalArgumentException("maxCacheEntries must be positive.!");
+        }
+        this.name = name;
+        this.source = source;
+        this.maxPreloadEntries = Math.min(maxPreloadEntries, 1 << 29);
+        this.maxCacheEntries = maxCacheEntries;
+        this.registry = registry;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Object> eldest) {
+                return size() > LookupCache.this.maxCacheEntries;
+            }
+        };
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        clear();
+        long count = source.count();
+        if (count < 0 || count > maxPreloadEntries) {
+            log.info("Lookup {} uses read-through (count={}, maxPreloadEntries={})", name, count, maxPreloadEntries);
+            return;
+        }
+
+        LongObjectMap<V> map = new LongObjectMap<>((int) count);
+        try {
+            source.loadAll((key, value) -> {
+                if (map.size() >= maxPreloadEntries && !map.containsKey(key)) {
+                    throw new TooLarge();
+                }
+                map.put(key, value);
+            });
+        } catch (TooLarge e) {
+            log.info("Lookup {} has more than {} entries, uses read-through", name, maxPreloadEntries);
+            return;
+        }
+        loads.add(map.size());
+        preloaded = map;
+        log.info("Lookup {} preloaded {} entries", name, map.size());
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        log.info("Lookup {} of {}: hits={}, misses={}, loads={}, hitRate={}", name, stepExecution.getStepName(),
+                hitCount, missCount, loads.sum(), String.format("%.4f", getHitRate()));
+        String mode = isPreloaded() ? "preload" : "read-through";
+        registry.counter("batch.lookup", "name", name, "step.name", stepExecution.getStepName(), "mode", mode, "result", "hit").increment(hitCount);
+        registry.counter("batch.lookup", "name", name, "step.name", stepExecution.getStepName(), "mode", mode, "result", "miss").increment(missCount);
+        clear();
+        return null;
+    }
+
+    /**
+     * @return key 의 값. 참조 데이터에 없으면 null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        LongObjectMap<V> map = preloaded;
+        if (map != null) {
+            V value = map.get(key);
+            if (value != null || map.containsKey(key)) {
+                hits.increment();
+            } else {
+                misses.increment();
+            }
+            return value;
+        }
+
+        Object cached;
+        synchronized (recent) {
+            cached = recent.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached == ABSENT ? null : (V) cached;
+        }
+
+        misses.increment();
+        loads.increment();
+        V value = source.find(key);
+        synchronized (recent) {
+            recent.put(key, value == null ? ABSENT : value);
+        }
+        return value;
+    }
+
+    public boolean isPreloaded() {
+        return preloaded != null;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 참조 데이터를 읽은 건수 (적재 건수 + read-through 조회 건수)
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private void clear() {
+        preloaded = null;
+        synchronized (recent) {
+            recent.clear();
+        }
+        hits.reset();
+        misses.reset();
+        loads.reset();
+    }
+
+    private static class TooLarge extends RuntimeException {
+        private TooLarge() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package study.batch.support.lookup;
+
+/**
+ * LookupCache 가 읽는 참조 데이터 (long key -> 값)
+ */
+public interface LookupSource<V> {
+
+    /**
+     * 전체 건수. 한 번에 적재할지 판단하는 데만 쓰므로 대략적인 값이어도 된다. 알 수 없으면 -1
+     */
+    long count();
+
+    /**
+     * 전체 데이터를 한 번에 읽어 sink 에 넘긴다.
+     */
+    void loadAll(Sink<V> sink);
+
+    /**
+     * key 하나를 읽는다. 없으면 null
+     */
+    V find(long key);
+
+    @FunctionalInterface
+    interface Sink<V> {
+        void put(long key, V value);
+    }
+}
@@ -0,0 +1,75 @@
+package study.batch.support.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.step.AbstractStep;
+import org.springframework.batch.core.step.tasklet.TaskletStep;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Step 메트릭 수집 / 파일 기록 설정
+ * Spring Batch 는 Metrics.globalRegistry 에 메트릭을 기록하므로, 로컬 SimpleMeterRegistry 를 globalRegistry 에 추가하고
+ * 모든 Step Bean 에 StepMetricsListener 를 등록한다.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(BatchMetricsProperties.class)
+@ConditionalOnProperty(prefix = "batch.metrics", name = "enabled", havingValue = "true")
+public class BatchMetricsConfiguration {
+
+    @Bean
+    public MeterRegistry batchMeterRegistry(BatchMetricsProperties properties) {
+        double[] percentiles = properties.getPercentiles();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getName().startsWith("spring.batch") || id.getName().startsWith("batch.")) {
+                    return DistributionStatisticConfig.builder().percentiles(percentiles).build().merge(config);
+                }
+                return config;
+            }
+        });
+        Metrics.addRegistry(registry);
+        return registry;
+    }
+
+    @Bean
+    public FileMetricsExporter fileMetricsExporter(MeterRegistry batchMeterRegistry, BatchMetricsProperties properties) {
+        log.info("------------------ Init batch metrics ({}) -----------------", properties.getFile());
+        return new FileMetricsExporter(batchMeterRegistry, Path.of(properties.getFile()), properties.getInterval());
+    }
+
+    @Bean
+    public MetricsRetryListener metricsRetryListener() {
+        return new MetricsRetryListener(Metrics.globalRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor stepMetricsPostProcessor() {
+        StepMetricsListener listener = new StepMetricsListener(Metrics.globalRegistry);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractStep step) {
+                    step.registerStepExecutionListener(listener);
+                }
+                if (bean instanceof TaskletStep step) {
+                    step.registerChunkListener(listener);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package study.batch.support.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Step 메트릭 설정 (batch.metrics.*)
+ *
+ * batch.metrics.enabled=true
+ * batch.metrics.file=logs/batch-metrics.log
+ * batch.metrics.interval=30s
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "batch.metrics")
+public class BatchMetricsProperties {
+    private boolean enabled = false;
+
+    /**
+     * 메트릭을 주기적으로 덧붙여 기록할 파일
+     */
+    private String file = "./output/metrics/batch-metrics.log";
+
+    /**
+     * 파일 기록 주기. 애플리케이션 종료 시에도 한 번 기록한다.
+     */
+    private Duration interval = Duration.ofMinutes(1);
+
+    /**
+     * spring.batch.* / batch.* Timer 에 기록할 백분위수
+     */
+    private double[] percentiles = {0.5, 0.95, 0.99};
+}
@@ -0,0 +1,121 @@
+package study.batch.support.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.HistogramSupport;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * MeterRegistry 의 spring.batch.* / batch.* 메트릭을 한 줄에 하나씩 파일에 덧붙여 기록한다.
+ * 외부 수집 서버 없이 릴리즈 / 환경 간 처리량을 비교하기 위한 용도이며, 시간 단위는 ms 이다.
+ *
+ * 2024-01-01T10:00:00 spring.batch.chunk.write{job.name=..,step.name=..} count=100 mean=3.1 max=40.2 p0.95=8.4
+ */
+@Slf4j
+public class FileMetricsExporter implements SmartLifecycle {
+    private final MeterRegistry registry;
+    private final Path file;
+    private final Duration interval;
+
+    private ScheduledExecutorService scheduler;
+
+    public FileMetricsExporter(MeterRegistry registry, Path file, Duration interval) {
+        this.registry = registry;
+        this.file = file;
+        this.interval = interval;
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "batch-metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::export, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdownNow();
+        scheduler = null;
+        export();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    public synchronized void export() {
+        String timestamp = LocalDateTime.now().withNano(0).toString();
+        List<String> lines = new ArrayList<>();
+        registry.getMeters().stream()
+                .filter(meter -> meter.getId().getName().startsWith("spring.batch") || meter.getId().getName().startsWith("batch."))
+                .filter(meter -> !meter.getId().getName().endsWith(".percentile"))
+                .sorted(Comparator.comparing(meter -> meter.getId().toString()))
+                .forEach(meter -> lines.add(timestamp + " " + format(meter)));
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("Failed to export batch metrics to {}", file, e);
+        }
+    }
+
+    private String format(Meter meter) {
+        StringBuilder line = new StringBuilder(meter.getId().getName());
+        line.append(meter.getId().getTags().stream()
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(",", "{", "}")));
+
+        if (meter instanceof HistogramSupport histogram) {
+            HistogramSnapshot snapshot = histogram.takeSnapshot();
+            boolean timer = meter.getId().getType() == Meter.Type.TIMER;
+            line.append(" count=").append(snapshot.count())
+                    .append(" mean=").append(number(timer ? snapshot.mean(TimeUnit.MILLISECONDS) : snapshot.mean()))
+                    .append(" max=").append(number(timer ? snapshot.max(TimeUnit.MILLISECONDS) : snapshot.max()));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                line.append(" p").append(percentile.percentile())
+                        .append('=').append(number(timer ? percentile.value(TimeUnit.MILLISECONDS) : percentile.value()));
+            }
+            return line.toString();
+        }
+
+        for (Measurement measurement : meter.measure()) {
+            line.append(' ').append(measurement.getStatistic().getTagValueRepresentation())
+                    .append('=').append(number(measurement.getValue()));
+        }
+        return line.toString();
+    }
+
+    private String number(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
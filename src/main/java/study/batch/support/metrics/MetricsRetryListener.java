@@ -0,0 +1,46 @@
+package study.batch.support.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import study.batch.support.chunk.ParallelChunkProcessor;
+
+/**
+ * 재시도가 일어날 때마다 batch.step.retries 를 증가시키는 RetryListener
+ * 재시도 설정은 Step 마다 다르므로 자동 등록하지 않는다.
+ * Step 은 RetryContext 의 StepExecution(ParallelChunkProcessor 가 worker 스레드에서 남긴다) 또는 현재 스레드의 StepContext 로 찾는다.
+ *
+ * new ParallelChunkStepBuilder<>(...).retryOperations(retryTemplate).listener(metricsRetryListener)
+ */
+public class MetricsRetryListener implements RetryListener {
+    private final MeterRegistry registry;
+
+    public MetricsRetryListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        StepExecution stepExecution = stepExecution(context);
+        if (stepExecution == null) {
+            registry.counter("batch.step.retries", "exception", throwable.getClass().getSimpleName()).increment();
+            return;
+        }
+        registry.counter("batch.step.retries",
+                "job.name", stepExecution.getJobExecution().getJobInstance().getJobName(),
+                "step.name", stepExecution.getStepName(),
+                "exception", throwable.getClass().getSimpleName()).increment();
+    }
+
+    private StepExecution stepExecution(RetryContext context) {
+        if (context.getAttribute(ParallelChunkProcessor.STEP_EXECUTION) instanceof StepExecution stepExecution) {
+            return stepExecution;
+        }
+        StepContext stepContext = StepSynchronizationManager.getContext();
+        return stepContext == null ? null : stepContext.getStepExecution();
+    }
+}
@@ -0,0 +1,31 @@
+package study.batch.support.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 아이템마다 남기던 로그 대신 건수만 세고 every 건마다 한 번만 로그를 남기는 Counter
+ */
+@Slf4j
+public class SampledCounter {
+    private final String name;
+    private final long every;
+    private final AtomicLong count = new AtomicLong();
+
+    public SampledCounter(String name, long every) {
+        this.name = name;
+        this.every = every;
+    }
+
+    public void increment() {
+        long current = count.incrementAndGet();
+        if (current % every == 0) {
+            log.info("------------------ {} x {} ------------------", name, current);
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+}
@@ -0,0 +1,122 @@
+package study.batch.support.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 모든 Step 에 자동으로 등록되어 chunk / commit 시간과 처리량, skip 수를 기록하는 Listener
+ * read / process / write 시간은 Spring Batch 가 이미 기록하는 spring.batch.item.read, spring.batch.item.process,
+ * spring.batch.chunk.write Timer 를 그대로 사용한다.
+ * paging Reader 의 page 조회 시간은 따로 재지 않는다. page 를 가져오는 read 호출이 spring.batch.item.read 의 max 로만 드러난다.
+ *
+ * - batch.chunk : chunk 트랜잭션 하나의 시간 (status = COMMITTED / ROLLED_BACK)
+ * - batch.chunk.commit : 트랜잭션 commit 자체에 걸린 시간
+ * - batch.step.throughput : Step 실행 한 번의 초당 write 건수
+ * - batch.step.items / batch.step.skips : Step 종료 시점의 건수
+ */
+public class StepMetricsListener implements StepExecutionListener, ChunkListener {
+    private final MeterRegistry registry;
+    private final ThreadLocal<Timer.Sample> chunkSample = new ThreadLocal<>();
+
+    public StepMetricsListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        chunkSample.set(Timer.start(registry));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new CommitTimer(tags(context.getStepContext().getStepExecution())));
+        }
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        stopChunk(context, "COMMITTED");
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        stopChunk(context, "ROLLED_BACK");
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        Tags tags = tags(stepExecution);
+        counter("batch.step.items", tags.and("type", "read"), stepExecution.getReadCount());
+        counter("batch.step.items", tags.and("type", "write"), stepExecution.getWriteCount());
+        counter("batch.step.items", tags.and("type", "filter"), stepExecution.getFilterCount());
+        counter("batch.step.skips", tags.and("type", "read"), stepExecution.getReadSkipCount());
+        counter("batch.step.skips", tags.and("type", "process"), stepExecution.getProcessSkipCount());
+        counter("batch.step.skips", tags.and("type", "write"), stepExecution.getWriteSkipCount());
+        counter("batch.step.rollbacks", tags, stepExecution.getRollbackCount());
+
+        if (stepExecution.getStartTime() != null) {
+            Duration elapsed = Duration.between(stepExecution.getStartTime(), LocalDateTime.now());
+            double seconds = Math.max(elapsed.toNanos(), 1) / 1_000_000_000.0;
+            DistributionSummary.builder("batch.step.throughput")
+                    .baseUnit("items/s")
+                    .tags(tags)
+                    .register(registry)
+                    .record(stepExecution.getWriteCount() / seconds);
+        }
+        return null;
+    }
+
+    private void stopChunk(ChunkContext context, String status) {
+        Timer.Sample sample = chunkSample.get();
+        if (sample == null) {
+            return;
+        }
+        chunkSample.remove();
+        sample.stop(Timer.builder("batch.chunk")
+                .tags(tags(context.getStepContext().getStepExecution()).and("status", status))
+                .register(registry));
+    }
+
+    private void counter(String name, Tags tags, long amount) {
+        if (amount > 0) {
+            Counter.builder(name).tags(tags).register(registry).increment(amount);
+        }
+    }
+
+    private Tags tags(StepExecution stepExecution) {
+        return Tags.of("job.name", stepExecution.getJobExecution().getJobInstance().getJobName(),
+                "step.name", stepExecution.getStepName());
+    }
+
+    private class CommitTimer implements TransactionSynchronization {
+        private final Tags tags;
+        private long start;
+
+        private CommitTimer(Tags tags) {
+            this.tags = tags;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            start = System.nanoTime();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (start != 0 && status == STATUS_COMMITTED) {
+                Timer.builder("batch.chunk.commit").tags(tags).register(registry)
+                        .record(Duration.ofNanos(System.nanoTime() - start));
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package study.batch.support.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * read / process / write 를 서로 다른 thread 에서 동시에 진행하는 chunk Tasklet (호출 1번 = chunk 1개 = 트랜잭션 1개)
+ * - reader thread 가 chunkSize 건씩 읽어 processor pool 에 넘기고, 처리 중 / 처리된 chunk 는 queueCapacity 개까지만 쌓는다. (가득 차면 read 가 멈춘다)
+ * - write 는 Step thread 의 chunk 트랜잭션 안에서 읽은 순서대로 한다. 그동안 다음 chunk 의 read / process 가 진행되므로
+ *   Step 시간은 세 단계의 합이 아니라 가장 느린 단계에 가까워진다.
+ * - reader 는 미리 읽으므로 chunk 를 읽은 직후의 reader 상태를 따로 떠 두었다가, 그 chunk 가 write 된 트랜잭션에서만 ExecutionContext 에 반영한다.
+ *   따라서 재시작하면 마지막으로 commit 된 chunk 다음부터 다시 읽는다. (reader 는 이 Tasklet 이 open / update / close 한다)
+ * - processor 는 트랜잭션 밖의 worker thread 에서 실행된다. skip / retry 와 아이템 단위 listener 는 지원하지 않는다.
+ */
+@Slf4j
+public class PipelinedChunkTasklet<I, O> implements Tasklet, ItemStream {
+    private final String name;
+    private final ItemReader<? extends I> reader;
+    private final ItemProcessor<? super I, ? extends O> processor;
+    private final ItemWriter<? super O> writer;
+    private final int chunkSize;
+    private final int processorThreads;
+    private final int queueCapacity;
+
+    private BlockingQueue<CompletableFuture<Stage<O>>> queue;
+    private ExecutorService readerExecutor;
+    private ExecutorService processorExecutor;
+    private StepExecution stepExecution;
+    private ExecutionContext pendingReaderState;
+    private boolean finished;
+
+    private record Stage<O>(int readCount, List<O> outputs, int filterCount, ExecutionContext readerState, boolean last) {
+    }
+
+    PipelinedChunkTasklet(String name, ItemReader<? extends I> reader, ItemProcessor<? super I, ? extends O> processor,
+                          ItemWriter<? super O> writer, int chunkSize, int processorThreads, int queueCapacity) {
+        this.name = name;
+        this.reader = reader;
+        this.processor = processor;
+        this.writer = writer;
+        this.chunkSize = chunkSize;
+        this.processorThreads = processorThreads;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        if (finished) {
+            return RepeatStatus.FINISHED;
+        }
+        Stage<O> stage = await(queue.take());
+
+        for (int i = 0; i < stage.readCount(); i++) {
+            contribution.incrementReadCount();
+        }
+        contribution.incrementFilterCount(stage.filterCount());
+        if (!stage.outputs().isEmpty()) {
+            writer.write(new Chunk<>(stage.outputs()));
+            contribution.incrementWriteCount(stage.outputs().size());
+        }
+        pendingReaderState = stage.readerState();
+
+        finished = stage.last();
+        return RepeatStatus.continueIf(!finished);
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        if (reader instanceof ItemStream stream) {
+            stream.open(executionContext);
+        }
+        StepContext stepContext = StepSynchronizationManager.getContext();
+        stepExecution = stepContext == null ? null : stepContext.getStepExecution();
+        finished = false;
+        pendingReaderState = null;
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        processorExecutor = Executors.newFixedThreadPool(processorThreads, new CustomizableThreadFactory(name + "-processor-"));
+        readerExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory(name + "-reader-"));
+        readerExecutor.execute(this::readAhead);
+    }
+
+    /**
+     * write 가 끝난 chunk 까지의 reader 상태만 기록한다.
+     */
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        if (pendingReaderState != null) {
+            for (Map.Entry<String, Object> entry : pendingReaderState.entrySet()) {
+                executionContext.put(entry.getKey(), entry.getValue());
+            }
+            pendingReaderState = null;
+        }
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        shutdown(readerExecutor);
+        shutdown(processorExecutor);
+        readerExecutor = null;
+        processorExecutor = null;
+        if (queue != null) {
+            queue.forEach(future -> future.cancel(true));
+            queue.clear();
+        }
+        if (reader instanceof ItemStream stream) {
+            stream.close();
+        }
+    }
+
+    private void readAhead() {
+        register();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<I> items = new ArrayList<>(chunkSize);
+                ExecutionContext readerState = new ExecutionContext();
+                I item;
+                while (items.size() < chunkSize && (item = reader.read()) != null) {
+                    items.add(item);
+                }
+                if (reader instanceof ItemStream stream) {
+                    stream.update(readerState);
+                }
+
+                boolean last = items.size() < chunkSize;
+                queue.put(process(items, readerState, last));
+                if (last) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            // Error 도 Step thread 에 전달하지 않으면 Step thread 가 queue.take() 에서 영원히 기다린다.
+            fail(e);
+        } finally {
+            release();
+        }
+    }
+
+    private void fail(Throwable error) {
+        try {
+            queue.put(CompletableFuture.failedFuture(error));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Stage<O>> process(List<I> items, ExecutionContext readerState, boolean last) {
+        if (processor == null || items.isEmpty()) {
+            @SuppressWarnings("unchecked")
+            List<O> outputs = (List<O>) items;
+            return CompletableFuture.completedFuture(new Stage<>(items.size(), outputs, 0, readerState, last));
+        }
+
+        int slices = Math.min(processorThreads, items.size());
+        int sliceSize = (items.size() + slices - 1) / slices;
+        List<CompletableFuture<List<O>>> futures = new ArrayList<>(slices);
+        for (int from = 0; from < items.size(); from += sliceSize) {
+            List<I> slice = items.subList(from, Math.min(items.size(), from + sliceSize));
+            futures.add(CompletableFuture.supplyAsync(() -> processSlice(slice), processorExecutor));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<O> outputs = new ArrayList<>(items.size());
+            for (CompletableFuture<List<O>> future : futures) {
+                outputs.addAll(future.join());
+            }
+            return new Stage<>(items.size(), outputs, items.size() - outputs.size(), readerState, last);
+        });
+    }
+
+    private List<O> processSlice(List<I> slice) {
+        register();
+        try {
+            List<O> outputs = new ArrayList<>(slice.size());
+            for (I item : slice) {
+                O output = processor.process(item);
+                if (output != null) {
+                    outputs.add(output);
+                }
+            }
+            return outputs;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * step scope Bean 을 worker thread 에서도 쓸 수 있도록 StepExecution 을 등록한다.
+     */
+    private void register() {
+        if (stepExecution != null) {
+            StepSynchronizationManager.register(stepExecution);
+        }
+    }
+
+    /**
+     * release() 는 StepContext 를 닫아 step scope Bean 을 정리하므로, 등록만 해제하는 close() 를 사용한다.
+     */
+    private void release() {
+        if (stepExecution != null) {
+            StepSynchronizationManager.close();
+        }
+    }
+
+    private Stage<O> await(CompletableFuture<Stage<O>> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    private void shutdown(ExecutorService executor) {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("{} worker threads did not stop in time", name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
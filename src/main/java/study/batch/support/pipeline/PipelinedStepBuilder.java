@@ -0,0 +1,126 @@
+package study.batch.support.pipeline;
+
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.builder.TaskletStepBuilder;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PipelinedChunkTasklet 으로 read / process / write 를 겹쳐 실행하는 Step 을 만드는 Builder
+ * 메모리에는 최대 (queueCapacity + 2) 개의 chunk 가 올라간다. (queue + 읽는 중 + 쓰는 중)
+ *
+ * new PipelinedStepBuilder<Customer, Customer>("customerPipelinedStep", jobRepository)
+ *         .chunk(10, transactionManager)
+ *         .reader(reader)
+ *         .processor(processor)
+ *         .writer(writer)
+ *         .processorThreads(4)
+ *         .queueCapacity(2)
+ *         .build();
+ */
+public class PipelinedStepBuilder<I, O> {
+    private final String name;
+    private final JobRepository jobRepository;
+
+    private PlatformTransactionManager transactionManager;
+    private int chunkSize;
+    private ItemReader<? extends I> reader;
+    private ItemProcessor<? super I, ? extends O> processor;
+    private ItemWriter<? super O> writer;
+    private int processorThreads = 1;
+    private int queueCapacity = 2;
+    private final List<ItemStream> streams = new ArrayList<>();
+    private final List<StepExecutionListener> listeners = new ArrayList<>();
+
+    public PipelinedStepBuilder(String name, JobRepository jobRepository) {
+        this.name = name;
+        this.jobRepository = jobRepository;
+    }
+
+    public PipelinedStepBuilder<I, O> chunk(int chunkSize, PlatformTransactionManager transactionManager) {
+        this.chunkSize = chunkSize;
+        this.transactionManager = transactionManager;
+        return this;
+    }
+
+    public PipelinedStepBuilder<I, O> reader(ItemReader<? extends I> reader) {
+        this.reader = reader;
+        return this;
+    }
+
+    /**
+     * 지정하지 않으면 읽은 아이템을 그대로 쓴다.
+     */
+    public PipelinedStepBuilder<I, O> processor(ItemProcessor<? super I, ? extends O> processor) {
+        this.processor = processor;
+        return this;
+    }
+
+    public PipelinedStepBuilder<I, O> writer(ItemWriter<? super O> writer) {
+        this.writer = writer;
+        return this;
+    }
+
+    /**
+     * chunk 하나를 나눠 process 하는 thread 수
+     */
+    public PipelinedStepBuilder<I, O> processorThreads(int processorThreads) {
+        this.processorThreads = processorThreads;
+        return this;
+    }
+
+    /**
+     * write 를 기다리는 chunk 수의 상한. 가득 차면 reader 가 멈춘다.
+     */
+    public PipelinedStepBuilder<I, O> queueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    public PipelinedStepBuilder<I, O> stream(ItemStream stream) {
+        this.streams.add(stream);
+        return this;
+    }
+
+    public PipelinedStepBuilder<I, O> listener(StepExecutionListener listener) {
+        this.listeners.add(listener);
+        return this;
+    }
+
+    public Step build() {
+        if (this.transactionManager == null || this.chunkSize < 1) {
+            throw new IllegalArgumentException("chunk(...) must be configured.!");
+        }
+        if (this.reader == null) {
+            throw new IllegalArgumentException("ItemReader can not be null.!");
+        }
+        if (this.writer == null) {
+            throw new IllegalArgumentException("ItemWriter can not be null.!");
+        }
+        if (this.processorThreads < 1 || this.queueCapacity < 1) {
+            throw new IllegalArgumentException("processorThreads and queueCapacity must be positive.!");
+        }
+
+        PipelinedChunkTasklet<I, O> tasklet = new PipelinedChunkTasklet<>(name, reader, processor, writer,
+                chunkSize, processorThreads, queueCapacity);
+        TaskletStepBuilder stepBuilder = new StepBuilder(name, jobRepository).tasklet(tasklet, transactionManager);
+        // reader 는 Tasklet 이 직접 open / update / close 한다.
+        for (Object component : new Object[]{processor, writer}) {
+            if (component instanceof ItemStream stream) {
+                stepBuilder.stream(stream);
+            }
+        }
+        streams.forEach(stepBuilder::stream);
+        listeners.forEach(stepBuilder::listener);
+        return stepBuilder.stream(tasklet).build();
+    }
+}
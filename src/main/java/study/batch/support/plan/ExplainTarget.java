@@ -0,0 +1,9 @@
+package study.batch.support.plan;
+
+import java.util.List;
+
+/**
+ * EXPLAIN 할 SQL 과 ? 순서대로의 binding 값
+ */
+public record ExplainTarget(String sql, List<Object> parameters) {
+}
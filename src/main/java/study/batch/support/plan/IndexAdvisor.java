@@ -0,0 +1,126 @@
+package study.batch.support.plan;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 단일 테이블 조회 SQL 을 보고 covering index 를 제안한다.
+ * - index 컬럼 순서: 등치(=, IN) 조건 컬럼 -> ORDER BY 컬럼(방향 포함) -> 첫 번째 범위 조건 컬럼 -> 나머지 SELECT 컬럼
+ * - paging Reader 는 페이지마다 조건에 맞는 row 전체를 정렬하므로, 범위 조건보다 정렬을 없애는 쪽을 우선한다.
+ *   (범위 조건은 index 안에서 걸러지고, LIMIT 만큼 읽으면 멈춘다)
+ * - SELECT * 이거나 컬럼이 maxColumns 를 넘으면 covering 컬럼은 빼고 조건 / 정렬 컬럼만 제안한다.
+ * - join / sub query 는 해석하지 않는다.
+ */
+class IndexAdvisor {
+    private static final int MAX_COLUMNS = 8;
+    private static final int MAX_NAME_LENGTH = 64;
+
+    private static final Pattern SELECT = Pattern.compile("^\\s*select\\s+(.+?)\\s+from\\s+([\\w.`\"]+)", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern WHERE = Pattern.compile("\\swhere\\s+(.+?)(?=\\s+order\\s+by\\s|\\s+group\\s+by\\s|\\s+limit\\s|\\s+offset\\s|\\s+fetch\\s|$)", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern ORDER_BY = Pattern.compile("\\sorder\\s+by\\s+(.+?)(?=\\s+limit\\s|\\s+offset\\s|\\s+fetch\\s|$)", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern CONDITION = Pattern.compile("^\\(?\\s*([\\w.`\"]+)\\s*(=|<>|!=|>=|<=|>|<|\\s+in\\s*\\(|\\s+between\\s|\\s+like\\s)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern AND = Pattern.compile("\\s+and\\s+", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COLUMN = Pattern.compile("[\\w.`\"]+");
+    private static final Pattern DESC = Pattern.compile("\\sdesc\\b", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * @param columns index 컬럼 정의 (내림차순 정렬 컬럼은 "ID DESC")
+     */
+    record Suggestion(String table, List<String> columns) {
+
+        String ddl() {
+            String name = ("IDX_" + bare(table) + "_" + columns.stream().map(column -> column.split(" ")[0]).collect(Collectors.joining("_")))
+                    .toUpperCase(Locale.ROOT);
+            if (name.length() > MAX_NAME_LENGTH) {
+                name = name.substring(0, MAX_NAME_LENGTH);
+            }
+            return "CREATE INDEX " + name + " ON " + table + " (" + String.join(", ", columns) + ")";
+        }
+
+        String indexName() {
+            String ddl = ddl();
+            return ddl.substring("CREATE INDEX ".length(), ddl.indexOf(" ON "));
+        }
+    }
+
+    /**
+     * @return 제안할 index. 조건도 정렬도 없거나 해석할 수 없는 SQL 이면 null
+     */
+    static Suggestion suggest(String sql) {
+        Matcher select = SELECT.matcher(sql);
+        if (!select.find()) {
+            return null;
+        }
+        String table = select.group(2);
+        String rest = sql.substring(select.end(2));
+
+        Set<String> equality = new LinkedHashSet<>();
+        String range = null;
+        Matcher where = WHERE.matcher(rest);
+        if (where.find()) {
+            for (String condition : AND.split(where.group(1).trim())) {
+                Matcher matcher = CONDITION.matcher(condition.trim());
+                if (!matcher.find()) {
+                    continue;
+                }
+                String column = column(matcher.group(1));
+                String operator = matcher.group(2).trim().toLowerCase(Locale.ROOT);
+                if (operator.equals("=") || operator.startsWith("in")) {
+                    equality.add(column);
+                } else if (range == null && !operator.equals("<>") && !operator.equals("!=")) {
+                    range = column;
+                }
+            }
+        }
+
+        Map<String, String> columns = new LinkedHashMap<>();
+        equality.forEach(column -> columns.put(column, column));
+        Matcher order = ORDER_BY.matcher(rest);
+        if (order.find()) {
+            for (String key : order.group(1).split(",")) {
+                Matcher matcher = COLUMN.matcher(key.trim());
+                if (matcher.find()) {
+                    String column = column(matcher.group());
+                    boolean descending = DESC.matcher(key).find();
+                    columns.putIfAbsent(column, descending ? column + " DESC" : column);
+                }
+            }
+        }
+        if (range != null) {
+            columns.putIfAbsent(range, range);
+        }
+        if (columns.isEmpty()) {
+            return null;
+        }
+
+        Map<String, String> covering = new LinkedHashMap<>(columns);
+        for (String selected : select.group(1).split(",")) {
+            String expression = selected.trim().split("\\s+")[0];
+            if (!COLUMN.matcher(expression).matches() || expression.endsWith("*")) {
+                covering = columns;
+                break;
+            }
+            covering.putIfAbsent(column(expression), column(expression));
+        }
+        if (covering.size() > MAX_COLUMNS) {
+            covering = columns;
+        }
+        return new Suggestion(table, List.copyOf(covering.values()));
+    }
+
+    private static String column(String expression) {
+        return bare(expression).toUpperCase(Locale.ROOT);
+    }
+
+    private static String bare(String identifier) {
+        String name = identifier.substring(identifier.lastIndexOf('.') + 1);
+        return name.replace("`", "").replace("\"", "");
+    }
+}
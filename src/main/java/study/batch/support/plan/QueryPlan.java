@@ -0,0 +1,17 @@
+package study.batch.support.plan;
+
+import java.util.List;
+
+/**
+ * ReaderQuery 하나의 검사 결과
+ *
+ * @param problems       FULL_SCAN(table) / FILESORT / TEMPORARY 같은 발견 사항. 비어 있으면 문제 없음
+ * @param suggestedIndex 문제가 있을 때 제안하는 covering index DDL (제안할 수 없으면 null)
+ * @param plan           데이터베이스가 돌려준 실행 계획 원문
+ */
+public record QueryPlan(String name, String sql, List<String> problems, String suggestedIndex, String plan) {
+
+    public boolean hasProblems() {
+        return !problems.isEmpty();
+    }
+}
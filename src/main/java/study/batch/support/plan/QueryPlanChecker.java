@@ -0,0 +1,171 @@
+package study.batch.support.plan;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ReaderQuery 를 EXPLAIN 해서 full scan / filesort 를 찾고 index 를 제안(createIndexes 면 생성)한다.
+ * - MySQL(MariaDB): EXPLAIN 결과의 type=ALL 을 full scan, Extra 의 Using filesort / Using temporary 를 정렬 / 임시 테이블로 본다.
+ * - H2: EXPLAIN 결과 SQL 에서 테이블 뒤의 주석이 tableScan 이거나 조건 없는 index(예: PRIMARY_KEY 순회)면 full scan, ORDER BY 가 있는데 "index sorted" 가 없으면 정렬로 본다.
+ *   H2 는 equality 조건 컬럼 뒤에 오는 ORDER BY 는 index 로 정렬하지 않으므로, 제안 index 를 만든 뒤에도 FILESORT 가 남을 수 있다. (MySQL 은 정렬을 생략한다)
+ * - 그 외 데이터베이스는 검사하지 않는다.
+ * - WHERE 가 없는 조회는 원래 테이블 전체를 읽으므로 full scan 으로 보지 않는다.
+ * - index 는 Reader 의 DataSource 가 복제본일 수 있으므로 쓰기용 DataSource 에 만들고, 만든 뒤 다시 EXPLAIN 한다.
+ */
+@Slf4j
+public class QueryPlanChecker {
+    static final String FULL_SCAN = "FULL_SCAN";
+    static final String FILESORT = "FILESORT";
+    static final String TEMPORARY = "TEMPORARY";
+
+    /**
+     * FROM / JOIN 테이블(+ alias) 바로 뒤의 조건 없는 scan 주석. index 조회면 "PUBLIC.IDX: GRADE = ?1" 처럼 ':' 뒤에 조건이 붙는다.
+     */
+    private static final Pattern H2_FULL_SCAN = Pattern.compile(
+            "(?:FROM|JOIN)\\s+(\"?\\w+\"?(?:\\.\"?\\w+\"?)?)(?:\\s+\"?\\w+\"?)?\\s*/\\*\\s*[\\w.]+\\s*\\*/", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_BY = Pattern.compile("\\sorder\\s+by\\s", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHERE = Pattern.compile("\\swhere\\s", Pattern.CASE_INSENSITIVE);
+
+    private final DataSource dataSource;
+    private final boolean createIndexes;
+
+    /**
+     * @param dataSource index 를 만들 쓰기용 DataSource
+     */
+    public QueryPlanChecker(DataSource dataSource, boolean createIndexes) {
+        this.dataSource = dataSource;
+        this.createIndexes = createIndexes;
+    }
+
+    public QueryPlan check(ReaderQuery query) throws Exception {
+        ExplainTarget target = query.target().call();
+        QueryPlan plan = explain(query, target);
+        if (!plan.hasProblems() || !createIndexes || plan.suggestedIndex() == null) {
+            return plan;
+        }
+
+        IndexAdvisor.Suggestion suggestion = IndexAdvisor.suggest(target.sql());
+        if (createIndex(suggestion)) {
+            return explain(query, target);
+        }
+        return plan;
+    }
+
+    private QueryPlan explain(ReaderQuery query, ExplainTarget target) throws SQLException {
+        try (Connection connection = query.dataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + target.sql())) {
+            String product = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+            for (int i = 0; i < target.parameters().size(); i++) {
+                statement.setObject(i + 1, parameter(target.parameters().get(i)));
+            }
+
+            List<String> problems = new ArrayList<>();
+            String plan;
+            if (product.contains("mysql") || product.contains("mariadb")) {
+                plan = mysql(statement, problems);
+            } else if (product.contains("h2")) {
+                plan = h2(statement, target.sql(), problems);
+            } else {
+                log.info("Query plan check of {} is not supported for {}", query.name(), product);
+                return new QueryPlan(query.name(), target.sql(), List.of(), null, null);
+            }
+
+            if (!WHERE.matcher(target.sql()).find()) {
+                problems.removeIf(problem -> problem.startsWith(FULL_SCAN));
+            }
+            IndexAdvisor.Suggestion suggestion = problems.isEmpty() ? null : IndexAdvisor.suggest(target.sql());
+            return new QueryPlan(query.name(), target.sql(), problems, suggestion == null ? null : suggestion.ddl(), plan);
+        }
+    }
+
+    private String mysql(PreparedStatement statement, List<String> problems) throws SQLException {
+        StringJoiner plan = new StringJoiner("\n");
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                String table = resultSet.getString("table");
+                String type = resultSet.getString("type");
+                String extra = resultSet.getString("Extra");
+                plan.add("table=" + table + ", type=" + type + ", key=" + resultSet.getString("key")
+                        + ", rows=" + resultSet.getString("rows") + ", extra=" + extra);
+                if ("ALL".equalsIgnoreCase(type)) {
+                    problems.add(FULL_SCAN + "(" + table + ")");
+                }
+                if (extra != null && extra.contains("Using filesort")) {
+                    problems.add(FILESORT);
+                }
+                if (extra != null && extra.contains("Using temporary")) {
+                    problems.add(TEMPORARY);
+                }
+            }
+        }
+        return plan.toString();
+    }
+
+    private String h2(PreparedStatement statement, String sql, List<String> problems) throws SQLException {
+        StringJoiner plan = new StringJoiner("\n");
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                plan.add(resultSet.getString(1));
+            }
+        }
+        Matcher fullScan = H2_FULL_SCAN.matcher(plan.toString());
+        while (fullScan.find()) {
+            problems.add(FULL_SCAN + "(" + fullScan.group(1).replace("\"", "") + ")");
+        }
+        if (ORDER_BY.matcher(sql).find() && !plan.toString().contains("index sorted")) {
+            problems.add(FILESORT);
+        }
+        return plan.toString();
+    }
+
+    private boolean createIndex(IndexAdvisor.Suggestion suggestion) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (indexExists(connection.getMetaData(), suggestion)) {
+                log.info("Index {} already exists", suggestion.indexName());
+                return false;
+            }
+            try (Statement statement = connection.createStatement()) {
+                log.info("Creating index: {}", suggestion.ddl());
+                statement.execute(suggestion.ddl());
+            }
+            return true;
+        }
+    }
+
+    private boolean indexExists(DatabaseMetaData metaData, IndexAdvisor.Suggestion suggestion) throws SQLException {
+        String table = suggestion.table().substring(suggestion.table().lastIndexOf('.') + 1).replace("`", "").replace("\"", "");
+        for (String candidate : List.of(table, table.toUpperCase(Locale.ROOT), table.toLowerCase(Locale.ROOT))) {
+            try (ResultSet indexes = metaData.getIndexInfo(null, null, candidate, false, true)) {
+                while (indexes.next()) {
+                    if (suggestion.indexName().equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * enum 처럼 JDBC 가 모르는 값은 문자열로 binding 한다.
+     */
+    private Object parameter(Object value) {
+        if (value instanceof Enum<?> enumValue) {
+            return enumValue.name();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,55 @@
+package study.batch.support.plan;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 시작 시 등록된 ReaderQuery 의 실행 계획 검사 설정
+ * fast-start profile 처럼 lazy-initialization 을 켜도 검사가 실행되도록 검사 Bean 은 @Lazy(false) 로 등록한다.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(QueryPlanProperties.class)
+@ConditionalOnProperty(prefix = "batch.query-plan", name = "enabled", havingValue = "true")
+public class QueryPlanConfiguration {
+
+    @Bean
+    @Lazy(false)
+    public SmartInitializingSingleton queryPlanCheck(ObjectProvider<ReaderQuery> readerQueries, DataSource dataSource, QueryPlanProperties properties) {
+        return () -> {
+            log.info("------------------ Init query plan check -----------------");
+            QueryPlanChecker checker = new QueryPlanChecker(dataSource, properties.isCreateIndexes());
+            List<String> failed = new ArrayList<>();
+            readerQueries.orderedStream().forEach(query -> {
+                try {
+                    QueryPlan plan = checker.check(query);
+                    if (!plan.hasProblems()) {
+                        log.info("[{}] OK - {}", plan.name(), plan.sql());
+                        return;
+                    }
+                    failed.add(plan.name());
+                    log.warn("[{}] {} - {}\n{}", plan.name(), plan.problems(), plan.sql(), plan.plan());
+                    if (plan.suggestedIndex() != null) {
+                        log.warn("[{}] suggested index: {}", plan.name(), plan.suggestedIndex());
+                    }
+                } catch (Exception e) {
+                    failed.add(query.name());
+                    log.warn("[{}] EXPLAIN failed: {}", query.name(), e.getMessage());
+                }
+            });
+            if (!failed.isEmpty() && properties.isFailOnProblem()) {
+                throw new IllegalStateException("Reader queries with a bad plan: " + failed);
+            }
+        };
+    }
+}
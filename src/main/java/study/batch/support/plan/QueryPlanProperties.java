@@ -0,0 +1,28 @@
+package study.batch.support.plan;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 시작 시 Reader 조회의 실행 계획을 검사하는 설정 (batch.query-plan.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "batch.query-plan")
+public class QueryPlanProperties {
+    /**
+     * true 면 시작 시 등록된 ReaderQuery 를 모두 EXPLAIN 한다.
+     */
+    private boolean enabled = false;
+
+    /**
+     * full scan / filesort 가 발견되면 제안한 index 를 쓰기용(기본) DataSource 에 만든다.
+     */
+    private boolean createIndexes = false;
+
+    /**
+     * index 를 만든 뒤에도 문제가 남아 있으면 시작을 실패시킨다.
+     */
+    private boolean failOnProblem = false;
+}
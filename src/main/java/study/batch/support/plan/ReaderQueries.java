@@ -0,0 +1,153 @@
+package study.batch.support.plan;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.batch.item.database.PagingQueryProvider;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Reader 종류별로 실제 실행되는 SQL 과 binding 값을 만드는 도우미
+ * - JDBC paging / MyBatis 는 Reader 와 같은 방식으로 첫 페이지 SQL 을 만든다.
+ * - JPA / Querydsl 은 Hibernate 가 만드는 SQL 을 얻기 위해, PreparedStatement 실행 직전에 SQL 과 binding 값을 가로채고 실행은 하지 않는다.
+ */
+public final class ReaderQueries {
+
+    private ReaderQueries() {
+    }
+
+    public static ExplainTarget jdbc(String sql, Object... parameters) {
+        return new ExplainTarget(sql, Arrays.asList(parameters));
+    }
+
+    /**
+     * JdbcPagingItemReader 의 첫 페이지 조회
+     */
+    public static ExplainTarget jdbcPaging(PagingQueryProvider queryProvider, Map<String, Object> parameterValues, int pageSize) {
+        String sql = queryProvider.generateFirstPageQuery(pageSize);
+        if (!queryProvider.isUsingNamedParameters()) {
+            return new ExplainTarget(sql, new ArrayList<>(parameterValues.values()));
+        }
+        ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement(sql);
+        MapSqlParameterSource source = new MapSqlParameterSource(parameterValues);
+        return new ExplainTarget(NamedParameterUtils.substituteNamedParameters(parsedSql, source),
+                Arrays.asList(NamedParameterUtils.buildValueArray(parsedSql, source, null)));
+    }
+
+    /**
+     * MyBatisPagingItemReader 의 첫 페이지 조회 (_page / _pagesize / _skiprows 를 Reader 와 같이 채운다)
+     */
+    public static ExplainTarget myBatis(SqlSessionFactory sqlSessionFactory, String statementId, Map<String, Object> parameterValues, int pageSize) {
+        org.apache.ibatis.session.Configuration configuration = sqlSessionFactory.getConfiguration();
+        Map<String, Object> parameter = new HashMap<>(parameterValues);
+        parameter.put("_page", 0);
+        parameter.put("_pagesize", pageSize);
+        parameter.put("_skiprows", 0);
+
+        MappedStatement statement = configuration.getMappedStatement(statementId);
+        BoundSql boundSql = statement.getBoundSql(parameter);
+        MetaObject metaObject = configuration.newMetaObject(parameter);
+        List<Object> values = new ArrayList<>();
+        for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+            String property = mapping.getProperty();
+            values.add(boundSql.hasAdditionalParameter(property) ? boundSql.getAdditionalParameter(property) : metaObject.getValue(property));
+        }
+        return new ExplainTarget(boundSql.getSql(), values);
+    }
+
+    /**
+     * JPA Reader 의 조회. query 에 maxResults 가 없으면 1 로 제한한다.
+     *
+     * @param dataSource entityManagerFactory 가 사용하는 DataSource
+     */
+    public static ExplainTarget jpa(EntityManagerFactory entityManagerFactory, DataSource dataSource, Function<EntityManager, Query> query) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            StatementCapture capture = new StatementCapture(connection);
+            try (Session session = entityManagerFactory.unwrap(SessionFactory.class).withOptions().connection(capture.connection()).openSession()) {
+                Query jpaQuery = query.apply(session);
+                if (jpaQuery.getMaxResults() == Integer.MAX_VALUE) {
+                    jpaQuery.setMaxResults(1);
+                }
+                jpaQuery.getResultList();
+            } catch (RuntimeException e) {
+                if (capture.sql == null) {
+                    throw e;
+                }
+            }
+            if (capture.sql == null) {
+                throw new IllegalStateException("Query did not reach the database.!");
+            }
+            return new ExplainTarget(capture.sql, new ArrayList<>(capture.parameters.values()));
+        }
+    }
+
+    /**
+     * prepareStatement 로 만든 SQL 과 set* 로 binding 한 값을 기록하고, 실행 시점에 중단시키는 Connection
+     */
+    private static class StatementCapture {
+        private final Connection target;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private String sql;
+
+        private StatementCapture(Connection target) {
+            this.target = target;
+        }
+
+        private Connection connection() {
+            return (Connection) Proxy.newProxyInstance(ReaderQueries.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                if (method.getName().equals("prepareStatement")) {
+                    sql = (String) args[0];
+                    return statement((PreparedStatement) invoke(target, method, args));
+                }
+                if (method.getName().equals("close")) {
+                    return null;
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        private PreparedStatement statement(PreparedStatement target) {
+            return (PreparedStatement) Proxy.newProxyInstance(ReaderQueries.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("execute")) {
+                    throw new IllegalStateException("Captured only, not executed");
+                }
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, name.equals("setNull") ? null : args[1]);
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
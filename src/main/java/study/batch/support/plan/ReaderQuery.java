@@ -0,0 +1,15 @@
+package study.batch.support.plan;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Callable;
+
+/**
+ * 실행 계획을 검사할 Reader 조회. Bean 으로 등록하면 batch.query-plan.enabled=true 일 때 시작 시 검사한다.
+ * target 은 검사할 때만 호출되므로 SQL 생성 비용은 검사를 켰을 때만 든다.
+ *
+ * @param name       보고서에 표시할 이름 (보통 Reader 이름)
+ * @param dataSource Reader 가 조회하는 DataSource
+ * @param target     Reader 가 실제로 실행하는 SQL (ReaderQueries 참고)
+ */
+public record ReaderQuery(String name, DataSource dataSource, Callable<ExplainTarget> target) {
+}
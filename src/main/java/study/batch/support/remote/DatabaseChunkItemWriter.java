@@ -0,0 +1,98 @@
+package study.batch.support.remote;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+
+import java.time.Duration;
+
+/**
+ * Remote Chunking 의 manager 쪽 ItemWriter
+ * 읽은 chunk 를 처리하지 않고 BATCH_REMOTE_CHUNK 에 PENDING 으로 등록한다.
+ * 등록은 Step 의 chunk 트랜잭션 안에서 이루어지므로 reader 의 commit 위치와 항상 일치한다.
+ * Step 이 끝나면 (재시작 이전 실행이 남긴 chunk 를 포함해) 모든 chunk 가 처리될 때까지 기다리고,
+ * worker 의 write / filter 건수를 StepExecution 에 반영한다.
+ */
+@Slf4j
+public class DatabaseChunkItemWriter<T> implements ItemWriter<T>, StepExecutionListener {
+    private final RemoteChunkRepository repository;
+    private final String queueName;
+    private final Duration pollInterval;
+    private final Duration completionTimeout;
+
+    private StepExecution stepExecution;
+
+    public DatabaseChunkItemWriter(RemoteChunkRepository repository, String queueName, Duration pollInterval, Duration completionTimeout) {
+        this.repository = repository;
+        this.queueName = queueName;
+        this.pollInterval = pollInterval;
+        this.completionTimeout = completionTimeout;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        this.stepExecution = stepExecution;
+        int requeued = repository.requeueFailed(jobInstanceId(), stepExecution.getStepName());
+        if (requeued > 0) {
+            log.info("Requeued {} failed remote chunks of {}", requeued, stepExecution.getStepName());
+        }
+    }
+
+    @Override
+    public void write(Chunk<? extends T> chunk) {
+        repository.send(queueName, jobInstanceId(), stepExecution.getStepName(), chunk.getItems());
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (stepExecution.getStatus().isUnsuccessful()) {
+            return stepExecution.getExitStatus();
+        }
+
+        String stepName = stepExecution.getStepName();
+        long deadline = System.nanoTime() + completionTimeout.toNanos();
+        RemoteChunkRepository.Summary summary = repository.summarize(jobInstanceId(), stepName);
+        while (summary.outstanding() > 0) {
+            if (System.nanoTime() > deadline) {
+                log.error("{} remote chunks of {} are still pending after {}", summary.outstanding(), stepName, completionTimeout);
+                return fail(stepExecution, "Timed out waiting for remote chunks");
+            }
+            sleep();
+            summary = repository.summarize(jobInstanceId(), stepName);
+        }
+
+        stepExecution.setWriteCount(summary.writeCount());
+        stepExecution.setFilterCount(summary.filterCount());
+        if (summary.failed() > 0) {
+            return fail(stepExecution, summary.failed() + " remote chunks failed");
+        }
+
+        repository.purge(jobInstanceId(), stepName);
+        return stepExecution.getExitStatus();
+    }
+
+    /**
+     * ExitStatus 만으로는 BatchStatus 가 바뀌지 않으므로 Step 을 직접 FAILED 로 만들어 재시작(requeue)이 가능하게 한다.
+     */
+    private ExitStatus fail(StepExecution stepExecution, String description) {
+        stepExecution.upgradeStatus(BatchStatus.FAILED);
+        return ExitStatus.FAILED.addExitDescription(description);
+    }
+
+    private long jobInstanceId() {
+        return stepExecution.getJobExecution().getJobInstance().getInstanceId();
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(pollInterval.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for remote chunks", e);
+        }
+    }
+}
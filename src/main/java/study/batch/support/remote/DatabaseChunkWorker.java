@@ -0,0 +1,155 @@
+package study.batch.support.remote;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Remote Chunking 의 worker
+ * BATCH_REMOTE_CHUNK 에서 chunk 를 하나씩 잠가 가져와 processor / writer 를 실행하고,
+ * 같은 트랜잭션 안에서 DONE 으로 응답한다. 처리에 실패하면 롤백 후 FAILED 로 기록한다.
+ * 여러 JVM 에서 동시에 실행해도 SKIP LOCKED 덕분에 같은 chunk 를 중복 처리하지 않는다.
+ */
+@Slf4j
+public class DatabaseChunkWorker<I, O> implements SmartLifecycle {
+    private final RemoteChunkRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final String queueName;
+    private final ItemProcessor<? super I, ? extends O> processor;
+    private final ItemWriter<? super O> writer;
+    private final Duration pollInterval;
+    private final String workerName = ManagementFactory.getRuntimeMXBean().getName();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public DatabaseChunkWorker(RemoteChunkRepository repository, PlatformTransactionManager transactionManager, String queueName,
+                               ItemProcessor<? super I, ? extends O> processor, ItemWriter<? super O> writer, Duration pollInterval) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queueName = queueName;
+        this.processor = processor;
+        this.writer = writer;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * 대기 중인 chunk 하나를 처리한다.
+     * @return 처리할 chunk 가 있었으면 true
+     */
+    public boolean processNext() {
+        Long[] failedChunk = new Long[1];
+        try {
+            Boolean processed = transactionTemplate.execute(status -> {
+                Optional<Long> claimed = repository.claim(queueName);
+                if (claimed.isEmpty()) {
+                    return false;
+                }
+                failedChunk[0] = claimed.get();
+                RemoteChunkRepository.RemoteChunk<I> chunk = repository.load(claimed.get());
+
+                Chunk<O> outputs = new Chunk<>();
+                for (I item : chunk.items()) {
+                    O output = process(item);
+                    if (output != null) {
+                        outputs.add(output);
+                    }
+                }
+                write(outputs);
+                if (!repository.complete(chunk.id(), workerName, outputs.size(), chunk.items().size() - outputs.size())) {
+                    throw new IllegalStateException("Remote chunk " + chunk.id() + " is no longer pending");
+                }
+                return true;
+            });
+            return Boolean.TRUE.equals(processed);
+        } catch (RuntimeException e) {
+            if (failedChunk[0] == null) {
+                throw e;
+            }
+            log.error("Remote chunk {} failed", failedChunk[0], e);
+            Boolean failed = transactionTemplate.execute(status -> repository.fail(failedChunk[0], workerName, e));
+            if (!Boolean.TRUE.equals(failed)) {
+                log.warn("Remote chunk {} was already finished, its failure is not recorded", failedChunk[0]);
+            }
+            return true;
+        }
+    }
+
+    private O process(I item) {
+        try {
+            return processor == null ? cast(item) : processor.process(item);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void write(Chunk<O> outputs) {
+        try {
+            writer.write(outputs);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private O cast(I item) {
+        return (O) item;
+    }
+
+    private void poll() {
+        log.info("Remote chunk worker {} started on queue {}", workerName, queueName);
+        while (running) {
+            boolean processed = false;
+            try {
+                processed = processNext();
+            } catch (RuntimeException e) {
+                log.error("Remote chunk worker poll failed", e);
+            }
+            if (!processed && !sleep()) {
+                return;
+            }
+        }
+    }
+
+    private boolean sleep() {
+        try {
+            Thread.sleep(pollInterval.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::poll, "remote-chunk-worker");
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
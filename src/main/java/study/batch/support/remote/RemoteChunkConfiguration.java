@@ -0,0 +1,24 @@
+package study.batch.support.remote;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(RemoteChunkProperties.class)
+@ConditionalOnProperty(prefix = "batch.remote", name = "enabled", havingValue = "true")
+public class RemoteChunkConfiguration {
+
+    @Bean
+    public RemoteChunkRepository remoteChunkRepository(DataSource dataSource, RemoteChunkProperties properties) {
+        if (properties.isInitializeSchema()) {
+            new ResourceDatabasePopulator(new ClassPathResource("remote/schema-remote-chunk.sql")).execute(dataSource);
+        }
+        return new RemoteChunkRepository(dataSource);
+    }
+}
@@ -0,0 +1,38 @@
+package study.batch.support.remote;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * DB 테이블 기반 Remote Chunking 설정 (batch.remote.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "batch.remote")
+public class RemoteChunkProperties {
+    public enum Role {
+        MANAGER, WORKER
+    }
+
+    private boolean enabled = false;
+    private Role role = Role.MANAGER;
+    private String queueName = "compositeJob";
+
+    /**
+     * 시작 시 BATCH_REMOTE_CHUNK 테이블 생성 여부
+     */
+    private boolean initializeSchema = false;
+
+    /**
+     * worker 가 비어있는 큐를 다시 조회하기까지 대기하는 시간
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * manager 가 Step 종료 시 남은 chunk 의 처리를 기다리는 최대 시간
+     */
+    private Duration completionTimeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,125 @@
+package study.batch.support.remote;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * BATCH_REMOTE_CHUNK 테이블을 manager / worker 사이의 채널로 사용하는 저장소
+ * chunk 는 PENDING 으로 등록되고, worker 가 처리에 성공하면 DONE, 실패하면 FAILED 가 된다.
+ * worker 는 처리하는 동안 SELECT ... FOR UPDATE SKIP LOCKED 로 잡은 row lock 을 유지하므로
+ * worker 가 죽으면 lock 이 풀리고 해당 chunk 는 다른 worker 가 다시 가져간다.
+ */
+public class RemoteChunkRepository {
+    public static final String PENDING = "PENDING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private static final int MAX_ERROR_LENGTH = 2500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RemoteChunkRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public record RemoteChunk<T>(long id, List<T> items) {
+    }
+
+    public record Summary(long outstanding, long failed, long writeCount, long filterCount) {
+    }
+
+    public void send(String queueName, long jobInstanceId, String stepName, List<?> items) {
+        jdbcTemplate.update("INSERT INTO BATCH_REMOTE_CHUNK (QUEUE_NAME, JOB_INSTANCE_ID, STEP_NAME, STATUS, ITEM_COUNT, PAYLOAD) VALUES (?, ?, ?, ?, ?, ?)",
+                queueName, jobInstanceId, stepName, PENDING, items.size(), serialize(new ArrayList<>(items)));
+    }
+
+    /**
+     * 현재 트랜잭션 안에서 처리 대기 중인 chunk 하나를 잠그고 그 ID 를 가져온다.
+     * payload 는 load(...) 로 따로 읽으므로 역직렬화에 실패해도 잠근 chunk 를 FAILED 로 기록할 수 있다.
+     */
+    public Optional<Long> claim(String queueName) {
+        List<Long> chunkIds = jdbcTemplate.queryForList(
+                "SELECT CHUNK_ID FROM BATCH_REMOTE_CHUNK WHERE QUEUE_NAME = ? AND STATUS = ? ORDER BY CHUNK_ID LIMIT 1 FOR UPDATE SKIP LOCKED",
+                Long.class, queueName, PENDING);
+        return chunkIds.stream().findFirst();
+    }
+
+    public <T> RemoteChunk<T> load(long chunkId) {
+        byte[] payload = jdbcTemplate.queryForObject("SELECT PAYLOAD FROM BATCH_REMOTE_CHUNK WHERE CHUNK_ID = ?", byte[].class, chunkId);
+        return new RemoteChunk<>(chunkId, deserialize(payload));
+    }
+
+    /**
+     * PENDING 인 chunk 만 DONE 으로 바꾼다.
+     * @return 바꿨으면 true (이미 DONE / FAILED 로 끝난 chunk 면 false)
+     */
+    public boolean complete(long chunkId, String worker, int writeCount, int filterCount) {
+        return jdbcTemplate.update("UPDATE BATCH_REMOTE_CHUNK SET STATUS = ?, WORKER = ?, WRITE_COUNT = ?, FILTER_COUNT = ?, UPDATED_AT = CURRENT_TIMESTAMP WHERE CHUNK_ID = ? AND STATUS = ?",
+                DONE, worker, writeCount, filterCount, chunkId, PENDING) == 1;
+    }
+
+    /**
+     * PENDING 인 chunk 만 FAILED 로 바꾼다. 늦게 도착한 실패가 이미 DONE 이 된 chunk 를 덮어쓰지 않는다.
+     * @return 바꿨으면 true
+     */
+    public boolean fail(long chunkId, String worker, Throwable error) {
+        String message = String.valueOf(error);
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        return jdbcTemplate.update("UPDATE BATCH_REMOTE_CHUNK SET STATUS = ?, WORKER = ?, ERROR_MESSAGE = ?, UPDATED_AT = CURRENT_TIMESTAMP WHERE CHUNK_ID = ? AND STATUS = ?",
+                FAILED, worker, message, chunkId, PENDING) == 1;
+    }
+
+    public Summary summarize(long jobInstanceId, String stepName) {
+        return jdbcTemplate.queryForObject("""
+                        SELECT COALESCE(SUM(CASE WHEN STATUS = ? THEN 1 ELSE 0 END), 0),
+                               COALESCE(SUM(CASE WHEN STATUS = ? THEN 1 ELSE 0 END), 0),
+                               COALESCE(SUM(WRITE_COUNT), 0),
+                               COALESCE(SUM(FILTER_COUNT), 0)
+                        FROM BATCH_REMOTE_CHUNK WHERE JOB_INSTANCE_ID = ? AND STEP_NAME = ?""",
+                (rs, rowNum) -> new Summary(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)),
+                PENDING, FAILED, jobInstanceId, stepName);
+    }
+
+    /**
+     * 재시작 시 실패한 chunk 를 다시 처리하도록 PENDING 으로 되돌린다.
+     */
+    public int requeueFailed(long jobInstanceId, String stepName) {
+        return jdbcTemplate.update("UPDATE BATCH_REMOTE_CHUNK SET STATUS = ?, ERROR_MESSAGE = NULL, UPDATED_AT = CURRENT_TIMESTAMP WHERE JOB_INSTANCE_ID = ? AND STEP_NAME = ? AND STATUS = ?",
+                PENDING, jobInstanceId, stepName, FAILED);
+    }
+
+    public int purge(long jobInstanceId, String stepName) {
+        return jdbcTemplate.update("DELETE FROM BATCH_REMOTE_CHUNK WHERE JOB_INSTANCE_ID = ? AND STEP_NAME = ? AND STATUS = ?",
+                jobInstanceId, stepName, DONE);
+    }
+
+    private byte[] serialize(ArrayList<?> items) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(items);
+        } catch (IOException e) {
+            throw new IllegalStateException("Remote chunk items must be Serializable", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> deserialize(byte[] payload) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            return (List<T>) in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Can not read remote chunk payload", e);
+        }
+    }
+}
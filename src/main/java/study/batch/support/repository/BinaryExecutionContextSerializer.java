@@ -0,0 +1,205 @@
+package study.batch.support.repository;
+
+import org.springframework.batch.core.repository.ExecutionContextSerializer;
+import org.springframework.batch.core.repository.dao.DefaultExecutionContextSerializer;
+import org.springframework.util.Assert;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * ExecutionContext 를 타입 태그 기반의 작은 바이너리 포맷으로 직렬화하는 Serializer
+ * - String / 기본형 wrapper 는 태그 1 byte + 값으로 기록하고, 그 외 Serializable 값만 Java 직렬화를 사용한다.
+ * - 직렬화 결과가 compressionThreshold 보다 크면 Deflate 로 압축한다.
+ * - BATCH_*_EXECUTION_CONTEXT 컬럼은 문자열이므로 "BEC1:" 접두어 + Base64 로 기록한다.
+ * - 접두어가 없는 기존 row 는 legacy Serializer(기본값: DefaultExecutionContextSerializer)로 읽는다.
+ */
+public class BinaryExecutionContextSerializer implements ExecutionContextSerializer {
+    private static final byte[] MAGIC = "BEC1:".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte FLOAT = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte SHORT = 7;
+    private static final byte BYTE = 8;
+    private static final byte CHARACTER = 9;
+    private static final byte SERIALIZABLE = 10;
+
+    private final ExecutionContextSerializer legacySerializer;
+    private int compressionThreshold = 1024;
+
+    public BinaryExecutionContextSerializer() {
+        this(new DefaultExecutionContextSerializer());
+    }
+
+    public BinaryExecutionContextSerializer(ExecutionContextSerializer legacySerializer) {
+        this.legacySerializer = legacySerializer;
+    }
+
+    /**
+     * 압축을 시작할 직렬화 크기(byte). 0 보다 작으면 압축하지 않는다.
+     */
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public void serialize(Map<String, Object> context, OutputStream out) throws IOException {
+        Assert.notNull(context, "context is required");
+        Assert.notNull(out, "OutputStream is required");
+
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(256);
+        try (DataOutputStream data = new DataOutputStream(raw)) {
+            data.writeInt(context.size());
+            for (Map.Entry<String, Object> entry : context.entrySet()) {
+                writeString(data, entry.getKey());
+                writeValue(data, entry.getKey(), entry.getValue());
+            }
+        }
+
+        int flags = 0;
+        byte[] payload = raw.toByteArray();
+        if (compressionThreshold >= 0 && payload.length > compressionThreshold) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(payload.length / 2);
+            try (DeflaterOutputStream deflater = new DeflaterOutputStream(compressed)) {
+                deflater.write(payload);
+            }
+            flags |= FLAG_COMPRESSED;
+            payload = compressed.toByteArray();
+        }
+
+        byte[] framed = new byte[payload.length + 1];
+        framed[0] = (byte) flags;
+        System.arraycopy(payload, 0, framed, 1, payload.length);
+
+        out.write(MAGIC);
+        out.write(Base64.getEncoder().encode(framed));
+    }
+
+    @Override
+    public Map<String, Object> deserialize(InputStream inputStream) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(inputStream);
+        in.mark(MAGIC.length);
+        byte[] prefix = in.readNBytes(MAGIC.length);
+        if (!Arrays.equals(prefix, MAGIC)) {
+            in.reset();
+            return legacySerializer.deserialize(in);
+        }
+
+        byte[] framed = Base64.getDecoder().decode(in.readAllBytes());
+        InputStream payload = new ByteArrayInputStream(framed, 1, framed.length - 1);
+        if ((framed[0] & FLAG_COMPRESSED) != 0) {
+            payload = new InflaterInputStream(payload);
+        }
+
+        try (DataInputStream data = new DataInputStream(payload)) {
+            int size = data.readInt();
+            Map<String, Object> context = new HashMap<>(Math.max(16, size * 2));
+            for (int i = 0; i < size; i++) {
+                String key = readString(data);
+                context.put(key, readValue(data));
+            }
+            return context;
+        }
+    }
+
+    private void writeValue(DataOutputStream data, String key, Object value) throws IOException {
+        Assert.notNull(value, "A null value was found for key " + key);
+        if (value instanceof String string) {
+            data.writeByte(STRING);
+            writeString(data, string);
+        } else if (value instanceof Integer integer) {
+            data.writeByte(INTEGER);
+            data.writeInt(integer);
+        } else if (value instanceof Long longValue) {
+            data.writeByte(LONG);
+            data.writeLong(longValue);
+        } else if (value instanceof Double doubleValue) {
+            data.writeByte(DOUBLE);
+            data.writeDouble(doubleValue);
+        } else if (value instanceof Float floatValue) {
+            data.writeByte(FLOAT);
+            data.writeFloat(floatValue);
+        } else if (value instanceof Boolean booleanValue) {
+            data.writeByte(BOOLEAN);
+            data.writeBoolean(booleanValue);
+        } else if (value instanceof Short shortValue) {
+            data.writeByte(SHORT);
+            data.writeShort(shortValue);
+        } else if (value instanceof Byte byteValue) {
+            data.writeByte(BYTE);
+            data.writeByte(byteValue);
+        } else if (value instanceof Character character) {
+            data.writeByte(CHARACTER);
+            data.writeChar(character);
+        } else if (value instanceof Serializable) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(bytes)) {
+                objectOutputStream.writeObject(value);
+            }
+            data.writeByte(SERIALIZABLE);
+            data.writeInt(bytes.size());
+            bytes.writeTo(data);
+        } else {
+            throw new IllegalArgumentException("Value: [" + value + "] must be serializable. Object of class: ["
+                    + value.getClass().getName() + "] must be an instance of " + Serializable.class);
+        }
+    }
+
+    private Object readValue(DataInputStream data) throws IOException {
+        byte tag = data.readByte();
+        return switch (tag) {
+            case STRING -> readString(data);
+            case INTEGER -> data.readInt();
+            case LONG -> data.readLong();
+            case DOUBLE -> data.readDouble();
+            case FLOAT -> data.readFloat();
+            case BOOLEAN -> data.readBoolean();
+            case SHORT -> data.readShort();
+            case BYTE -> data.readByte();
+            case CHARACTER -> data.readChar();
+            case SERIALIZABLE -> readSerializable(data);
+            default -> throw new IllegalArgumentException("Unknown execution context value tag: " + tag);
+        };
+    }
+
+    private Object readSerializable(DataInputStream data) throws IOException {
+        byte[] bytes = data.readNBytes(data.readInt());
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return objectInputStream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Failed to deserialize object type", e);
+        }
+    }
+
+    private void writeString(DataOutputStream data, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private String readString(DataInputStream data) throws IOException {
+        return new String(data.readNBytes(data.readInt()), StandardCharsets.UTF_8);
+    }
+}
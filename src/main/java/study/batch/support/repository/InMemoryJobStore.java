@@ -0,0 +1,186 @@
+package study.batch.support.repository;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.DefaultJobKeyGenerator;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobKeyGenerator;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * IN_MEMORY 모드 Job 의 메타데이터 저장소
+ * DB 의 ID 와 겹치지 않도록 음수 ID 를 사용하고, 오래된 JobInstance 부터 버려 메모리 사용량을 제한한다.
+ */
+public class InMemoryJobStore {
+    private final JobKeyGenerator<JobParameters> jobKeyGenerator = new DefaultJobKeyGenerator();
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<String, JobInstance> instances;
+    private final Map<Long, List<JobExecution>> executions = new HashMap<>();
+
+    public InMemoryJobStore(int maxInstances) {
+        this.instances = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JobInstance> eldest) {
+                if (size() > maxInstances) {
+                    executions.remove(eldest.getValue().getInstanceId());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static boolean isInMemoryId(Long id) {
+        return id != null && id < 0;
+    }
+
+    public synchronized boolean isJobInstanceExists(String jobName, JobParameters jobParameters) {
+        return instances.containsKey(key(jobName, jobParameters));
+    }
+
+    public synchronized JobInstance getJobInstance(String jobName, JobParameters jobParameters) {
+        return instances.get(key(jobName, jobParameters));
+    }
+
+    public synchronized JobInstance createJobInstance(String jobName, JobParameters jobParameters) {
+        JobInstance jobInstance = new JobInstance(nextId(), jobName);
+        jobInstance.incrementVersion();
+        instances.put(key(jobName, jobParameters), jobInstance);
+        executions.put(jobInstance.getInstanceId(), new ArrayList<>());
+        return jobInstance;
+    }
+
+    public synchronized JobExecution createJobExecution(String jobName, JobParameters jobParameters)
+            throws JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException {
+        JobInstance jobInstance = getJobInstance(jobName, jobParameters);
+        ExecutionContext executionContext = new ExecutionContext();
+        if (jobInstance == null) {
+            jobInstance = createJobInstance(jobName, jobParameters);
+        } else {
+            List<JobExecution> previous = executions.get(jobInstance.getInstanceId());
+            for (JobExecution execution : previous) {
+                if (execution.isRunning()) {
+                    throw new JobExecutionAlreadyRunningException("A job execution for this job is already running: " + jobInstance);
+                }
+                if (execution.getStatus() == BatchStatus.UNKNOWN) {
+                    throw new JobRestartException("Cannot restart job from UNKNOWN status: " + jobInstance);
+                }
+                if (execution.getStatus() == BatchStatus.COMPLETED || execution.getStatus() == BatchStatus.ABANDONED) {
+                    throw new JobInstanceAlreadyCompleteException("A job instance already exists and is complete for " + jobInstance);
+                }
+            }
+            if (!previous.isEmpty()) {
+                executionContext = previous.get(previous.size() - 1).getExecutionContext();
+            }
+        }
+
+        JobExecution jobExecution = new JobExecution(jobInstance, nextId(), jobParameters);
+        jobExecution.setExecutionContext(executionContext);
+        jobExecution.setLastUpdated(LocalDateTime.now());
+        jobExecution.incrementVersion();
+        executions.get(jobInstance.getInstanceId()).add(jobExecution);
+        return jobExecution;
+    }
+
+    public void update(JobExecution jobExecution) {
+        jobExecution.setLastUpdated(LocalDateTime.now());
+        jobExecution.incrementVersion();
+    }
+
+    public void add(StepExecution stepExecution) {
+        stepExecution.setId(nextId());
+        stepExecution.setLastUpdated(LocalDateTime.now());
+        stepExecution.incrementVersion();
+    }
+
+    public void update(StepExecution stepExecution) {
+        stepExecution.setLastUpdated(LocalDateTime.now());
+        stepExecution.incrementVersion();
+    }
+
+    public synchronized StepExecution getLastStepExecution(JobInstance jobInstance, String stepName) {
+        return stepExecutions(jobInstance, stepName).stream()
+                .max(Comparator.comparing(StepExecution::getCreateTime).thenComparing(StepExecution::getId, Comparator.reverseOrder()))
+                .orElse(null);
+    }
+
+    public synchronized long getStepExecutionCount(JobInstance jobInstance, String stepName) {
+        return stepExecutions(jobInstance, stepName).size();
+    }
+
+    public synchronized JobExecution getLastJobExecution(JobInstance jobInstance) {
+        List<JobExecution> jobExecutions = executions.getOrDefault(jobInstance.getInstanceId(), List.of());
+        return jobExecutions.isEmpty() ? null : jobExecutions.get(jobExecutions.size() - 1);
+    }
+
+    public synchronized List<JobExecution> getJobExecutions(JobInstance jobInstance) {
+        List<JobExecution> jobExecutions = new ArrayList<>(executions.getOrDefault(jobInstance.getInstanceId(), List.of()));
+        jobExecutions.sort(Comparator.comparing(JobExecution::getId));
+        return jobExecutions;
+    }
+
+    public synchronized JobExecution getJobExecution(Long executionId) {
+        return executions.values().stream()
+                .flatMap(List::stream)
+                .filter(execution -> Objects.equals(execution.getId(), executionId))
+                .findFirst()
+                .orElse(null);
+    }
+
+    public synchronized JobInstance getJobInstance(Long instanceId) {
+        return instances.values().stream()
+                .filter(instance -> Objects.equals(instance.getInstanceId(), instanceId))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * 최근에 만들어진 순서로 JobInstance 를 돌려준다.
+     */
+    public synchronized List<JobInstance> getJobInstances(String jobName, int start, int count) {
+        List<JobInstance> result = instances.values().stream()
+                .filter(instance -> instance.getJobName().equals(jobName))
+                .collect(Collectors.toCollection(ArrayList::new));
+        result.sort(Comparator.comparing(JobInstance::getInstanceId));
+        return result.stream().skip(start).limit(count).toList();
+    }
+
+    public synchronized Set<JobExecution> findRunningJobExecutions(String jobName) {
+        return executions.values().stream()
+                .flatMap(List::stream)
+                .filter(execution -> execution.getJobInstance().getJobName().equals(jobName) && execution.isRunning())
+                .collect(Collectors.toSet());
+    }
+
+    private List<StepExecution> stepExecutions(JobInstance jobInstance, String stepName) {
+        return executions.getOrDefault(jobInstance.getInstanceId(), List.of()).stream()
+                .flatMap(execution -> execution.getStepExecutions().stream())
+                .filter(stepExecution -> stepExecution.getId() != null && stepExecution.getStepName().equals(stepName))
+                .toList();
+    }
+
+    private String key(String jobName, JobParameters jobParameters) {
+        return jobName + "|" + jobKeyGenerator.generateKey(jobParameters);
+    }
+
+    private long nextId() {
+        return ids.decrementAndGet();
+    }
+}
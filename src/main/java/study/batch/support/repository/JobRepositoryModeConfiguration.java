@@ -0,0 +1,51 @@
+package study.batch.support.repository;
+
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.ExecutionContextSerializer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 자동 설정된 JobRepository / JobExplorer 를 Job 별 저장 방식을 지원하는 Routing 구현으로 감싼다.
+ * batch.repository.modes 가 비어 있으면 모든 호출이 기존 구현에 그대로 위임된다.
+ */
+@Configuration
+@EnableConfigurationProperties(JobRepositoryProperties.class)
+public class JobRepositoryModeConfiguration {
+
+    /**
+     * 배치 자동 설정이 JobRepository / JobExplorer 의 ExecutionContext 직렬화에 사용한다.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "batch.repository", name = "binary-execution-context", havingValue = "true", matchIfMissing = true)
+    public ExecutionContextSerializer binaryExecutionContextSerializer() {
+        return new BinaryExecutionContextSerializer();
+    }
+
+    @Bean
+    public static InMemoryJobStore inMemoryJobStore(ObjectProvider<JobRepositoryProperties> properties) {
+        return new InMemoryJobStore(properties.getObject().getInMemoryMaxInstances());
+    }
+
+    @Bean
+    public static BeanPostProcessor jobRepositoryModePostProcessor(ObjectProvider<InMemoryJobStore> inMemoryJobStore,
+                                                                   ObjectProvider<JobRepositoryProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JobRepository jobRepository && !(bean instanceof RoutingJobRepository)) {
+                    return new RoutingJobRepository(jobRepository, inMemoryJobStore.getObject(), properties.getObject());
+                }
+                if (bean instanceof JobExplorer jobExplorer && !(bean instanceof RoutingJobExplorer)) {
+                    return new RoutingJobExplorer(jobExplorer, inMemoryJobStore.getObject(), properties.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
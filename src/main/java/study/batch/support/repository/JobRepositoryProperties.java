@@ -0,0 +1,46 @@
+package study.batch.support.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Job 별 메타데이터 저장 방식 설정 (batch.repository.*)
+ * 등록되지 않은 Job 은 기존처럼 BATCH_* 테이블에 매 chunk 마다 기록한다.
+ *
+ * batch.repository.modes.myJob=in-memory
+ * batch.repository.modes.NEXT_STEP_TASK=write-behind
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "batch.repository")
+public class JobRepositoryProperties {
+    public enum Mode {
+        /**
+         * 기존 JDBC JobRepository
+         */
+        JDBC,
+        /**
+         * Job / Step 시작과 종료만 기록하고, chunk 마다의 StepExecution / ExecutionContext 갱신은 Step 종료 시 한 번에 기록한다.
+         */
+        WRITE_BEHIND,
+        /**
+         * 메타데이터를 DB 에 전혀 기록하지 않고 메모리에만 보관한다. (재시작 불가)
+         */
+        IN_MEMORY
+    }
+
+    private Map<String, Mode> modes = new HashMap<>();
+
+    /**
+     * IN_MEMORY 모드에서 보관할 최대 JobInstance 수
+     */
+    private int inMemoryMaxInstances = 1000;
+
+    public Mode modeOf(String jobName) {
+        return modes.getOrDefault(jobName, Mode.JDBC);
+    }
+}
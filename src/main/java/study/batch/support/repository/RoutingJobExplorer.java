@@ -0,0 +1,139 @@
+package study.batch.support.repository;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.NoSuchJobException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * RoutingJobRepository 와 짝을 이루는 JobExplorer
+ * IN_MEMORY 모드 Job 은 InMemoryJobStore 에서 조회해, RunIdIncrementer 같은 다음 파라미터 계산이 같은 JVM 안에서 이어지도록 한다.
+ */
+public class RoutingJobExplorer implements JobExplorer {
+    private final JobExplorer delegate;
+    private final InMemoryJobStore inMemoryJobStore;
+    private final JobRepositoryProperties properties;
+
+    public RoutingJobExplorer(JobExplorer delegate, InMemoryJobStore inMemoryJobStore, JobRepositoryProperties properties) {
+        this.delegate = delegate;
+        this.inMemoryJobStore = inMemoryJobStore;
+        this.properties = properties;
+    }
+
+    private boolean isInMemory(String jobName) {
+        return jobName != null && properties.modeOf(jobName) == JobRepositoryProperties.Mode.IN_MEMORY;
+    }
+
+    @Override
+    public List<JobInstance> getJobInstances(String jobName, int start, int count) {
+        if (isInMemory(jobName)) {
+            return inMemoryJobStore.getJobInstances(jobName, start, count);
+        }
+        return delegate.getJobInstances(jobName, start, count);
+    }
+
+    @Override
+    public JobInstance getLastJobInstance(String jobName) {
+        if (isInMemory(jobName)) {
+            List<JobInstance> jobInstances = inMemoryJobStore.getJobInstances(jobName, 0, 1);
+            return jobInstances.isEmpty() ? null : jobInstances.get(0);
+        }
+        return delegate.getLastJobInstance(jobName);
+    }
+
+    @Override
+    public JobExecution getJobExecution(Long executionId) {
+        if (InMemoryJobStore.isInMemoryId(executionId)) {
+            return inMemoryJobStore.getJobExecution(executionId);
+        }
+        return delegate.getJobExecution(executionId);
+    }
+
+    @Override
+    public StepExecution getStepExecution(Long jobExecutionId, Long stepExecutionId) {
+        if (InMemoryJobStore.isInMemoryId(jobExecutionId)) {
+            JobExecution jobExecution = inMemoryJobStore.getJobExecution(jobExecutionId);
+            if (jobExecution == null) {
+                return null;
+            }
+            return jobExecution.getStepExecutions().stream()
+                    .filter(stepExecution -> stepExecutionId.equals(stepExecution.getId()))
+                    .findFirst()
+                    .orElse(null);
+        }
+        return delegate.getStepExecution(jobExecutionId, stepExecutionId);
+    }
+
+    @Override
+    public JobInstance getJobInstance(Long instanceId) {
+        if (InMemoryJobStore.isInMemoryId(instanceId)) {
+            return inMemoryJobStore.getJobInstance(instanceId);
+        }
+        return delegate.getJobInstance(instanceId);
+    }
+
+    @Override
+    public JobInstance getJobInstance(String jobName, JobParameters jobParameters) {
+        if (isInMemory(jobName)) {
+            return inMemoryJobStore.getJobInstance(jobName, jobParameters);
+        }
+        return delegate.getJobInstance(jobName, jobParameters);
+    }
+
+    @Override
+    public List<JobExecution> getJobExecutions(JobInstance jobInstance) {
+        if (isInMemory(jobInstance.getJobName())) {
+            return inMemoryJobStore.getJobExecutions(jobInstance);
+        }
+        return delegate.getJobExecutions(jobInstance);
+    }
+
+    @Override
+    public JobExecution getLastJobExecution(JobInstance jobInstance) {
+        if (isInMemory(jobInstance.getJobName())) {
+            return inMemoryJobStore.getLastJobExecution(jobInstance);
+        }
+        return delegate.getLastJobExecution(jobInstance);
+    }
+
+    @Override
+    public Set<JobExecution> findRunningJobExecutions(String jobName) {
+        if (isInMemory(jobName)) {
+            return inMemoryJobStore.findRunningJobExecutions(jobName);
+        }
+        return delegate.findRunningJobExecutions(jobName);
+    }
+
+    @Override
+    public List<String> getJobNames() {
+        Set<String> jobNames = new HashSet<>(delegate.getJobNames());
+        properties.getModes().forEach((jobName, mode) -> {
+            if (mode == JobRepositoryProperties.Mode.IN_MEMORY) {
+                jobNames.add(jobName);
+            }
+        });
+        return List.copyOf(jobNames);
+    }
+
+    @Override
+    public List<JobInstance> findJobInstancesByJobName(String jobName, int start, int count) {
+        if (isInMemory(jobName)) {
+            return inMemoryJobStore.getJobInstances(jobName, start, count);
+        }
+        return delegate.findJobInstancesByJobName(jobName, start, count);
+    }
+
+    @Override
+    public long getJobInstanceCount(String jobName) throws NoSuchJobException {
+        if (isInMemory(jobName)) {
+            return inMemoryJobStore.getJobInstances(jobName, 0, Integer.MAX_VALUE).size();
+        }
+        return delegate.getJobInstanceCount(jobName);
+    }
+}
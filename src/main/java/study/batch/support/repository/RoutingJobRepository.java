@@ -0,0 +1,206 @@
+package study.batch.support.repository;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.JobRestartException;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * batch.repository.modes 설정에 따라 Job 별로 메타데이터 저장 방식을 바꿔주는 JobRepository
+ * - JDBC : 기존 JobRepository 에 그대로 위임한다.
+ * - WRITE_BEHIND : 실행 중인 Step 의 update / updateExecutionContext 호출(chunk commit 마다 발생)을 건너뛰고
+ *   Step 이 끝날 때(endTime 이 설정된 뒤) 최종 상태만 기록한다. 버전은 DB 에 기록될 때만 증가하므로 낙관적 락과 충돌하지 않는다.
+ *   재시작 시에는 Step 의 처음부터 다시 실행되고, 외부의 stop 요청은 Step 종료 시점에만 반영되므로 멱등한 Job 에만 사용한다.
+ * - IN_MEMORY : InMemoryJobStore 에만 기록한다.
+ */
+public class RoutingJobRepository implements JobRepository {
+    private final JobRepository delegate;
+    private final InMemoryJobStore inMemoryJobStore;
+    private final JobRepositoryProperties properties;
+
+    public RoutingJobRepository(JobRepository delegate, InMemoryJobStore inMemoryJobStore, JobRepositoryProperties properties) {
+        this.delegate = delegate;
+        this.inMemoryJobStore = inMemoryJobStore;
+        this.properties = properties;
+    }
+
+    private JobRepositoryProperties.Mode mode(String jobName) {
+        return properties.modeOf(jobName);
+    }
+
+    private JobRepositoryProperties.Mode mode(JobExecution jobExecution) {
+        return mode(jobExecution.getJobInstance().getJobName());
+    }
+
+    private JobRepositoryProperties.Mode mode(StepExecution stepExecution) {
+        return mode(stepExecution.getJobExecution());
+    }
+
+    private boolean isDeferred(StepExecution stepExecution) {
+        return mode(stepExecution) == JobRepositoryProperties.Mode.WRITE_BEHIND && stepExecution.getEndTime() == null;
+    }
+
+    @Override
+    public List<String> getJobNames() {
+        return delegate.getJobNames();
+    }
+
+    @Override
+    public List<JobInstance> findJobInstancesByName(String jobName, int start, int count) {
+        if (mode(jobName) == JobRepositoryProperties.Mode.IN_MEMORY) {
+            return inMemoryJobStore.getJobInstances(jobName, start, count);
+        }
+        return delegate.findJobInstancesByName(jobName, start, count);
+    }
+
+    @Override
+    public List<JobExecution> findJobExecutions(JobInstance jobInstance) {
+        if (mode(jobInstance.getJobName()) == JobRepositoryProperties.Mode.IN_MEMORY) {
+            return inMemoryJobStore.getJobExecutions(jobInstance);
+        }
+        return delegate.findJobExecutions(jobInstance);
+    }
+
+    @Override
+    public boolean isJobInstanceExists(String jobName, JobParameters jobParameters) {
+        if (mode(jobName) == JobRepositoryProperties.Mode.IN_MEMORY) {
+            return inMemoryJobStore.isJobInstanceExists(jobName, jobParameters);
+        }
+        return delegate.isJobInstanceExists(jobName, jobParameters);
+    }
+
+    @Override
+    public JobInstance createJobInstance(String jobName, JobParameters jobParameters) {
+        if (mode(jobName) == JobRepositoryProperties.Mode.IN_MEMORY) {
+            return inMemoryJobStore.createJobInstance(jobName, jobParameters);
+        }
+        return delegate.createJobInstance(jobName, jobParameters);
+    }
+
+    @Override
+    public JobExecution createJobExecution(String jobName, JobParameters jobParameters)
+            throws JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException {
+        if (mode(jobName) == JobRepositoryProperties.Mode.IN_MEMORY) {
+            return inMemoryJobStore.createJobExecution(jobName, jobParameters);
+        }
+        return delegate.createJobExecution(jobName, jobParameters);
+    }
+
+    @Override
+    public void update(JobExecution jobExecution) {
+        if (mode(jobExecution) == JobRepositoryProperties.Mode.IN_MEMORY) {
+            inMemoryJobStore.update(jobExecution);
+            return;
+        }
+        delegate.update(jobExecution);
+    }
+
+    @Override
+    public void add(StepExecution stepExecution) {
+        if (mode(stepExecution) == JobRepositoryProperties.Mode.IN_MEMORY) {
+            inMemoryJobStore.add(stepExecution);
+            return;
+        }
+        delegate.add(stepExecution);
+    }
+
+    @Override
+    public void addAll(Collection<StepExecution> stepExecutions) {
+        for (StepExecution stepExecution : stepExecutions) {
+            add(stepExecution);
+        }
+    }
+
+    @Override
+    public void update(StepExecution stepExecution) {
+        if (mode(stepExecution) == JobRepositoryProperties.Mode.IN_MEMORY) {
+            inMemoryJobStore.update(stepExecution);
+            return;
+        }
+        if (mode(stepExecution) == JobRepositoryProperties.Mode.WRITE_BEHIND) {
+            if (isDeferred(stepExecution)) {
+                return;
+            }
+            // AbstractStep 은 endTime 을 설정하기 전에 마지막 ExecutionContext 를 저장하므로 여기서 함께 기록한다.
+            delegate.updateExecutionContext(stepExecution);
+        }
+        delegate.update(stepExecution);
+    }
+
+    @Override
+    public void updateExecutionContext(StepExecution stepExecution) {
+        if (mode(stepExecution) == JobRepositoryProperties.Mode.IN_MEMORY || isDeferred(stepExecution)) {
+            return;
+        }
+        delegate.updateExecutionContext(stepExecution);
+    }
+
+    @Override
+    public void updateExecutionContext(JobExecution jobExecution) {
+        if (mode(jobExecution) == JobRepositoryProperties.Mode.IN_MEMORY) {
+            return;
+        }
+        delegate.updateExecutionContext(jobExecution);
+    }
+
+    @Override
+    public JobInstance getJobInstance(String jobName, JobParameters jobParameters) {
+        if (mode(jobName) == JobRepositoryProperties.Mode.IN_MEMORY) {
+            return inMemoryJobStore.getJobInstance(jobName, jobParameters);
+        }
+        return delegate.getJobInstance(jobName, jobParameters);
+    }
+
+    @Override
+    public StepExecution getLastStepExecution(JobInstance jobInstance, String stepName) {
+        if (mode(jobInstance.getJobName()) == JobRepositoryProperties.Mode.IN_MEMORY) {
+            return inMemoryJobStore.getLastStepExecution(jobInstance, stepName);
+        }
+        return delegate.getLastStepExecution(jobInstance, stepName);
+    }
+
+    @Override
+    public long getStepExecutionCount(JobInstance jobInstance, String stepName) {
+        if (mode(jobInstance.getJobName()) == JobRepositoryProperties.Mode.IN_MEMORY) {
+            return inMemoryJobStore.getStepExecutionCount(jobInstance, stepName);
+        }
+        return delegate.getStepExecutionCount(jobInstance, stepName);
+    }
+
+    @Override
+    public JobExecution getLastJobExecution(String jobName, JobParameters jobParameters) {
+        if (mode(jobName) == JobRepositoryProperties.Mode.IN_MEMORY) {
+            JobInstance jobInstance = inMemoryJobStore.getJobInstance(jobName, jobParameters);
+            return jobInstance == null ? null : inMemoryJobStore.getLastJobExecution(jobInstance);
+        }
+        return delegate.getLastJobExecution(jobName, jobParameters);
+    }
+
+    @Override
+    public void deleteStepExecution(StepExecution stepExecution) {
+        if (mode(stepExecution) != JobRepositoryProperties.Mode.IN_MEMORY) {
+            delegate.deleteStepExecution(stepExecution);
+        }
+    }
+
+    @Override
+    public void deleteJobExecution(JobExecution jobExecution) {
+        if (mode(jobExecution) != JobRepositoryProperties.Mode.IN_MEMORY) {
+            delegate.deleteJobExecution(jobExecution);
+        }
+    }
+
+    @Override
+    public void deleteJobInstance(JobInstance jobInstance) {
+        if (mode(jobInstance.getJobName()) != JobRepositoryProperties.Mode.IN_MEMORY) {
+            delegate.deleteJobInstance(jobInstance);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package study.batch.support.routing;
+
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.file.transform.LineAggregator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 분류 key 하나의 출력 파일
+ * 포맷 / 파일 쓰기는 모두 이 파티션 전용 I/O thread 에서만 실행되므로 상태에 동기화가 필요 없다.
+ * commit 전까지의 줄은 pending 에 쌓아 두고 flush 에서 파일에 쓴다.
+ * rollback 되면 pending 을 버리고, 다른 파티션의 flush 실패로 rollback 된 경우를 위해 파일도 마지막 commit 위치로 자른다.
+ */
+class FilePartition<T> {
+    private final String name;
+    private final Path path;
+    private final Charset charset;
+    private final LineAggregator<? super T> lineAggregator;
+    private final String lineSeparator;
+
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream(8192);
+    private final StringBuilder lines = new StringBuilder(8192);
+    private ExecutorService executor;
+    private FileChannel channel;
+    private long written;
+    private long committed;
+
+    FilePartition(String name, Path path, Charset charset, LineAggregator<? super T> lineAggregator, String lineSeparator) {
+        this.name = name;
+        this.path = path;
+        this.charset = charset;
+        this.lineAggregator = lineAggregator;
+        this.lineSeparator = lineSeparator;
+    }
+
+    /**
+     * @param restartPosition 이전 실행에서 commit 된 위치. 처음 실행이면 -1
+     */
+    void open(long restartPosition, String header) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (restartPosition >= 0) {
+                channel.truncate(restartPosition);
+                written = restartPosition;
+            } else {
+                channel.truncate(0);
+                written = 0;
+                if (header != null) {
+                    pending.write((header + lineSeparator).getBytes(charset));
+                    flushPending();
+                }
+            }
+            channel.position(written);
+            committed = written;
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to open " + path, e);
+        }
+        executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory(name + "-"));
+    }
+
+    CompletableFuture<Void> format(List<? extends T> items) {
+        return CompletableFuture.runAsync(() -> {
+            lines.setLength(0);
+            for (T item : items) {
+                lines.append(lineAggregator.aggregate(item)).append(lineSeparator);
+            }
+            byte[] bytes = lines.toString().getBytes(charset);
+            pending.write(bytes, 0, bytes.length);
+        }, executor);
+    }
+
+    CompletableFuture<Void> flush() {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                flushPending();
+            } catch (IOException e) {
+                throw new ItemStreamException("Failed to write " + path, e);
+            }
+        }, executor);
+    }
+
+    CompletableFuture<Void> commit() {
+        return CompletableFuture.runAsync(() -> committed = written, executor);
+    }
+
+    CompletableFuture<Void> rollback() {
+        return CompletableFuture.runAsync(() -> {
+            pending.reset();
+            if (written == committed) {
+                return;
+            }
+            try {
+                channel.truncate(committed);
+                channel.position(committed);
+                written = committed;
+            } catch (IOException e) {
+                throw new ItemStreamException("Failed to roll back " + path, e);
+            }
+        }, executor);
+    }
+
+    /**
+     * commit 되면 기록될 위치 (파일에 쓴 크기 + 아직 쓰지 않은 크기)
+     */
+    long position() {
+        return written + pending.size();
+    }
+
+    Path path() {
+        return path;
+    }
+
+    void close() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+        pending.reset();
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new ItemStreamException("Failed to close " + path, e);
+            } finally {
+                channel = null;
+            }
+        }
+    }
+
+    private void flushPending() throws IOException {
+        if (pending.size() == 0) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(pending.toByteArray());
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        pending.reset();
+    }
+}
@@ -0,0 +1,147 @@
+package study.batch.support.routing;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * 아이템을 분류 key 별 파일로 나눠 한 번에 쓰는 ItemWriter
+ * - chunk 를 step thread 에서 key 별로 나누기만 하고, 줄 포맷과 파일 쓰기는 파일마다 전용 I/O thread 에서 동시에 실행한다.
+ * - 트랜잭션 안에서는 포맷한 줄을 모아 두었다가 beforeCommit 에서 모든 파일을 동시에 flush 한다.
+ *   rollback 되면 모든 파일이 마지막 commit 위치로 돌아가므로 chunk 단위 commit / rollback 이 모든 파일에 함께 적용된다.
+ * - 파일별 commit 위치를 ExecutionContext 에 저장하고, 재시작 시 그 위치로 잘라 이어 쓴다.
+ * - FlatFileItemWriter 와 같이 multi-thread step 에서 여러 thread 가 동시에 write 하는 용도는 아니다.
+ *
+ * RoutingFileItemWriterBuilder 로 만든다.
+ */
+public class RoutingFileItemWriter<T, K> implements ItemWriter<T>, ItemStream {
+    private static final String POSITION = "position";
+
+    private final String name;
+    private final Function<? super T, ? extends K> classifier;
+    private final Map<K, FilePartition<T>> partitions;
+    private final Function<? super K, String> headerCallback;
+
+    RoutingFileItemWriter(String name, Function<? super T, ? extends K> classifier, Map<K, FilePartition<T>> partitions,
+                          Function<? super K, String> headerCallback) {
+        this.name = name;
+        this.classifier = classifier;
+        this.partitions = partitions;
+        this.headerCallback = headerCallback;
+    }
+
+    @Override
+    public void write(Chunk<? extends T> chunk) throws Exception {
+        Map<K, List<T>> routed = new LinkedHashMap<>();
+        for (T item : chunk) {
+            K key = classifier.apply(item);
+            if (!partitions.containsKey(key)) {
+                throw new IllegalArgumentException("No output file for key " + key + " of " + name);
+            }
+            routed.computeIfAbsent(key, ignored -> new ArrayList<>()).add(item);
+        }
+
+        boolean transactional = TransactionSynchronizationManager.isSynchronizationActive();
+        if (transactional && !TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new FlushOnCommit());
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(routed.size());
+        routed.forEach((key, items) -> futures.add(partitions.get(key).format(items)));
+        if (transactional) {
+            await(futures);
+            return;
+        }
+        try {
+            await(futures);
+            flushPartitions();
+        } catch (Exception e) {
+            completePartitions(false);
+            throw e;
+        }
+        completePartitions(true);
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        partitions.forEach((key, partition) -> {
+            String positionKey = positionKey(key);
+            long restartPosition = executionContext.containsKey(positionKey) ? executionContext.getLong(positionKey) : -1;
+            partition.open(restartPosition, headerCallback == null ? null : headerCallback.apply(key));
+        });
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        partitions.forEach((key, partition) -> executionContext.putLong(positionKey(key), partition.position()));
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        partitions.values().forEach(FilePartition::close);
+    }
+
+    private void flushPartitions() throws Exception {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(partitions.size());
+        partitions.values().forEach(partition -> futures.add(partition.flush()));
+        await(futures);
+    }
+
+    private void completePartitions(boolean committed) throws Exception {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(partitions.size());
+        partitions.values().forEach(partition -> futures.add(committed ? partition.commit() : partition.rollback()));
+        await(futures);
+    }
+
+    private String positionKey(K key) {
+        return name + "." + key + "." + POSITION;
+    }
+
+    private void await(List<CompletableFuture<Void>> futures) throws Exception {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception exception) {
+                throw exception;
+            }
+            throw e;
+        }
+    }
+
+    private class FlushOnCommit implements TransactionSynchronization {
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            try {
+                flushPartitions();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ItemStreamException("Failed to flush " + name, e);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RoutingFileItemWriter.this);
+            try {
+                completePartitions(status == STATUS_COMMITTED);
+            } catch (Exception e) {
+                throw new ItemStreamException("Failed to complete " + name, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package study.batch.support.routing;
+
+import org.springframework.batch.item.file.transform.LineAggregator;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * RoutingFileItemWriter 를 만드는 Builder
+ *
+ * new RoutingFileItemWriterBuilder<Customer, Customer.Grade>()
+ *         .name("customerGradeFileWriter")
+ *         .classifier(Customer::getGrade)
+ *         .keys(Customer.Grade.values())
+ *         .path(grade -> Path.of("./output/week4/customer_" + grade + ".csv"))
+ *         .lineAggregator(customer -> customer.getName() + "," + customer.getAge())
+ *         .header(grade -> "NAME,AGE")
+ *         .build();
+ */
+public class RoutingFileItemWriterBuilder<T, K> {
+    private String name;
+    private Function<? super T, ? extends K> classifier;
+    private List<K> keys;
+    private Function<? super K, Path> path;
+    private LineAggregator<? super T> lineAggregator;
+    private Function<? super K, String> header;
+    private Charset encoding = StandardCharsets.UTF_8;
+    private String lineSeparator = System.lineSeparator();
+
+    public RoutingFileItemWriterBuilder<T, K> name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public RoutingFileItemWriterBuilder<T, K> classifier(Function<? super T, ? extends K> classifier) {
+        this.classifier = classifier;
+        return this;
+    }
+
+    /**
+     * 출력 파일을 만들 분류 key. 그 외 key 로 분류된 아이템은 write 에서 IllegalArgumentException 이 된다.
+     */
+    @SafeVarargs
+    public final RoutingFileItemWriterBuilder<T, K> keys(K... keys) {
+        List<K> copy = new ArrayList<>(keys.length);
+        for (K key : keys) {
+            copy.add(key);
+        }
+        this.keys = List.copyOf(copy);
+        return this;
+    }
+
+    public RoutingFileItemWriterBuilder<T, K> path(Function<? super K, Path> path) {
+        this.path = path;
+        return this;
+    }
+
+    public RoutingFileItemWriterBuilder<T, K> lineAggregator(LineAggregator<? super T> lineAggregator) {
+        this.lineAggregator = lineAggregator;
+        return this;
+    }
+
+    /**
+     * 파일을 새로 만들 때 첫 줄로 쓴다. (재시작 시에는 쓰지 않는다)
+     */
+    public RoutingFileItemWriterBuilder<T, K> header(Function<? super K, String> header) {
+        this.header = header;
+        return this;
+    }
+
+    public RoutingFileItemWriterBuilder<T, K> encoding(String encoding) {
+        this.encoding = Charset.forName(encoding);
+        return this;
+    }
+
+    public RoutingFileItemWriterBuilder<T, K> lineSeparator(String lineSeparator) {
+        this.lineSeparator = lineSeparator;
+        return this;
+    }
+
+    public RoutingFileItemWriter<T, K> build() {
+        if (this.name == null) {
+            throw new IllegalArgumentException("name can not be null.!");
+        }
+        if (this.classifier == null) {
+            throw new IllegalArgumentException("classifier can not be null.!");
+        }
+        if (this.keys == null || this.keys.isEmpty()) {
+            throw new IllegalArgumentException("keys can not be empty.!");
+        }
+        if (this.path == null) {
+            throw new IllegalArgumentException("path can not be null.!");
+        }
+        if (this.lineAggregator == null) {
+            throw new IllegalArgumentException("LineAggregator can not be null.!");
+        }
+
+        Map<K, FilePartition<T>> partitions = new LinkedHashMap<>();
+        for (K key : keys) {
+            partitions.put(key, new FilePartition<>(name + "-" + key, path.apply(key), encoding, lineAggregator, lineSeparator));
+        }
+        return new RoutingFileItemWriter<>(name, classifier, partitions, header);
+    }
+}
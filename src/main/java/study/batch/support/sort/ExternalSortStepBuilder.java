@@ -0,0 +1,148 @@
+package study.batch.support.sort;
+
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.builder.TaskletStepBuilder;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * ExternalSortTasklet 으로 정렬하는 Step 을 만드는 Builder
+ * maxItemsInMemory 가 힙에 올라가는 아이템 수(= run 크기)의 상한이다.
+ *
+ * new ExternalSortStepBuilder<Player, Player>("sortedPlayerStep", jobRepository)
+ *         .transactionManager(transactionManager)
+ *         .reader(reader)
+ *         .writer(writer)
+ *         .sortKey(Player::getAge)
+ *         .comparator(Comparator.comparingLong(Player::getNo))
+ *         .maxItemsInMemory(100_000)
+ *         .build();
+ */
+public class ExternalSortStepBuilder<I, O> {
+    private final String name;
+    private final JobRepository jobRepository;
+
+    private PlatformTransactionManager transactionManager;
+    private ItemReader<? extends I> reader;
+    private ItemProcessor<? super I, ? extends O> processor;
+    private ItemWriter<? super O> writer;
+    private ToLongFunction<? super O> sortKey;
+    private Comparator<? super O> comparator;
+    private int maxItemsInMemory = 100_000;
+    private int fanIn = 64;
+    private int chunkSize = 1000;
+    private Path tempDirectory = Path.of(System.getProperty("java.io.tmpdir"));
+    private final List<ItemStream> streams = new ArrayList<>();
+
+    public ExternalSortStepBuilder(String name, JobRepository jobRepository) {
+        this.name = name;
+        this.jobRepository = jobRepository;
+    }
+
+    public ExternalSortStepBuilder<I, O> transactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+        return this;
+    }
+
+    public ExternalSortStepBuilder<I, O> reader(ItemReader<? extends I> reader) {
+        this.reader = reader;
+        return this;
+    }
+
+    /**
+     * 정렬 전에 아이템을 변환 / filter 한다.
+     */
+    public ExternalSortStepBuilder<I, O> processor(ItemProcessor<? super I, ? extends O> processor) {
+        this.processor = processor;
+        return this;
+    }
+
+    public ExternalSortStepBuilder<I, O> writer(ItemWriter<? super O> writer) {
+        this.writer = writer;
+        return this;
+    }
+
+    /**
+     * 정렬 key (오름차순). key 가 같은 아이템은 comparator 로 비교한다.
+     */
+    public ExternalSortStepBuilder<I, O> sortKey(ToLongFunction<? super O> sortKey) {
+        this.sortKey = sortKey;
+        return this;
+    }
+
+    public ExternalSortStepBuilder<I, O> comparator(Comparator<? super O> comparator) {
+        this.comparator = comparator;
+        return this;
+    }
+
+    public ExternalSortStepBuilder<I, O> maxItemsInMemory(int maxItemsInMemory) {
+        this.maxItemsInMemory = maxItemsInMemory;
+        return this;
+    }
+
+    /**
+     * 한 번에 merge 할 최대 run(열린 파일) 수
+     */
+    public ExternalSortStepBuilder<I, O> fanIn(int fanIn) {
+        this.fanIn = fanIn;
+        return this;
+    }
+
+    /**
+     * merge 결과를 Writer 에 넘기는 단위 (한 트랜잭션)
+     */
+    public ExternalSortStepBuilder<I, O> chunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public ExternalSortStepBuilder<I, O> tempDirectory(Path tempDirectory) {
+        this.tempDirectory = tempDirectory;
+        return this;
+    }
+
+    public ExternalSortStepBuilder<I, O> stream(ItemStream stream) {
+        this.streams.add(stream);
+        return this;
+    }
+
+    public Step build() {
+        if (this.transactionManager == null) {
+            throw new IllegalArgumentException("PlatformTransactionManager can not be null.!");
+        }
+        if (this.reader == null) {
+            throw new IllegalArgumentException("ItemReader can not be null.!");
+        }
+        if (this.writer == null) {
+            throw new IllegalArgumentException("ItemWriter can not be null.!");
+        }
+        if (this.sortKey == null && this.comparator == null) {
+            throw new IllegalArgumentException("sortKey or comparator must be configured.!");
+        }
+        if (this.maxItemsInMemory < 1 || this.fanIn < 2 || this.chunkSize < 1) {
+            throw new IllegalArgumentException("maxItemsInMemory, chunkSize must be positive and fanIn must be at least 2.!");
+        }
+
+        ExternalSortTasklet<I, O> tasklet = new ExternalSortTasklet<>(name, reader, processor, writer, sortKey, comparator,
+                maxItemsInMemory, fanIn, chunkSize, tempDirectory);
+        TaskletStepBuilder stepBuilder = new StepBuilder(name, jobRepository).tasklet(tasklet, transactionManager);
+        for (Object component : new Object[]{reader, processor, writer}) {
+            if (component instanceof ItemStream stream) {
+                stepBuilder.stream(stream);
+            }
+        }
+        streams.forEach(stepBuilder::stream);
+        return stepBuilder.stream(tasklet).listener(tasklet).build();
+    }
+}
@@ -0,0 +1,421 @@
+package study.batch.support.sort;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 메모리보다 큰 입력을 정렬해서 Writer 로 넘기는 외부 정렬(external merge sort) Tasklet
+ * - read 단계 : maxItemsInMemory 건씩 읽어 정렬한 run 을 임시 파일로 내려쓴다. (호출 1번 = run 1개)
+ *   sortKey 가 있으면 long[] key 와 int[] index 만 정렬하고, key 가 같을 때만 comparator 로 비교한다.
+ * - merge 단계 : run 이 fanIn 보다 많으면 fanIn 개씩 합쳐 더 큰 run 을 만들고,
+ *   fanIn 이하가 되면 k-way merge 하면서 chunkSize 건씩 Writer 에 쓴다.
+ * - run 목록, read 완료 여부, 마지막 merge 의 run 별 위치를 ExecutionContext 에 남기므로
+ *   재시작하면 끝난 run / merge pass 는 건너뛰고 이어서 진행한다. (ItemStream 으로 Step 에 등록해야 한다)
+ * - 더 이상 쓰지 않는 run 파일은 그 사실이 담긴 ExecutionContext 가 commit 된 뒤(다음 execute 또는 afterStep)에 지운다.
+ *   commit 전에 지우면 commit 실패 / 비정상 종료 후 재시작할 때 ExecutionContext 가 가리키는 run 이 사라지기 때문이다.
+ * - 아이템은 Serializable 이어야 한다.
+ */
+@Slf4j
+public class ExternalSortTasklet<I, O> implements Tasklet, ItemStream, StepExecutionListener {
+    private static final String RUNS = "runs";
+    private static final String READ_COMPLETE = "read.complete";
+    private static final String MERGE_OFFSETS = "merge.offsets";
+
+    private final String name;
+    private final ItemReader<? extends I> reader;
+    private final ItemProcessor<? super I, ? extends O> processor;
+    private final ItemWriter<? super O> writer;
+    private final ToLongFunction<? super O> sortKey;
+    private final Comparator<? super O> comparator;
+    private final int maxItemsInMemory;
+    private final int fanIn;
+    private final int chunkSize;
+    private final Path tempDirectory;
+
+    private List<Path> runs = new ArrayList<>();
+    private final List<Path> superseded = new ArrayList<>();
+    private boolean readComplete;
+    private long[] mergeOffsets;
+    private Merger merger;
+
+    private record Entry<T>(long key, T item) {
+    }
+
+    ExternalSortTasklet(String name, ItemReader<? extends I> reader, ItemProcessor<? super I, ? extends O> processor,
+                        ItemWriter<? super O> writer, ToLongFunction<? super O> sortKey, Comparator<? super O> comparator,
+                        int maxItemsInMemory, int fanIn, int chunkSize, Path tempDirectory) {
+        this.name = name;
+        this.reader = reader;
+        this.processor = processor;
+        this.writer = writer;
+        this.sortKey = sortKey;
+        this.comparator = comparator;
+        this.maxItemsInMemory = maxItemsInMemory;
+        this.fanIn = fanIn;
+        this.chunkSize = chunkSize;
+        this.tempDirectory = tempDirectory;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        // 이전 execute 의 트랜잭션이 commit 되었으므로 그때 대체된 run 은 더 이상 재시작에 필요 없다.
+        deleteSuperseded();
+        if (!readComplete) {
+            spillRun(contribution);
+            return RepeatStatus.CONTINUABLE;
+        }
+        if (runs.size() > fanIn) {
+            mergePass();
+            return RepeatStatus.CONTINUABLE;
+        }
+        return writeMerged(contribution);
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        try {
+            Files.createDirectories(tempDirectory);
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to create sort directory " + tempDirectory, e);
+        }
+        String savedRuns = executionContext.getString(key(RUNS), "");
+        runs = savedRuns.isEmpty() ? new ArrayList<>()
+                : Arrays.stream(savedRuns.split("\n")).map(Path::of).collect(Collectors.toCollection(ArrayList::new));
+        readComplete = executionContext.containsKey(key(READ_COMPLETE)) && executionContext.getString(key(READ_COMPLETE)).equals("true");
+        String savedOffsets = executionContext.getString(key(MERGE_OFFSETS), "");
+        mergeOffsets = savedOffsets.isEmpty() ? null : Arrays.stream(savedOffsets.split(",")).mapToLong(Long::parseLong).toArray();
+        if (!runs.isEmpty()) {
+            log.info("{} restarts with {} sorted runs (read complete: {})", name, runs.size(), readComplete);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putString(key(RUNS), runs.stream().map(Path::toString).collect(Collectors.joining("\n")));
+        executionContext.putString(key(READ_COMPLETE), String.valueOf(readComplete));
+        if (merger != null) {
+            mergeOffsets = merger.offsets();
+        }
+        executionContext.putString(key(MERGE_OFFSETS), mergeOffsets == null ? ""
+                : Arrays.stream(mergeOffsets).mapToObj(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (merger != null) {
+            merger.close();
+            merger = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void spillRun(StepContribution contribution) throws Exception {
+        List<O> items = new ArrayList<>(Math.min(maxItemsInMemory, 8192));
+        while (items.size() < maxItemsInMemory) {
+            I item = reader.read();
+            if (item == null) {
+                readComplete = true;
+                break;
+            }
+            contribution.incrementReadCount();
+            O output = processor == null ? (O) item : processor.process(item);
+            if (output == null) {
+                contribution.incrementFilterCount(1);
+                continue;
+            }
+            items.add(output);
+        }
+        if (items.isEmpty()) {
+            return;
+        }
+
+        long[] keys = new long[items.size()];
+        int[] index = new int[items.size()];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = i;
+            keys[i] = sortKey == null ? 0 : sortKey.applyAsLong(items.get(i));
+        }
+        sortIndex(index, new int[index.length], 0, index.length, keys, items);
+
+        Path run = Files.createTempFile(tempDirectory, name + "-", ".run");
+        try (RunWriter runWriter = new RunWriter(run)) {
+            for (int i : index) {
+                runWriter.write(keys[i], items.get(i));
+            }
+        }
+        runs.add(run);
+        log.info("{} spilled run {} with {} items", name, runs.size(), items.size());
+    }
+
+    /**
+     * 앞쪽 fanIn 개의 run 을 하나의 run 으로 합쳐 목록 끝에 붙인다.
+     */
+    private void mergePass() throws IOException {
+        List<Path> inputs = new ArrayList<>(runs.subList(0, fanIn));
+        Path merged = Files.createTempFile(tempDirectory, name + "-", ".run");
+        try (Merger passMerger = new Merger(inputs, null); RunWriter runWriter = new RunWriter(merged)) {
+            Entry<O> entry;
+            while ((entry = passMerger.next()) != null) {
+                runWriter.write(entry.key(), entry.item());
+            }
+        }
+        runs = new ArrayList<>(runs.subList(fanIn, runs.size()));
+        runs.add(merged);
+        superseded.addAll(inputs);
+        log.info("{} merged {} runs, {} runs left", name, inputs.size(), runs.size());
+    }
+
+    private RepeatStatus writeMerged(StepContribution contribution) throws Exception {
+        if (merger == null) {
+            merger = new Merger(runs, mergeOffsets);
+        }
+        Chunk<O> chunk = new Chunk<>();
+        Entry<O> entry;
+        while (chunk.size() < chunkSize && (entry = merger.next()) != null) {
+            chunk.add(entry.item());
+        }
+        if (!chunk.isEmpty()) {
+            writer.write(chunk);
+            contribution.incrementWriteCount(chunk.size());
+        }
+        if (merger.hasNext()) {
+            return RepeatStatus.CONTINUABLE;
+        }
+
+        merger.close();
+        merger = null;
+        mergeOffsets = null;
+        superseded.addAll(runs);
+        runs = new ArrayList<>();
+        return RepeatStatus.FINISHED;
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (stepExecution.getStatus() == BatchStatus.COMPLETED) {
+            try {
+                deleteSuperseded();
+            } catch (IOException e) {
+                log.warn("{} failed to delete sorted runs", name, e);
+            }
+        }
+        return null;
+    }
+
+    private void deleteSuperseded() throws IOException {
+        for (Path run : superseded) {
+            Files.deleteIfExists(run);
+        }
+        superseded.clear();
+    }
+
+    /**
+     * key 가 같으면 comparator 로 비교하는 안정(stable) merge sort. 아이템이 아니라 index 만 움직인다.
+     */
+    private void sortIndex(int[] index, int[] buffer, int from, int to, long[] keys, List<O> items) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sortIndex(index, buffer, from, middle, keys, items);
+        sortIndex(index, buffer, middle, to, keys, items);
+        if (compare(keys[index[middle - 1]], items.get(index[middle - 1]), keys[index[middle]], items.get(index[middle])) <= 0) {
+            return;
+        }
+        System.arraycopy(index, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle
+                    && compare(keys[buffer[left]], items.get(buffer[left]), keys[buffer[right]], items.get(buffer[right])) <= 0)) {
+                index[i] = buffer[left++];
+            } else {
+                index[i] = buffer[right++];
+            }
+        }
+    }
+
+    private int compare(long leftKey, O left, long rightKey, O right) {
+        int result = Long.compare(leftKey, rightKey);
+        if (result != 0 || comparator == null) {
+            return result;
+        }
+        return comparator.compare(left, right);
+    }
+
+    private String key(String suffix) {
+        return name + "." + suffix;
+    }
+
+    private class Cursor {
+        private final int run;
+        private final DataInputStream in;
+        private long offset;
+        private long nextOffset;
+        private long key;
+        private O item;
+
+        private Cursor(int run, FileChannel channel, long offset) throws IOException {
+            this.run = run;
+            channel.position(offset);
+            this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+            this.nextOffset = offset;
+        }
+
+        private boolean advance() throws IOException {
+            offset = nextOffset;
+            int header;
+            try {
+                key = in.readLong();
+                header = in.readInt();
+            } catch (EOFException e) {
+                item = null;
+                return false;
+            }
+            byte[] bytes = in.readNBytes(header);
+            nextOffset = offset + Long.BYTES + Integer.BYTES + header;
+            item = deserialize(bytes);
+            return true;
+        }
+    }
+
+    /**
+     * run 별 Cursor 의 맨 앞 아이템을 PriorityQueue 로 비교하는 k-way merge
+     */
+    private class Merger implements AutoCloseable {
+        private final List<FileChannel> channels = new ArrayList<>();
+        private final List<Cursor> cursors = new ArrayList<>();
+        private final PriorityQueue<Cursor> heap;
+
+        private Merger(List<Path> inputs, long[] offsets) throws IOException {
+            this.heap = new PriorityQueue<>(Math.max(1, inputs.size()), (left, right) -> {
+                int result = compare(left.key, left.item, right.key, right.item);
+                return result != 0 ? result : Integer.compare(left.run, right.run);
+            });
+            for (int run = 0; run < inputs.size(); run++) {
+                FileChannel channel = FileChannel.open(inputs.get(run), StandardOpenOption.READ);
+                channels.add(channel);
+                Cursor cursor = new Cursor(run, channel, offsets == null ? 0 : offsets[run]);
+                cursors.add(cursor);
+                if (cursor.advance()) {
+                    heap.add(cursor);
+                }
+            }
+        }
+
+        private boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        private Entry<O> next() throws IOException {
+            Cursor head = heap.poll();
+            if (head == null) {
+                return null;
+            }
+            Entry<O> entry = new Entry<>(head.key, head.item);
+            if (head.advance()) {
+                heap.add(head);
+            }
+            return entry;
+        }
+
+        /**
+         * 아직 Writer 로 넘기지 않은 아이템의 run 별 위치
+         */
+        private long[] offsets() {
+            long[] offsets = new long[cursors.size()];
+            for (Cursor cursor : cursors) {
+                offsets[cursor.run] = cursor.offset;
+            }
+            return offsets;
+        }
+
+        @Override
+        public void close() {
+            for (FileChannel channel : channels) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close sort run", e);
+                }
+            }
+        }
+    }
+
+    private class RunWriter implements AutoCloseable {
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+
+        private RunWriter(Path run) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 64 * 1024));
+        }
+
+        private void write(long key, O item) throws IOException {
+            if (!(item instanceof Serializable)) {
+                throw new IllegalArgumentException("Item of " + item.getClass().getName() + " must be Serializable.!");
+            }
+            bytes.reset();
+            try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(bytes)) {
+                objectOutputStream.writeObject(item);
+            }
+            out.writeLong(key);
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private O deserialize(byte[] bytes) {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (O) objectInputStream.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Failed to deserialize sorted item", e);
+        }
+    }
+}
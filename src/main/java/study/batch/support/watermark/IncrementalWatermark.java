@@ -0,0 +1,162 @@
+package study.batch.support.watermark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 한 테이블의 변경분만 읽기 위한 watermark 구간 (from, to]
+ * - beforeStep 에서 저장된 watermark(from)와 현재 컬럼 최댓값(to)으로 읽을 구간을 정해 Step ExecutionContext 에 남긴다.
+ *   재시작하면 처음 정한 구간을 그대로 사용하고, 실행 중에 바뀐 row 는 다음 실행에서 읽는다.
+ * - TIMESTAMP 는 to 를 (DB 현재 시각 - lag) 이하로 제한한다.
+ *   UPDATED_AT 은 commit 이 아니라 INSERT/UPDATE 시점의 값이라, 늦게 commit 된 row 가 이미 지나간 구간에 들어가 빠지는 것을 막는다.
+ *   NUMBER(version) 컬럼은 commit 순서대로 증가하는 값이어야 한다.
+ * - reader(...) 로 감싼 Reader 가 끝까지 읽으면 마지막 chunk 의 트랜잭션 안에서 watermark 를 to 로 옮긴다.
+ *   (multi-thread step 에서는 다른 스레드의 chunk 보다 먼저 commit 될 수 있다)
+ * - Reader 의 조회 조건에는 parameters(...) 가 돌려주는 watermarkFrom / watermarkTo 를 사용한다.
+ *   WHERE {column} > :watermarkFrom AND {column} <= :watermarkTo
+ */
+@Slf4j
+public class IncrementalWatermark implements StepExecutionListener {
+    public static final String FROM = "watermarkFrom";
+    public static final String TO = "watermarkTo";
+
+    private final String name;
+    private final WatermarkStore store;
+    private final JdbcTemplate sourceJdbcTemplate;
+    private final String table;
+    private final String column;
+    private final WatermarkType type;
+    private final Duration lag;
+
+    /**
+     * @param sourceDataSource Reader 가 읽는 DataSource (구간의 끝을 같은 DB 에서 구한다)
+     * @param lag              TIMESTAMP 구간의 끝을 DB 현재 시각보다 얼마나 뒤로 둘지 (아직 commit 되지 않은 row 의 여유)
+     */
+    public IncrementalWatermark(String name, WatermarkStore store, DataSource sourceDataSource, String table, String column,
+                                WatermarkType type, Duration lag) {
+        if (lag == null || lag.isNegative()) {
+            throw new IllegalArgumentException("lag can not be null or negative.!");
+        }
+        this.name = name;
+        this.store = store;
+        this.sourceJdbcTemplate = new JdbcTemplate(sourceDataSource);
+        this.table = table;
+        this.column = column;
+        this.type = type;
+        this.lag = lag;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        if (executionContext.containsKey(key(TO))) {
+            log.info("Watermark {} resumes ({}, {}]", name, executionContext.getString(key(FROM)), executionContext.getString(key(TO)));
+            return;
+        }
+
+        String from = store.get(name);
+        if (from == null) {
+            from = type.minimum();
+        }
+        String to = upperBound();
+        if (to == null || compare(to, from) < 0) {
+            to = from;
+        }
+        executionContext.putString(key(FROM), from);
+        executionContext.putString(key(TO), to);
+        log.info("Watermark {} reads ({}, {}]", name, from, to);
+    }
+
+    /**
+     * Reader 조회 조건에 넣을 watermarkFrom / watermarkTo
+     */
+    public Map<String, Object> parameters(StepExecution stepExecution) {
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(FROM, type.toParameter(executionContext.getString(key(FROM))));
+        parameters.put(TO, type.toParameter(executionContext.getString(key(TO))));
+        return parameters;
+    }
+
+    /**
+     * 끝까지 읽은 뒤의 update(...) 에서 watermark 를 옮기는 Reader 로 감싼다.
+     */
+    public <T> ItemStreamReader<T> reader(ItemStreamReader<T> delegate) {
+        return new WatermarkItemReader<>(delegate);
+    }
+
+    private String upperBound() {
+        String sql = "SELECT MAX(" + column + ") FROM " + table;
+        if (type == WatermarkType.NUMBER) {
+            return sourceJdbcTemplate.queryForObject(sql, String.class);
+        }
+        Timestamp now = sourceJdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", Timestamp.class);
+        Timestamp cutoff = Timestamp.valueOf(now.toLocalDateTime().minus(lag));
+        return sourceJdbcTemplate.queryForObject(sql + " WHERE " + column + " <= ?", String.class, cutoff);
+    }
+
+    private int compare(String left, String right) {
+        return switch (type) {
+            case TIMESTAMP -> Timestamp.valueOf(left).compareTo(Timestamp.valueOf(right));
+            case NUMBER -> Long.compare(Long.parseLong(left), Long.parseLong(right));
+        };
+    }
+
+    private String key(String suffix) {
+        return name + "." + suffix;
+    }
+
+    private class WatermarkItemReader<T> implements ItemStreamReader<T> {
+        private final ItemStreamReader<T> delegate;
+
+        private volatile boolean exhausted;
+        private boolean advanced;
+        private String to;
+
+        private WatermarkItemReader(ItemStreamReader<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public T read() throws Exception {
+            T item = delegate.read();
+            if (item == null) {
+                exhausted = true;
+            }
+            return item;
+        }
+
+        @Override
+        public void open(ExecutionContext executionContext) {
+            exhausted = false;
+            advanced = false;
+            to = executionContext.getString(key(TO));
+            delegate.open(executionContext);
+        }
+
+        @Override
+        public synchronized void update(ExecutionContext executionContext) {
+            delegate.update(executionContext);
+            if (exhausted && !advanced) {
+                store.advance(name, to);
+                advanced = true;
+                log.info("Watermark {} advanced to {}", name, to);
+            }
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package study.batch.support.watermark;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(WatermarkProperties.class)
+public class WatermarkConfiguration {
+
+    /**
+     * watermark 는 chunk 의 트랜잭션과 함께 commit 되어야 하므로 쓰기용(기본) DataSource 에 저장한다.
+     */
+    @Bean
+    public WatermarkStore watermarkStore(DataSource dataSource, WatermarkProperties properties) {
+        if (properties.isEnabled() && properties.isInitializeSchema()) {
+            new ResourceDatabasePopulator(new ClassPathResource("watermark/schema-watermark.sql")).execute(dataSource);
+        }
+        return new WatermarkStore(dataSource);
+    }
+}
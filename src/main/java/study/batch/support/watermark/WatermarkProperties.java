@@ -0,0 +1,37 @@
+package study.batch.support.watermark;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 변경된 row 만 읽는 incremental 모드 설정 (batch.watermark.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "batch.watermark")
+public class WatermarkProperties {
+    /**
+     * true 면 CUSTOMER 를 읽는 week5 / week7 Job 이 마지막 실행 이후 바뀐 row 만 읽는다.
+     */
+    private boolean enabled = false;
+
+    /**
+     * 시작 시 BATCH_WATERMARK 테이블 생성 여부
+     */
+    private boolean initializeSchema = false;
+
+    /**
+     * 변경 시점을 나타내는 CUSTOMER 컬럼 (갱신 시각 또는 단조 증가하는 version)
+     */
+    private String column = "UPDATED_AT";
+
+    private WatermarkType type = WatermarkType.TIMESTAMP;
+
+    /**
+     * TIMESTAMP 구간의 끝을 DB 현재 시각에서 얼마나 뺄지. 가장 긴 쓰기 트랜잭션보다 길게 잡는다.
+     */
+    private Duration lag = Duration.ofSeconds(30);
+}
@@ -0,0 +1,36 @@
+package study.batch.support.watermark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Job 실행과 무관하게 유지되는 watermark 저장소 (BATCH_WATERMARK 테이블)
+ * advance 는 호출한 쪽의 트랜잭션에 참여하므로 chunk 의 commit 과 함께 반영된다.
+ */
+public class WatermarkStore {
+    private final JdbcTemplate jdbcTemplate;
+
+    public WatermarkStore(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * @return 저장된 watermark, 없으면 null
+     */
+    public String get(String name) {
+        List<String> values = jdbcTemplate.queryForList(
+                "SELECT WATERMARK_VALUE FROM BATCH_WATERMARK WHERE WATERMARK_NAME = ?", String.class, name);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    public void advance(String name, String value) {
+        int updated = jdbcTemplate.update(
+                "UPDATE BATCH_WATERMARK SET WATERMARK_VALUE = ?, UPDATED_AT = CURRENT_TIMESTAMP WHERE WATERMARK_NAME = ?", value, name);
+        if (updated == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO BATCH_WATERMARK (WATERMARK_NAME, WATERMARK_VALUE, UPDATED_AT) VALUES (?, ?, CURRENT_TIMESTAMP)", name, value);
+        }
+    }
+}
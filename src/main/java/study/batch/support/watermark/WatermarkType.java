@@ -0,0 +1,28 @@
+package study.batch.support.watermark;
+
+import java.sql.Timestamp;
+
+/**
+ * watermark 컬럼의 타입. BATCH_WATERMARK 에는 문자열로 저장하고 조회 조건에 넣을 때 변환한다.
+ */
+public enum WatermarkType {
+    TIMESTAMP("1970-01-01 00:00:00"),
+    NUMBER(String.valueOf(Long.MIN_VALUE));
+
+    private final String minimum;
+
+    WatermarkType(String minimum) {
+        this.minimum = minimum;
+    }
+
+    public String minimum() {
+        return minimum;
+    }
+
+    public Object toParameter(String value) {
+        return switch (this) {
+            case TIMESTAMP -> Timestamp.valueOf(value);
+            case NUMBER -> Long.parseLong(value);
+        };
+    }
+}
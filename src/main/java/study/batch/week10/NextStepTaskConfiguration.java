@@ -15,11 +15,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
+import study.batch.support.flow.DagJobBuilder;
 
 @Slf4j
 @Configuration
 public class NextStepTaskConfiguration {
     private static final String NEXT_STEP_TASK = "NEXT_STEP_TASK";
+    private static final String NEXT_STEP_DAG_TASK = "NEXT_STEP_DAG_TASK";
 
     @Autowired
     PlatformTransactionManager platformTransactionManager;
@@ -54,7 +56,7 @@ public class NextStepTaskConfiguration {
                 .build();
     }
 
-    @Bean
+    @Bean(name = {"nextStepJob", NEXT_STEP_TASK})
     public Job nextStepJob(Step step01, Step step02, JobRepository jobRepository) {
         log.info("------------------ Init myJob -----------------");
         return new JobBuilder(NEXT_STEP_TASK, jobRepository)
@@ -63,4 +65,17 @@ public class NextStepTaskConfiguration {
                 .next(step02)
                 .build();
     }
+
+    /**
+     * step01, step02 는 서로 의존하지 않으므로 동시에 실행된다.
+     */
+    @Bean(name = {"nextStepDagJob", NEXT_STEP_DAG_TASK})
+    public Job nextStepDagJob(Step step01, Step step02, JobRepository jobRepository) {
+        log.info("------------------ Init myDagJob -----------------");
+        return new DagJobBuilder(NEXT_STEP_DAG_TASK, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .step(step01)
+                .step(step02)
+                .build();
+    }
 }
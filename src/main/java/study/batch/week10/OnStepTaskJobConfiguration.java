@@ -15,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
+import study.batch.support.flow.DagJobBuilder;
 
 import java.util.Random;
 
@@ -22,6 +23,7 @@ import java.util.Random;
 @Configuration
 public class OnStepTaskJobConfiguration {
     public static final String ON_STEP_TASK = "ON_STEP_TASK";
+    public static final String ON_STEP_DAG_TASK = "ON_STEP_DAG_TASK";
 
     @Autowired
     PlatformTransactionManager transactionManager;
@@ -76,7 +78,7 @@ public class OnStepTaskJobConfiguration {
                 .build();
     }
 
-    @Bean
+    @Bean(name = {"onStepJob", ON_STEP_TASK})
     public Job onStepJob(Step stepOn01, Step stepOn02, Step stepOn03, JobRepository jobRepository) {
         log.info("------------------ Init myJob -----------------");
         return new JobBuilder(ON_STEP_TASK, jobRepository)
@@ -88,4 +90,18 @@ public class OnStepTaskJobConfiguration {
                 .build();
     }
 
+    /**
+     * onStepJob 과 같은 전이를 DagJobBuilder 로 표현한 Job
+     * stepOn02 는 stepOn01 이 COMPLETED 일 때만, stepOn03 은 FAILED 일 때만 실행된다.
+     */
+    @Bean(name = {"onStepDagJob", ON_STEP_DAG_TASK})
+    public Job onStepDagJob(Step stepOn01, Step stepOn02, Step stepOn03, JobRepository jobRepository) {
+        log.info("------------------ Init myDagJob -----------------");
+        return new DagJobBuilder(ON_STEP_DAG_TASK, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .step(stepOn01).on("FAILED").to(stepOn03)
+                .step(stepOn02).dependsOn(stepOn01)
+                .build();
+    }
+
 }
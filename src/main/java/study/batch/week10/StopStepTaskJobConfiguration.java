@@ -55,7 +55,7 @@ public class StopStepTaskJobConfiguration {
                 .build();
     }
 
-    @Bean
+    @Bean(name = {"stopStepJob", STOP_STEP_TASK})
     public Job stopStepJob(Step stepOn01, Step stepOn02, Step stepOn03, JobRepository jobRepository) {
         log.info("------------------ Init myJob -----------------");
         return new JobBuilder(STOP_STEP_TASK, jobRepository)
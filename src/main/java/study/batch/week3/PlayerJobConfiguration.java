@@ -7,6 +7,7 @@ import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.FlatFileItemWriter;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
@@ -14,12 +15,25 @@ import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
 import org.springframework.batch.item.file.mapping.DefaultLineMapper;
 import org.springframework.batch.item.file.mapping.FieldSetMapper;
 import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.transaction.PlatformTransactionManager;
+import study.batch.support.chunk.ByteBudgetCompletionPolicy;
+import study.batch.support.chunk.ItemSizers;
+import study.batch.support.executor.ConcurrentStepConfigurer;
+import study.batch.support.file.ItemPool;
+import study.batch.support.file.ItemPoolListener;
+import study.batch.support.file.PooledLineMapper;
+import study.batch.support.file.ReusableFieldSet;
+import study.batch.support.metrics.SampledCounter;
+import study.batch.support.sort.ExternalSortStepBuilder;
 
+import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 
 @Log
@@ -28,8 +42,14 @@ public class PlayerJobConfiguration {
     public static final String ENCODING = "UTF-8";
     public static final String TOTAL_PLAYERS = "TOTAL_PLAYERS";
     public static final String TOTAL_AGES = "TOTAL_AGES";
+    private static final int CHUNK_SIZE = 10;
+    private static final long MAX_CHUNK_BYTES = 1024 * 1024;
 
-    private final ConcurrentHashMap<String, Integer> aggregateInfos = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> aggregateInfos = new ConcurrentHashMap<>();
+    private final SampledCounter processed = new SampledCounter("Processor Execute", 1000);
+
+    @Autowired
+    ConcurrentStepConfigurer concurrentStepConfigurer;
 
     @Bean
     public FieldSetMapper<Player> playerFieldSetMapper() {
@@ -63,6 +83,27 @@ public class PlayerJobConfiguration {
                 .build();
     }
 
+    /**
+     * pooledPlayerStep 이 write 한 Player 를 돌려받아 다음 chunk 에서 다시 채운다.
+     */
+    @Bean
+    public ItemPool<Player> playerPool() {
+        return new ItemPool<>(Player.class, Player::new, 1000);
+    }
+
+    /**
+     * 줄마다 FieldSet / Player 를 새로 만들지 않는 Reader
+     */
+    @Bean
+    public FlatFileItemReader<Player> playerPooledFlatFileItemReader() {
+        return new FlatFileItemReaderBuilder<Player>()
+                .name("playerPooledFlatFileItemReader")
+                .resource(new FileSystemResource("src/main/resources/week3/players.csv"))
+                .linesToSkip(1)
+                .lineMapper(new PooledLineMapper<>(new ReusableFieldSet(',', "No", "Name", "Age"), new PlayerMapper(), playerPool()))
+                .build();
+    }
+
     @Bean
     public FlatFileItemWriter<Player> playerFlatFileItemWriter() {
         return new FlatFileItemWriterBuilder<Player>()
@@ -81,27 +122,61 @@ public class PlayerJobConfiguration {
                 .build();
     }
 
+    @Bean
+    public ItemProcessor<Player, Player> playerItemProcessor() {
+        return player -> {
+            processed.increment();
+            player.setAge(player.getAge()+1);
+            aggregateInfos.computeIfAbsent(TOTAL_PLAYERS, key -> new LongAdder()).increment();
+            aggregateInfos.computeIfAbsent(TOTAL_AGES, key -> new LongAdder()).add(player.getAge());
+            return player;
+        };
+    }
+
+    /**
+     * CHUNK_SIZE 건 또는 MAX_CHUNK_BYTES 중 먼저 닿는 쪽에서 chunk 를 닫는다.
+     */
+    @Bean
+    public ByteBudgetCompletionPolicy<Player> playerCompletionPolicy() {
+        return new ByteBudgetCompletionPolicy<>(ItemSizers.shallow(Player.class), MAX_CHUNK_BYTES, CHUNK_SIZE);
+    }
+
     @Bean
     public Step playerStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
         log.info("------------------ Init PlayerStep -----------------");
         return new StepBuilder("flatPlayerStep", jobRepository)
+                .<Player, Player>chunk(playerCompletionPolicy(), transactionManager)
+                .reader(concurrentStepConfigurer.reader("flatPlayerStep", playerFlatFileItemReader()))
+                .processor(playerItemProcessor())
+                .writer(concurrentStepConfigurer.writer("flatPlayerStep", playerFlatFileItemWriter()))
+                .listener(playerCompletionPolicy())
+                .stepOperations(concurrentStepConfigurer.stepOperations("flatPlayerStep"))
+                .build();
+    }
+
+    @Bean
+    public Step pooledPlayerStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+        log.info("------------------ Init PooledPlayerStep -----------------");
+        return new StepBuilder("pooledPlayerStep", jobRepository)
                 .<Player, Player>chunk(10, transactionManager)
-                .reader(playerFlatFileItemReader())
-                .processor(player -> {
-                    log.info("------------------ Processor Execute ------------------");
-                    player.setAge(player.getAge()+1);
-                    aggregateInfos.putIfAbsent(TOTAL_PLAYERS, 0);
-                    aggregateInfos.putIfAbsent(TOTAL_AGES, 0);
-
-                    aggregateInfos.put(TOTAL_PLAYERS, aggregateInfos.get(TOTAL_PLAYERS) + 1);
-                    aggregateInfos.put(TOTAL_AGES, aggregateInfos.get(TOTAL_AGES) + player.getAge());
-                    return player;
-                })
-                .writer(playerFlatFileItemWriter())
+                .reader(concurrentStepConfigurer.reader("pooledPlayerStep", playerPooledFlatFileItemReader()))
+                .processor(playerItemProcessor())
+                .writer(concurrentStepConfigurer.writer("pooledPlayerStep", playerFlatFileItemWriter()))
+                .listener(new ItemPoolListener(playerPool()))
+                .stepOperations(concurrentStepConfigurer.stepOperations("pooledPlayerStep"))
                 .build();
     }
 
     @Bean
+    public Job pooledPlayerJob(Step pooledPlayerStep, JobRepository jobRepository) {
+        log.info("------------------ Init PooledPlayerJob -----------------");
+        return new JobBuilder("pooledPlayerJob", jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(pooledPlayerStep)
+                .build();
+    }
+
+    @Bean(name = {"playerJob", "flatPlayerJob"})
     public Job playerJob(Step playerStep, JobRepository jobRepository) {
         log.info("------------------ Init PlayerJob -----------------");
         return new JobBuilder("flatPlayerJob", jobRepository)
@@ -109,4 +184,31 @@ public class PlayerJobConfiguration {
                 .start(playerStep)
                 .build();
     }
+
+    /**
+     * player_new.csv 를 나이 순(같으면 No 순)으로 내보내는 외부 정렬 Step
+     */
+    @Bean
+    public Step sortedPlayerStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+        log.info("------------------ Init SortedPlayerStep -----------------");
+        return new ExternalSortStepBuilder<Player, Player>("sortedPlayerStep", jobRepository)
+                .transactionManager(transactionManager)
+                .reader(playerFlatFileItemReader())
+                .processor(playerItemProcessor())
+                .writer(playerFlatFileItemWriter())
+                .sortKey(Player::getAge)
+                .comparator(Comparator.comparingLong(Player::getNo))
+                .maxItemsInMemory(100_000)
+                .tempDirectory(Path.of("./output/week3/sort"))
+                .build();
+    }
+
+    @Bean
+    public Job sortedPlayerJob(Step sortedPlayerStep, JobRepository jobRepository) {
+        log.info("------------------ Init SortedPlayerJob -----------------");
+        return new JobBuilder("sortedPlayerJob", jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(sortedPlayerStep)
+                .build();
+    }
 }
@@ -1,16 +1,19 @@
 package study.batch.week3;
 
-import lombok.extern.java.Log;
 import org.springframework.batch.item.file.mapping.FieldSetMapper;
 import org.springframework.batch.item.file.transform.FieldSet;
+import study.batch.support.file.RecordMapper;
+import study.batch.support.file.ReusableFieldSet;
+import study.batch.support.metrics.SampledCounter;
+
+public class PlayerMapper implements FieldSetMapper<Player>, RecordMapper<Player> {
+    private static final SampledCounter READS = new SampledCounter("Reader Execute", 1000);
 
-@Log
-public class PlayerMapper implements FieldSetMapper<Player> {
     @Override
     public Player mapFieldSet(FieldSet fs) {
         if (fs == null) return null;
 
-        log.info("------------------ Reader Execute ------------------");
+        READS.increment();
         Player player = new Player();
         player.setNo(fs.readLong("No"));
         player.setName(fs.readString("Name"));
@@ -18,4 +21,15 @@ public class PlayerMapper implements FieldSetMapper<Player> {
 
         return player;
     }
+
+    /**
+     * pool 에서 꺼낸 Player 를 다시 채운다.
+     */
+    @Override
+    public void map(ReusableFieldSet fields, Player player) {
+        READS.increment();
+        player.setNo(fields.readLong("No"));
+        player.setName(fields.readString("Name"));
+        player.setAge(fields.readInt("Age"));
+    }
 }
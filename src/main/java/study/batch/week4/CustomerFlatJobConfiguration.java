@@ -12,12 +12,21 @@ import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.FlatFileItemWriter;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
 import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.transaction.PlatformTransactionManager;
 import study.batch.common.Customer;
+import study.batch.support.dedup.DeduplicatingItemProcessor;
+import study.batch.support.dedup.DeduplicatingItemProcessorBuilder;
+import study.batch.support.executor.ConcurrentStepConfigurer;
+import study.batch.support.routing.RoutingFileItemWriter;
+import study.batch.support.routing.RoutingFileItemWriterBuilder;
+import study.batch.support.sort.ExternalSortStepBuilder;
 
+import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Log
@@ -26,11 +35,16 @@ public class CustomerFlatJobConfiguration {
     public static final int CHUNK_SIZE = 100;
     public static final String ENCODING = "UTF-8";
     public static final String FLAT_FILE_CHUNK_JOB = "customerFlatFileJob";
+    public static final String SORTED_FLAT_FILE_JOB = "sortedCustomerFlatFileJob";
+    public static final String GRADE_FLAT_FILE_JOB = "customerGradeFlatFileJob";
     public static final String TOTAL_CUSTOMERS = "TOTAL_CUSTOMERS";
     public static final String TOTAL_AGES = "TOTAL_AGES";
 
     private final ConcurrentHashMap<String, Integer> aggregateInfos = new ConcurrentHashMap<>();
 
+    @Autowired
+    ConcurrentStepConfigurer concurrentStepConfigurer;
+
 
     @Bean
     public FlatFileItemReader<Customer> customerFlatFileItemReader() {
@@ -45,14 +59,29 @@ public class CustomerFlatJobConfiguration {
                 .build();
     }
 
+    /**
+     * 여러 번 받은 CSV 가 겹치므로 name + age 가 같은 고객은 한 번만 내보낸다.
+     */
+    @Bean
+    public DeduplicatingItemProcessor<Customer> customerDeduplicatingItemProcessor() {
+        return new DeduplicatingItemProcessorBuilder<Customer>()
+                .name("customerDeduplicatingItemProcessor")
+                .keyFields("name", "age")
+                .maxEntries(1_000_000)
+                .bloomFilter(0.01)
+                .stateFile(Path.of("./output/week4/customer_dedup.state"))
+                .build();
+    }
+
     @Bean
     public ItemProcessor<Customer, Customer> customerItemProcessor() {
+        DeduplicatingItemProcessor<Customer> deduplicatingItemProcessor = customerDeduplicatingItemProcessor();
         return item -> {
-            aggregateInfos.putIfAbsent(TOTAL_CUSTOMERS, 0);
-            aggregateInfos.putIfAbsent(TOTAL_AGES, 0);
-
-            aggregateInfos.put(TOTAL_CUSTOMERS, aggregateInfos.get(TOTAL_CUSTOMERS) + 1);
-            aggregateInfos.put(TOTAL_AGES, aggregateInfos.get(TOTAL_AGES) + item.getAge());
+            if (deduplicatingItemProcessor.process(item) == null) {
+                return null;
+            }
+            aggregateInfos.merge(TOTAL_CUSTOMERS, 1, Integer::sum);
+            aggregateInfos.merge(TOTAL_AGES, item.getAge(), Integer::sum);
             return item;
         };
     }
@@ -84,13 +113,15 @@ public class CustomerFlatJobConfiguration {
 
         return new StepBuilder("customerFlatFileStep", jobRepository)
                 .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager)
-                .reader(customerFlatFileItemReader())
+                .reader(concurrentStepConfigurer.reader("customerFlatFileStep", customerFlatFileItemReader()))
                 .processor(customerItemProcessor())
-                .writer(customerFlatFileItemWriter())
+                .writer(concurrentStepConfigurer.writer("customerFlatFileStep", customerFlatFileItemWriter()))
+                .stream(customerDeduplicatingItemProcessor())
+                .stepOperations(concurrentStepConfigurer.stepOperations("customerFlatFileStep"))
                 .build();
     }
 
-    @Bean
+    @Bean(name = {"flatFileJob", FLAT_FILE_CHUNK_JOB})
     public Job flatFileJob(Step customerFlatFileStep, JobRepository jobRepository) {
         log.info("------------------ Init flatFileJob -----------------");
         return new JobBuilder(FLAT_FILE_CHUNK_JOB, jobRepository)
@@ -98,4 +129,93 @@ public class CustomerFlatJobConfiguration {
                 .start(customerFlatFileStep)
                 .build();
     }
+
+    /**
+     * customer_new.csv 를 나이 순(같으면 이름 순)으로 내보내는 외부 정렬 Step
+     */
+    @Bean
+    public Step sortedCustomerFlatFileStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+        log.info("------------------ Init sortedFlatFileStep -----------------");
+        return new ExternalSortStepBuilder<Customer, Customer>("sortedCustomerFlatFileStep", jobRepository)
+                .transactionManager(transactionManager)
+                .reader(customerFlatFileItemReader())
+                .processor(customerItemProcessor())
+                .writer(customerFlatFileItemWriter())
+                .stream(customerDeduplicatingItemProcessor())
+                .sortKey(Customer::getAge)
+                .comparator(Comparator.comparing(Customer::getName))
+                .maxItemsInMemory(100_000)
+                .chunkSize(CHUNK_SIZE)
+                .tempDirectory(Path.of("./output/week4/sort"))
+                .build();
+    }
+
+    @Bean(name = {"sortedFlatFileJob", SORTED_FLAT_FILE_JOB})
+    public Job sortedFlatFileJob(Step sortedCustomerFlatFileStep, JobRepository jobRepository) {
+        log.info("------------------ Init sortedFlatFileJob -----------------");
+        return new JobBuilder(SORTED_FLAT_FILE_JOB, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(sortedCustomerFlatFileStep)
+                .build();
+    }
+
+    /**
+     * Customer 에는 gender 가 없으므로 name / age 만 옮긴다.
+     */
+    @Bean
+    public FlatFileItemReader<Customer> customerGradeFlatFileItemReader() {
+        return new FlatFileItemReaderBuilder<Customer>()
+                .name("customerGradeFlatFileItemReader")
+                .resource(new FileSystemResource("src/main/resources/week4/customers.csv"))
+                .encoding(ENCODING)
+                .linesToSkip(1)
+                .delimited().delimiter(",")
+                .names("name", "age", "gender")
+                .fieldSetMapper(fieldSet -> {
+                    Customer customer = new Customer();
+                    customer.setName(fieldSet.readString("name"));
+                    customer.setAge(fieldSet.readInt("age"));
+                    return customer;
+                })
+                .build();
+    }
+
+    /**
+     * 등급별 파일(customer_S.csv ~ customer_D.csv)로 한 번에 나눠 쓰는 Writer
+     */
+    @Bean
+    public RoutingFileItemWriter<Customer, Customer.Grade> customerGradeFlatFileItemWriter() {
+        return new RoutingFileItemWriterBuilder<Customer, Customer.Grade>()
+                .name("customerGradeFlatFileItemWriter")
+                .classifier(Customer::getGrade)
+                .keys(Customer.Grade.values())
+                .path(grade -> Path.of("./output/week4/customer_" + grade + ".csv"))
+                .encoding(ENCODING)
+                .lineAggregator(item -> item.getName() + "," + item.getAge())
+                .header(grade -> "NAME,AGE")
+                .build();
+    }
+
+    @Bean
+    public Step customerGradeFlatFileStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+        log.info("------------------ Init customerGradeFlatFileStep -----------------");
+        return new StepBuilder("customerGradeFlatFileStep", jobRepository)
+                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager)
+                .reader(customerGradeFlatFileItemReader())
+                .processor(item -> {
+                    item.assignGroup();
+                    return item;
+                })
+                .writer(customerGradeFlatFileItemWriter())
+                .build();
+    }
+
+    @Bean(name = {"gradeFlatFileJob", GRADE_FLAT_FILE_JOB})
+    public Job gradeFlatFileJob(Step customerGradeFlatFileStep, JobRepository jobRepository) {
+        log.info("------------------ Init gradeFlatFileJob -----------------");
+        return new JobBuilder(GRADE_FLAT_FILE_JOB, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(customerGradeFlatFileStep)
+                .build();
+    }
 }
@@ -3,21 +3,41 @@ package study.batch.week5;
 import lombok.extern.java.Log;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.database.*;
 import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
 import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
 import org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
 import org.springframework.transaction.PlatformTransactionManager;
 import study.batch.common.Customer;
+import study.batch.common.CustomerColumns;
+import study.batch.support.chunk.ByteBudgetCompletionPolicy;
+import study.batch.support.chunk.ItemSizers;
+import study.batch.support.columnar.ColumnarStepBuilder;
+import study.batch.support.columnar.JdbcColumnarItemWriter;
+import study.batch.support.columnar.JdbcCursorColumnarReader;
+import study.batch.support.datasource.ReadDataSource;
+import study.batch.support.datasource.ReadDataSourceProperties;
+import study.batch.support.executor.ConcurrentStepConfigurer;
+import study.batch.support.jfr.JfrStepListener;
+import study.batch.support.plan.ReaderQueries;
+import study.batch.support.plan.ReaderQuery;
+import study.batch.support.watermark.IncrementalWatermark;
+import study.batch.support.watermark.WatermarkProperties;
+import study.batch.support.watermark.WatermarkStore;
 
 import javax.sql.DataSource;
 import java.util.HashMap;
@@ -29,15 +49,39 @@ public class CustomerJdbcJobConfiguration {
     private static final String CUSTOMER_JDBC_JOB = "customerJdbcJob";
     private static final String CUSTOMER_JDBC_STEP = "customerJdbcStep";
     private static final String CUSTOMER_JDBC_READER = "customerJdbcReader";
+    private static final String CUSTOMER_JDBC_COLUMNAR_JOB = "customerJdbcColumnarJob";
+    private static final String CUSTOMER_JDBC_COLUMNAR_STEP = "customerJdbcColumnarStep";
     private static final int CHUNK_SIZE = 10;
+    private static final int COLUMNAR_CHUNK_SIZE = 1000;
+    private static final long MAX_CHUNK_BYTES = 1024 * 1024;
+    private static final String CUSTOMER_JDBC_COLUMNAR_SQL = "SELECT ID AS id, AGE AS age FROM CUSTOMER WHERE AGE >= ? ORDER BY ID DESC";
 
     @Autowired
     DataSource dataSource;
 
+    @Autowired
+    @ReadDataSource
+    DataSource readDataSource;
+
+    @Autowired
+    ReadDataSourceProperties readDataSourceProperties;
+
+    @Autowired
+    ConcurrentStepConfigurer concurrentStepConfigurer;
+
+    @Autowired
+    JfrStepListener jfrStepListener;
+
+    @Autowired
+    WatermarkProperties watermarkProperties;
+
+    @Autowired
+    WatermarkStore watermarkStore;
+
     @Bean
     public PagingQueryProvider queryProvider() throws Exception {
         SqlPagingQueryProviderFactoryBean queryProvider = new SqlPagingQueryProviderFactoryBean();
-        queryProvider.setDataSource(dataSource);
+        queryProvider.setDataSource(readDataSource);
         queryProvider.setSelectClause("ID, NAME, AGE, GENDER");
         queryProvider.setFromClause("from CUSTOMER");
         queryProvider.setWhereClause("where AGE >= :age");
@@ -57,39 +101,140 @@ public class CustomerJdbcJobConfiguration {
 
         return new JdbcPagingItemReaderBuilder<Customer>()
                 .name(CUSTOMER_JDBC_READER)
-                .fetchSize(CHUNK_SIZE)
-                .dataSource(dataSource)
+                .fetchSize(readDataSourceProperties.getFetchSize())
+                .dataSource(readDataSource)
                 .rowMapper(new BeanPropertyRowMapper<>(Customer.class))
                 .parameterValues(parameterValue)
                 .queryProvider(queryProvider())
                 .build();
     }
 
+    @Bean
+    public ReaderQuery customerJdbcReaderQuery() {
+        return new ReaderQuery(CUSTOMER_JDBC_READER, readDataSource,
+                () -> ReaderQueries.jdbcPaging(queryProvider(), Map.of("age", 20), CHUNK_SIZE));
+    }
+
+    /**
+     * batch.watermark.enabled=true 일 때 마지막 실행 이후 변경된 CUSTOMER 만 읽기 위한 구간
+     */
+    @Bean
+    public IncrementalWatermark customerJdbcWatermark() {
+        return new IncrementalWatermark(CUSTOMER_JDBC_STEP, watermarkStore, readDataSource, "CUSTOMER",
+                watermarkProperties.getColumn(), watermarkProperties.getType(), watermarkProperties.getLag());
+    }
+
+    @Bean
+    @StepScope
+    public JdbcPagingItemReader<Customer> customerJdbcIncrementalItemReader(@Value("#{stepExecution}") StepExecution stepExecution) throws Exception {
+        String column = watermarkProperties.getColumn();
+        SqlPagingQueryProviderFactoryBean queryProvider = new SqlPagingQueryProviderFactoryBean();
+        queryProvider.setDataSource(readDataSource);
+        queryProvider.setSelectClause("ID, NAME, AGE, GENDER");
+        queryProvider.setFromClause("from CUSTOMER");
+        queryProvider.setWhereClause("where AGE >= :age and " + column + " > :watermarkFrom and " + column + " <= :watermarkTo");
+        queryProvider.setSortKeys(Map.of("id", Order.DESCENDING));
+
+        Map<String, Object> parameterValue = customerJdbcWatermark().parameters(stepExecution);
+        parameterValue.put("age", 20);
+
+        return new JdbcPagingItemReaderBuilder<Customer>()
+                .name(CUSTOMER_JDBC_READER)
+                .fetchSize(readDataSourceProperties.getFetchSize())
+                .dataSource(readDataSource)
+                .rowMapper(new BeanPropertyRowMapper<>(Customer.class))
+                .parameterValues(parameterValue)
+                .queryProvider(queryProvider.getObject())
+                .build();
+    }
+
     @Bean
     public JdbcBatchItemWriter<Customer> customerJdbcBatchItemWriter() {
+        // incremental 모드에서는 등급 갱신이 변경 시각을 바꿔 다음 실행에 다시 읽히지 않도록 컬럼 값을 유지한다.
+        String keepWatermark = watermarkProperties.isEnabled()
+                ? ", " + watermarkProperties.getColumn() + " = " + watermarkProperties.getColumn() : "";
         return new JdbcBatchItemWriterBuilder<Customer>()
                 .dataSource(dataSource)
-                .sql("UPDATE CUSTOMER SET GRADE = :grade where ID = :id")
+                .sql("UPDATE CUSTOMER SET GRADE = :grade" + keepWatermark + " where ID = :id")
                 .itemSqlParameterSourceProvider(BeanPropertySqlParameterSource::new)
                 .build();
     }
 
+    /**
+     * Customer 객체 없이 ID / AGE 를 바로 int[] 컬럼에 채우는 Reader
+     */
+    @Bean
+    public JdbcCursorColumnarReader customerJdbcColumnarReader() {
+        JdbcCursorColumnarReader reader = new JdbcCursorColumnarReader(CUSTOMER_JDBC_COLUMNAR_STEP, readDataSource,
+                CUSTOMER_JDBC_COLUMNAR_SQL, 20);
+        reader.setFetchSize(readDataSourceProperties.getFetchSize());
+        return reader;
+    }
+
+    @Bean
+    public ReaderQuery customerJdbcColumnarReaderQuery() {
+        return new ReaderQuery(CUSTOMER_JDBC_COLUMNAR_STEP, readDataSource, () -> ReaderQueries.jdbc(CUSTOMER_JDBC_COLUMNAR_SQL, 20));
+    }
+
+    @Bean
+    public JdbcColumnarItemWriter customerJdbcColumnarItemWriter() {
+        String keepWatermark = watermarkProperties.isEnabled()
+                ? ", " + watermarkProperties.getColumn() + " = " + watermarkProperties.getColumn() : "";
+        return new JdbcColumnarItemWriter(dataSource, "UPDATE CUSTOMER SET GRADE = ?" + keepWatermark + " where ID = ?",
+                CustomerColumns.GRADE, CustomerColumns.ID);
+    }
+
+    /**
+     * customerJdbcPagingStep 과 같은 등급 갱신을 ColumnarChunk 로 처리하는 Step
+     */
+    @Bean
+    public Step customerJdbcColumnarStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+        log.info("------------------ Init customerJdbcColumnarStep -----------------");
+
+        return new ColumnarStepBuilder<Customer>(CUSTOMER_JDBC_COLUMNAR_STEP, jobRepository)
+                .transactionManager(transactionManager)
+                .schema(CustomerColumns.schema())
+                .columnarReader(customerJdbcColumnarReader())
+                .processor(CustomerColumns::assignGroup)
+                .columnarWriter(customerJdbcColumnarItemWriter())
+                .chunkSize(COLUMNAR_CHUNK_SIZE)
+                .build();
+    }
+
+    /**
+     * CHUNK_SIZE 건 또는 MAX_CHUNK_BYTES 중 먼저 닿는 쪽에서 chunk 를 닫는다.
+     */
+    @Bean
+    public ByteBudgetCompletionPolicy<Customer> customerJdbcCompletionPolicy() {
+        return new ByteBudgetCompletionPolicy<>(ItemSizers.shallow(Customer.class), MAX_CHUNK_BYTES, CHUNK_SIZE);
+    }
+
     @Bean
     public Step customerJdbcPagingStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) throws Exception {
         log.info("------------------ Init customerJdbcPagingStep -----------------");
 
-        return new StepBuilder(CUSTOMER_JDBC_STEP, jobRepository)
-                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager)
-                .reader(customerJdbcPagingItemReader())
+        ItemStreamReader<Customer> reader = watermarkProperties.isEnabled()
+                ? customerJdbcWatermark().reader(customerJdbcIncrementalItemReader(null))
+                : customerJdbcPagingItemReader();
+
+        SimpleStepBuilder<Customer, Customer> stepBuilder = new StepBuilder(CUSTOMER_JDBC_STEP, jobRepository)
+                .<Customer, Customer>chunk(customerJdbcCompletionPolicy(), transactionManager)
+                .reader(concurrentStepConfigurer.reader(CUSTOMER_JDBC_STEP, reader))
                 .processor(customer -> {
                     customer.assignGroup();
                     return customer;
                 })
                 .writer(customerJdbcBatchItemWriter())
-                .build();
+                .listener(customerJdbcCompletionPolicy())
+                .stepOperations(concurrentStepConfigurer.stepOperations(CUSTOMER_JDBC_STEP));
+        jfrStepListener.register(stepBuilder);
+        if (watermarkProperties.isEnabled()) {
+            stepBuilder.listener(customerJdbcWatermark());
+        }
+        return stepBuilder.build();
     }
 
-    @Bean
+    @Bean(name = {"customerJdbcPaginJob", CUSTOMER_JDBC_JOB})
     public Job customerJdbcPaginJob(Step customerJdbcPagingStep, JobRepository jobRepository) {
         log.info("------------------ Init customerJdbcPagingJob -----------------");
         return new JobBuilder(CUSTOMER_JDBC_JOB, jobRepository)
@@ -98,4 +243,13 @@ public class CustomerJdbcJobConfiguration {
                 .build();
 
     }
+
+    @Bean(name = CUSTOMER_JDBC_COLUMNAR_JOB)
+    public Job customerJdbcColumnarJob(Step customerJdbcColumnarStep, JobRepository jobRepository) {
+        log.info("------------------ Init customerJdbcColumnarJob -----------------");
+        return new JobBuilder(CUSTOMER_JDBC_COLUMNAR_JOB, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(customerJdbcColumnarStep)
+                .build();
+    }
 }
@@ -2,21 +2,37 @@ package study.batch.week7;
 
 import lombok.extern.java.Log;
 import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionFactoryBean;
 import org.mybatis.spring.batch.MyBatisBatchItemWriter;
 import org.mybatis.spring.batch.MyBatisPagingItemReader;
 import org.mybatis.spring.batch.builder.MyBatisBatchItemWriterBuilder;
 import org.mybatis.spring.batch.builder.MyBatisPagingItemReaderBuilder;
+import org.mybatis.spring.boot.autoconfigure.MybatisProperties;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.transaction.PlatformTransactionManager;
 import study.batch.common.Customer;
+import study.batch.support.datasource.ReadDataSource;
+import study.batch.support.datasource.ReadDataSourceProperties;
+import study.batch.support.executor.ConcurrentStepConfigurer;
+import study.batch.support.plan.ReaderQueries;
+import study.batch.support.plan.ReaderQuery;
+import study.batch.support.watermark.IncrementalWatermark;
+import study.batch.support.watermark.WatermarkProperties;
+import study.batch.support.watermark.WatermarkStore;
 
 import javax.sql.DataSource;
 import java.util.HashMap;
@@ -27,6 +43,7 @@ import java.util.Map;
 public class CustomerMybatisConfiguration {
     private static final int CHUNK_SIZE = 10;
     private static final String MYBATIS_CHUNK_JOB = "MybatisChunkJob";
+    private static final String MYBATIS_CHUNK_STEP = "customerJdbcCursorStep";
 
     @Autowired
     DataSource dataSource;
@@ -34,23 +51,95 @@ public class CustomerMybatisConfiguration {
     @Autowired
     SqlSessionFactory sqlSessionFactory;
 
+    @Autowired
+    @ReadDataSource
+    DataSource readDataSource;
+
+    @Autowired
+    ReadDataSourceProperties readDataSourceProperties;
+
+    @Autowired
+    MybatisProperties mybatisProperties;
+
+    @Autowired
+    ConcurrentStepConfigurer concurrentStepConfigurer;
+
+    @Autowired
+    WatermarkProperties watermarkProperties;
+
+    @Autowired
+    WatermarkStore watermarkStore;
+
+    /**
+     * week8 이 타입으로 주입받으므로 incremental Reader 보다 우선한다.
+     */
     @Bean
-    public MyBatisPagingItemReader<Customer> myBatisItemReader() {
+    @Primary
+    public MyBatisPagingItemReader<Customer> myBatisItemReader() throws Exception {
         return new MyBatisPagingItemReaderBuilder<Customer>()
-                .sqlSessionFactory(sqlSessionFactory)
+                .sqlSessionFactory(readSqlSessionFactory())
                 .pageSize(CHUNK_SIZE)
                 .queryId("study.batch.week7.MybatisMapper.selectCustomers")
                 .build();
     }
 
+    @Bean
+    public ReaderQuery myBatisItemReaderQuery() {
+        return new ReaderQuery("myBatisItemReader", readDataSource, () -> ReaderQueries.myBatis(readSqlSessionFactory(),
+                "study.batch.week7.MybatisMapper.selectCustomers", Map.of(), CHUNK_SIZE));
+    }
+
+    /**
+     * batch.watermark.enabled=true 일 때 마지막 실행 이후 변경된 CUSTOMER 만 읽기 위한 구간
+     */
+    @Bean
+    public IncrementalWatermark myBatisWatermark() {
+        return new IncrementalWatermark(MYBATIS_CHUNK_STEP, watermarkStore, readDataSource, "CUSTOMER",
+                watermarkProperties.getColumn(), watermarkProperties.getType(), watermarkProperties.getLag());
+    }
+
+    @Bean
+    @StepScope
+    public MyBatisPagingItemReader<Customer> myBatisIncrementalItemReader(@Value("#{stepExecution}") StepExecution stepExecution) throws Exception {
+        Map<String, Object> parameterValues = myBatisWatermark().parameters(stepExecution);
+        parameterValues.put("watermarkColumn", watermarkProperties.getColumn());
+
+        return new MyBatisPagingItemReaderBuilder<Customer>()
+                .sqlSessionFactory(readSqlSessionFactory())
+                .pageSize(CHUNK_SIZE)
+                .queryId("study.batch.week7.MybatisMapper.selectChangedCustomers")
+                .parameterValues(parameterValues)
+                .build();
+    }
+
+    /**
+     * Reader 용 SqlSessionFactory. SqlSessionFactory 를 Bean 으로 등록하면 MyBatis 자동 설정이 기본 SqlSessionFactory 를 만들지 않으므로 직접 만든다.
+     */
+    private SqlSessionFactory readSqlSessionFactory() throws Exception {
+        if (!readDataSourceProperties.isSeparate()) {
+            return sqlSessionFactory;
+        }
+        org.apache.ibatis.session.Configuration configuration = new org.apache.ibatis.session.Configuration();
+        configuration.setDefaultFetchSize(readDataSourceProperties.getFetchSize());
+
+        SqlSessionFactoryBean factoryBean = new SqlSessionFactoryBean();
+        factoryBean.setDataSource(readDataSource);
+        factoryBean.setConfiguration(configuration);
+        factoryBean.setMapperLocations(mybatisProperties.resolveMapperLocations());
+        return factoryBean.getObject();
+    }
+
     public MyBatisBatchItemWriter<Customer> myBatisItemWriter() {
         return new MyBatisBatchItemWriterBuilder<Customer>()
                 .sqlSessionFactory(sqlSessionFactory)
-                .statementId("study.batch.week7.MybatisMapper.updateCustomer")
+                .statementId(watermarkProperties.isEnabled()
+                        ? "study.batch.week7.MybatisMapper.updateChangedCustomer"
+                        : "study.batch.week7.MybatisMapper.updateCustomer")
                 .itemToParameterConverter(item -> {
                     Map<String, Object> parameter = new HashMap<>();
                     parameter.put("id", item.getId());
                     parameter.put("age", item.getAge());
+                    parameter.put("watermarkColumn", watermarkProperties.getColumn());
                     return parameter;
                 })
                 .build();
@@ -60,9 +149,13 @@ public class CustomerMybatisConfiguration {
     public Step customerJdbcCursorStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) throws Exception {
         log.info("------------------ Init customerJdbcCursorStep -----------------");
 
-        return new StepBuilder("customerJdbcCursorStep", jobRepository)
+        ItemStreamReader<Customer> reader = watermarkProperties.isEnabled()
+                ? myBatisWatermark().reader(myBatisIncrementalItemReader(null))
+                : myBatisItemReader();
+
+        SimpleStepBuilder<Customer, Customer> stepBuilder = new StepBuilder(MYBATIS_CHUNK_STEP, jobRepository)
                 .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager)
-                .reader(myBatisItemReader())
+                .reader(concurrentStepConfigurer.reader(MYBATIS_CHUNK_STEP, reader))
                 .processor(item -> {
                     System.out.println("==================" + item.getName() + "==================");
                     System.out.println("Before Age: " + item.getAge());
@@ -71,10 +164,14 @@ public class CustomerMybatisConfiguration {
                     return item;
                 })
                 .writer(myBatisItemWriter())
-                .build();
+                .stepOperations(concurrentStepConfigurer.stepOperations(MYBATIS_CHUNK_STEP));
+        if (watermarkProperties.isEnabled()) {
+            stepBuilder.listener(myBatisWatermark());
+        }
+        return stepBuilder.build();
     }
 
-    @Bean
+    @Bean(name = {"customerJdbcCursorPagingJob", MYBATIS_CHUNK_JOB})
     public Job customerJdbcCursorPagingJob(Step customerJdbcCursorStep, JobRepository jobRepository) {
         log.info("------------------ Init customerJdbcCursorPagingJob -----------------");
         return new JobBuilder(MYBATIS_CHUNK_JOB, jobRepository)
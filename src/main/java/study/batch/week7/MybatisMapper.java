@@ -9,4 +9,6 @@ import java.util.List;
 public interface MybatisMapper {
     List<Customer> selectCustomers();
     int updateCustomer();
+    List<Customer> selectChangedCustomers();
+    int updateChangedCustomer();
 }
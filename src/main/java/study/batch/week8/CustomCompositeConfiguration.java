@@ -7,6 +7,7 @@ import org.springframework.batch.core.Step;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.support.CompositeItemProcessor;
 import org.springframework.batch.item.support.builder.CompositeItemProcessorBuilder;
@@ -15,6 +16,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
 import study.batch.common.Customer;
+import study.batch.support.executor.ConcurrentStepConfigurer;
+import study.batch.support.jfr.JfrStepListener;
 
 import java.util.List;
 
@@ -24,7 +27,13 @@ public class CustomCompositeConfiguration {
     private static final int CHUNK_SIZE = 10;
 
     @Autowired
-    MyBatisPagingItemReader myBatisPagingItemReader;
+    MyBatisPagingItemReader<Customer> myBatisPagingItemReader;
+
+    @Autowired
+    ConcurrentStepConfigurer concurrentStepConfigurer;
+
+    @Autowired
+    JfrStepListener jfrStepListener;
 
     @Bean
     public CompositeItemProcessor<Customer, Customer> compositeItemProcessor () {
@@ -40,12 +49,13 @@ public class CustomCompositeConfiguration {
     public Step compositeStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) throws Exception {
         log.info("------------------ Init customerJdbcCursorStep -----------------");
 
-        return new StepBuilder("compositeStep", jobRepository)
+        SimpleStepBuilder<Customer, Customer> stepBuilder = new StepBuilder("compositeStep", jobRepository)
                 .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager)
-                .reader(myBatisPagingItemReader)
+                .reader(concurrentStepConfigurer.reader("compositeStep", myBatisPagingItemReader))
                 .processor(compositeItemProcessor())
                 .writer(items -> items.forEach(System.out::println))
-                .build();
+                .stepOperations(concurrentStepConfigurer.stepOperations("compositeStep"));
+        return jfrStepListener.register(stepBuilder).build();
     }
 
     @Bean
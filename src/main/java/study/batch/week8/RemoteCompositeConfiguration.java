@@ -0,0 +1,76 @@
+package study.batch.week8;
+
+import lombok.extern.java.Log;
+import org.mybatis.spring.batch.MyBatisPagingItemReader;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.support.CompositeItemProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.batch.common.Customer;
+import study.batch.support.remote.DatabaseChunkItemWriter;
+import study.batch.support.remote.DatabaseChunkWorker;
+import study.batch.support.remote.RemoteChunkProperties;
+import study.batch.support.remote.RemoteChunkRepository;
+
+/**
+ * compositeJob 을 DB 테이블 기반 Remote Chunking 으로 실행하는 설정
+ * manager : --batch.remote.enabled=true --spring.batch.job.name=remoteCompositeJob
+ * worker  : --batch.remote.enabled=true --batch.remote.role=worker --spring.batch.job.enabled=false
+ * 임베디드 DB 로 테스트할 때는 두 JVM 이 같은 DB 를 보도록 jdbc:h2:file:...;AUTO_SERVER=TRUE 를 사용한다.
+ */
+@Log
+@Configuration
+@ConditionalOnProperty(prefix = "batch.remote", name = "enabled", havingValue = "true")
+public class RemoteCompositeConfiguration {
+    private static final int CHUNK_SIZE = 10;
+
+    @Autowired
+    RemoteChunkProperties remoteChunkProperties;
+
+    @Autowired
+    RemoteChunkRepository remoteChunkRepository;
+
+    @Bean
+    public DatabaseChunkItemWriter<Customer> remoteCompositeItemWriter() {
+        return new DatabaseChunkItemWriter<>(remoteChunkRepository, remoteChunkProperties.getQueueName(),
+                remoteChunkProperties.getPollInterval(), remoteChunkProperties.getCompletionTimeout());
+    }
+
+    @Bean
+    public Step remoteCompositeStep(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                                    MyBatisPagingItemReader<Customer> myBatisPagingItemReader) {
+        log.info("------------------ Init remoteCompositeStep -----------------");
+
+        return new StepBuilder("remoteCompositeStep", jobRepository)
+                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager)
+                .reader(myBatisPagingItemReader)
+                .writer(remoteCompositeItemWriter())
+                .listener(remoteCompositeItemWriter())
+                .build();
+    }
+
+    @Bean
+    public Job remoteCompositeJob(Step remoteCompositeStep, JobRepository jobRepository) {
+        log.info("------------------ Init remoteCompositeJob -----------------");
+        return new JobBuilder("remoteCompositeJob", jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(remoteCompositeStep)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "batch.remote", name = "role", havingValue = "worker")
+    public DatabaseChunkWorker<Customer, Customer> remoteCompositeWorker(PlatformTransactionManager transactionManager,
+                                                                         CompositeItemProcessor<Customer, Customer> compositeItemProcessor) {
+        return new DatabaseChunkWorker<>(remoteChunkRepository, transactionManager, remoteChunkProperties.getQueueName(),
+                compositeItemProcessor, items -> items.forEach(System.out::println), remoteChunkProperties.getPollInterval());
+    }
+}
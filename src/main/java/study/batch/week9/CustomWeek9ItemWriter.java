@@ -1,36 +1,35 @@
 package study.batch.week9;
 
-import lombok.extern.java.Log;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.item.Chunk;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.stereotype.Component;
 import study.batch.common.Customer;
+import study.batch.support.lookup.LookupCache;
 
-import java.util.Map;
-
+/**
+ * 등급별 보너스는 아이템마다 API 를 호출하지 않고 gradeBonusLookup 에서 읽는다.
+ */
 @Slf4j
-@Component
 public class CustomWeek9ItemWriter implements ItemWriter<Customer> {
-    private final CustomerRemoteApi customerRemoteApi;
+    private final LookupCache<Integer> gradeBonusLookup;
 
-    public CustomWeek9ItemWriter(CustomerRemoteApi customerRemoteApi) {
-        this.customerRemoteApi = customerRemoteApi;
+    public CustomWeek9ItemWriter(LookupCache<Integer> gradeBonusLookup) {
+        this.gradeBonusLookup = gradeBonusLookup;
     }
 
     @Override
     public void write(Chunk<? extends Customer> chunk) {
         for (Customer customer: chunk) {
-            Map<String, Integer> response = customerRemoteApi.getBonus(customer);
-            Integer code = response.getOrDefault("code", 503);
-            Integer bonus = response.getOrDefault("bonus", 0);
+            Integer bonus = customer.getGrade() == null
+                    ? Integer.valueOf(CustomerRemoteApi.DEFAULT_BONUS)
+                    : gradeBonusLookup.get(customer.getGrade().ordinal());
 
-            if (code == 200) {
+            if (bonus != null) {
                 if (bonus > 15000) {
                     System.out.println("보너스 많이 받은 사람: " + customer.getName());
                 }
             } else {
-                log.error("api server connection is not available");
+                log.error("bonus of grade {} is not available", customer.getGrade());
             }
         }
     }
@@ -1,9 +1,11 @@
 package study.batch.week9;
 
-import jakarta.persistence.EntityManagerFactory;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.extern.java.Log;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
@@ -14,6 +16,13 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
 import study.batch.common.Customer;
 import study.batch.common.QCustomer;
+import study.batch.support.datasource.ReadDataSource;
+import study.batch.support.datasource.ReadEntityManagerFactory;
+import study.batch.support.executor.ConcurrentStepConfigurer;
+import study.batch.support.lookup.LookupCache;
+import study.batch.support.pipeline.PipelinedStepBuilder;
+import study.batch.support.plan.ReaderQueries;
+import study.batch.support.plan.ReaderQuery;
 
 import javax.sql.DataSource;
 
@@ -23,36 +32,75 @@ public class CustomWeek9JobConfig {
     public static final int CHUNK_SIZE = 10;
     public static final String ENCODING = "UTF-8";
     public static final String QUERYDSL_PAGING_CHUNK_JOB = "QUERYDSL_PAGING_CHUNK_JOB";
+    public static final String QUERYDSL_PIPELINED_CHUNK_JOB = "QUERYDSL_PIPELINED_CHUNK_JOB";
+    private static final long LOOKUP_PRELOAD_ENTRIES = 100_000;
+    private static final int LOOKUP_CACHE_ENTRIES = 10_000;
 
     @Autowired
     DataSource dataSource;
     @Autowired
-    EntityManagerFactory emf;
+    @ReadDataSource
+    DataSource readDataSource;
     @Autowired
-    CustomWeek9ItemWriter customWeek9ItemWriter;
+    ReadEntityManagerFactory readEntityManagerFactory;
+    @Autowired
+    CustomerRemoteApi customerRemoteApi;
+    @Autowired
+    ConcurrentStepConfigurer concurrentStepConfigurer;
 
     @Bean
     public QuerydslPagingItemReader<Customer> customerQuerydslPagingItemReader() {
 
         return new QuerydslPagingItemReaderBuilder<Customer>()
                 .name("customerQuerydslPagingItemReader")
-                .entityManagerFactory(emf)
+                .entityManagerFactory(readEntityManagerFactory.getObject())
                 .chunkSize(CHUNK_SIZE)
-                .querySupplier(jpaQueryFactory -> jpaQueryFactory.select(QCustomer.customer).from(QCustomer.customer).where(QCustomer.customer.age.gt(50)))
+                .querySupplier(this::customerQuery)
+                .sortKey(QCustomer.customer.id, Customer::getId)
                 .build();
     }
 
+    /**
+     * keyset Reader 가 실행하는 것과 같이 id 오름차순 / CHUNK_SIZE 로 제한한 첫 페이지 조회
+     */
+    @Bean
+    public ReaderQuery customerQuerydslPagingItemReaderQuery() {
+        return new ReaderQuery("customerQuerydslPagingItemReader", readDataSource, () -> ReaderQueries.jpa(readEntityManagerFactory.getObject(), readDataSource,
+                em -> customerQuery(new JPAQueryFactory(em)).orderBy(QCustomer.customer.id.asc()).limit(CHUNK_SIZE).createQuery()));
+    }
+
+    private JPAQuery<Customer> customerQuery(JPAQueryFactory jpaQueryFactory) {
+        return jpaQueryFactory.select(QCustomer.customer).from(QCustomer.customer).where(QCustomer.customer.age.gt(50));
+    }
+
+    /**
+     * 등급별 보너스 표. Step 시작 시 한 번에 적재한다.
+     * 두 Step 이 동시에 실행되어도 서로의 cache 를 비우지 않도록 Step 실행마다 따로 만든다.
+     */
+    @Bean
+    @StepScope
+    public LookupCache<Integer> gradeBonusLookup() {
+        return new LookupCache<>("gradeBonus", new GradeBonusLookupSource(customerRemoteApi), LOOKUP_PRELOAD_ENTRIES, LOOKUP_CACHE_ENTRIES);
+    }
+
+    @Bean
+    public CustomWeek9ItemWriter customWeek9ItemWriter() {
+        return new CustomWeek9ItemWriter(gradeBonusLookup());
+    }
+
     @Bean
     public Step customerQuerydslPagingStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
         log.info("-------------------------- Init customerQuerydslPagingStep --------------------------");
         return new StepBuilder("customerJpaPagingStep", jobRepository)
                 .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager)
-                .reader(customerQuerydslPagingItemReader())
-                .writer(customWeek9ItemWriter)
+                .reader(concurrentStepConfigurer.reader("customerJpaPagingStep", customerQuerydslPagingItemReader()))
+                .writer(customWeek9ItemWriter())
+                .listener(gradeBonusLookup())
+                .stepOperations(concurrentStepConfigurer.stepOperations("customerJpaPagingStep"))
                 .build();
     }
 
-    @Bean
+    @Bean(name = {"customerQuerydslPagingJob", QUERYDSL_PAGING_CHUNK_JOB})
     public Job customerQuerydslPagingJob(Step customerQuerydslPagingStep, JobRepository jobRepository) {
         log.info("-------------------------- Init QUERYDSL_PAGING_CHUNK_JOB --------------------------");
         return new JobBuilder(QUERYDSL_PAGING_CHUNK_JOB, jobRepository)
@@ -61,4 +109,27 @@ public class CustomWeek9JobConfig {
                 .build();
     }
 
+    /**
+     * 다음 page 조회와 원격 API 호출(write)을 겹쳐 실행하는 Step
+     */
+    @Bean
+    public Step customerQuerydslPipelinedStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+        log.info("-------------------------- Init customerQuerydslPipelinedStep --------------------------");
+        return new PipelinedStepBuilder<Customer, Customer>("customerQuerydslPipelinedStep", jobRepository)
+                .chunk(CHUNK_SIZE, transactionManager)
+                .reader(customerQuerydslPagingItemReader())
+                .writer(customWeek9ItemWriter())
+                .listener(gradeBonusLookup())
+                .queueCapacity(2)
+                .build();
+    }
+
+    @Bean(name = {"customerQuerydslPipelinedJob", QUERYDSL_PIPELINED_CHUNK_JOB})
+    public Job customerQuerydslPipelinedJob(Step customerQuerydslPipelinedStep, JobRepository jobRepository) {
+        log.info("-------------------------- Init QUERYDSL_PIPELINED_CHUNK_JOB --------------------------");
+        return new JobBuilder(QUERYDSL_PIPELINED_CHUNK_JOB, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(customerQuerydslPipelinedStep)
+                .build();
+    }
 }
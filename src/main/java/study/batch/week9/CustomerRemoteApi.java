@@ -3,19 +3,26 @@ package study.batch.week9;
 import org.springframework.stereotype.Component;
 import study.batch.common.Customer;
 
-import java.math.BigDecimal;
+import java.util.EnumMap;
 import java.util.Map;
 
 @Component
 public class CustomerRemoteApi {
-    public Map<String, Integer> getBonus(Customer customer) {
-        Integer bonus;
-        if (Customer.Grade.A == customer.getGrade()) {
-            bonus = 20000;
-        } else {
-            bonus = 10000;
-        }
+    public static final int DEFAULT_BONUS = 10000;
 
+    public Map<String, Integer> getBonus(Customer customer) {
+        Integer bonus = getBonusTable().getOrDefault(customer.getGrade(), DEFAULT_BONUS);
         return Map.of("code", 200, "bonus", bonus);
     }
+
+    /**
+     * 등급별 보너스 전체를 한 번에 돌려주는 API
+     */
+    public Map<Customer.Grade, Integer> getBonusTable() {
+        Map<Customer.Grade, Integer> bonusTable = new EnumMap<>(Customer.Grade.class);
+        for (Customer.Grade grade : Customer.Grade.values()) {
+            bonusTable.put(grade, Customer.Grade.A == grade ? 20000 : DEFAULT_BONUS);
+        }
+        return bonusTable;
+    }
 }
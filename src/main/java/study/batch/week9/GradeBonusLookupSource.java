@@ -0,0 +1,37 @@
+package study.batch.week9;
+
+import study.batch.common.Customer;
+import study.batch.support.lookup.LookupSource;
+
+import java.util.Map;
+
+/**
+ * 등급(ordinal)별 보너스를 CustomerRemoteApi 의 일괄 조회 API 로 읽는 LookupSource
+ */
+public class GradeBonusLookupSource implements LookupSource<Integer> {
+    private final CustomerRemoteApi customerRemoteApi;
+
+    public GradeBonusLookupSource(CustomerRemoteApi customerRemoteApi) {
+        this.customerRemoteApi = customerRemoteApi;
+    }
+
+    @Override
+    public long count() {
+        return Customer.Grade.values().length;
+    }
+
+    @Override
+    public void loadAll(Sink<Integer> sink) {
+        customerRemoteApi.getBonusTable().forEach((grade, bonus) -> sink.put(grade.ordinal(), bonus));
+    }
+
+    @Override
+    public Integer find(long key) {
+        Customer.Grade[] grades = Customer.Grade.values();
+        if (key < 0 || key >= grades.length) {
+            return null;
+        }
+        Map<Customer.Grade, Integer> bonusTable = customerRemoteApi.getBonusTable();
+        return bonusTable.get(grades[(int) key]);
+    }
+}
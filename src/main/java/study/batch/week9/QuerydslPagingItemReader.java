@@ -1,34 +1,109 @@
 package study.batch.week9;
 
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
 import org.springframework.batch.item.database.AbstractPagingItemReader;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 
+/**
+ * Querydsl 로 페이지 단위 조회를 하는 ItemReader
+ * sortKey 를 지정하면 offset 대신 "sortKey > 마지막으로 읽은 key" 조건으로 다음 페이지를 읽는 keyset 방식으로 동작한다.
+ * - commit 마다 마지막 key 와 쿼리 조건의 fingerprint 를 ExecutionContext 에 저장하고,
+ *   재시작 시 앞 페이지를 다시 훑지 않고 인덱스 조회 한 번으로 이어서 읽는다.
+ * - 쿼리 조건이 바뀐 채로 재시작하면 잘못된 위치에서 이어 읽지 않도록 예외를 던진다.
+ * - 읽은 row 가 조건에서 빠지더라도 위치가 밀리지 않으므로 alwaysReadFromZero 는 무시된다.
+ * - keyset 방식에서는 querySupplier 에 orderBy 를 지정하지 않는다. (sortKey 오름차순으로 정렬된다)
+ */
 public class QuerydslPagingItemReader<T> extends AbstractPagingItemReader<T> {
+    private static final String LAST_KEY = "last.key";
+    private static final String FINGERPRINT = "query.fingerprint";
+
     private final EntityManager em;
     private final Function<JPAQueryFactory, JPAQuery<T>> querySupplier;
 
     private final boolean alwaysReadFromZero;
 
+    private final NumberPath<?> sortKey;
+    private final Function<T, ? extends Number> sortKeyExtractor;
+    private Number lastKey;
+
     public QuerydslPagingItemReader(EntityManagerFactory emf, Function<JPAQueryFactory, JPAQuery<T>> querySupplier, int chunkSize) {
         this(ClassUtils.getShortName(QuerydslPagingItemReader.class), emf, querySupplier, chunkSize, false);
     }
 
     public QuerydslPagingItemReader(String name, EntityManagerFactory entityManagerFactory, Function<JPAQueryFactory, JPAQuery<T>> querySupplier, int chunkSize, Boolean alwaysReadFromZero) {
+        this(name, entityManagerFactory, querySupplier, chunkSize, alwaysReadFromZero, null, null);
+    }
+
+    public QuerydslPagingItemReader(String name, EntityManagerFactory entityManagerFactory, Function<JPAQueryFactory, JPAQuery<T>> querySupplier, int chunkSize, Boolean alwaysReadFromZero,
+                                    NumberPath<?> sortKey, Function<T, ? extends Number> sortKeyExtractor) {
         super.setPageSize(chunkSize);
         setName(name);
         this.querySupplier = querySupplier;
         this.em = entityManagerFactory.createEntityManager();
         this.alwaysReadFromZero = alwaysReadFromZero;
+        this.sortKey = sortKey;
+        this.sortKeyExtractor = sortKeyExtractor;
+    }
+
+    private boolean isKeyset() {
+        return sortKey != null;
+    }
 
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        super.open(executionContext);
+        lastKey = null;
+        if (!isKeyset() || !isSaveState() || !executionContext.containsKey(getExecutionContextKey(LAST_KEY))) {
+            return;
+        }
+
+        String savedFingerprint = executionContext.getString(getExecutionContextKey(FINGERPRINT), null);
+        if (!fingerprint().equals(savedFingerprint)) {
+            throw new ItemStreamException("Query of " + getName() + " changed since the last execution, can not resume from the saved key");
+        }
+        lastKey = (Number) executionContext.get(getExecutionContextKey(LAST_KEY));
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        if (isKeyset() && isSaveState() && lastKey != null) {
+            executionContext.put(getExecutionContextKey(LAST_KEY), lastKey);
+            executionContext.putString(getExecutionContextKey(FINGERPRINT), fingerprint());
+        }
+    }
+
+    @Override
+    protected T doRead() throws Exception {
+        T item = super.doRead();
+        if (item != null && isKeyset()) {
+            lastKey = sortKeyExtractor.apply(item);
+        }
+        return item;
+    }
+
+    /**
+     * keyset 방식은 저장된 key 로 위치를 찾으므로 앞 페이지로 이동하지 않는다.
+     */
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        if (!isKeyset()) {
+            super.jumpToItem(itemIndex);
+        }
     }
 
     @Override
@@ -43,13 +118,20 @@ public class QuerydslPagingItemReader<T> extends AbstractPagingItemReader<T> {
         initQueryResult();
 
         JPAQueryFactory jpaQueryFactory = new JPAQueryFactory(em);
-        long offset = 0;
-        if (!alwaysReadFromZero) {
-            offset = (long) getPage() * getPageSize();
+        JPAQuery<T> query = querySupplier.apply(jpaQueryFactory);
+        if (isKeyset()) {
+            if (lastKey != null) {
+                query.where(greaterThanLastKey());
+            }
+            query.orderBy(sortKey.asc()).limit(getPageSize());
+        } else {
+            long offset = 0;
+            if (!alwaysReadFromZero) {
+                offset = (long) getPage() * getPageSize();
+            }
+            query.offset(offset).limit(getPageSize());
         }
 
-        JPAQuery<T> query = querySupplier.apply(jpaQueryFactory).offset(offset).limit(getPageSize());
-
         List<T> queryResult = query.fetch();
         for (T entity: queryResult) {
             em.detach(entity);
@@ -57,6 +139,17 @@ public class QuerydslPagingItemReader<T> extends AbstractPagingItemReader<T> {
         }
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate greaterThanLastKey() {
+        return ((NumberPath) sortKey).gt((Number & Comparable) lastKey);
+    }
+
+    private String fingerprint() {
+        JPAQuery<T> query = querySupplier.apply(new JPAQueryFactory(em));
+        String signature = query.getMetadata().getWhere() + "|" + query.getMetadata().getParams() + "|" + sortKey;
+        return DigestUtils.md5DigestAsHex(signature.getBytes(StandardCharsets.UTF_8));
+    }
+
     private void initQueryResult() {
         if (CollectionUtils.isEmpty(results)) {
             results = new CopyOnWriteArrayList<>();
@@ -1,5 +1,6 @@
 package study.batch.week9;
 
+import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManagerFactory;
@@ -14,6 +15,8 @@ public class QuerydslPagingItemReaderBuilder<T> {
     private int chunkSize = 10;
     private String name;
     private Boolean alwaysReadFromZero;
+    private NumberPath<?> sortKey;
+    private Function<T, ? extends Number> sortKeyExtractor;
 
     public QuerydslPagingItemReaderBuilder<T> entityManagerFactory(EntityManagerFactory emf) {
         this.emf = emf;
@@ -40,6 +43,15 @@ public class QuerydslPagingItemReaderBuilder<T> {
         return this;
     }
 
+    /**
+     * keyset 방식으로 읽을 정렬 key 를 지정한다. (ex. QCustomer.customer.id, Customer::getId)
+     */
+    public <K extends Number & Comparable<?>> QuerydslPagingItemReaderBuilder<T> sortKey(NumberPath<K> sortKey, Function<T, K> sortKeyExtractor) {
+        this.sortKey = sortKey;
+        this.sortKeyExtractor = sortKeyExtractor;
+        return this;
+    }
+
     public QuerydslPagingItemReader<T> build() {
         if (name == null) {
             this.name = ClassUtils.getShortName(QuerydslPagingItemReader.class);
@@ -53,6 +65,6 @@ public class QuerydslPagingItemReaderBuilder<T> {
         if (this.alwaysReadFromZero == null) {
             alwaysReadFromZero = false;
         }
-        return new QuerydslPagingItemReader<>(this.name, emf, querySupplier, chunkSize, alwaysReadFromZero);
+        return new QuerydslPagingItemReader<>(this.name, emf, querySupplier, chunkSize, alwaysReadFromZero, sortKey, sortKeyExtractor);
     }
 }
@@ -0,0 +1,2 @@
+-- MySQL 전용: UPDATE 시 UPDATED_AT 자동 갱신 (다른 DB 는 writer 가 UPDATED_AT 을 직접 넣어야 한다.)
+ALTER TABLE CUSTOMER MODIFY UPDATED_AT TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
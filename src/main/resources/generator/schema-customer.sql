@@ -0,0 +1,10 @@
+CREATE TABLE CUSTOMER (
+    ID INT NOT NULL PRIMARY KEY,
+    NAME VARCHAR(100),
+    AGE INT,
+    GENDER VARCHAR(10),
+    GRADE VARCHAR(1),
+    UPDATED_AT TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+);
+
+CREATE INDEX IDX_CUSTOMER_UPDATED_AT ON CUSTOMER (UPDATED_AT);
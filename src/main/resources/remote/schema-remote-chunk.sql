@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS BATCH_REMOTE_CHUNK (
+    CHUNK_ID BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    QUEUE_NAME VARCHAR(100) NOT NULL,
+    JOB_INSTANCE_ID BIGINT NOT NULL,
+    STEP_NAME VARCHAR(100) NOT NULL,
+    STATUS VARCHAR(10) NOT NULL,
+    ITEM_COUNT INT NOT NULL,
+    WRITE_COUNT INT NOT NULL DEFAULT 0,
+    FILTER_COUNT INT NOT NULL DEFAULT 0,
+    PAYLOAD LONGBLOB NOT NULL,
+    WORKER VARCHAR(100),
+    ERROR_MESSAGE VARCHAR(2500),
+    CREATED_AT TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UPDATED_AT TIMESTAMP NULL
+);
@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS BATCH_WATERMARK (
+    WATERMARK_NAME VARCHAR(100) NOT NULL PRIMARY KEY,
+    WATERMARK_VALUE VARCHAR(100) NOT NULL,
+    UPDATED_AT TIMESTAMP NULL
+);
+
+-- 기존 CUSTOMER 테이블에 변경 시각 컬럼 추가 (batch.watermark.column=UPDATED_AT, ON UPDATE 는 MySQL 전용)
+-- ALTER TABLE CUSTOMER ADD COLUMN UPDATED_AT TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+-- CREATE INDEX IDX_CUSTOMER_UPDATED_AT ON CUSTOMER (UPDATED_AT);
@@ -0,0 +1,123 @@
+package study.batch.generator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerGeneratorTest {
+    private static final String SELECT_ALL = "SELECT ID, NAME, AGE, GENDER, GRADE FROM CUSTOMER ORDER BY ID";
+
+    private final CustomerGeneratorProperties properties = new CustomerGeneratorProperties();
+
+    private EmbeddedDatabase dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = database();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        properties.setRowsPerTransaction(4);
+        properties.setRowsPerStatement(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void partitionsCoverTheRangeWithoutGaps() {
+        Map<String, ExecutionContext> partitions = new CustomerRangePartitioner(1, 10).partition(3);
+
+        assertThat(partitions.values()).extracting(context -> context.getLong(CustomerRangePartitioner.MIN_ID) + "-" + context.getLong(CustomerRangePartitioner.MAX_ID))
+                .containsExactly("1-5", "5-9", "9-11");
+        assertThat(new CustomerRangePartitioner(1, 2).partition(4)).hasSize(2);
+    }
+
+    @Test
+    void insertsEveryPartitionWithMultiRowStatements() throws Exception {
+        initializeSchema(dataSource);
+        initializeSchema(dataSource);
+
+        long written = 0;
+        for (ExecutionContext partition : new CustomerRangePartitioner(1, 25).partition(3).values()) {
+            written += runToEnd(tasklet(dataSource, partition), stepExecution(partition));
+        }
+
+        assertThat(written).isEqualTo(25);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT ID) FROM CUSTOMER", Integer.class)).isEqualTo(25);
+        assertThat(jdbcTemplate.queryForObject("SELECT MIN(ID) || '-' || MAX(ID) FROM CUSTOMER", String.class)).isEqualTo("1-25");
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT GRADE FROM CUSTOMER", String.class)).isSubsetOf("S", "A", "B", "C", "D");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM CUSTOMER WHERE UPDATED_AT IS NULL", Integer.class)).isZero();
+    }
+
+    @Test
+    void restartContinuesWithTheSameRows() throws Exception {
+        initializeSchema(dataSource);
+        ExecutionContext partition = new CustomerRangePartitioner(1, 10).partition(1).values().iterator().next();
+        StepExecution stepExecution = stepExecution(partition);
+        StepContribution contribution = stepExecution.createStepContribution();
+        assertThat(tasklet(dataSource, partition).execute(contribution, new ChunkContext(new StepContext(stepExecution))))
+                .isEqualTo(RepeatStatus.CONTINUABLE);
+
+        runToEnd(tasklet(dataSource, partition), stepExecution);
+
+        EmbeddedDatabase uninterrupted = database();
+        try {
+            initializeSchema(uninterrupted);
+            runToEnd(tasklet(uninterrupted, partition), stepExecution(partition));
+            List<Map<String, Object>> expected = new JdbcTemplate(uninterrupted).queryForList(SELECT_ALL);
+
+            assertThat(jdbcTemplate.queryForList(SELECT_ALL)).hasSize(10).isEqualTo(expected);
+        } finally {
+            uninterrupted.shutdown();
+        }
+    }
+
+    private StepExecution stepExecution(ExecutionContext partition) {
+        return MetaDataInstanceFactory.createStepExecution(new ExecutionContext(partition));
+    }
+
+    private long runToEnd(CustomerGeneratorTasklet tasklet, StepExecution stepExecution) throws Exception {
+        StepContribution contribution = stepExecution.createStepContribution();
+        ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+        while (tasklet.execute(contribution, chunkContext) == RepeatStatus.CONTINUABLE) {
+        }
+        return contribution.getWriteCount();
+    }
+
+    private CustomerGeneratorTasklet tasklet(EmbeddedDatabase database, ExecutionContext partition) {
+        return new CustomerGeneratorTasklet(new JdbcTemplate(database), properties, 42L,
+                partition.getLong(CustomerRangePartitioner.MIN_ID), partition.getLong(CustomerRangePartitioner.MAX_ID));
+    }
+
+    private void initializeSchema(EmbeddedDatabase database) {
+        CustomerGeneratorJobConfiguration configuration = new CustomerGeneratorJobConfiguration();
+        configuration.dataSource = database;
+        configuration.initializeSchema();
+    }
+
+    private EmbeddedDatabase database() {
+        return new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package study.batch.support.aggregate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GroupAggregatorTest {
+
+    enum Grade {
+        A, B, C
+    }
+
+    record Person(Grade grade, int age) {
+    }
+
+    @Test
+    void aggregatesEnumKeysIntoArraySlots() {
+        GroupAggregator<Person, Grade> aggregator = new GroupAggregatorBuilder<Person, Grade>()
+                .groupBy(Person::grade, Grade.class)
+                .count("count")
+                .sum("sumAge", Person::age)
+                .min("minAge", Person::age)
+                .max("maxAge", Person::age)
+                .build();
+
+        List<AggregateRow<Grade>> rows = rows(aggregator.newTable(), List.of(
+                new Person(Grade.A, 50), new Person(Grade.C, 20), new Person(Grade.A, 60), new Person(null, 30)));
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).key()).isEqualTo(Grade.A);
+        assertThat(rows.get(0).values()).containsExactly(Map.entry("count", 2L), Map.entry("sumAge", 110L),
+                Map.entry("minAge", 50L), Map.entry("maxAge", 60L));
+        assertThat(rows.get(1).key()).isEqualTo(Grade.C);
+        assertThat(rows.get(2).key()).isNull();
+    }
+
+    @Test
+    void spillsLargeKeySpacesAndMergesPartials(@TempDir Path directory) {
+        GroupAggregator<Person, Integer> aggregator = new GroupAggregatorBuilder<Person, Integer>()
+                .groupBy(Person::age)
+                .count("count")
+                .max("maxAge", Person::age)
+                .maxGroupsInMemory(10)
+                .spillDirectory(directory)
+                .build();
+        List<Person> people = IntStream.range(0, 1000).mapToObj(i -> new Person(Grade.A, i % 100)).toList();
+
+        List<AggregateRow<Integer>> partials = new ArrayList<>();
+        partials.addAll(rows(aggregator.newTable(), people.subList(0, 500)));
+        partials.addAll(rows(aggregator.newTable(), people.subList(500, 1000)));
+
+        AggregateTable<Person, Integer> merged = aggregator.newTable();
+        partials.forEach(merged::merge);
+        Map<Integer, Long> counts = rows(merged, List.of()).stream()
+                .collect(Collectors.toMap(AggregateRow::key, row -> row.get("count")));
+
+        assertThat(counts).hasSize(100);
+        assertThat(counts.values()).containsOnly(10L);
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    private <K> List<AggregateRow<K>> rows(AggregateTable<Person, K> table, List<Person> people) {
+        people.forEach(table::add);
+        List<AggregateRow<K>> rows = new ArrayList<>();
+        table.rows().forEachRemaining(rows::add);
+        table.close();
+        return rows;
+    }
+}
@@ -0,0 +1,144 @@
+package study.batch.support.aggregate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.explore.support.JobExplorerFactoryBean;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartialAggregateMergerTest {
+    private static final String WORKER = "worker";
+
+    private final GroupAggregator<Integer, Integer> aggregator = new GroupAggregatorBuilder<Integer, Integer>()
+            .groupBy(value -> value % 3)
+            .count("count")
+            .build();
+
+    private EmbeddedDatabase dataSource;
+    private DataSourceTransactionManager transactionManager;
+    private JobRepository jobRepository;
+    private JobExplorer jobExplorer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("/org/springframework/batch/core/schema-h2.sql")
+                .build();
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        JobRepositoryFactoryBean repositoryFactory = new JobRepositoryFactoryBean();
+        repositoryFactory.setDataSource(dataSource);
+        repositoryFactory.setTransactionManager(transactionManager);
+        repositoryFactory.afterPropertiesSet();
+        jobRepository = repositoryFactory.getObject();
+
+        JobExplorerFactoryBean explorerFactory = new JobExplorerFactoryBean();
+        explorerFactory.setDataSource(dataSource);
+        explorerFactory.setTransactionManager(transactionManager);
+        explorerFactory.afterPropertiesSet();
+        jobExplorer = explorerFactory.getObject();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void mergesPartialsOfPartitionsCompletedBeforeRestart() throws Exception {
+        AtomicBoolean broken = new AtomicBoolean(true);
+        List<AggregateRow<Integer>> written = new CopyOnWriteArrayList<>();
+        AtomicInteger runs = new AtomicInteger();
+        Job job = job(broken, runs, written);
+        JobParameters jobParameters = new JobParametersBuilder().addLong("run", 1L).toJobParameters();
+
+        JobExecution first = launcher().run(job, jobParameters);
+        assertThat(first.getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(written).isEmpty();
+
+        broken.set(false);
+        JobExecution restarted = launcher().run(job, jobParameters);
+        assertThat(restarted.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(runs).hasValue(4);
+
+        Map<Integer, Long> counts = written.stream().collect(Collectors.toMap(AggregateRow::key, row -> row.get("count")));
+        assertThat(counts).containsExactly(Map.entry(0, 10L), Map.entry(1, 10L), Map.entry(2, 10L));
+    }
+
+    private Job job(AtomicBoolean broken, AtomicInteger runs, List<AggregateRow<Integer>> written) {
+        Step worker = new StepBuilder(WORKER, jobRepository)
+                .tasklet((contribution, chunkContext) -> {
+                    ExecutionContext executionContext = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+                    int min = executionContext.getInt("min");
+                    runs.incrementAndGet();
+                    if (broken.get() && min == 10) {
+                        throw new IllegalStateException("partition1 fails");
+                    }
+                    ArrayList<AggregateRow<Integer>> partials = new ArrayList<>();
+                    try (AggregateTable<Integer, Integer> table = aggregator.newTable()) {
+                        for (int value = min; value < min + 10; value++) {
+                            table.add(value);
+                        }
+                        table.rows().forEachRemaining(partials::add);
+                    }
+                    executionContext.put(GroupAggregationTasklet.partialsKey(WORKER), partials);
+                    return RepeatStatus.FINISHED;
+                }, transactionManager)
+                .build();
+
+        Step manager = new StepBuilder("manager", jobRepository)
+                .partitioner(WORKER, gridSize -> {
+                    Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+                    for (int i = 0; i < gridSize; i++) {
+                        ExecutionContext context = new ExecutionContext();
+                        context.putInt("min", i * 10);
+                        partitions.put("partition" + i, context);
+                    }
+                    return partitions;
+                })
+                .step(worker)
+                .gridSize(3)
+                .aggregator(new PartialAggregateMerger<>(WORKER, aggregator, chunk -> written.addAll(chunk.getItems()),
+                        jobExplorer, transactionManager, 2))
+                .build();
+
+        return new JobBuilder("aggregateJob", jobRepository).start(manager).build();
+    }
+
+    private TaskExecutorJobLauncher launcher() throws Exception {
+        TaskExecutorJobLauncher launcher = new TaskExecutorJobLauncher();
+        launcher.setJobRepository(jobRepository);
+        launcher.afterPropertiesSet();
+        return launcher;
+    }
+}
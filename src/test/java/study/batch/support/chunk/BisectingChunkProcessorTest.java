@@ -0,0 +1,111 @@
+package study.batch.support.chunk;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.step.skip.LimitCheckingItemSkipPolicy;
+import org.springframework.batch.core.step.skip.SkipLimitExceededException;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BisectingChunkProcessorTest {
+
+    @Test
+    void skipsOnlyFailedItemsWithBatchedRetries() throws Exception {
+        List<Integer> written = new ArrayList<>();
+        List<Integer> skipped = new ArrayList<>();
+        int[] attempts = {0};
+        BisectingChunkProcessor<Integer, Integer> processor = new BisectingChunkProcessor<>(
+                item -> item,
+                chunk -> {
+                    attempts[0]++;
+                    if (chunk.getItems().contains(3) || chunk.getItems().contains(6)) {
+                        throw new IllegalStateException("bad row");
+                    }
+                    written.addAll(chunk.getItems());
+                });
+        processor.setWriteSkipPolicy(new LimitCheckingItemSkipPolicy(10, Map.of(IllegalStateException.class, true)),
+                new ResourcelessTransactionManager());
+        processor.registerListener(new SkipListener<Integer, Integer>() {
+            @Override
+            public void onSkipInWrite(Integer item, Throwable t) {
+                skipped.add(item);
+            }
+        });
+        StepContribution contribution = MetaDataInstanceFactory.createStepExecution().createStepContribution();
+
+        processor.process(contribution, Chunk.of(1, 2, 3, 4, 5, 6, 7, 8));
+
+        assertThat(written).containsExactly(1, 2, 4, 5, 7, 8);
+        assertThat(skipped).containsExactly(3, 6);
+        assertThat(contribution.getWriteSkipCount()).isEqualTo(2);
+        assertThat(contribution.getWriteCount()).isEqualTo(6);
+        assertThat(attempts[0]).isLessThan(8 * 2);
+    }
+
+    @Test
+    void rollsBackFailedHalvesToSavepointsOfTheChunkTransaction() {
+        EmbeddedDatabase dataSource = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .build();
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE SCORE (ID INT PRIMARY KEY, VAL INT CHECK (VAL NOT IN (3, 6)))");
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            BisectingChunkProcessor<Integer, Integer> processor = new BisectingChunkProcessor<>(
+                    item -> item,
+                    chunk -> chunk.getItems().forEach(item -> jdbcTemplate.update("INSERT INTO SCORE (ID, VAL) VALUES (?, ?)", item, item)));
+            processor.setWriteSkipPolicy(new LimitCheckingItemSkipPolicy(10, Map.of(DataIntegrityViolationException.class, true)),
+                    transactionManager);
+            StepContribution contribution = MetaDataInstanceFactory.createStepExecution().createStepContribution();
+
+            // Step 의 chunk 트랜잭션처럼 바깥 트랜잭션 안에서 실행한다. 실패한 절반에서 먼저 insert 된 row 는 savepoint 로 되돌려져야 한다.
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                try {
+                    processor.process(contribution, Chunk.of(1, 2, 3, 4, 5, 6, 7, 8));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            assertThat(jdbcTemplate.queryForList("SELECT ID FROM SCORE ORDER BY ID", Integer.class)).containsExactly(1, 2, 4, 5, 7, 8);
+            assertThat(contribution.getWriteSkipCount()).isEqualTo(2);
+            assertThat(contribution.getWriteCount()).isEqualTo(6);
+        } finally {
+            dataSource.shutdown();
+        }
+    }
+
+    @Test
+    void failsWhenSkipLimitIsExceeded() {
+        BisectingChunkProcessor<Integer, Integer> processor = new BisectingChunkProcessor<>(
+                item -> item,
+                chunk -> {
+                    if (chunk.getItems().stream().anyMatch(item -> item % 2 == 0)) {
+                        throw new IllegalStateException("bad row");
+                    }
+                });
+        processor.setWriteSkipPolicy(new LimitCheckingItemSkipPolicy(1, Map.of(IllegalStateException.class, true)),
+                new ResourcelessTransactionManager());
+        StepContribution contribution = MetaDataInstanceFactory.createStepExecution().createStepContribution();
+
+        assertThatThrownBy(() -> processor.process(contribution, Chunk.of(1, 2, 3, 4)))
+                .isInstanceOf(SkipLimitExceededException.class);
+    }
+}
@@ -0,0 +1,82 @@
+package study.batch.support.chunk;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.step.item.SimpleChunkProvider;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.repeat.support.RepeatTemplate;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ByteBudgetCompletionPolicyTest {
+
+    static class Row {
+        long id;
+        int age;
+        String name;
+
+        Row(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private List<Integer> chunkSizes(List<Row> rows, ByteBudgetCompletionPolicy<Row> policy) throws Exception {
+        RepeatTemplate chunkOperations = new RepeatTemplate();
+        chunkOperations.setCompletionPolicy(policy);
+        SimpleChunkProvider<Row> provider = new SimpleChunkProvider<>(new ListItemReader<>(rows), chunkOperations);
+        provider.registerListener(policy);
+        StepContribution contribution = MetaDataInstanceFactory.createStepExecution().createStepContribution();
+
+        List<Integer> sizes = new ArrayList<>();
+        Chunk<Row> chunk;
+        while (!(chunk = provider.provide(contribution)).isEmpty()) {
+            sizes.add(chunk.size());
+            if (chunk.isEnd()) {
+                break;
+            }
+        }
+        return sizes;
+    }
+
+    @Test
+    void estimatesShallowSizeWithStrings() {
+        ItemSizer<Row> sizer = ItemSizers.shallow(Row.class);
+
+        // header 12 + long 8 + int 4 + ref 4 = 28 -> 32
+        assertThat(sizer.sizeOf(new Row(1, null))).isEqualTo(32);
+        // String 24 + byte[] (16 + 5 -> 24)
+        assertThat(sizer.sizeOf(new Row(1, "alice"))).isEqualTo(32 + 48);
+        // UTF-16: byte[] (16 + 4 -> 24)
+        assertThat(sizer.sizeOf(new Row(1, "홍길"))).isEqualTo(32 + 48);
+    }
+
+    @Test
+    void closesChunkAtItemCapForSmallItems() throws Exception {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            rows.add(new Row(i, "n" + i));
+        }
+
+        assertThat(chunkSizes(rows, new ByteBudgetCompletionPolicy<>(ItemSizers.shallow(Row.class), 1024 * 1024, 10)))
+                .containsExactly(10, 10, 5);
+    }
+
+    @Test
+    void closesChunkAtByteBudgetForWideItems() throws Exception {
+        String wide = "x".repeat(10_000);
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(new Row(i, i < 2 ? "small" : wide));
+        }
+
+        // 작은 아이템 2개 + 큰 아이템 3개째에서 30KB 를 넘는다.
+        assertThat(chunkSizes(rows, new ByteBudgetCompletionPolicy<>(ItemSizers.shallow(Row.class), 30_000, 1000)))
+                .containsExactly(5, 3, 2);
+    }
+}
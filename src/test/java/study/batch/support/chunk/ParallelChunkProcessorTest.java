@@ -0,0 +1,71 @@
+package study.batch.support.chunk;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.step.skip.AlwaysSkipItemSkipPolicy;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelChunkProcessorTest {
+
+    @Test
+    void keepsInputOrderAndFiltersNulls() throws Exception {
+        List<Integer> written = new ArrayList<>();
+        ParallelChunkProcessor<Integer, Integer> processor = new ParallelChunkProcessor<>(
+                item -> item % 3 == 0 ? null : item * 10,
+                chunk -> written.addAll(chunk.getItems()),
+                Executors.newFixedThreadPool(4));
+        StepContribution contribution = MetaDataInstanceFactory.createStepExecution().createStepContribution();
+
+        processor.process(contribution, Chunk.of(1, 2, 3, 4, 5, 6, 7));
+
+        assertThat(written).containsExactly(10, 20, 40, 50, 70);
+        assertThat(contribution.getFilterCount()).isEqualTo(2);
+        assertThat(contribution.getWriteCount()).isEqualTo(5);
+    }
+
+    @Test
+    void skipsFailedItemsWhenPolicyAllows() throws Exception {
+        List<Integer> written = new ArrayList<>();
+        ParallelChunkProcessor<Integer, Integer> processor = new ParallelChunkProcessor<>(
+                item -> {
+                    if (item == 2) {
+                        throw new IllegalStateException("bad item");
+                    }
+                    return item;
+                },
+                chunk -> written.addAll(chunk.getItems()),
+                Executors.newFixedThreadPool(2));
+        processor.setSkipPolicy(new AlwaysSkipItemSkipPolicy());
+        StepContribution contribution = MetaDataInstanceFactory.createStepExecution().createStepContribution();
+
+        processor.process(contribution, Chunk.of(1, 2, 3));
+
+        assertThat(written).containsExactly(1, 3);
+        assertThat(contribution.getProcessSkipCount()).isEqualTo(1);
+        assertThat(contribution.getFilterCount()).isZero();
+    }
+
+    @Test
+    void rethrowsFirstFailureWithoutSkipPolicy() {
+        ParallelChunkProcessor<Integer, Integer> processor = new ParallelChunkProcessor<>(
+                item -> {
+                    throw new IllegalStateException("fail " + item);
+                },
+                chunk -> {
+                },
+                Executors.newFixedThreadPool(2));
+        StepContribution contribution = MetaDataInstanceFactory.createStepExecution().createStepContribution();
+
+        assertThatThrownBy(() -> processor.process(contribution, Chunk.of(1, 2)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("fail 1");
+    }
+}
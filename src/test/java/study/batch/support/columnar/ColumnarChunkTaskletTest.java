@@ -0,0 +1,102 @@
+package study.batch.support.columnar;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import study.batch.common.Customer;
+import study.batch.common.CustomerColumns;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarChunkTaskletTest {
+
+    @Test
+    void processesColumnsAndMaterializesIntoOriginalItems() throws Exception {
+        List<Customer> input = IntStream.range(0, 25).mapToObj(i -> customer(i, "Name" + (i % 3), 15 + i)).toList();
+        List<Customer> written = new ArrayList<>();
+        ColumnarSchema<Customer> schema = CustomerColumns.schema();
+        ColumnarChunkTasklet<Customer> tasklet = new ColumnarChunkTasklet<>(schema,
+                new ItemColumnarReader<>(new ListItemReader<>(input), schema),
+                List.<ColumnarProcessor>of(CustomerColumns::after20Years, CustomerColumns::assignGroup, ColumnarChunkTaskletTest::filterOdd),
+                null, chunk -> written.addAll(chunk.getItems()), 10);
+        StepContribution contribution = MetaDataInstanceFactory.createStepExecution().createStepContribution();
+
+        while (tasklet.execute(contribution, null) == RepeatStatus.CONTINUABLE) {
+        }
+
+        List<Customer> expected = input.stream().filter(customer -> customer.getId() % 2 == 0).toList();
+        assertThat(written).containsExactlyElementsOf(expected);
+        for (Customer customer : written) {
+            assertThat(customer.getAge()).isEqualTo(35 + customer.getId());
+            assertThat(customer.getGrade()).isEqualTo(Customer.Grade.of(customer.getAge()));
+            assertThat(customer.getName()).isEqualTo("Name" + (customer.getId() % 3));
+        }
+        assertThat(contribution.getReadCount()).isEqualTo(25);
+        assertThat(contribution.getFilterCount()).isEqualTo(12);
+        assertThat(contribution.getWriteCount()).isEqualTo(13);
+    }
+
+    @Test
+    void columnarWriterReceivesColumnsWithoutItems() throws Exception {
+        ColumnarSchema<Customer> schema = CustomerColumns.schema();
+        List<Integer> ages = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        ColumnarReader reader = new ColumnarReader() {
+            private int next;
+
+            @Override
+            public int read(ColumnarChunk chunk) {
+                int count = 0;
+                Dictionary<String> dictionary = chunk.dictionary(CustomerColumns.NAME);
+                while (!chunk.isFull() && next < 7) {
+                    int row = chunk.append();
+                    chunk.ints(CustomerColumns.AGE)[row] = next;
+                    chunk.codes(CustomerColumns.NAME)[row] = dictionary.code(next % 2 == 0 ? "even" : "odd");
+                    next++;
+                    count++;
+                }
+                return count;
+            }
+        };
+        ColumnarChunkTasklet<Customer> tasklet = new ColumnarChunkTasklet<>(schema, reader, List.of(CustomerColumns::addOneAge),
+                chunk -> {
+                    Dictionary<String> dictionary = chunk.dictionary(CustomerColumns.NAME);
+                    for (int row = 0; row < chunk.size(); row++) {
+                        ages.add(chunk.ints(CustomerColumns.AGE)[row]);
+                        names.add(dictionary.value(chunk.codes(CustomerColumns.NAME)[row]));
+                    }
+                    assertThat(dictionary.size()).isLessThanOrEqualTo(2);
+                }, null, 3);
+        StepContribution contribution = MetaDataInstanceFactory.createStepExecution().createStepContribution();
+
+        while (tasklet.execute(contribution, null) == RepeatStatus.CONTINUABLE) {
+        }
+
+        assertThat(ages).containsExactly(1, 2, 3, 4, 5, 6, 7);
+        assertThat(names).containsExactly("even", "odd", "even", "odd", "even", "odd", "even");
+        assertThat(contribution.getWriteCount()).isEqualTo(7);
+    }
+
+    private static void filterOdd(ColumnarChunk chunk) {
+        int[] id = chunk.ints(CustomerColumns.ID);
+        for (int i = 0; i < chunk.size(); i++) {
+            if (id[i] % 2 != 0) {
+                chunk.filter(i);
+            }
+        }
+    }
+
+    private static Customer customer(int id, String name, int age) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setName(name);
+        customer.setAge(age);
+        return customer;
+    }
+}
@@ -0,0 +1,56 @@
+package study.batch.support.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadDataSourceConfigurationTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+                    TransactionAutoConfiguration.class))
+            .withUserConfiguration(ReadDataSourceConfiguration.class)
+            .withPropertyValues("spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.username=sa", "spring.datasource.password=");
+
+    @Test
+    void readersShareThePrimaryDataSourceWithoutReadUrl() {
+        contextRunner.run(context -> {
+            assertThat(context).hasNotFailed();
+            DataSource primary = context.getBean(DataSource.class);
+            DataSource read = context.getBean("sharedReadDataSource", DataSource.class);
+
+            assertThat(read).isSameAs(primary);
+            assertThat(context.getBean(ReadEntityManagerFactory.class).getObject())
+                    .isSameAs(context.getBean(EntityManagerFactory.class));
+        });
+    }
+
+    @Test
+    void readersUseSeparateReadOnlyPoolWithReadUrl() {
+        contextRunner
+                .withPropertyValues("batch.datasource.read.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "batch.datasource.read.maximum-pool-size=2")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    HikariDataSource primary = (HikariDataSource) context.getBean(DataSource.class);
+                    HikariDataSource read = context.getBean("readDataSource", HikariDataSource.class);
+
+                    assertThat(read).isNotSameAs(primary);
+                    assertThat(read.getPoolName()).isEqualTo("batch-read");
+                    assertThat(read.isReadOnly()).isTrue();
+                    assertThat(read.getMaximumPoolSize()).isEqualTo(2);
+                    assertThat(new JdbcTemplate(read).queryForObject("SELECT DATABASE()", String.class)).isEqualToIgnoringCase("replica");
+                    assertThat(context.getBean(ReadEntityManagerFactory.class).getObject())
+                            .isNotSameAs(context.getBean(EntityManagerFactory.class));
+                });
+    }
+}
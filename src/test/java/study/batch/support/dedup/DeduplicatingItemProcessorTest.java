@@ -0,0 +1,71 @@
+package study.batch.support.dedup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeduplicatingItemProcessorTest {
+
+    record Row(String name, int age) {
+    }
+
+    @Test
+    void removesDuplicateKeys() {
+        DeduplicatingItemProcessor<Row> processor = new DeduplicatingItemProcessorBuilder<Row>()
+                .name("rowDedup")
+                .key(Row::name, Row::age)
+                .maxEntries(100)
+                .bloomFilter(0.01)
+                .build();
+
+        assertThat(processor.process(new Row("Alice", 25))).isNotNull();
+        assertThat(processor.process(new Row("Alice", 26))).isNotNull();
+        assertThat(processor.process(new Row("Alice", 25))).isNull();
+    }
+
+    @Test
+    void restoresOnlyCommittedKeysOnRestart(@TempDir Path directory) {
+        Path stateFile = directory.resolve("dedup.state");
+        ExecutionContext executionContext = new ExecutionContext();
+
+        DeduplicatingItemProcessor<Row> first = newProcessor(stateFile);
+        first.open(executionContext);
+        first.process(new Row("Alice", 25));
+        first.update(executionContext);
+        first.process(new Row("Bob", 30));
+        first.close();
+
+        DeduplicatingItemProcessor<Row> restarted = newProcessor(stateFile);
+        restarted.open(executionContext);
+        assertThat(restarted.process(new Row("Alice", 25))).isNull();
+        assertThat(restarted.process(new Row("Bob", 30))).isNotNull();
+        restarted.close();
+    }
+
+    @Test
+    void failsWhenMemoryBudgetIsExceeded() {
+        DeduplicatingItemProcessor<Row> processor = new DeduplicatingItemProcessorBuilder<Row>()
+                .name("rowDedup")
+                .key(Row::name)
+                .maxEntries(2)
+                .build();
+        processor.process(new Row("a", 1));
+        processor.process(new Row("b", 1));
+
+        assertThatThrownBy(() -> processor.process(new Row("c", 1))).isInstanceOf(IllegalStateException.class);
+    }
+
+    private DeduplicatingItemProcessor<Row> newProcessor(Path stateFile) {
+        return new DeduplicatingItemProcessorBuilder<Row>()
+                .name("rowDedup")
+                .keyFields("name", "age")
+                .maxEntries(100)
+                .stateFile(stateFile)
+                .build();
+    }
+}
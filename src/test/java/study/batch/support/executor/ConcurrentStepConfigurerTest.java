@@ -0,0 +1,66 @@
+package study.batch.support.executor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentStepConfigurerTest {
+
+    @Test
+    void concurrentReaderDropsRestartStateWithoutChangingSharedReader() throws Exception {
+        BatchExecutorProperties properties = new BatchExecutorProperties();
+        properties.setSteps(Map.of("concurrentStep", 4));
+        ConcurrentStepConfigurer configurer = new ConcurrentStepConfigurer(properties, null);
+        CountingReader shared = new CountingReader();
+
+        ItemStreamReader<Integer> concurrent = (ItemStreamReader<Integer>) configurer.reader("concurrentStep", shared);
+        ExecutionContext executionContext = new ExecutionContext();
+        concurrent.open(executionContext);
+        concurrent.read();
+        concurrent.read();
+        concurrent.update(executionContext);
+
+        assertThat(executionContext.containsKey("counting.read.count")).isFalse();
+        assertThat(shared.isSaveState()).isTrue();
+
+        ExecutionContext singleThreaded = new ExecutionContext();
+        ItemReader<Integer> reader = configurer.reader("singleStep", shared);
+        assertThat(reader).isSameAs(shared);
+        shared.update(singleThreaded);
+        assertThat(singleThreaded.getInt("counting.read.count")).isEqualTo(2);
+        concurrent.close();
+    }
+
+    static class CountingReader extends AbstractItemCountingItemStreamItemReader<Integer> {
+        private int next;
+
+        CountingReader() {
+            setName("counting");
+            setMaxItemCount(10);
+        }
+
+        @Override
+        protected Integer doRead() {
+            return next++;
+        }
+
+        @Override
+        protected void jumpToItem(int itemIndex) {
+            next = itemIndex;
+        }
+
+        @Override
+        protected void doOpen() {
+        }
+
+        @Override
+        protected void doClose() {
+        }
+    }
+}
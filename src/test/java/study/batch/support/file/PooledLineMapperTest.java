@@ -0,0 +1,81 @@
+package study.batch.support.file;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.file.transform.IncorrectTokenCountException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PooledLineMapperTest {
+
+    static class Row {
+        long no;
+        String name;
+        int age;
+    }
+
+    private final RecordMapper<Row> mapper = (fields, row) -> {
+        row.no = fields.readLong("No");
+        row.name = fields.readString("Name");
+        row.age = fields.readInt("Age");
+    };
+
+    @Test
+    void tokenizesQuotedAndPaddedFields() {
+        ReusableFieldSet fields = new ReusableFieldSet(',', "No", "Name", "Age");
+
+        fields.tokenize("7,\"Kroos, \"\"Toni\"\"\", 34 ");
+        assertThat(fields.readLong(0)).isEqualTo(7);
+        assertThat(fields.readString("Name")).isEqualTo("Kroos, \"Toni\"");
+        assertThat(fields.readInt("Age")).isEqualTo(34);
+
+        fields.tokenize("-1,,0");
+        assertThat(fields.readLong("No")).isEqualTo(-1);
+        assertThat(fields.readString("Name")).isEmpty();
+
+        assertThatThrownBy(() -> fields.tokenize("1,2")).isInstanceOf(IncorrectTokenCountException.class);
+        fields.tokenize("1,a,x");
+        assertThatThrownBy(() -> fields.readInt("Age")).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void reusesInstancesReleasedAfterWrite() throws Exception {
+        ItemPool<Row> pool = new ItemPool<>(Row.class, Row::new, 100);
+        PooledLineMapper<Row> lineMapper = new PooledLineMapper<>(new ReusableFieldSet(',', "No", "Name", "Age"), mapper, pool);
+        ItemPoolListener listener = new ItemPoolListener(pool);
+
+        List<Integer> written = new ArrayList<>();
+        for (int chunk = 0; chunk < 50; chunk++) {
+            Chunk<Row> items = new Chunk<>();
+            for (int i = 0; i < 10; i++) {
+                int no = chunk * 10 + i;
+                Row row = lineMapper.mapLine(no + ",player" + no + "," + (20 + i), no);
+                if (i == 9) {
+                    listener.afterProcess(row, null);
+                    continue;
+                }
+                items.add(row);
+            }
+            items.forEach(row -> written.add((int) row.no));
+            listener.afterWrite(items);
+        }
+
+        assertThat(written).hasSize(450).doesNotHaveDuplicates();
+        assertThat(pool.getCreatedCount()).isEqualTo(10);
+    }
+
+    @Test
+    void releasesInstanceWhenMappingFails() {
+        ItemPool<Row> pool = new ItemPool<>(Row.class, Row::new, 100);
+        PooledLineMapper<Row> lineMapper = new PooledLineMapper<>(new ReusableFieldSet(',', "No", "Name", "Age"), mapper, pool);
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> lineMapper.mapLine("x,name,1", 1)).isInstanceOf(NumberFormatException.class);
+        }
+        assertThat(pool.getCreatedCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,175 @@
+package study.batch.support.flow;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DagJobTest {
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    private EmbeddedDatabase dataSource;
+    private DataSourceTransactionManager transactionManager;
+    private JobRepository jobRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("/org/springframework/batch/core/schema-h2.sql")
+                .build();
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        JobRepositoryFactoryBean factory = new JobRepositoryFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setTransactionManager(transactionManager);
+        factory.afterPropertiesSet();
+        jobRepository = factory.getObject();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void runsIndependentStepsConcurrently() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Step left = step("left", () -> barrier.await(5, TimeUnit.SECONDS));
+        Step right = step("right", () -> barrier.await(5, TimeUnit.SECONDS));
+
+        JobExecution execution = run(new DagJobBuilder("concurrentJob", jobRepository)
+                .step(left)
+                .step(right)
+                .build());
+
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(executed).containsExactlyInAnyOrder("left", "right");
+    }
+
+    @Test
+    void runsStepsAfterTheirDependencies() throws Exception {
+        JobExecution execution = run(new DagJobBuilder("orderedJob", jobRepository)
+                .step(step("report")).dependsOn("customers").consumes("grades")
+                .step(step("customers"))
+                .step(step("grades")).produces("grades").dependsOn("customers")
+                .build());
+
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(executed).containsExactly("customers", "grades", "report");
+    }
+
+    @Test
+    void stopsOnMatchingTransitionWithoutRunningDependents() throws Exception {
+        JobExecution execution = run(new DagJobBuilder("stopJob", jobRepository)
+                .step(failing("load")).on("FAILED").stop()
+                .step(step("report")).dependsOn("load")
+                .build());
+
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.STOPPED);
+        assertThat(executed).containsExactly("load");
+    }
+
+    @Test
+    void followsTransitionsOfStepsReachedByTo() throws Exception {
+        Step recover = failing("recover");
+        Step alert = step("alert");
+
+        JobExecution execution = run(new DagJobBuilder("recoverJob", jobRepository)
+                .step(failing("load")).on("FAILED").to(recover)
+                .step(recover).on("FAILED").to(alert)
+                .build());
+
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(executed).containsExactly("load", "recover", "alert");
+    }
+
+    @Test
+    void runsStepsReachedByToOnlyThroughTheTransition() throws Exception {
+        Step recover = step("recover");
+
+        JobExecution execution = run(new DagJobBuilder("skipRecoverJob", jobRepository)
+                .step(step("load")).on("FAILED").to(recover)
+                .step(recover)
+                .build());
+
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(executed).containsExactly("load");
+    }
+
+    @Test
+    void failsWithoutMatchingTransition() throws Exception {
+        JobExecution execution = run(new DagJobBuilder("failJob", jobRepository)
+                .step(failing("load")).on("COMPLETED").stop()
+                .build());
+
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.FAILED);
+    }
+
+    @Test
+    void rejectsDependenciesOnStepsReachedByTo() {
+        Step recover = step("recover");
+
+        assertThatThrownBy(() -> new DagJobBuilder("invalidJob", jobRepository)
+                .step(step("load")).on("FAILED").to(recover)
+                .step(recover).dependsOn("load")
+                .build())
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DagJobBuilder("invalidJob", jobRepository)
+                .step(step("load")).on("FAILED").to(recover)
+                .step(step("report")).dependsOn("recover")
+                .step(recover)
+                .build())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private JobExecution run(Job job) throws Exception {
+        TaskExecutorJobLauncher launcher = new TaskExecutorJobLauncher();
+        launcher.setJobRepository(jobRepository);
+        launcher.afterPropertiesSet();
+        return launcher.run(job, new JobParameters());
+    }
+
+    private Step step(String name) {
+        return step(name, () -> 0);
+    }
+
+    private Step failing(String name) {
+        return step(name, () -> {
+            throw new IllegalStateException(name + " failed");
+        });
+    }
+
+    private Step step(String name, Callable<?> body) {
+        return new StepBuilder(name, jobRepository)
+                .tasklet((contribution, chunkContext) -> {
+                    executed.add(name);
+                    body.call();
+                    return RepeatStatus.FINISHED;
+                }, transactionManager)
+                .build();
+    }
+}
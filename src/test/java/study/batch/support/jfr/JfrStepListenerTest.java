@@ -0,0 +1,68 @@
+package study.batch.support.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class JfrStepListenerTest {
+    private final JfrStepListener listener = new JfrStepListener();
+    private final ChunkContext chunkContext = new ChunkContext(new StepContext(MetaDataInstanceFactory.createStepExecution()));
+
+    @Test
+    void recordsOnlyEnabledEvents(@TempDir Path directory) throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(BatchReadEvent.class);
+            recording.enable(BatchWriteEvent.class);
+            recording.disable(BatchChunkEvent.class);
+            recording.disable(BatchProcessEvent.class);
+            recording.disable(BatchCommitEvent.class);
+            recording.start();
+            runChunk();
+            recording.stop();
+            Path file = directory.resolve("batch.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        assertThat(events).extracting(event -> event.getEventType().getName())
+                .containsExactly("study.batch.Read", "study.batch.Read", "study.batch.Write");
+        assertThat(events).allSatisfy(event -> assertThat(event.getString("stepName")).isEqualTo("step"));
+        assertThat(events.get(2).getInt("itemCount")).isEqualTo(2);
+    }
+
+    @Test
+    void ignoresCallbacksWithoutRecording() {
+        assertThatCode(() -> {
+            runChunk();
+            listener.afterRead(1);
+            listener.afterChunk(chunkContext);
+        }).doesNotThrowAnyException();
+    }
+
+    private void runChunk() {
+        listener.beforeChunk(chunkContext);
+        for (int item = 1; item <= 2; item++) {
+            listener.beforeRead();
+            listener.afterRead(item);
+            listener.beforeProcess(item);
+            listener.afterProcess(item, item);
+        }
+        Chunk<Integer> items = Chunk.of(1, 2);
+        listener.beforeWrite(items);
+        listener.afterWrite(items);
+        listener.afterChunk(chunkContext);
+    }
+}
@@ -0,0 +1,190 @@
+package study.batch.support.launch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.configuration.support.MapJobRegistry;
+import org.springframework.batch.core.configuration.support.ReferenceJobFactory;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.explore.support.JobExplorerFactoryBean;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WarmJobLauncherTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private EmbeddedDatabase dataSource;
+    private JobExplorer jobExplorer;
+    private LauncherDaemonProperties properties;
+    private WarmJobLauncher launcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("/org/springframework/batch/core/schema-h2.sql")
+                .build();
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        JobRepositoryFactoryBean repositoryFactory = new JobRepositoryFactoryBean();
+        repositoryFactory.setDataSource(dataSource);
+        repositoryFactory.setTransactionManager(transactionManager);
+        repositoryFactory.afterPropertiesSet();
+        JobRepository jobRepository = repositoryFactory.getObject();
+
+        JobExplorerFactoryBean explorerFactory = new JobExplorerFactoryBean();
+        explorerFactory.setDataSource(dataSource);
+        explorerFactory.setTransactionManager(transactionManager);
+        explorerFactory.afterPropertiesSet();
+        jobExplorer = explorerFactory.getObject();
+
+        MapJobRegistry registry = new MapJobRegistry();
+        registry.register(new ReferenceJobFactory(job("blockingJob", jobRepository, transactionManager, (contribution, chunkContext) -> {
+            release.await(10, TimeUnit.SECONDS);
+            return RepeatStatus.FINISHED;
+        })));
+        registry.register(new ReferenceJobFactory(job("failingJob", jobRepository, transactionManager, (contribution, chunkContext) -> {
+            throw new IllegalStateException("boom");
+        })));
+
+        properties = new LauncherDaemonProperties();
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        properties.setDefaultJobConcurrency(5);
+        launcher = new WarmJobLauncher(registry, jobRepository, jobExplorer, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        launcher.destroy();
+        dataSource.shutdown();
+    }
+
+    @Test
+    void rejectsLaunchWhenQueueIsFullAndRestartsItLater() throws Exception {
+        JobExecution running = launcher.launch("blockingJob", parameters("1"));
+        JobExecution queued = launcher.launch("blockingJob", parameters("2"));
+
+        assertThatThrownBy(() -> launcher.launch("blockingJob", parameters("3")))
+                .isInstanceOf(WarmJobLauncher.JobQueueFullException.class);
+
+        release.countDown();
+        await(running, BatchStatus.COMPLETED);
+        await(queued, BatchStatus.COMPLETED);
+        JobExecution restarted = launcher.launch("blockingJob", parameters("3"));
+        await(restarted, BatchStatus.COMPLETED);
+    }
+
+    @Test
+    void quicklyFailingJobIsLaunchedNotRejected() throws Exception {
+        JobExecution execution = launcher.launch("failingJob", parameters("1"));
+
+        await(execution, BatchStatus.FAILED);
+        assertThat(launcher.launch("failingJob", parameters("2"))).isNotNull();
+    }
+
+    @Test
+    void watcherKeepsFileWhileQueueIsFullAndRenamesFailedJobAsLaunched() throws Exception {
+        Path directory = Files.createTempDirectory("spool");
+        JobSpoolDirectoryWatcher watcher = new JobSpoolDirectoryWatcher(launcher, directory, 1000);
+        Path failing = Files.writeString(directory.resolve("failingJob.job"), "run=1\n");
+        watcher.poll();
+        awaitIdle();
+
+        assertThat(failing).doesNotExist();
+        assertThat(directory.resolve("failingJob.job.launched")).exists();
+
+        launcher.launch("blockingJob", parameters("1"));
+        launcher.launch("blockingJob", parameters("2"));
+        Path deferred = Files.writeString(directory.resolve("deferred.job"), "job=blockingJob\nrun=3\n");
+        watcher.poll();
+        assertThat(deferred).exists();
+
+        release.countDown();
+        awaitIdle();
+        watcher.poll();
+        assertThat(deferred).doesNotExist();
+        assertThat(directory.resolve("deferred.job.launched")).exists();
+    }
+
+    @Test
+    void endpointAnswers429OnlyWhenQueueIsFull() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            properties.setPort(socket.getLocalPort());
+        }
+        JobLaunchHttpEndpoint endpoint = new JobLaunchHttpEndpoint(launcher, jobExplorer, properties);
+        endpoint.start();
+        try {
+            assertThat(post("failingJob", "1")).isEqualTo(202);
+            launcher.launch("blockingJob", parameters("1"));
+            assertThat(post("blockingJob", "2")).isEqualTo(202);
+            assertThat(post("blockingJob", "3")).isEqualTo(429);
+            assertThat(post("missingJob", "1")).isEqualTo(404);
+        } finally {
+            endpoint.stop();
+        }
+    }
+
+    private int post(String jobName, String run) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + properties.getPort() + "/jobs/" + jobName + "?run=" + run))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private Properties parameters(String run) {
+        Properties parameters = new Properties();
+        parameters.setProperty("run", run);
+        return parameters;
+    }
+
+    private void await(JobExecution execution, BatchStatus status) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            if (jobExplorer.getJobExecution(execution.getId()).getStatus() == status) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        assertThat(jobExplorer.getJobExecution(execution.getId()).getStatus()).isEqualTo(status);
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        for (int i = 0; i < 500 && (launcher.active() > 0 || launcher.queued() > 0); i++) {
+            Thread.sleep(20);
+        }
+        assertThat(launcher.active() + launcher.queued()).isZero();
+    }
+
+    private static Job job(String name, JobRepository jobRepository, DataSourceTransactionManager transactionManager, Tasklet tasklet) {
+        return new JobBuilder(name, jobRepository)
+                .start(new StepBuilder(name + "Step", jobRepository).tasklet(tasklet, transactionManager).build())
+                .build();
+    }
+}
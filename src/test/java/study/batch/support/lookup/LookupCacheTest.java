@@ -0,0 +1,103 @@
+package study.batch.support.lookup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LookupCacheTest {
+
+    /**
+     * key 0 ~ size-1 의 값이 "v" + key 인 참조 데이터. size 와 다른 count 를 돌려줄 수 있다.
+     */
+    static class CountingSource implements LookupSource<String> {
+        private final int size;
+        private final long count;
+        private final AtomicInteger finds = new AtomicInteger();
+
+        CountingSource(int size, long count) {
+            this.size = size;
+            this.count = count;
+        }
+
+        @Override
+        public long count() {
+            return count;
+        }
+
+        @Override
+        public void loadAll(Sink<String> sink) {
+            for (int key = 0; key < size; key++) {
+                sink.put(key, "v" + key);
+            }
+        }
+
+        @Override
+        public String find(long key) {
+            finds.incrementAndGet();
+            return key < size ? "v" + key : null;
+        }
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+
+    @Test
+    void preloadsSmallTablesAndNeverQueriesPerItem() {
+        CountingSource source = new CountingSource(5_000, 5_000);
+        LookupCache<String> cache = new LookupCache<>("test", source, 10_000, 100, registry);
+
+        cache.beforeStep(stepExecution);
+        assertThat(cache.isPreloaded()).isTrue();
+        for (int i = 0; i < 20_000; i++) {
+            assertThat(cache.get(i % 5_000)).isEqualTo("v" + (i % 5_000));
+        }
+        assertThat(cache.get(99_999)).isNull();
+
+        assertThat(source.finds.get()).isZero();
+        assertThat(cache.getHits()).isEqualTo(20_000);
+        assertThat(cache.getMisses()).isEqualTo(1);
+
+        cache.afterStep(stepExecution);
+        assertThat(registry.get("batch.lookup").tag("result", "hit").counter().count()).isEqualTo(20_000);
+        assertThat(cache.isPreloaded()).isFalse();
+    }
+
+    @Test
+    void fallsBackToReadThroughWithLruWhenTableIsTooLarge() {
+        CountingSource source = new CountingSource(1_000, 1_000);
+        LookupCache<String> cache = new LookupCache<>("test", source, 100, 2, registry);
+
+        cache.beforeStep(stepExecution);
+        assertThat(cache.isPreloaded()).isFalse();
+
+        cache.get(1);
+        cache.get(2);
+        cache.get(1);
+        cache.get(3);
+        cache.get(1);
+        cache.get(2);
+        assertThat(source.finds.get()).isEqualTo(4);
+        assertThat(cache.getHitRate()).isEqualTo(2.0 / 6);
+
+        assertThat(cache.get(5_000)).isNull();
+        assertThat(cache.get(5_000)).isNull();
+        assertThat(source.finds.get()).isEqualTo(5);
+    }
+
+    @Test
+    void stopsPreloadingWhenCountIsStale() {
+        CountingSource source = new CountingSource(1_000, 10);
+        LookupCache<String> cache = new LookupCache<>("test", source, 100, 10, registry);
+
+        cache.beforeStep(stepExecution);
+
+        assertThat(cache.isPreloaded()).isFalse();
+        assertThat(cache.get(500)).isEqualTo("v500");
+        assertThat(source.finds.get()).isEqualTo(1);
+    }
+}
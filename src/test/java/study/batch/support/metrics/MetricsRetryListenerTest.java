@@ -0,0 +1,99 @@
+package study.batch.support.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.retry.support.RetryTemplate;
+import study.batch.support.chunk.ParallelChunkStepBuilder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricsRetryListenerTest {
+    private EmbeddedDatabase dataSource;
+    private DataSourceTransactionManager transactionManager;
+    private JobRepository jobRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("/org/springframework/batch/core/schema-h2.sql")
+                .build();
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        JobRepositoryFactoryBean factory = new JobRepositoryFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setTransactionManager(transactionManager);
+        factory.afterPropertiesSet();
+        jobRepository = factory.getObject();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void countsRetriesOfParallelProcessWithStepTags() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Set<Integer> failedOnce = ConcurrentHashMap.newKeySet();
+
+        TaskExecutorJobLauncher launcher = new TaskExecutorJobLauncher();
+        launcher.setJobRepository(jobRepository);
+        launcher.afterPropertiesSet();
+        JobExecution execution = launcher.run(new JobBuilder("retryJob", jobRepository)
+                .start(new ParallelChunkStepBuilder<Integer, Integer>("retryStep", jobRepository)
+                        .chunk(4, transactionManager)
+                        .reader(new ListItemReader<>(List.of(1, 2, 3, 4, 5, 6)))
+                        .processor(item -> {
+                            if (item % 2 == 0 && failedOnce.add(item)) {
+                                throw new IllegalStateException("flaky " + item);
+                            }
+                            return item;
+                        })
+                        .writer(chunk -> {
+                        })
+                        .executor(Executors.newFixedThreadPool(2))
+                        .retryOperations(RetryTemplate.builder().maxAttempts(2).build())
+                        .listener(new MetricsRetryListener(registry))
+                        .build())
+                .build(), new JobParameters());
+
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(registry.get("batch.step.retries")
+                .tags("job.name", "retryJob", "step.name", "retryStep", "exception", "IllegalStateException")
+                .counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void rejectsRetryListenerWithoutRetryTemplate() {
+        ParallelChunkStepBuilder<Integer, Integer> builder = new ParallelChunkStepBuilder<Integer, Integer>("retryStep", jobRepository)
+                .chunk(4, transactionManager)
+                .reader(new ListItemReader<>(List.of(1)))
+                .writer(chunk -> {
+                })
+                .listener(new MetricsRetryListener(new SimpleMeterRegistry()));
+
+        assertThatThrownBy(builder::build).isInstanceOf(IllegalArgumentException.class);
+    }
+}
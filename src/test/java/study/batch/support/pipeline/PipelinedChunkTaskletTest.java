@@ -0,0 +1,119 @@
+package study.batch.support.pipeline;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PipelinedChunkTaskletTest {
+
+    @Test
+    void writesProcessedChunksInReadOrder() throws Exception {
+        List<Integer> written = new ArrayList<>();
+        PipelinedChunkTasklet<Integer, Integer> tasklet = new PipelinedChunkTasklet<>("pipelined", new CountingReader(95),
+                item -> item % 10 == 0 ? null : item * 2, chunk -> written.addAll(chunk.getItems()), 10, 4, 2);
+        StepContribution contribution = MetaDataInstanceFactory.createStepExecution().createStepContribution();
+
+        ExecutionContext executionContext = new ExecutionContext();
+        tasklet.open(executionContext);
+        while (tasklet.execute(contribution, null) == RepeatStatus.CONTINUABLE) {
+            tasklet.update(executionContext);
+        }
+        tasklet.update(executionContext);
+        tasklet.close();
+
+        assertThat(written).isEqualTo(IntStream.range(0, 95).filter(i -> i % 10 != 0).map(i -> i * 2).boxed().toList());
+        assertThat(contribution.getReadCount()).isEqualTo(95);
+        assertThat(contribution.getFilterCount()).isEqualTo(10);
+        assertThat(contribution.getWriteCount()).isEqualTo(85);
+    }
+
+    @Test
+    void restartsAfterLastWrittenChunkEvenThoughReaderRanAhead() throws Exception {
+        List<Integer> written = new ArrayList<>();
+        ItemWriter<Integer> failOnThirdChunk = chunk -> {
+            if (chunk.getItems().contains(20)) {
+                throw new IllegalStateException("write failed");
+            }
+            written.addAll(chunk.getItems());
+        };
+        StepContribution contribution = MetaDataInstanceFactory.createStepExecution().createStepContribution();
+        ExecutionContext executionContext = new ExecutionContext();
+
+        PipelinedChunkTasklet<Integer, Integer> first = new PipelinedChunkTasklet<>("pipelined", new CountingReader(50),
+                null, failOnThirdChunk, 10, 1, 3);
+        first.open(executionContext);
+        first.execute(contribution, null);
+        first.update(executionContext);
+        first.execute(contribution, null);
+        first.update(executionContext);
+        assertThatThrownBy(() -> first.execute(contribution, null)).hasMessage("write failed");
+        first.close();
+        assertThat(executionContext.getInt("reader.read.count")).isEqualTo(20);
+
+        PipelinedChunkTasklet<Integer, Integer> restarted = new PipelinedChunkTasklet<>("pipelined", new CountingReader(50),
+                null, chunk -> written.addAll(chunk.getItems()), 10, 1, 3);
+        restarted.open(executionContext);
+        while (restarted.execute(contribution, null) == RepeatStatus.CONTINUABLE) {
+            restarted.update(executionContext);
+        }
+        restarted.close();
+
+        assertThat(written).isEqualTo(IntStream.range(0, 50).boxed().toList());
+    }
+
+    @Test
+    @Timeout(10)
+    void propagatesErrorOfReaderThread() throws Exception {
+        ItemReader<Integer> reader = () -> {
+            throw new StackOverflowError("read failed");
+        };
+        PipelinedChunkTasklet<Integer, Integer> tasklet = new PipelinedChunkTasklet<>("pipelined", reader, null, chunk -> {
+        }, 10, 1, 2);
+        StepContribution contribution = MetaDataInstanceFactory.createStepExecution().createStepContribution();
+
+        tasklet.open(new ExecutionContext());
+        try {
+            assertThatThrownBy(() -> tasklet.execute(contribution, null))
+                    .isInstanceOf(StackOverflowError.class)
+                    .hasMessage("read failed");
+        } finally {
+            tasklet.close();
+        }
+    }
+
+    static class CountingReader extends AbstractItemCountingItemStreamItemReader<Integer> {
+        private final int size;
+        private int next;
+
+        CountingReader(int size) {
+            this.size = size;
+            setName("reader");
+        }
+
+        @Override
+        protected Integer doRead() {
+            return next < size ? next++ : null;
+        }
+
+        @Override
+        protected void doOpen() {
+        }
+
+        @Override
+        protected void doClose() {
+        }
+    }
+}
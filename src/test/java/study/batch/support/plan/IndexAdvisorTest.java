@@ -0,0 +1,38 @@
+package study.batch.support.plan;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexAdvisorTest {
+
+    @Test
+    void putsOrderByBeforeRangeAndCoversSelectedColumns() {
+        IndexAdvisor.Suggestion suggestion = IndexAdvisor.suggest(
+                "SELECT ID, NAME, AGE, GENDER FROM CUSTOMER WHERE AGE >= ? ORDER BY id DESC LIMIT 10");
+
+        assertThat(suggestion.ddl()).isEqualTo("CREATE INDEX IDX_CUSTOMER_ID_AGE_NAME_GENDER ON CUSTOMER (ID DESC, AGE, NAME, GENDER)");
+    }
+
+    @Test
+    void stripsAliasesOfGeneratedSql() {
+        IndexAdvisor.Suggestion suggestion = IndexAdvisor.suggest(
+                "select c1_0.id,c1_0.age,c1_0.grade from customer c1_0 where c1_0.grade=? and c1_0.age>? order by c1_0.id fetch first ? rows only");
+
+        assertThat(suggestion.table()).isEqualTo("customer");
+        assertThat(suggestion.columns()).containsExactly("GRADE", "ID", "AGE");
+        assertThat(suggestion.indexName()).isEqualTo("IDX_CUSTOMER_GRADE_ID_AGE");
+    }
+
+    @Test
+    void skipsCoveringColumnsForSelectAll() {
+        IndexAdvisor.Suggestion suggestion = IndexAdvisor.suggest("SELECT * FROM CUSTOMER WHERE AGE > ?");
+
+        assertThat(suggestion.columns()).containsExactly("AGE");
+    }
+
+    @Test
+    void suggestsNothingWithoutConditionOrOrder() {
+        assertThat(IndexAdvisor.suggest("SELECT id, name FROM CUSTOMER LIMIT ?, ?")).isNull();
+    }
+}
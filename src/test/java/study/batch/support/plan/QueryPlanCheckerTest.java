@@ -0,0 +1,61 @@
+package study.batch.support.plan;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryPlanCheckerTest {
+    private static final String SQL = "SELECT ID, NAME FROM CUSTOMER WHERE GRADE = ? ORDER BY ID";
+
+    private EmbeddedDatabase dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .build();
+        new JdbcTemplate(dataSource).execute("CREATE TABLE CUSTOMER (ID INT PRIMARY KEY, NAME VARCHAR(100), AGE INT, GRADE VARCHAR(10))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void reportsFullScanAndSuggestsIndex() throws Exception {
+        QueryPlan plan = new QueryPlanChecker(dataSource, false).check(query());
+
+        assertThat(plan.problems()).contains(QueryPlanChecker.FULL_SCAN + "(PUBLIC.CUSTOMER)");
+        assertThat(plan.suggestedIndex()).isEqualTo("CREATE INDEX IDX_CUSTOMER_GRADE_ID_NAME ON CUSTOMER (GRADE, ID, NAME)");
+        assertThat(plan.plan()).contains("PRIMARY_KEY");
+    }
+
+    @Test
+    void createsSuggestedIndexAndExplainsAgain() throws Exception {
+        QueryPlan plan = new QueryPlanChecker(dataSource, true).check(query());
+
+        // H2 는 equality 컬럼 뒤의 ORDER BY 를 index 로 정렬하지 않으므로 FILESORT 는 남는다.
+        assertThat(plan.problems()).noneMatch(problem -> problem.startsWith(QueryPlanChecker.FULL_SCAN));
+        assertThat(plan.plan()).contains("IDX_CUSTOMER_GRADE_ID_NAME: GRADE = ?1");
+    }
+
+    @Test
+    void ignoresFullScanWithoutCondition() throws Exception {
+        QueryPlan plan = new QueryPlanChecker(dataSource, false)
+                .check(new ReaderQuery("all", dataSource, () -> ReaderQueries.jdbc("SELECT ID, NAME FROM CUSTOMER")));
+
+        assertThat(plan.hasProblems()).isFalse();
+    }
+
+    private ReaderQuery query() {
+        return new ReaderQuery("customerReader", dataSource, () -> ReaderQueries.jdbc(SQL, "A"));
+    }
+}
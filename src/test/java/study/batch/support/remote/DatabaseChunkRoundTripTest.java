@@ -0,0 +1,169 @@
+package study.batch.support.remote;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatabaseChunkRoundTripTest {
+    private static final String QUEUE = "roundTrip";
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private EmbeddedDatabase dataSource;
+    private DataSourceTransactionManager transactionManager;
+    private RemoteChunkRepository repository;
+    private JobRepository jobRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("/org/springframework/batch/core/schema-h2.sql")
+                .addScript("remote/schema-remote-chunk.sql")
+                .build();
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        repository = new RemoteChunkRepository(dataSource);
+
+        JobRepositoryFactoryBean factory = new JobRepositoryFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setTransactionManager(transactionManager);
+        factory.afterPropertiesSet();
+        jobRepository = factory.getObject();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void failedRemoteChunkFailsStepAndIsRequeuedOnRestart() throws Exception {
+        AtomicBoolean broken = new AtomicBoolean(true);
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        DatabaseChunkWorker<Integer, Integer> worker = new DatabaseChunkWorker<>(repository, transactionManager, QUEUE,
+                item -> {
+                    if (broken.get() && item == 7) {
+                        throw new IllegalStateException("poison item");
+                    }
+                    return item % 5 == 0 ? null : item;
+                },
+                chunk -> written.addAll(chunk.getItems()), POLL_INTERVAL);
+        JobParameters jobParameters = new JobParametersBuilder().addLong("run", 1L).toJobParameters();
+
+        worker.start();
+        try {
+            JobExecution first = launch(jobParameters);
+            StepExecution firstStep = first.getStepExecutions().iterator().next();
+            assertThat(first.getStatus()).isEqualTo(BatchStatus.FAILED);
+            assertThat(firstStep.getStatus()).isEqualTo(BatchStatus.FAILED);
+            assertThat(firstStep.getExitStatus().getExitDescription()).contains("1 remote chunks failed");
+
+            broken.set(false);
+            JobExecution restarted = launch(jobParameters);
+            StepExecution restartedStep = restarted.getStepExecutions().iterator().next();
+            assertThat(restarted.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+            assertThat(restartedStep.getReadCount()).isZero();
+            assertThat(restartedStep.getWriteCount()).isEqualTo(16);
+            assertThat(restartedStep.getFilterCount()).isEqualTo(4);
+        } finally {
+            worker.stop();
+        }
+
+        assertThat(written).containsExactlyInAnyOrder(1, 2, 3, 4, 6, 7, 8, 9, 11, 12, 13, 14, 16, 17, 18, 19);
+        assertThat(new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM BATCH_REMOTE_CHUNK", Integer.class)).isZero();
+    }
+
+    @Test
+    void unreadablePayloadIsMarkedFailedInsteadOfRetriedForever() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO BATCH_REMOTE_CHUNK (QUEUE_NAME, JOB_INSTANCE_ID, STEP_NAME, STATUS, ITEM_COUNT, PAYLOAD) VALUES (?, ?, ?, ?, ?, ?)",
+                QUEUE, 1L, "remoteStep", RemoteChunkRepository.PENDING, 1, new byte[]{1, 2, 3});
+        DatabaseChunkWorker<Integer, Integer> worker = new DatabaseChunkWorker<>(repository, transactionManager, QUEUE,
+                null, chunk -> {
+                }, POLL_INTERVAL);
+
+        assertThat(worker.processNext()).isTrue();
+        assertThat(worker.processNext()).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT STATUS FROM BATCH_REMOTE_CHUNK", String.class)).isEqualTo(RemoteChunkRepository.FAILED);
+    }
+
+    @Test
+    void lateFailureDoesNotOverwriteCompletedChunk() {
+        repository.send(QUEUE, 1L, "remoteStep", List.of(1, 2));
+        long chunkId = repository.claim(QUEUE).orElseThrow();
+
+        assertThat(repository.complete(chunkId, "worker1", 2, 0)).isTrue();
+        assertThat(repository.fail(chunkId, "worker2", new IllegalStateException("late"))).isFalse();
+        assertThat(repository.complete(chunkId, "worker2", 2, 0)).isFalse();
+        assertThat(new JdbcTemplate(dataSource).queryForObject("SELECT STATUS FROM BATCH_REMOTE_CHUNK WHERE CHUNK_ID = ?", String.class, chunkId))
+                .isEqualTo(RemoteChunkRepository.DONE);
+    }
+
+    private JobExecution launch(JobParameters jobParameters) throws Exception {
+        DatabaseChunkItemWriter<Integer> writer = new DatabaseChunkItemWriter<>(repository, QUEUE, POLL_INTERVAL, Duration.ofSeconds(30));
+        Job job = new JobBuilder("remoteJob", jobRepository)
+                .start(new StepBuilder("remoteStep", jobRepository)
+                        .<Integer, Integer>chunk(5, transactionManager)
+                        .reader(new CountingReader(20))
+                        .writer(writer)
+                        .listener(writer)
+                        .build())
+                .build();
+
+        TaskExecutorJobLauncher launcher = new TaskExecutorJobLauncher();
+        launcher.setJobRepository(jobRepository);
+        launcher.afterPropertiesSet();
+        return launcher.run(job, jobParameters);
+    }
+
+    static class CountingReader extends AbstractItemCountingItemStreamItemReader<Integer> {
+        private int next;
+
+        CountingReader(int size) {
+            setName("counting");
+            setMaxItemCount(size);
+        }
+
+        @Override
+        protected Integer doRead() {
+            return next++;
+        }
+
+        @Override
+        protected void jumpToItem(int itemIndex) {
+            next = itemIndex;
+        }
+
+        @Override
+        protected void doOpen() {
+        }
+
+        @Override
+        protected void doClose() {
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package study.batch.support.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.repository.dao.DefaultExecutionContextSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryExecutionContextSerializerTest {
+    private final BinaryExecutionContextSerializer serializer = new BinaryExecutionContextSerializer();
+
+    @Test
+    void roundTripsTaggedValues() throws Exception {
+        Map<String, Object> context = new HashMap<>();
+        context.put("customerJdbcReader.read.count", 120);
+        context.put("playerFlatFileItemReader.read.count.max", 9_000_000_000L);
+        context.put("batch.taskletType", "org.springframework.batch.core.step.item.ChunkOrientedTasklet");
+        context.put("done", true);
+        context.put("ratio", 0.5d);
+        context.put("date", LocalDate.of(2024, 1, 1));
+
+        assertThat(roundTrip(context)).isEqualTo(context);
+    }
+
+    @Test
+    void compressesLargeContexts() throws Exception {
+        Map<String, Object> context = new HashMap<>();
+        context.put("large", "x".repeat(10_000));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(context, out);
+
+        assertThat(out.size()).isLessThan(1_000);
+        assertThat(serializer.deserialize(new ByteArrayInputStream(out.toByteArray()))).isEqualTo(context);
+    }
+
+    @Test
+    void readsRowsWrittenByDefaultSerializer() throws Exception {
+        Map<String, Object> context = new HashMap<>();
+        context.put("customerJdbcReader.read.count", 10);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new DefaultExecutionContextSerializer().serialize(context, out);
+
+        assertThat(serializer.deserialize(new ByteArrayInputStream(out.toByteArray()))).isEqualTo(context);
+    }
+
+    private Map<String, Object> roundTrip(Map<String, Object> context) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(context, out);
+        return serializer.deserialize(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
@@ -0,0 +1,98 @@
+package study.batch.support.routing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoutingFileItemWriterTest {
+    @TempDir
+    Path directory;
+
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(new ResourcelessTransactionManager());
+
+    private RoutingFileItemWriter<Integer, String> writer() {
+        return new RoutingFileItemWriterBuilder<Integer, String>()
+                .name("numbers")
+                .classifier(number -> number % 2 == 0 ? "even" : "odd")
+                .keys("even", "odd")
+                .path(key -> directory.resolve(key + ".txt"))
+                .lineAggregator(String::valueOf)
+                .header(key -> key.toUpperCase())
+                .lineSeparator("\n")
+                .build();
+    }
+
+    private void writeInTransaction(RoutingFileItemWriter<Integer, String> writer, ExecutionContext executionContext, boolean rollback, Integer... items) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                writer.write(new Chunk<>(List.of(items)));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            writer.update(executionContext);
+            if (rollback) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    @Test
+    void routesItemsAndFlushesOnlyCommittedChunks() throws Exception {
+        RoutingFileItemWriter<Integer, String> writer = writer();
+        ExecutionContext executionContext = new ExecutionContext();
+        writer.open(executionContext);
+
+        writeInTransaction(writer, executionContext, false, 1, 2, 3, 4);
+        writeInTransaction(writer, executionContext, true, 5, 6);
+        writeInTransaction(writer, executionContext, false, 7, 8);
+        writer.close();
+
+        assertThat(Files.readAllLines(directory.resolve("even.txt"))).containsExactly("EVEN", "2", "4", "8");
+        assertThat(Files.readAllLines(directory.resolve("odd.txt"))).containsExactly("ODD", "1", "3", "7");
+    }
+
+    @Test
+    void restartsFromCommittedPositions() throws Exception {
+        RoutingFileItemWriter<Integer, String> writer = writer();
+        ExecutionContext executionContext = new ExecutionContext();
+        writer.open(executionContext);
+        writeInTransaction(writer, executionContext, false, 1, 2);
+        ExecutionContext committed = new ExecutionContext(executionContext);
+        writeInTransaction(writer, executionContext, false, 3, 4);
+        writer.close();
+
+        RoutingFileItemWriter<Integer, String> restarted = writer();
+        restarted.open(committed);
+        writeInTransaction(restarted, committed, false, 5, 6);
+        restarted.close();
+
+        assertThat(Files.readAllLines(directory.resolve("even.txt"))).containsExactly("EVEN", "2", "6");
+        assertThat(Files.readAllLines(directory.resolve("odd.txt"))).containsExactly("ODD", "1", "5");
+    }
+
+    @Test
+    void rejectsUnknownKeys() {
+        RoutingFileItemWriter<Integer, String> writer = new RoutingFileItemWriterBuilder<Integer, String>()
+                .name("numbers")
+                .classifier(number -> number % 2 == 0 ? "even" : "odd")
+                .keys("even")
+                .path(key -> directory.resolve(key + ".txt"))
+                .lineAggregator(String::valueOf)
+                .build();
+        writer.open(new ExecutionContext());
+
+        assertThatThrownBy(() -> writer.write(new Chunk<>(List.of(1))))
+                .isInstanceOf(IllegalArgumentException.class);
+        writer.close();
+    }
+}
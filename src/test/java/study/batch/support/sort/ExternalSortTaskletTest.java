@@ -0,0 +1,112 @@
+package study.batch.support.sort;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExternalSortTaskletTest {
+
+    @Test
+    void sortsThroughSpilledRunsAndMergePasses(@TempDir Path directory) throws Exception {
+        List<Integer> input = randomNumbers(1000);
+        List<Integer> written = new ArrayList<>();
+        ExternalSortTasklet<Integer, Integer> tasklet = newTasklet(input, written, directory);
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+        StepContribution contribution = stepExecution.createStepContribution();
+
+        ExecutionContext executionContext = new ExecutionContext();
+        tasklet.open(executionContext);
+        while (tasklet.execute(contribution, null) == RepeatStatus.CONTINUABLE) {
+            tasklet.update(executionContext);
+        }
+        tasklet.close();
+        stepExecution.setStatus(BatchStatus.COMPLETED);
+        tasklet.afterStep(stepExecution);
+
+        assertThat(written).isEqualTo(input.stream().sorted().toList());
+        assertThat(contribution.getReadCount()).isEqualTo(1000);
+        assertThat(contribution.getWriteCount()).isEqualTo(1000);
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    void restartsFromLastMergePosition(@TempDir Path directory) throws Exception {
+        List<Integer> input = randomNumbers(500);
+        List<Integer> written = new ArrayList<>();
+        StepContribution contribution = MetaDataInstanceFactory.createStepExecution().createStepContribution();
+        ExecutionContext executionContext = new ExecutionContext();
+
+        ExternalSortTasklet<Integer, Integer> first = newTasklet(input, written, directory);
+        first.open(executionContext);
+        while (written.size() < 200) {
+            first.execute(contribution, null);
+            first.update(executionContext);
+        }
+        first.close();
+
+        // 재시작 시 read 는 다시 하지 않는다.
+        ExternalSortTasklet<Integer, Integer> restarted = newTasklet(List.of(), written, directory);
+        restarted.open(executionContext);
+        while (restarted.execute(contribution, null) == RepeatStatus.CONTINUABLE) {
+            restarted.update(executionContext);
+        }
+        restarted.close();
+
+        assertThat(written).isEqualTo(input.stream().sorted().toList());
+    }
+
+    @Test
+    void keepsMergedRunsUntilTheNextCommit(@TempDir Path directory) throws Exception {
+        List<Integer> input = randomNumbers(500);
+        List<Integer> written = new ArrayList<>();
+        StepContribution contribution = MetaDataInstanceFactory.createStepExecution().createStepContribution();
+        ExecutionContext executionContext = new ExecutionContext();
+
+        // 64 건씩 8 개의 run 을 내려쓰고 첫 merge pass 까지 진행한 뒤, 그 commit 이 실패한 것처럼 멈춘다.
+        ExternalSortTasklet<Integer, Integer> first = newTasklet(input, written, directory);
+        first.open(executionContext);
+        for (int i = 0; i < 8; i++) {
+            first.execute(contribution, null);
+            first.update(executionContext);
+        }
+        first.execute(contribution, null);
+        first.close();
+
+        String committedRuns = executionContext.getString("sortTest.runs");
+        assertThat(committedRuns.split("\n")).hasSize(8).allSatisfy(run -> assertThat(Path.of(run)).exists());
+
+        ExternalSortTasklet<Integer, Integer> restarted = newTasklet(List.of(), written, directory);
+        restarted.open(executionContext);
+        while (restarted.execute(contribution, null) == RepeatStatus.CONTINUABLE) {
+            restarted.update(executionContext);
+        }
+        restarted.close();
+
+        assertThat(written).isEqualTo(input.stream().sorted().toList());
+    }
+
+    private ExternalSortTasklet<Integer, Integer> newTasklet(List<Integer> input, List<Integer> written, Path directory) {
+        return new ExternalSortTasklet<>("sortTest", new ListItemReader<>(input), null, chunk -> written.addAll(chunk.getItems()),
+                Integer::longValue, Comparator.naturalOrder(), 64, 4, 50, directory);
+    }
+
+    private List<Integer> randomNumbers(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        return IntStream.range(0, count).map(i -> random.nextInt(10_000)).boxed().toList();
+    }
+}
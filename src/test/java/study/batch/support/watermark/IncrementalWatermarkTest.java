@@ -0,0 +1,131 @@
+package study.batch.support.watermark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalWatermarkTest {
+    private static final String NAME = "customerStep";
+    private static final Timestamp OLD = Timestamp.valueOf("2024-01-01 10:00:00");
+    private static final Timestamp NEWER = Timestamp.valueOf("2024-01-02 10:00:00");
+
+    private EmbeddedDatabase dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private WatermarkStore store;
+    private IncrementalWatermark watermark;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("generator/schema-customer.sql")
+                .addScript("watermark/schema-watermark.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        store = new WatermarkStore(dataSource);
+        watermark = new IncrementalWatermark(NAME, store, dataSource, "CUSTOMER", "UPDATED_AT", WatermarkType.TIMESTAMP, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void readsUpToTheLatestRowOlderThanLag() {
+        insert(1, OLD);
+        insert(2, NEWER);
+        insert(3, Timestamp.valueOf(LocalDateTime.now()));
+        store.advance(NAME, OLD.toString());
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+
+        watermark.beforeStep(stepExecution);
+
+        assertThat(watermark.parameters(stepExecution))
+                .containsEntry(IncrementalWatermark.FROM, OLD)
+                .containsEntry(IncrementalWatermark.TO, NEWER);
+    }
+
+    @Test
+    void keepsRangeWhenOnlyRowsWithinLagChanged() {
+        insert(1, Timestamp.valueOf(LocalDateTime.now()));
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+
+        watermark.beforeStep(stepExecution);
+
+        Timestamp minimum = Timestamp.valueOf(WatermarkType.TIMESTAMP.minimum());
+        assertThat(watermark.parameters(stepExecution))
+                .containsEntry(IncrementalWatermark.FROM, minimum)
+                .containsEntry(IncrementalWatermark.TO, minimum);
+    }
+
+    @Test
+    void advancesOnlyAfterTheReaderIsExhausted() throws Exception {
+        insert(1, OLD);
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        watermark.beforeStep(stepExecution);
+        ItemStreamReader<Integer> reader = watermark.reader(new IteratorReader(List.of(1, 2)));
+
+        reader.open(executionContext);
+        assertThat(reader.read()).isEqualTo(1);
+        assertThat(reader.read()).isEqualTo(2);
+        reader.update(executionContext);
+        assertThat(store.get(NAME)).isNull();
+
+        assertThat(reader.read()).isNull();
+        reader.update(executionContext);
+        reader.close();
+
+        assertThat(Timestamp.valueOf(store.get(NAME))).isEqualTo(OLD);
+    }
+
+    @Test
+    void restartKeepsTheFirstRange() {
+        insert(1, OLD);
+        StepExecution first = MetaDataInstanceFactory.createStepExecution();
+        watermark.beforeStep(first);
+
+        insert(2, NEWER);
+        StepExecution restarted = MetaDataInstanceFactory.createStepExecution();
+        restarted.setExecutionContext(new ExecutionContext(first.getExecutionContext()));
+        watermark.beforeStep(restarted);
+
+        assertThat(watermark.parameters(restarted)).isEqualTo(watermark.parameters(first));
+        assertThat(watermark.parameters(restarted)).containsEntry(IncrementalWatermark.TO, OLD);
+    }
+
+    private void insert(int id, Timestamp updatedAt) {
+        jdbcTemplate.update("INSERT INTO CUSTOMER (ID, NAME, UPDATED_AT) VALUES (?, ?, ?)", id, "customer" + id, updatedAt);
+    }
+
+    static class IteratorReader implements ItemStreamReader<Integer> {
+        private final Iterator<Integer> items;
+
+        IteratorReader(List<Integer> items) {
+            this.items = items.iterator();
+        }
+
+        @Override
+        public Integer read() {
+            return items.hasNext() ? items.next() : null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package study.batch.week9;
+
+import com.querydsl.core.types.Predicate;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import study.batch.common.Customer;
+import study.batch.common.QCustomer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QuerydslPagingItemReaderTest {
+    private static final QCustomer customer = QCustomer.customer;
+
+    private EmbeddedDatabase dataSource;
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManagerFactory emf;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("generator/schema-customer.sql")
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int id = 1; id <= 10; id++) {
+            jdbcTemplate.update("INSERT INTO CUSTOMER (ID, NAME, AGE, GRADE) VALUES (?, ?, ?, ?)", id, "customer" + id, 20 + id, "A");
+        }
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("study.batch.common");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.generate_statistics", "true"));
+        factoryBean.afterPropertiesSet();
+        emf = factoryBean.getObject();
+    }
+
+    @AfterEach
+    void tearDown() {
+        factoryBean.destroy();
+        dataSource.shutdown();
+    }
+
+    @Test
+    void resumesFromTheSavedKeyWithOneQuery() throws Exception {
+        ExecutionContext executionContext = new ExecutionContext();
+        QuerydslPagingItemReader<Customer> first = reader(customer.age.goe(20));
+        first.open(executionContext);
+        assertThat(read(first, 4)).containsExactly(1, 2, 3, 4);
+        first.update(executionContext);
+        first.close();
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        QuerydslPagingItemReader<Customer> restarted = reader(customer.age.goe(20));
+        restarted.open(executionContext);
+
+        assertThat(restarted.read().getId()).isEqualTo(5);
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(statistics.getQueries()).singleElement().asString().contains("customer.id > ?").doesNotContain("offset");
+        assertThat(read(restarted, 10)).containsExactly(6, 7, 8, 9, 10);
+        restarted.close();
+    }
+
+    @Test
+    void rejectsRestartWithChangedQuery() throws Exception {
+        ExecutionContext executionContext = new ExecutionContext();
+        QuerydslPagingItemReader<Customer> first = reader(customer.age.goe(20));
+        first.open(executionContext);
+        read(first, 2);
+        first.update(executionContext);
+        first.close();
+
+        QuerydslPagingItemReader<Customer> changed = reader(customer.age.goe(30));
+        assertThatThrownBy(() -> changed.open(executionContext))
+                .isInstanceOf(ItemStreamException.class)
+                .hasMessageContaining("changed");
+    }
+
+    private QuerydslPagingItemReader<Customer> reader(Predicate predicate) {
+        return new QuerydslPagingItemReaderBuilder<Customer>()
+                .name("customerReader")
+                .entityManagerFactory(emf)
+                .chunkSize(3)
+                .querySupplier(queryFactory -> queryFactory.selectFrom(customer).where(predicate))
+                .sortKey(customer.id, Customer::getId)
+                .build();
+    }
+
+    private List<Integer> read(QuerydslPagingItemReader<Customer> reader, int count) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Customer item = reader.read();
+            if (item == null) {
+                break;
+            }
+            ids.add(item.getId());
+        }
+        return ids;
+    }
+}